@@ -4,6 +4,7 @@ plugins {
     id("org.sonarqube") version "6.0.1.5171"
     id("org.springframework.boot") version "3.4.4"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 tasks.bootJar {
@@ -53,6 +54,9 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("io.micrometer:micrometer-registry-prometheus:${prometheusVersion}")
 
+    // Caching dependencies
+    implementation("com.github.ben-manes.caffeine:caffeine")
+
     
     // Database dependencies
     runtimeOnly("org.postgresql:postgresql:${postgresqlVersion}")
@@ -73,6 +77,10 @@ dependencies {
     testImplementation("org.springframework.security:spring-security-test")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine")
+
+    // Benchmark dependencies
+    jmhImplementation("org.springframework:spring-test")
+    jmhRuntimeOnly("com.h2database:h2")
 }
 
 // Test configurations
@@ -89,6 +97,16 @@ tasks.register<Test>("unitTest") {
     }
 }
 
+// JMH benchmark configuration (run with ./gradlew jmh)
+
+jmh {
+    warmupIterations.set(2)
+    iterations.set(5)
+    fork.set(1)
+    benchmarkMode.set(listOf("avgt"))
+    timeUnit.set("us")
+}
+
 // JaCoCo Test Report configuration
 
 tasks.test {
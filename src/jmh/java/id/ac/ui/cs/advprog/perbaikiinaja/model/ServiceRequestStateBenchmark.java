@@ -0,0 +1,88 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.model;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
+import id.ac.ui.cs.advprog.perbaikiinaja.state.AcceptedState;
+import id.ac.ui.cs.advprog.perbaikiinaja.state.CompletedState;
+import id.ac.ui.cs.advprog.perbaikiinaja.state.EstimatedState;
+import id.ac.ui.cs.advprog.perbaikiinaja.state.InProgressState;
+import id.ac.ui.cs.advprog.perbaikiinaja.state.PendingState;
+import id.ac.ui.cs.advprog.perbaikiinaja.state.RejectedState;
+import id.ac.ui.cs.advprog.perbaikiinaja.state.ServiceRequestState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+
+/**
+ * Measures the state work of loading service requests and of moving them through their lifecycle.
+ * Hydration is measured per loaded request, cycling through every state type the way a page of
+ * mixed requests does. Run with -prof gc to compare the allocation rate of the two hydration paths.
+ */
+@State(Scope.Benchmark)
+public class ServiceRequestStateBenchmark {
+
+    private static final ServiceRequestStateType[] STATE_TYPES = ServiceRequestStateType.values();
+
+    private RepairEstimate estimate;
+    private Technician technician;
+
+    @Setup
+    public void setUp() {
+        estimate = new RepairEstimate();
+        estimate.setCost(100.0);
+        estimate.setCompletionDate(LocalDate.now().plusDays(3));
+        technician = new Technician();
+    }
+
+    /**
+     * The previous @PostLoad path: a new state object for every loaded request.
+     */
+    @Benchmark
+    @OperationsPerInvocation(6)
+    public void hydratePerRequestState(Blackhole blackhole) {
+        for (ServiceRequestStateType stateType : STATE_TYPES) {
+            blackhole.consume(legacyCreateState(stateType));
+        }
+    }
+
+    /**
+     * The current @PostLoad path: a lookup of the shared state.
+     */
+    @Benchmark
+    @OperationsPerInvocation(6)
+    public void hydrateSharedState(Blackhole blackhole) {
+        for (ServiceRequestStateType stateType : STATE_TYPES) {
+            blackhole.consume(ServiceRequestState.of(stateType));
+        }
+    }
+
+    /**
+     * A request from creation to completion: four transitions.
+     */
+    @Benchmark
+    public ServiceRequestStateType lifecycle() {
+        ServiceRequest request = new ServiceRequest();
+        request.setTechnician(technician);
+        request.provideEstimate(estimate);
+        request.acceptEstimate();
+        request.startService();
+        request.completeService();
+        return request.getStateType();
+    }
+
+    private static ServiceRequestState legacyCreateState(ServiceRequestStateType stateType) {
+        return switch (stateType) {
+            case PENDING -> new PendingState();
+            case ESTIMATED -> new EstimatedState();
+            case ACCEPTED -> new AcceptedState();
+            case IN_PROGRESS -> new InProgressState();
+            case COMPLETED -> new CompletedState();
+            case REJECTED -> new RejectedState();
+        };
+    }
+}
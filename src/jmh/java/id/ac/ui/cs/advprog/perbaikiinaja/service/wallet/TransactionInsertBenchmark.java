@@ -0,0 +1,124 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Measures the time per persisted Transaction entity with hibernate.jdbc.batch_size at 1, which is what
+ * Hibernate did before batching was configured, and at 50, the configured size with ordered inserts.
+ * Entities go through an EntityManager against the schema Hibernate generates from the mappings, so the
+ * benchmark follows the entity as it changes. Invert the result to get inserts per second.
+ * Runs against in-memory H2, so it leaves out the network round trip that batching saves on PostgreSQL.
+ */
+@State(Scope.Benchmark)
+public class TransactionInsertBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManagerFactory entityManagerFactory;
+    private UUID walletId;
+    private UUID relatedWalletId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+        properties.put(AvailableSettings.ORDER_INSERTS, true);
+        // Lets Hibernate create Spring-style entity listeners such as the one on User
+        properties.put(AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(new DefaultListableBeanFactory()));
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(new DriverManagerDataSource(
+                "jdbc:h2:mem:transaction-insert-benchmark;DB_CLOSE_DELAY=-1", "sa", ""));
+        factoryBean.setPackagesToScan(Transaction.class.getPackageName(), User.class.getPackageName());
+        factoryBean.setPersistenceProviderClass(HibernatePersistenceProvider.class);
+        factoryBean.setJpaPropertyMap(properties);
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        walletId = createWallet("customer@example.com", "081234567890");
+        relatedWalletId = createWallet("technician@example.com", "081234567891");
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        inTransaction(entityManager -> entityManager.createQuery("delete from Transaction").executeUpdate());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        factoryBean.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int insertTransactions() {
+        return inTransaction(entityManager -> {
+            Wallet wallet = entityManager.getReference(Wallet.class, walletId);
+            Wallet relatedWallet = entityManager.getReference(Wallet.class, relatedWalletId);
+            for (int i = 0; i < ROWS; i++) {
+                entityManager.persist(new Transaction(wallet, BigDecimal.TEN, TransactionType.PAYMENT,
+                        "Payment for service #" + i, relatedWallet));
+            }
+            return ROWS;
+        });
+    }
+
+    private UUID createWallet(String email, String phoneNumber) {
+        return inTransaction(entityManager -> {
+            Customer customer = new Customer();
+            customer.setEmail(email);
+            customer.setFullName("Benchmark Customer");
+            customer.setPassword("password");
+            customer.setPhoneNumber(phoneNumber);
+            customer.setRole("CUSTOMER");
+            entityManager.persist(customer);
+
+            Wallet wallet = new Wallet(customer);
+            entityManager.persist(wallet);
+            return wallet.getId();
+        });
+    }
+
+    private <T> T inTransaction(Function<EntityManager, T> work) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            T result = work.apply(entityManager);
+            entityManager.getTransaction().commit();
+            return result;
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.services.auth;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * Measures the token work done by JwtAuthenticationFilter for one authenticated request.
+ */
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET_KEY = "ZmFrZXNlY3JldGtleWZha2VzZWNyZXRrZXl0b29sb25nZm9ydGVzdA==";
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 1000L * 60 * 60);
+        userDetails = new User("user@mail.com", "password", Collections.emptyList());
+        token = jwtService.generateToken(userDetails);
+    }
+
+    /**
+     * The previous filter path: a new key and parser for every parse, and three parses per request
+     * (username, then username and expiration again when validating).
+     */
+    @Benchmark
+    public boolean perRequestParsing() {
+        String username = legacyParse(token).getSubject();
+        boolean valid = legacyParse(token).getSubject().equals(username)
+                && !legacyParse(token).getExpiration().before(new Date());
+        return valid && username.equals(userDetails.getUsername());
+    }
+
+    /**
+     * The current filter path: one parse with the cached parser, claims reused for validation.
+     */
+    @Benchmark
+    public boolean singleParse() {
+        Claims claims = jwtService.extractAllClaims(token);
+        return claims.getSubject() != null && jwtService.isTokenValid(claims, userDetails);
+    }
+
+    private static Claims legacyParse(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -2,8 +2,10 @@ package id.ac.ui.cs.advprog.perbaikiinaja;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PerbaikiinAjaApplication {
 
     public static void main(String[] args) {
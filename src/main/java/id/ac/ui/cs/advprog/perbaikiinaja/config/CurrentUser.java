@@ -0,0 +1,18 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Resolves a controller parameter to the {@link id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User} entity
+ * of the authenticated user. The entity is only loaded for handlers that declare such a parameter;
+ * handlers that only need the id or role should use the principal instead.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
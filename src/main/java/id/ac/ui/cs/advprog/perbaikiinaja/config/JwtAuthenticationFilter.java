@@ -1,6 +1,11 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.config;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.AuthenticatedUser;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
 import id.ac.ui.cs.advprog.perbaikiinaja.services.auth.JwtService;
+import id.ac.ui.cs.advprog.perbaikiinaja.services.auth.TokenVersionRegistry;
+import id.ac.ui.cs.advprog.perbaikiinaja.services.auth.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,19 +25,28 @@ import java.io.IOException;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    // Tokens issued before version claims existed belong to a user's first version
+    static final int LEGACY_TOKEN_VERSION = 0;
+
     private final HandlerExceptionResolver handlerExceptionResolver;
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     public JwtAuthenticationFilter(
         JwtService jwtService,
         UserDetailsService userDetailsService,
-        HandlerExceptionResolver handlerExceptionResolver
+        HandlerExceptionResolver handlerExceptionResolver,
+        VerifiedTokenCache verifiedTokenCache,
+        TokenVersionRegistry tokenVersionRegistry
     ) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
         this.handlerExceptionResolver = handlerExceptionResolver;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
     }
 
     @Override
@@ -50,14 +64,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-            if (userEmail != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            if (authentication == null) {
+                UserDetails userDetails = resolveUser(jwt);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -74,4 +87,55 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             handlerExceptionResolver.resolveException(request, response, null, exception);
         }
     }
+
+    /**
+     * Helper method to get the user of a token, from the verified token cache when possible.
+     * On a cache miss the token is parsed once and the principal is built from its claims. Only tokens
+     * issued without id and role claims fall back to loading the user. The result is cached until the token expires.
+     * The token version is checked against the registry on every request, cached or not, so a revocation
+     * made on another instance takes effect once the registry's entry for the user expires.
+     * @return The user, or null if the token has no subject, was revoked or does not belong to its user
+     */
+    private UserDetails resolveUser(String jwt) {
+        UserDetails cached = verifiedTokenCache.get(jwt);
+        if (cached != null) {
+            return isCurrentVersion(cached) ? cached : null;
+        }
+
+        // Parse and verify the token once, then reuse its claims
+        final Claims claims = jwtService.extractAllClaims(jwt);
+        final String userEmail = claims.getSubject();
+        if (userEmail == null) {
+            return null;
+        }
+
+        UserDetails userDetails;
+        AuthenticatedUser principal = jwtService.toPrincipal(claims);
+        if (principal != null) {
+            userDetails = principal;
+        } else {
+            userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        }
+
+        if (!isCurrentVersion(userDetails) || !jwtService.isTokenValid(claims, userDetails)) {
+            return null;
+        }
+
+        verifiedTokenCache.put(jwt, userDetails, claims.getExpiration().toInstant());
+        return userDetails;
+    }
+
+    /**
+     * Helper method to check that a token's user has not revoked it since it was issued.
+     * Tokens without a version claim are checked as {@link #LEGACY_TOKEN_VERSION}.
+     */
+    private boolean isCurrentVersion(UserDetails userDetails) {
+        if (userDetails instanceof AuthenticatedUser principal) {
+            return tokenVersionRegistry.isCurrent(principal.getId(), principal.getTokenVersion());
+        }
+        if (userDetails instanceof User user) {
+            return tokenVersionRegistry.isCurrent(user.getId(), LEGACY_TOKEN_VERSION);
+        }
+        return true;
+    }
 }
\ No newline at end of file
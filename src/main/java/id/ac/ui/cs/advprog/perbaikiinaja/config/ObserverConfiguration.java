@@ -0,0 +1,33 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.config;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.observer.ServiceRequestObserver;
+import id.ac.ui.cs.advprog.perbaikiinaja.observer.ServiceRequestSubject;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ObserverConfiguration {
+
+    /**
+     * Shared subject for service request events, with every observer bean registered on it.
+     * In event bus mode observers run on virtual threads, so slow observers do not hold up the
+     * requests that trigger them. The executor is owned by the subject rather than exposed as a bean,
+     * so it does not replace Spring's default task executor.
+     */
+    @Bean
+    ServiceRequestSubject serviceRequestSubject(ObjectProvider<ServiceRequestObserver> observers,
+                                                MeterRegistry meterRegistry,
+                                                @Value("${service-request.observers.async:false}") boolean async,
+                                                @Value("${service-request.observers.max-in-flight:256}") int maxInFlight) {
+        ServiceRequestSubject subject = async
+                ? new ServiceRequestSubject(Executors.newVirtualThreadPerTaskExecutor(), maxInFlight, meterRegistry)
+                : new ServiceRequestSubject();
+        observers.orderedStream().forEach(subject::addObserver);
+        return subject;
+    }
+}
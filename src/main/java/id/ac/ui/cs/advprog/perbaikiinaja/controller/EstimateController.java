@@ -3,7 +3,7 @@ package id.ac.ui.cs.advprog.perbaikiinaja.controller;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.RepairEstimate;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
-import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.UserIdentity;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.EstimateService;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.ServiceRequestService;
@@ -63,7 +63,7 @@ public class EstimateController {
             @RequestBody Map<String, Object> requestBody,
             Authentication authentication) {
 
-        User currentUser = (User) authentication.getPrincipal();
+        UserIdentity currentUser = (UserIdentity) authentication.getPrincipal();
         UUID technicianId = currentUser.getId();
 
         // Validate estimate data
@@ -136,7 +136,7 @@ public class EstimateController {
             @RequestBody Map<String, Object> requestBody,
             Authentication authentication) {
 
-        User currentUser = (User) authentication.getPrincipal();
+        UserIdentity currentUser = (UserIdentity) authentication.getPrincipal();
         UUID customerId = currentUser.getId();
 
         // Validate action
@@ -194,7 +194,7 @@ public class EstimateController {
                     BigDecimal originalAmount = BigDecimal.valueOf(estimate.getCost());
                     BigDecimal finalAmount = PriceCalculationUtils.calculateFinalPrice(originalAmount, serviceRequest.getCoupon());
 
-                    if (customerWallet.getBalance().compareTo(finalAmount) < 0) {
+                    if (walletService.getBalance(customerWallet).compareTo(finalAmount) < 0) {
                         Map<String, Object> response = new HashMap<>();
                         response.put(ERRORSTR, 4002);
                         response.put(MESSAGESTR, String.format(
@@ -2,18 +2,23 @@ package id.ac.ui.cs.advprog.perbaikiinaja.controller;
 
 import id.ac.ui.cs.advprog.perbaikiinaja.builder.ReportBuilder;
 import id.ac.ui.cs.advprog.perbaikiinaja.builder.RepairReportBuilder;
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ReportExportFormat;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
-import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
-import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.UserIdentity;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.ReportService;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.ServiceRequestService;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.KeysetCursor;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.ReportResponseUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -41,6 +46,8 @@ public class ReportController {
     private static final String MESSAGESTR = "message";
     private static final String ERRORCODESTR = "errorCode";
     private static final String CREATEDATSTR = "createdAt";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     /**
      * Create a report as a technician
@@ -51,7 +58,7 @@ public class ReportController {
             @RequestBody Map<String, Object> requestBody,
             Authentication authentication) {
 
-        User currentUser = (User) authentication.getPrincipal();
+        UserIdentity currentUser = (UserIdentity) authentication.getPrincipal();
         UUID technicianId = currentUser.getId();
 
         // Validate required fields
@@ -142,17 +149,41 @@ public class ReportController {
         }
     }
 
+    /**
+     * List reports (admin only), newest completion first, one page at a time.
+     * Without a size, a page holds {@value #DEFAULT_PAGE_SIZE} reports rather than every report;
+     * clients read further pages by passing back the returned nextCursor until it is null.
+     * An unknown technician ID returns 404 rather than an empty page.
+     */
     @GetMapping("/admin")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getReports(
             @RequestParam(required = false) String dateStart,
             @RequestParam(required = false) String dateEnd,
             @RequestParam(required = false) UUID technicianId,
-            @RequestParam(required = false) UUID reportId) {
+            @RequestParam(required = false) UUID reportId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
 
         try {
-            List<Report> reports = fetchReports(reportId, technicianId, dateStart, dateEnd);
-            return ResponseEntity.ok(buildReportsResponse(reports));
+            if (reportId != null) {
+                return ResponseEntity.ok(buildReportsResponse(
+                        Collections.singletonList(getServiceRequestByReportId(reportId)), null));
+            }
+
+            KeysetCursor after = parseCursor(cursor);
+            int limit = parsePageSize(size);
+
+            // Fetch one extra row to know whether there is a next page
+            List<ServiceRequest> reportedRequests = fetchReportedRequests(technicianId, dateStart, dateEnd, after, limit + 1);
+            String nextCursor = null;
+            if (reportedRequests.size() > limit) {
+                reportedRequests = reportedRequests.subList(0, limit);
+                Report last = reportedRequests.get(limit - 1).getReport();
+                nextCursor = new KeysetCursor(last.getCompletionDateTime(), last.getId()).encode();
+            }
+
+            return ResponseEntity.ok(buildReportsResponse(reportedRequests, nextCursor));
         } catch (ResourceNotFoundException e) {
             return createErrorResponse(e.getErrorCode(), e.getMessage(), HttpStatus.NOT_FOUND);
         } catch (InvalidInputException e) {
@@ -164,30 +195,73 @@ public class ReportController {
     }
 
     /**
-     * Fetches reports based on the given parameters.
+     * Export every report as NDJSON or CSV (admin only).
+     * Rows are streamed straight from the database to the response instead of being collected first.
      */
-    private List<Report> fetchReports(UUID reportId, UUID technicianId, String dateStart, String dateEnd) {
-        if (reportId != null) {
-            return Collections.singletonList(getReportById(reportId));
+    @GetMapping("/admin/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportReports(@RequestParam(defaultValue = "ndjson") String format) {
+        ReportExportFormat exportFormat;
+        try {
+            exportFormat = ReportExportFormat.fromValue(format);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(4004, e.getMessage(), HttpStatus.BAD_REQUEST);
         }
 
+        StreamingResponseBody body = outputStream -> reportService.exportReports(exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reports." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Fetches one page of reported service requests, with their reports, based on the given parameters.
+     */
+    private List<ServiceRequest> fetchReportedRequests(UUID technicianId, String dateStart, String dateEnd,
+                                                       KeysetCursor after, int limit) {
         if (technicianId != null) {
-            return getReportsByTechnician(technicianId);
+            return getReportsByTechnician(technicianId, after, limit);
         }
 
         if (dateStart != null && dateEnd != null) {
-            return getReportsByDateRange(dateStart, dateEnd);
+            return getReportsByDateRange(dateStart, dateEnd, after, limit);
+        }
+
+        return reportService.getReportedServiceRequests(after, limit);
+    }
+
+    /**
+     * Decodes the page cursor or throws an exception if it is malformed.
+     */
+    private KeysetCursor parseCursor(String cursor) {
+        try {
+            return KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException(4002, "Invalid cursor");
         }
+    }
 
-        return reportService.getAllReports();
+    /**
+     * Validates the page size, falling back to the default when it is not given.
+     */
+    private int parsePageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidInputException(4003, "Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
     }
 
     /**
-     * Gets a report by ID or throws an exception if not found.
+     * Gets the service request of a report or throws an exception if the report is not found.
      */
-    private Report getReportById(UUID reportId) {
+    private ServiceRequest getServiceRequestByReportId(UUID reportId) {
         try {
-            return reportService.getReportById(reportId);
+            return reportService.getServiceRequestByReportId(reportId);
         } catch (IllegalArgumentException e) {
             throw new ResourceNotFoundException(4041, "Report not found");
         }
@@ -196,9 +270,9 @@ public class ReportController {
     /**
      * Gets reports by technician ID or throws an exception if technician not found.
      */
-    private List<Report> getReportsByTechnician(UUID technicianId) {
+    private List<ServiceRequest> getReportsByTechnician(UUID technicianId, KeysetCursor after, int limit) {
         try {
-            return reportService.getReportsByTechnician(technicianId);
+            return reportService.getReportedServiceRequestsByTechnician(technicianId, after, limit);
         } catch (IllegalArgumentException e) {
             throw new ResourceNotFoundException(4040, "Technician not found");
         }
@@ -207,11 +281,11 @@ public class ReportController {
     /**
      * Gets reports within a date range or throws an exception if date format is invalid.
      */
-    private List<Report> getReportsByDateRange(String dateStart, String dateEnd) {
+    private List<ServiceRequest> getReportsByDateRange(String dateStart, String dateEnd, KeysetCursor after, int limit) {
         try {
             LocalDate startDate = LocalDate.parse(dateStart);
             LocalDate endDate = LocalDate.parse(dateEnd);
-            return reportService.getReportsByDateRange(startDate, endDate);
+            return reportService.getReportedServiceRequestsByDateRange(startDate, endDate, after, limit);
         } catch (DateTimeParseException e) {
             int errorCode = e.toString().contains(dateStart) ? 4000 : 4001;
             throw new InvalidInputException(errorCode, "Invalid date format. Expected format: YYYY-MM-DD");
@@ -219,68 +293,20 @@ public class ReportController {
     }
 
     /**
-     * Builds the response object with the reports data.
+     * Builds the response object with the reports data and the cursor of the next page.
      */
-    private Map<String, Object> buildReportsResponse(List<Report> reports) {
+    private Map<String, Object> buildReportsResponse(List<ServiceRequest> reportedRequests, String nextCursor) {
         List<Map<String, Object>> reportsList = new ArrayList<>();
-
-        for (Report report : reports) {
-            Map<String, Object> reportMap = new HashMap<>();
-            reportMap.put("id", report.getId());
-
-            ServiceRequest serviceRequest = reportService.getServiceRequestByReportId(report.getId());
-
-            reportMap.put("serviceRequest", buildServiceRequestMap(serviceRequest));
-            reportMap.put("technician", buildTechnicianMap(serviceRequest.getTechnician()));
-
-            // Report details
-            reportMap.put(REPAIRDETAILSSTR, report.getRepairDetails());
-            reportMap.put(RESOLUTIONSUMMARYSTR, report.getRepairSummary());
-            reportMap.put(ESTIMATEDCOMPLETIONDATESTR, report.getCompletionDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            reportMap.put(CREATEDATSTR, report.getCreatedDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-
-            reportsList.add(reportMap);
+        for (ServiceRequest serviceRequest : reportedRequests) {
+            reportsList.add(ReportResponseUtils.toReportMap(serviceRequest));
         }
 
         Map<String, Object> response = new HashMap<>();
         response.put("reports", reportsList);
+        response.put("nextCursor", nextCursor);
         return response;
     }
 
-    /**
-     * Builds a service request map with customer and item info.
-     */
-    private Map<String, Object> buildServiceRequestMap(ServiceRequest serviceRequest) {
-        Map<String, Object> serviceRequestMap = new HashMap<>();
-        serviceRequestMap.put("id", serviceRequest.getId());
-        serviceRequestMap.put("status", serviceRequest.getStateType());
-
-        // Customer info
-        Map<String, Object> customerMap = new HashMap<>();
-        customerMap.put("id", serviceRequest.getCustomer().getId());
-        customerMap.put("fullName", serviceRequest.getCustomer().getFullName());
-        serviceRequestMap.put("customer", customerMap);
-
-        // Item info
-        Map<String, Object> itemMap = new HashMap<>();
-        itemMap.put("name", serviceRequest.getItem().getName());
-        itemMap.put("condition", serviceRequest.getItem().getCondition());
-        itemMap.put("issueDescription", serviceRequest.getItem().getIssueDescription());
-        serviceRequestMap.put("item", itemMap);
-
-        return serviceRequestMap;
-    }
-
-    /**
-     * Builds a technician info map.
-     */
-    private Map<String, Object> buildTechnicianMap(Technician technician) {
-        Map<String, Object> technicianMap = new HashMap<>();
-        technicianMap.put("id", technician.getId());
-        technicianMap.put("fullName", technician.getFullName());
-        return technicianMap;
-    }
-
     /**
      * Creates an error response with the given error code, message, and status.
      */
@@ -330,14 +356,15 @@ public class ReportController {
     @PreAuthorize("hasRole('TECHNICIAN') and authentication.principal.id == #technicianId")
     public ResponseEntity<Map<String, Object>> getTechnicianReports(@PathVariable UUID technicianId) {
         try {
-            List<Report> reports = reportService.getReportsByTechnician(technicianId);
+            List<ServiceRequest> reportedRequests = reportService.getReportedServiceRequestsByTechnician(technicianId);
 
             // Build response similar to admin's report view, but with less detail
             List<Map<String, Object>> reportsList = new ArrayList<>();
-            for (Report report : reports) {
+            for (ServiceRequest serviceRequest : reportedRequests) {
+                Report report = serviceRequest.getReport();
                 Map<String, Object> reportMap = new HashMap<>();
                 reportMap.put("id", report.getId());
-                reportMap.put(SERVICEREQUESTIDSTR, reportService.getServiceRequestByReportId(report.getId()).getId());
+                reportMap.put(SERVICEREQUESTIDSTR, serviceRequest.getId());
                 reportMap.put(REPAIRDETAILSSTR, report.getRepairDetails());
                 reportMap.put(RESOLUTIONSUMMARYSTR, report.getRepairSummary());
                 reportMap.put(ESTIMATEDCOMPLETIONDATESTR, report.getCompletionDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
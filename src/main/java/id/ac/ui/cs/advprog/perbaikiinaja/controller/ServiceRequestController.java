@@ -1,20 +1,31 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.controller;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.config.CurrentUser;
 import id.ac.ui.cs.advprog.perbaikiinaja.dtos.CustomerServiceRequestDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.ServiceRequestSummaryDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.TechnicianInboxDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
-import id.ac.ui.cs.advprog.perbaikiinaja.repository.ServiceRequestRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.UserIdentity;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.ServiceRequestService;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.assignment.TechnicianLoadTracker;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.notification.ServiceRequestEventStream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -23,7 +34,8 @@ import java.util.*;
 public class ServiceRequestController {
 
     private final ServiceRequestService serviceRequestService;
-    private final ServiceRequestRepository serviceRequestRepository;
+    private final TechnicianLoadTracker technicianLoadTracker;
+    private final ServiceRequestEventStream serviceRequestEventStream;
     private final Set<ServiceRequestStateType> validStatusValues =
             EnumSet.allOf(ServiceRequestStateType.class);
 
@@ -33,11 +45,15 @@ public class ServiceRequestController {
     private static final String SUCCESSSTR = "SUCCESS";
     private static final String SERVICEREQUESTSSTR = "serviceRequests";
     private static final String FINALPRICESTR = "finalPrice";
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Autowired
-    public ServiceRequestController(ServiceRequestService serviceRequestService, ServiceRequestRepository serviceRequestRepository) {
+    public ServiceRequestController(ServiceRequestService serviceRequestService,
+                                    TechnicianLoadTracker technicianLoadTracker,
+                                    ServiceRequestEventStream serviceRequestEventStream) {
         this.serviceRequestService = serviceRequestService;
-        this.serviceRequestRepository = serviceRequestRepository;
+        this.technicianLoadTracker = technicianLoadTracker;
+        this.serviceRequestEventStream = serviceRequestEventStream;
     }
 
     /**
@@ -74,6 +90,27 @@ public class ServiceRequestController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    /**
+     * Get one page of a technician's requests in the given status, newest first
+     */
+    @GetMapping("/technician/{technicianId}/inbox")
+    @PreAuthorize("hasRole('TECHNICIAN') and authentication.principal.id == #technicianId")
+    public ResponseEntity<Map<String, Object>> getTechnicianInbox(
+            @PathVariable UUID technicianId,
+            @RequestParam ServiceRequestStateType status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return invalidPageResponse();
+        }
+
+        Page<TechnicianInboxDto> serviceRequests = serviceRequestService.findInbox(
+                technicianId, status, PageRequest.of(page, size));
+
+        return new ResponseEntity<>(createPageResponse(serviceRequests), HttpStatus.OK);
+    }
+
     /**
      * Get service requests for a customer
      */
@@ -100,7 +137,7 @@ public class ServiceRequestController {
             @RequestBody Map<String, Object> requestBody,
             Authentication authentication) {
 
-        User currentUser = (User) authentication.getPrincipal();
+        UserIdentity currentUser = (UserIdentity) authentication.getPrincipal();
         UUID technicianId = currentUser.getId();
 
         // Check if service request exists
@@ -199,24 +236,70 @@ public class ServiceRequestController {
     }
 
     /**
-     * Get all service requests (admin only)
+     * Get one page of service request summaries, newest first, optionally filtered by status
+     * and request date (admin only)
      */
     @GetMapping("/admin")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, Object>> getAllServiceRequests() {
-        List<ServiceRequest> serviceRequests = (List<ServiceRequest>) serviceRequestRepository.findAll();
+    public ResponseEntity<Map<String, Object>> getAllServiceRequests(
+            @RequestParam(required = false) ServiceRequestStateType status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return invalidPageResponse();
+        }
+
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            Map<String, Object> response = new HashMap<>();
+            response.put(STATUSSTR, 400);
+            response.put(MESSAGESTR, "Start date must not be after end date");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+
+        Page<ServiceRequestSummaryDto> serviceRequests = serviceRequestService.findSummaries(
+                status, startDate, endDate, PageRequest.of(page, size));
+
+        return new ResponseEntity<>(createPageResponse(serviceRequests), HttpStatus.OK);
+    }
+
+    /**
+     * Get the open request count of every technician, least loaded first (admin only)
+     */
+    @GetMapping("/admin/technician-load")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getTechnicianLoad() {
+        List<Map<String, Object>> technicianLoad = new ArrayList<>();
+        technicianLoadTracker.getOpenRequestCounts().forEach((technicianId, openRequests) -> {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("technicianId", technicianId);
+            entry.put("openRequests", openRequests);
+            technicianLoad.add(entry);
+        });
 
         Map<String, Object> response = new HashMap<>();
         response.put(STATUSSTR, 200);
         response.put(MESSAGESTR, SUCCESSSTR);
-        response.put(SERVICEREQUESTSSTR, serviceRequests);
+        response.put("technicianLoad", technicianLoad);
 
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    /**
+     * Stream status changes of the current user's service requests as server-sent events,
+     * one "status" event per transition
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('TECHNICIAN')")
+    public SseEmitter streamServiceRequestEvents(@AuthenticationPrincipal UserIdentity user) {
+        return serviceRequestEventStream.subscribe(user.getId());
+    }
+
     @PreAuthorize("hasRole('CUSTOMER')")
     @GetMapping("/customer")
-    public ResponseEntity<List<ServiceRequest>> getServiceRequests(@AuthenticationPrincipal User user) {
+    public ResponseEntity<List<ServiceRequest>> getServiceRequests(@AuthenticationPrincipal UserIdentity user) {
         var requests = serviceRequestService.findByCustomer(user.getId());
         return ResponseEntity.ok(requests);
     }
@@ -224,7 +307,7 @@ public class ServiceRequestController {
     @PostMapping("/customer")
     public ResponseEntity<ServiceRequest> createServiceRequest(
             @RequestBody CustomerServiceRequestDto dto,
-            @AuthenticationPrincipal User user
+            @CurrentUser User user
     ) {
         ServiceRequest created = serviceRequestService.createFromDto(dto, user);
         return ResponseEntity.ok(created);
@@ -234,7 +317,7 @@ public class ServiceRequestController {
     public ResponseEntity<ServiceRequest> updateServiceRequest(
             @PathVariable UUID id,
             @RequestBody CustomerServiceRequestDto dto,
-            @AuthenticationPrincipal User user
+            @CurrentUser User user
     ) {
         ServiceRequest updated = serviceRequestService.updateFromDto(id, dto, user);
         return ResponseEntity.ok(updated);
@@ -243,9 +326,27 @@ public class ServiceRequestController {
     @DeleteMapping("/customer/{id}")
     public ResponseEntity<Void> deleteServiceRequest(
             @PathVariable UUID id,
-            @AuthenticationPrincipal User user
+            @CurrentUser User user
     ) {
         serviceRequestService.delete(id, user);
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<Map<String, Object>> invalidPageResponse() {
+        Map<String, Object> response = new HashMap<>();
+        response.put(STATUSSTR, 400);
+        response.put(MESSAGESTR, "Page must not be negative and page size must be between 1 and " + MAX_PAGE_SIZE);
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    private static Map<String, Object> createPageResponse(Page<?> serviceRequests) {
+        Map<String, Object> response = new HashMap<>();
+        response.put(STATUSSTR, 200);
+        response.put(MESSAGESTR, SUCCESSSTR);
+        response.put(SERVICEREQUESTSSTR, serviceRequests.getContent());
+        response.put("currentPage", serviceRequests.getNumber());
+        response.put("totalItems", serviceRequests.getTotalElements());
+        response.put("totalPages", serviceRequests.getTotalPages());
+        return response;
+    }
 }
\ No newline at end of file
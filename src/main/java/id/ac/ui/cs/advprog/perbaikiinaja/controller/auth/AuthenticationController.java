@@ -1,6 +1,7 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.controller.auth;
 
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.UserIdentity;
 import id.ac.ui.cs.advprog.perbaikiinaja.dtos.auth.LoginUserDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.dtos.auth.RegisterAdminDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.dtos.auth.RegisterCustomerDto;
@@ -8,7 +9,9 @@ import id.ac.ui.cs.advprog.perbaikiinaja.dtos.auth.RegisterTechnicianDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.dtos.auth.LoginResponseDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.services.auth.AuthenticationService;
 import id.ac.ui.cs.advprog.perbaikiinaja.services.auth.JwtService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -64,4 +67,15 @@ public class AuthenticationController {
 
         return ResponseEntity.ok(loginResponse);
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal UserIdentity currentUser) {
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        authenticationService.logout(currentUser.getId());
+
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.controller.payment;
 
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Admin;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.UserIdentity;
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.auth.UserRole;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.payment.PaymentMethod;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.payment.PaymentMethodService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,8 +36,10 @@ public class PaymentMethodController {
 
         Object principal = authentication.getPrincipal();
 
-        // Check if the principal object is an instance of your Admin class
-        if (!(principal instanceof Admin)) { // Use your actual Admin class here
+        // Principals built from token claims carry the role instead of being an Admin entity
+        boolean isAdmin = principal instanceof Admin
+                || (principal instanceof UserIdentity identity && UserRole.ADMIN.getValue().equals(identity.getRole()));
+        if (!isAdmin) {
             throw new AccessDeniedException("Access is denied. Admin role required. Principal type: " + principal.getClass().getName());
         }
         // If it's an instance of Admin, we assume they are authorized for admin actions
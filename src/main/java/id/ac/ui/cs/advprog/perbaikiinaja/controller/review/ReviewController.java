@@ -4,6 +4,7 @@ import id.ac.ui.cs.advprog.perbaikiinaja.dtos.review.ReviewRequestDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.dtos.review.ReviewResponseDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.dtos.review.TechnicianSelectionDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.UserIdentity;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.review.Review;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.review.ReviewService;
 import jakarta.validation.Valid;
@@ -28,7 +29,7 @@ public class ReviewController {
 
     // 1. Get all reviews (publicly accessible)
     @GetMapping
-    public ResponseEntity<List<ReviewResponseDto>> getAllReviews(@AuthenticationPrincipal User currentUser) {
+    public ResponseEntity<List<ReviewResponseDto>> getAllReviews(@AuthenticationPrincipal UserIdentity currentUser) {
         List<Review> reviews = reviewService.getAllReviews();
         List<ReviewResponseDto> dtoList = reviews.stream()
                 .map(review -> toDto(review, currentUser))
@@ -39,7 +40,7 @@ public class ReviewController {
     // Create a new review (requires authentication)
     @PostMapping
     public ResponseEntity<ReviewResponseDto> createReview(
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserIdentity currentUser,
             @Valid @RequestBody ReviewRequestDto dto) {
         if (currentUser == null) {
              throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User must be authenticated to create a review");
@@ -64,7 +65,7 @@ public class ReviewController {
     @PutMapping("/{id}")
     public ResponseEntity<ReviewResponseDto> updateReview(
             @PathVariable UUID id,
-            @AuthenticationPrincipal User currentUser,
+            @AuthenticationPrincipal UserIdentity currentUser,
             @Valid @RequestBody ReviewRequestDto dto) {
         if (currentUser == null) {
              throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User must be authenticated to update a review");
@@ -93,7 +94,7 @@ public class ReviewController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteReview(
             @PathVariable UUID id,
-            @AuthenticationPrincipal User currentUser) {
+            @AuthenticationPrincipal UserIdentity currentUser) {
          if (currentUser == null) {
              throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User must be authenticated to delete a review");
         }
@@ -131,7 +132,7 @@ public class ReviewController {
     @GetMapping("/technician/{technicianId}")
     public ResponseEntity<List<ReviewResponseDto>> getReviewsByTechnician(
             @PathVariable UUID technicianId,
-            @AuthenticationPrincipal User currentUser) {
+            @AuthenticationPrincipal UserIdentity currentUser) {
         try {
             List<Review> reviews = reviewService.getReviewsForTechnician(technicianId);
             List<ReviewResponseDto> dtoList = reviews.stream()
@@ -155,7 +156,7 @@ public class ReviewController {
     }
 
 
-    private ReviewResponseDto toDto(Review review, User currentUser) {
+    private ReviewResponseDto toDto(Review review, UserIdentity currentUser) {
         boolean canEditDelete = false;
         if (currentUser != null && review.getUserId().equals(currentUser.getId())) {
             canEditDelete = true;
@@ -1,11 +1,15 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.controller.wallet;
 
-import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.TransactionDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.UserIdentity;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.wallet.TransactionService;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletDailySummaryRepository.TypeTotal;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.wallet.WalletService;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.wallet.WalletSummaryService;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -15,9 +19,11 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -30,36 +36,45 @@ public class TransactionController {
 
     private final TransactionService transactionService;
     private final WalletService walletService;
+    private final WalletSummaryService walletSummaryService;
     private static final String MESSAGESTR = "message";
     private static final String WALLETNOTFOUNDSTR = "Wallet not found. Create a wallet first.";
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> SORTABLE_FIELDS = Set.of("timestamp", "amount", "type", "createdAt");
 
     @Autowired
     public TransactionController(
             TransactionService transactionService,
-            WalletService walletService) {
+            WalletService walletService,
+            WalletSummaryService walletSummaryService) {
         this.transactionService = transactionService;
         this.walletService = walletService;
+        this.walletSummaryService = walletSummaryService;
     }
 
     /**
      * Get transactions for the authenticated user's wallet.
+     * Without a cursor, pages are addressed by number and the response includes totals.
+     * With a cursor (empty for the first page), pages are read by keyset, newest first,
+     * without counting the wallet's transactions; the response carries the next cursor instead.
      *
-     * @param authentication The authentication object containing the user
-     * @param page The page number (zero-based)
+     * @param identity The authenticated user's principal
+     * @param page The page number (zero-based), ignored with a cursor
      * @param size The page size
-     * @param sortBy The field to sort by
-     * @param direction The sort direction
+     * @param sortBy The field to sort by, ignored with a cursor
+     * @param direction The sort direction, ignored with a cursor
+     * @param cursor The opaque cursor returned by the previous page
      * @return A page of transactions
      */
     @GetMapping("/me")
     public ResponseEntity<Map<String, Object>> getMyTransactions(
-            Authentication authentication,
+            @AuthenticationPrincipal UserIdentity identity,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "timestamp") String sortBy,
-            @RequestParam(defaultValue = "DESC") String direction) {
-        User user = (User) authentication.getPrincipal();
-        Optional<Wallet> walletOpt = walletService.getWalletByUser(user);
+            @RequestParam(defaultValue = "DESC") String direction,
+            @RequestParam(required = false) String cursor) {
+        Optional<Wallet> walletOpt = walletService.getWalletByUserId(identity.getId());
 
         if (walletOpt.isEmpty()) {
             Map<String, Object> response = new HashMap<>();
@@ -67,6 +82,18 @@ public class TransactionController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         }
 
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return badRequest("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        if (cursor != null) {
+            return getMyTransactionsByCursor(walletOpt.get().getId(), cursor, size);
+        }
+
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            return badRequest("Cannot sort by " + sortBy);
+        }
+
         Sort.Direction sortDirection = Sort.Direction.fromString(direction);
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
 
@@ -75,19 +102,44 @@ public class TransactionController {
         return ResponseEntity.ok(createTransactionPageResponse(transactions));
     }
 
+    private ResponseEntity<Map<String, Object>> getMyTransactionsByCursor(UUID walletId, String cursor, int size) {
+        KeysetCursor after;
+        try {
+            after = KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return badRequest("Invalid cursor");
+        }
+
+        // Fetch one extra row to know whether there is a next page
+        List<Transaction> transactions = transactionService.getTransactionsByWalletBefore(walletId, after, size + 1);
+        String nextCursor = null;
+        if (transactions.size() > size) {
+            transactions = transactions.subList(0, size);
+            Transaction last = transactions.get(size - 1);
+            nextCursor = new KeysetCursor(last.getTimestamp(), last.getId()).encode();
+        }
+
+        Map<String, Object> response = createTransactionListResponse(transactions);
+        response.put("nextCursor", nextCursor);
+        return ResponseEntity.ok(response);
+    }
+
     /**
-     * Get transactions of a specific type for the authenticated user's wallet.
+     * Get transactions of a specific type for the authenticated user's wallet, newest first.
      *
-     * @param authentication The authentication object containing the user
+     * @param identity The authenticated user's principal
      * @param type The transaction type
-     * @return A list of transactions
+     * @param page The page number (zero-based)
+     * @param size The page size
+     * @return A page of transactions
      */
     @GetMapping("/me/type/{type}")
     public ResponseEntity<Map<String, Object>> getMyTransactionsByType(
-            Authentication authentication,
-            @PathVariable TransactionType type) {
-        User user = (User) authentication.getPrincipal();
-        Optional<Wallet> walletOpt = walletService.getWalletByUser(user);
+            @AuthenticationPrincipal UserIdentity identity,
+            @PathVariable TransactionType type,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Optional<Wallet> walletOpt = walletService.getWalletByUserId(identity.getId());
 
         if (walletOpt.isEmpty()) {
             Map<String, Object> response = new HashMap<>();
@@ -95,26 +147,34 @@ public class TransactionController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         }
 
-        List<Transaction> transactions = transactionService.getTransactionsByWalletAndType(walletOpt.get().getId(), type);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return badRequest("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Page<TransactionDto> transactions = transactionService.getTransactionsByWalletAndType(
+                walletOpt.get().getId(), type, PageRequest.of(page, size));
 
-        return ResponseEntity.ok(createTransactionListResponse(transactions));
+        return ResponseEntity.ok(createTransactionDtoPageResponse(transactions));
     }
 
     /**
-     * Get transactions within a date range for the authenticated user's wallet.
+     * Get transactions within a date range for the authenticated user's wallet, newest first.
      *
-     * @param authentication The authentication object containing the user
+     * @param identity The authenticated user's principal
      * @param startDate The start date
      * @param endDate The end date
-     * @return A list of transactions
+     * @param page The page number (zero-based)
+     * @param size The page size
+     * @return A page of transactions
      */
     @GetMapping("/me/date-range")
     public ResponseEntity<Map<String, Object>> getMyTransactionsByDateRange(
-            Authentication authentication,
+            @AuthenticationPrincipal UserIdentity identity,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        User user = (User) authentication.getPrincipal();
-        Optional<Wallet> walletOpt = walletService.getWalletByUser(user);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Optional<Wallet> walletOpt = walletService.getWalletByUserId(identity.getId());
 
         if (walletOpt.isEmpty()) {
             Map<String, Object> response = new HashMap<>();
@@ -122,10 +182,68 @@ public class TransactionController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         }
 
-        List<Transaction> transactions = transactionService.getTransactionsByWalletAndDateRange(
-                walletOpt.get().getId(), startDate, endDate);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return badRequest("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Page<TransactionDto> transactions = transactionService.getTransactionsByWalletAndDateRange(
+                walletOpt.get().getId(), startDate, endDate, PageRequest.of(page, size));
 
-        return ResponseEntity.ok(createTransactionListResponse(transactions));
+        return ResponseEntity.ok(createTransactionDtoPageResponse(transactions));
+    }
+
+    /**
+     * Get totals per transaction type for the authenticated user's wallet.
+     * Totals are read from the daily rollups, so the cost depends on the number of days
+     * in the range rather than on the number of transactions.
+     *
+     * @param identity The authenticated user's principal
+     * @param startDate The first day of the range
+     * @param endDate The last day of the range, inclusive
+     * @return The totals per type, with income and spending
+     */
+    @GetMapping("/me/summary")
+    public ResponseEntity<Map<String, Object>> getMySummary(
+            @AuthenticationPrincipal UserIdentity identity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        Optional<Wallet> walletOpt = walletService.getWalletByUserId(identity.getId());
+
+        if (walletOpt.isEmpty()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put(MESSAGESTR, WALLETNOTFOUNDSTR);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+
+        if (startDate.isAfter(endDate)) {
+            return badRequest("Start date must not be after end date");
+        }
+
+        Map<TransactionType, BigDecimal> amounts = new EnumMap<>(TransactionType.class);
+        Map<TransactionType, Long> counts = new EnumMap<>(TransactionType.class);
+        for (TypeTotal total : walletSummaryService.getTotals(walletOpt.get().getId(), startDate, endDate)) {
+            amounts.put(total.getType(), total.getTotalAmount());
+            counts.put(total.getType(), total.getTransactionCount());
+        }
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        for (TransactionType type : TransactionType.values()) {
+            Map<String, Object> total = new HashMap<>();
+            total.put("amount", amounts.getOrDefault(type, BigDecimal.ZERO));
+            total.put("count", counts.getOrDefault(type, 0L));
+            totals.put(type.name(), total);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("startDate", startDate);
+        response.put("endDate", endDate);
+        response.put("totals", totals);
+        response.put("income", amounts.getOrDefault(TransactionType.DEPOSIT, BigDecimal.ZERO)
+                .add(amounts.getOrDefault(TransactionType.EARNING, BigDecimal.ZERO)));
+        response.put("spending", amounts.getOrDefault(TransactionType.WITHDRAWAL, BigDecimal.ZERO)
+                .add(amounts.getOrDefault(TransactionType.PAYMENT, BigDecimal.ZERO)));
+
+        return ResponseEntity.ok(response);
     }
 
     /**
@@ -148,6 +266,12 @@ public class TransactionController {
         return ResponseEntity.ok(createTransactionResponse(transactionOpt.get()));
     }
 
+    private ResponseEntity<Map<String, Object>> badRequest(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put(MESSAGESTR, message);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
     /**
      * Create a response map from a transaction.
      *
@@ -211,4 +335,39 @@ public class TransactionController {
 
         return response;
     }
+
+    /**
+     * Create a response map from a page of transaction projections, in the same shape as
+     * {@link #createTransactionPageResponse(Page)}.
+     *
+     * @param transactions The page of transactions
+     * @return A map containing pagination information and transaction data
+     */
+    private Map<String, Object> createTransactionDtoPageResponse(Page<TransactionDto> transactions) {
+        Map<String, Object> response = new HashMap<>();
+        List<Map<String, Object>> transactionList = new ArrayList<>();
+
+        for (TransactionDto transaction : transactions.getContent()) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", transaction.getId());
+            item.put("walletId", transaction.getWalletId());
+            item.put("amount", transaction.getAmount());
+            item.put("type", transaction.getType());
+            item.put("timestamp", transaction.getTimestamp());
+            item.put("description", transaction.getDescription());
+
+            if (transaction.getRelatedWalletId() != null) {
+                item.put("relatedWalletId", transaction.getRelatedWalletId());
+            }
+
+            transactionList.add(item);
+        }
+
+        response.put("transactions", transactionList);
+        response.put("currentPage", transactions.getNumber());
+        response.put("totalItems", transactions.getTotalElements());
+        response.put("totalPages", transactions.getTotalPages());
+
+        return response;
+    }
 }
\ No newline at end of file
@@ -1,20 +1,26 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.controller.wallet;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.config.CurrentUser;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.BulkWalletOperationDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.BulkWalletResultDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.auth.UserRole;
-import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
-import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.UserIdentity;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.wallet.IdempotencyStore;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.wallet.WalletService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * REST controller for wallet-related operations.
@@ -24,33 +30,39 @@ import java.util.*;
 public class WalletController {
 
     private final WalletService walletService;
+    private final IdempotencyStore idempotencyStore;
     private static final String MESSAGESTR = "message";
     private static final String WALLETNOTFOUNDSTR = "Wallet not found. Create a wallet first.";
     private static final String CSTTECHSTR = "Only customers and technicians have wallets";
+    private static final int MAX_BULK_ITEMS = 10000;
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final Set<String> WALLET_AUTHORITIES = Set.of(
+            "ROLE_" + UserRole.CUSTOMER.getValue(), "ROLE_" + UserRole.TECHNICIAN.getValue());
 
     @Autowired
-    public WalletController(WalletService walletService) {
+    public WalletController(WalletService walletService, IdempotencyStore idempotencyStore) {
         this.walletService = walletService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     /**
      * Get wallet information for the authenticated user.
      *
-     * @param authentication The authentication object containing the user
+     * @param identity The authenticated user's principal
      * @return The wallet information
      */
     @GetMapping("/me")
-    public ResponseEntity<Map<String, Object>> getMyWallet(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+    public ResponseEntity<Map<String, Object>> getMyWallet(@AuthenticationPrincipal UserIdentity identity) {
 
         // Check if user is Customer or Technician
-        if (!(user instanceof Customer) && !(user instanceof Technician)) {
+        if (!canHaveWallet(identity)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of(MESSAGESTR, CSTTECHSTR));
         }
 
         // Only call this after checking user type
-        Optional<Wallet> wallet = walletService.getWalletByUser(user);
+        Optional<Wallet> wallet = walletService.getWalletByUserId(identity.getId());
 
         if (wallet.isEmpty()) {
             Map<String, Object> response = new HashMap<>();
@@ -64,12 +76,11 @@ public class WalletController {
     /**
      * Create a wallet for the authenticated user.
      *
-     * @param authentication The authentication object containing the user
+     * @param user The authenticated user
      * @return The created wallet
      */
     @PostMapping("/me")
-    public ResponseEntity<Map<String, Object>> createMyWallet(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+    public ResponseEntity<Map<String, Object>> createMyWallet(@CurrentUser User user) {
 
         if (user.getRole().equals(UserRole.ADMIN.getValue())) {
             Map<String, Object> response = new HashMap<>();
@@ -90,22 +101,23 @@ public class WalletController {
     /**
      * Deposit money into the authenticated user's wallet.
      *
-     * @param authentication The authentication object containing the user
+     * @param identity The authenticated user's principal
      * @param requestBody Map containing amount and description
+     * @param idempotencyKey Optional client-chosen key; retries with the same key get the first response
      * @return The updated wallet
      */
     @PostMapping("/me/deposit")
     public ResponseEntity<Map<String, Object>> deposit(
-            Authentication authentication,
-            @RequestBody Map<String, Object> requestBody) {
-        User user = (User) authentication.getPrincipal();
-        Optional<Wallet> walletOpt = walletService.getWalletByUser(user);
-
-        if (!(user instanceof Customer) && !(user instanceof Technician)) {
+            @AuthenticationPrincipal UserIdentity identity,
+            @RequestBody Map<String, Object> requestBody,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (!canHaveWallet(identity)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of(MESSAGESTR, CSTTECHSTR));
         }
 
+        Optional<Wallet> walletOpt = walletService.getWalletByUserId(identity.getId());
+
         if (walletOpt.isEmpty()) {
             Map<String, Object> response = new HashMap<>();
             response.put(MESSAGESTR, WALLETNOTFOUNDSTR);
@@ -122,36 +134,34 @@ public class WalletController {
         }
 
         String description = (String) requestBody.getOrDefault("description", "Deposit");
+        UUID walletId = walletOpt.get().getId();
 
-        try {
-            Wallet wallet = walletService.deposit(walletOpt.get().getId(), amount, description);
-            return ResponseEntity.ok(createWalletResponse(wallet));
-        } catch (IllegalArgumentException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put(MESSAGESTR, e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-        }
+        Object fingerprint = Arrays.asList(amount.stripTrailingZeros(), description);
+
+        return runIdempotently(idempotencyKey, "deposit:" + walletId, fingerprint,
+                () -> ResponseEntity.ok(createWalletResponse(walletService.deposit(walletId, amount, description))));
     }
 
     /**
      * Withdraw money from the authenticated user's wallet.
      *
-     * @param authentication The authentication object containing the user
+     * @param identity The authenticated user's principal
      * @param requestBody Map containing amount and description
+     * @param idempotencyKey Optional client-chosen key; retries with the same key get the first response
      * @return The updated wallet
      */
     @PostMapping("/me/withdraw")
     public ResponseEntity<Map<String, Object>> withdraw(
-            Authentication authentication,
-            @RequestBody Map<String, Object> requestBody) {
-        User user = (User) authentication.getPrincipal();
-        Optional<Wallet> walletOpt = walletService.getWalletByUser(user);
-
-        if (!(user instanceof Customer) && !(user instanceof Technician)) {
+            @AuthenticationPrincipal UserIdentity identity,
+            @RequestBody Map<String, Object> requestBody,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (!canHaveWallet(identity)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of(MESSAGESTR, CSTTECHSTR));
         }
 
+        Optional<Wallet> walletOpt = walletService.getWalletByUserId(identity.getId());
+
         if (walletOpt.isEmpty()) {
             Map<String, Object> response = new HashMap<>();
             response.put(MESSAGESTR, WALLETNOTFOUNDSTR);
@@ -168,14 +178,70 @@ public class WalletController {
         }
 
         String description = (String) requestBody.getOrDefault("description", "Withdrawal");
+        UUID walletId = walletOpt.get().getId();
+
+        Object fingerprint = Arrays.asList(amount.stripTrailingZeros(), description);
+
+        return runIdempotently(idempotencyKey, "withdraw:" + walletId, fingerprint,
+                () -> ResponseEntity.ok(createWalletResponse(walletService.withdraw(walletId, amount, description))));
+    }
+
+    /**
+     * Check that the user is a customer or technician from the principal's authorities,
+     * without loading the user.
+     *
+     * @param identity The authenticated user's principal
+     * @return true if the user can have a wallet
+     */
+    private static boolean canHaveWallet(UserIdentity identity) {
+        return identity instanceof UserDetails details && details.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(WALLET_AUTHORITIES::contains);
+    }
+
+    /**
+     * Run a wallet operation at most once per idempotency key.
+     * Replays get the response of the first successful request without the operation running again.
+     * A rejected operation, such as one with insufficient funds, answers 400 and is not remembered,
+     * so a retry with the same key runs it again. A retry sent while the first request is still running
+     * answers 409 once the store stops waiting for it.
+     *
+     * @param idempotencyKey The key sent by the client, or null to always run the operation
+     * @param scope The operation and wallet the key belongs to
+     * @param fingerprint The request parameters the key must be reused with
+     * @param operation The operation producing the response, throwing IllegalArgumentException if rejected
+     * @return The response of the first successful request with this key
+     */
+    private ResponseEntity<Map<String, Object>> runIdempotently(
+            String idempotencyKey,
+            String scope,
+            Object fingerprint,
+            Supplier<ResponseEntity<Map<String, Object>>> operation) {
+        if (idempotencyKey != null
+                && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            Map<String, Object> response = new HashMap<>();
+            response.put(MESSAGESTR, "Idempotency key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
 
         try {
-            Wallet wallet = walletService.withdraw(walletOpt.get().getId(), amount, description);
-            return ResponseEntity.ok(createWalletResponse(wallet));
+            if (idempotencyKey == null) {
+                return operation.get();
+            }
+            // The store forgets the key when the operation throws, so failures are never replayed
+            return idempotencyStore.execute(scope + ":" + idempotencyKey, fingerprint, operation);
         } catch (IllegalArgumentException e) {
             Map<String, Object> response = new HashMap<>();
             response.put(MESSAGESTR, e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (IdempotencyStore.InProgressException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put(MESSAGESTR, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (IllegalStateException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put(MESSAGESTR, e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
         }
     }
 
@@ -218,6 +284,52 @@ public class WalletController {
         return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(response);
     }
 
+    /**
+     * Deposit into many wallets in one request, e.g. month-end technician payouts (admin only).
+     *
+     * @param operations List of walletId, amount and description
+     * @return A per-item result report
+     */
+    @PostMapping("/bulk/deposit")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> bulkDeposit(@RequestBody List<BulkWalletOperationDto> operations) {
+        if (operations == null || operations.isEmpty() || operations.size() > MAX_BULK_ITEMS) {
+            return bulkSizeError();
+        }
+        return ResponseEntity.ok(createBulkResponse(walletService.bulkDeposit(operations)));
+    }
+
+    /**
+     * Withdraw from many wallets in one request (admin only).
+     *
+     * @param operations List of walletId, amount and description
+     * @return A per-item result report
+     */
+    @PostMapping("/bulk/withdraw")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> bulkWithdraw(@RequestBody List<BulkWalletOperationDto> operations) {
+        if (operations == null || operations.isEmpty() || operations.size() > MAX_BULK_ITEMS) {
+            return bulkSizeError();
+        }
+        return ResponseEntity.ok(createBulkResponse(walletService.bulkWithdraw(operations)));
+    }
+
+    private ResponseEntity<Map<String, Object>> bulkSizeError() {
+        Map<String, Object> response = new HashMap<>();
+        response.put(MESSAGESTR, "A bulk request must contain between 1 and " + MAX_BULK_ITEMS + " items");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    private Map<String, Object> createBulkResponse(List<BulkWalletResultDto> results) {
+        long succeeded = results.stream().filter(BulkWalletResultDto::isSuccess).count();
+        Map<String, Object> response = new HashMap<>();
+        response.put("total", results.size());
+        response.put("succeeded", succeeded);
+        response.put("failed", results.size() - succeeded);
+        response.put("results", results);
+        return response;
+    }
+
     /**
      * Create a response map from a wallet.
      *
@@ -228,7 +340,7 @@ public class WalletController {
         Map<String, Object> response = new HashMap<>();
         response.put("id", wallet.getId());
         response.put("userId", wallet.getUser().getId());
-        response.put("balance", wallet.getBalance());
+        response.put("balance", walletService.getBalance(wallet));
         response.put("createdAt", wallet.getCreatedAt());
         response.put("updatedAt", wallet.getUpdatedAt());
         return response;
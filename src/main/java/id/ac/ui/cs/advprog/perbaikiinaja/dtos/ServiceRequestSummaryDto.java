@@ -0,0 +1,36 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.dtos;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Flat, read-only view of a service request for the admin listing, selected column by column
+ * so that listing requests does not load their customers, technicians or other associations.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceRequestSummaryDto {
+    private UUID id;
+    private ServiceRequestStateType status;
+    private LocalDate requestDate;
+    private LocalDate serviceDate;
+    private String problemDescription;
+    private UUID customerId;
+    private String customerName;
+    private UUID technicianId;    // null until a technician is assigned
+    private String technicianName;
+    private String itemName;
+    private Double estimatedCost; // null until an estimate is provided
+    private LocalDate estimatedCompletionDate;
+    private String paymentMethodName;
+    private String couponCode;
+    private Boolean reported;
+}
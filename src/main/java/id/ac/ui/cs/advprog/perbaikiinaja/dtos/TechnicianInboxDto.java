@@ -0,0 +1,31 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.dtos;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Read-only view of a service request in a technician's inbox, with just what the technician
+ * needs to pick up the job.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TechnicianInboxDto {
+    private UUID id;
+    private ServiceRequestStateType status;
+    private LocalDate requestDate;
+    private LocalDate serviceDate;
+    private String problemDescription;
+    private String customerName;
+    private String customerPhoneNumber;
+    private String itemName;
+    private Double estimatedCost; // null until an estimate is provided
+    private LocalDate estimatedCompletionDate;
+}
@@ -0,0 +1,22 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One wallet deposit or withdrawal in a bulk request.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkWalletOperationDto {
+    private UUID walletId;
+    private BigDecimal amount;
+    private String description;
+}
@@ -0,0 +1,31 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The outcome of one item of a bulk request, reported in request order.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkWalletResultDto {
+    private UUID walletId;
+    private boolean success;
+    private String message; // Why the item failed, null on success
+    private BigDecimal balance; // Balance after the item was applied, null on failure
+
+    public static BulkWalletResultDto applied(UUID walletId, BigDecimal balance) {
+        return new BulkWalletResultDto(walletId, true, null, balance);
+    }
+
+    public static BulkWalletResultDto failed(UUID walletId, String message) {
+        return new BulkWalletResultDto(walletId, false, message, null);
+    }
+}
@@ -0,0 +1,29 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only view of a transaction, selected column by column so that listing transactions
+ * does not load their wallets.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionDto {
+    private UUID id;
+    private UUID walletId;
+    private BigDecimal amount;
+    private TransactionType type;
+    private LocalDateTime timestamp;
+    private String description;
+    private UUID relatedWalletId; // null unless the transaction moved money between two wallets
+}
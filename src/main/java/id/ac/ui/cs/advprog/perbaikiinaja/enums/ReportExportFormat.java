@@ -0,0 +1,42 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.enums;
+
+import lombok.Getter;
+
+/**
+ * Formats supported by the admin report export.
+ */
+@Getter
+public enum ReportExportFormat {
+    /**
+     * One JSON object per line
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * Comma separated values with a header row
+     */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ReportExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Parses a format name, ignoring case.
+     * @param value The format name, e.g. "csv"
+     * @return The matching format
+     * @throws IllegalArgumentException if the name does not match any format
+     */
+    public static ReportExportFormat fromValue(String value) {
+        for (ReportExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + value);
+    }
+}
@@ -6,5 +6,13 @@ public enum ServiceRequestStateType {
     ACCEPTED,
     IN_PROGRESS,
     COMPLETED,
-    REJECTED
-}
\ No newline at end of file
+    REJECTED;
+
+    /**
+     * Whether a request in this state still needs work from its technician.
+     * @return true for every state except COMPLETED and REJECTED
+     */
+    public boolean isOpen() {
+        return this != COMPLETED && this != REJECTED;
+    }
+}
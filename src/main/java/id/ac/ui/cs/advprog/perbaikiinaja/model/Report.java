@@ -11,7 +11,9 @@ import jakarta.persistence.*;
  */
 
 @Entity
-@Table(name = "reports")
+@Table(name = "reports", indexes = {
+        @Index(name = "idx_reports_completion_date_time", columnList = "completionDateTime, id")
+})
 public class Report {
 
     @Id
@@ -21,11 +21,16 @@ import id.ac.ui.cs.advprog.perbaikiinaja.model.coupon.Coupon;
  */
 
 @Entity
-@Table(name = "service_requests")
+@Table(name = "service_requests", indexes = {
+        @Index(name = "idx_service_requests_request_date", columnList = "requestDate, id"),
+        @Index(name = "idx_service_requests_state_type_request_date", columnList = "state_type, requestDate, id"),
+        @Index(name = "idx_service_requests_technician_state_type",
+                columnList = "technician_id, state_type, requestDate, id")
+})
 public class ServiceRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @Version
@@ -69,12 +74,15 @@ public class ServiceRequest {
     @Enumerated(EnumType.STRING)
     private ServiceRequestStateType stateType;
 
+    /**
+     * The shared instance for {@link #stateType}; looked up, never allocated.
+     */
     @Transient
     private ServiceRequestState state;
 
     public ServiceRequest() {
         this.requestDate = LocalDate.now();
-        this.state = new PendingState();
+        this.state = PendingState.INSTANCE;
         this.stateType = ServiceRequestStateType.PENDING;
     }
 
@@ -142,7 +150,7 @@ public class ServiceRequest {
         this.stateType = stateType;
         // Keep state object in sync
         if (this.state == null || this.state.getStateType() != stateType) {
-            this.state = createStateFromType(stateType);
+            this.state = ServiceRequestState.of(stateType);
         }
     }
 
@@ -157,7 +165,7 @@ public class ServiceRequest {
     public ServiceRequestState getState() {
         // Ensure state is synchronized with stateType
         if (state == null || state.getStateType() != stateType) {
-            this.state = createStateFromType(stateType);
+            this.state = ServiceRequestState.of(stateType);
         }
         return state;
     }
@@ -168,31 +176,12 @@ public class ServiceRequest {
     }
 
     public ServiceRequestStateType getStateType() {
-        return state.getStateType();
-    }
-
-    private static ServiceRequestState createStateFromType(ServiceRequestStateType stateType) {
-        switch (stateType) {
-            case PENDING:
-                return new PendingState();
-            case ESTIMATED:
-                return new EstimatedState();
-            case ACCEPTED:
-                return new AcceptedState();
-            case IN_PROGRESS:
-                return new InProgressState();
-            case COMPLETED:
-                return new CompletedState();
-            case REJECTED:
-                return new RejectedState();
-            default:
-                return new PendingState(); // Default case
-        }
+        return stateType;
     }
 
     @PostLoad
     private void initializeState() {
-        this.state = createStateFromType(this.stateType);
+        this.state = ServiceRequestState.of(this.stateType);
     }
 
     // State transition methods
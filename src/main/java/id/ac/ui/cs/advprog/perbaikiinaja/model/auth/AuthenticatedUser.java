@@ -0,0 +1,62 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.model.auth;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Principal built purely from the claims of a verified token, without loading the user from the database.
+ * Controllers that need the full {@link User} entity ask for it with {@code @CurrentUser}.
+ */
+@Getter
+public class AuthenticatedUser implements UserDetails, UserIdentity {
+
+    private final UUID id;
+    private final String email;
+    private final String role;
+    private final int tokenVersion;
+
+    public AuthenticatedUser(UUID id, String email, String role, int tokenVersion) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    /**
+     * Tokens never carry the password.
+     */
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AuthenticatedUser that)) return false;
+        return tokenVersion == that.tokenVersion && Objects.equals(id, that.id)
+                && Objects.equals(email, that.email) && Objects.equals(role, that.role);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, email, role, tokenVersion);
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Setter;
 
 import java.util.*;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.services.auth.UserTokenCacheListener;
 import jakarta.persistence.*;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -13,7 +14,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 @Entity
 @Inheritance(strategy = InheritanceType.JOINED)
 @Table(name = "users")
-public abstract class User implements UserDetails {
+@EntityListeners(UserTokenCacheListener.class)
+public abstract class User implements UserDetails, UserIdentity {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     @Column(nullable = false)
@@ -45,6 +47,17 @@ public abstract class User implements UserDetails {
     @Column(nullable = false)
     private String role;
 
+    /**
+     * Embedded in every issued token. Incrementing it revokes all tokens issued before.
+     */
+    @Getter
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int tokenVersion;
+
+    public void revokeTokens() {
+        tokenVersion++;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + this.role);
@@ -0,0 +1,16 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.model.auth;
+
+import java.util.UUID;
+
+/**
+ * The parts of a user that are known from a verified token alone.
+ * Implemented by the {@link User} entity and by the {@link AuthenticatedUser} principal built from token claims.
+ */
+public interface UserIdentity {
+
+    UUID getId();
+
+    String getRole();
+
+    String getUsername();
+}
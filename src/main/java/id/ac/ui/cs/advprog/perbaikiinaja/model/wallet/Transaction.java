@@ -11,16 +11,23 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", uniqueConstraints = {
+        // A service request is paid at most once, even by concurrent requests on different instances
+        @UniqueConstraint(name = "uk_transactions_service_request_type", columnNames = {"service_request_id", "type"})
+}, indexes = {
+        @Index(name = "idx_transactions_wallet_timestamp_id", columnList = "wallet_id, timestamp, id"),
+        @Index(name = "idx_transactions_wallet_type_timestamp", columnList = "wallet_id, type, timestamp"),
+        @Index(name = "idx_transactions_ledger_pending_wallet", columnList = "ledger_pending, wallet_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "wallet_id", nullable = false)
     private Wallet wallet;
 
@@ -37,13 +44,21 @@ public class Transaction {
     @Column(length = 255)
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "related_wallet_id")
     private Wallet relatedWallet;
 
+    // Set on the payment and earning of a service payment; null for other transactions
+    @Column(name = "service_request_id")
+    private UUID serviceRequestId;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // In ledger mode, true until compaction has added the amount to the wallet's balance snapshot
+    @Column(name = "ledger_pending", nullable = false, columnDefinition = "boolean default false")
+    private boolean ledgerPending;
+
     /**
      * Creates a new Transaction.
      *
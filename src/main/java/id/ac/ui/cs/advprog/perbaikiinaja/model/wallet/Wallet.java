@@ -19,16 +19,21 @@ import java.util.UUID;
 @NoArgsConstructor
 public class Wallet {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal balance = BigDecimal.ZERO;
 
+    // Null while the balance is kept current. In ledger mode, the balance is a snapshot taken at this
+    // time, and the wallet's pending transactions still have to be added to it.
+    @Column(name = "balance_as_of")
+    private LocalDateTime balanceAsOf;
+
     @OneToMany(mappedBy = "wallet", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Transaction> transactions = new ArrayList<>();
 
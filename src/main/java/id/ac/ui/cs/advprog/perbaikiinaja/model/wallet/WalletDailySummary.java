@@ -0,0 +1,34 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.model.wallet;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Running total and count of a wallet's transactions of one type on one day.
+ * Rows are kept up to date as transactions are written, so statement totals over a date range
+ * read one row per day and type instead of every transaction.
+ */
+@Entity
+@Table(name = "wallet_daily_summaries")
+@Getter
+@NoArgsConstructor
+public class WalletDailySummary {
+
+    @EmbeddedId
+    private WalletDailySummaryId id;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    public WalletDailySummary(WalletDailySummaryId id, BigDecimal totalAmount, long transactionCount) {
+        this.id = id;
+        this.totalAmount = totalAmount;
+        this.transactionCount = transactionCount;
+    }
+}
@@ -0,0 +1,36 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.model.wallet;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Key of a daily rollup: one wallet, one day, one transaction type.
+ */
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class WalletDailySummaryId implements Serializable {
+
+    @Column(name = "wallet_id", nullable = false)
+    private UUID walletId;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
+}
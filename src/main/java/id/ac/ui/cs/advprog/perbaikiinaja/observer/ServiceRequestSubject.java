@@ -1,17 +1,76 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.observer;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
 
 /**
  * Subject class that notifies observers of service request state changes.
  * Follows the Observer design pattern.
+ * Observers can be added and removed while notifications are running.
+ * When called inside a database transaction, observers are only notified once it commits.
+ * By default observers run on the caller's thread. In event bus mode observers run on the given
+ * executor instead. Each observer has its own queue that is drained one event at a time, so every
+ * observer sees events in the order they were published while a slow observer only delays itself.
+ * At most {@code maxInFlight} events are queued or running across all observers; when that many
+ * are pending, the caller waits for a slot, which slows down callers instead of queueing without bound.
+ * In event bus mode observer failures are logged rather than thrown, and every call is timed.
  */
-public class ServiceRequestSubject {
+public class ServiceRequestSubject implements AutoCloseable {
 
-    private final List<ServiceCompletionObserver> completionObservers = new ArrayList<>();
+    public static final String OBSERVER_METRIC = "service.request.observer";
+    public static final String SATURATED_METRIC = "service.request.observer.saturated";
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceRequestSubject.class);
+
+    private final CopyOnWriteArrayList<ServiceCompletionObserver> completionObservers = new CopyOnWriteArrayList<>();
+    private final CopyOnWriteArrayList<ServiceStateChangeObserver> stateChangeObservers = new CopyOnWriteArrayList<>();
+
+    private final Map<ServiceRequestObserver, ObserverQueue> queues = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final Semaphore inFlight;
+    private final MeterRegistry meterRegistry;
+    private final Counter saturated;
+
+    public ServiceRequestSubject() {
+        this.executor = null;
+        this.inFlight = null;
+        this.meterRegistry = null;
+        this.saturated = null;
+    }
+
+    /**
+     * Creates a subject in event bus mode.
+     * @param executor Runs the observers; shut down when the subject is closed
+     * @param maxInFlight The maximum number of observer calls queued or running, across all observers
+     * @param meterRegistry Receives the latency and outcome of every observer call
+     */
+    public ServiceRequestSubject(ExecutorService executor, int maxInFlight, MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.meterRegistry = meterRegistry;
+        this.saturated = Counter.builder(SATURATED_METRIC)
+                .description("Observer calls the caller had to wait for because too many were pending")
+                .register(meterRegistry);
+    }
 
     /**
      * Registers an observer to be notified of events.
@@ -22,8 +81,12 @@ public class ServiceRequestSubject {
             return;
         }
 
-        if (observer instanceof ServiceCompletionObserver serviceCompletionObserver && !completionObservers.contains(observer)) {
-            completionObservers.add(serviceCompletionObserver);
+        if (observer instanceof ServiceCompletionObserver serviceCompletionObserver) {
+            completionObservers.addIfAbsent(serviceCompletionObserver);
+        }
+
+        if (observer instanceof ServiceStateChangeObserver serviceStateChangeObserver) {
+            stateChangeObservers.addIfAbsent(serviceStateChangeObserver);
         }
     }
 
@@ -35,6 +98,14 @@ public class ServiceRequestSubject {
         if (observer instanceof ServiceCompletionObserver) {
             completionObservers.remove(observer);
         }
+
+        if (observer instanceof ServiceStateChangeObserver) {
+            stateChangeObservers.remove(observer);
+        }
+
+        if (observer != null) {
+            queues.remove(observer);
+        }
     }
 
     /**
@@ -42,8 +113,136 @@ public class ServiceRequestSubject {
      * @param request The completed service request
      */
     public void notifyServiceCompleted(ServiceRequest request) {
-        for (ServiceCompletionObserver observer : completionObservers) {
-            observer.onServiceCompleted(request);
+        afterCommit(() -> {
+            for (ServiceCompletionObserver observer : completionObservers) {
+                dispatch(observer, "completed", () -> observer.onServiceCompleted(request));
+            }
+        });
+    }
+
+    /**
+     * Notifies all observers that a service request has changed state.
+     * @param request The service request
+     * @param previousState The state before the transition, or null for a newly created request
+     * @param newState The state after the transition, or null if the request was deleted
+     */
+    public void notifyStateChanged(ServiceRequest request, ServiceRequestStateType previousState, ServiceRequestStateType newState) {
+        if (previousState == newState) {
+            return;
+        }
+
+        afterCommit(() -> {
+            for (ServiceStateChangeObserver observer : stateChangeObservers) {
+                dispatch(observer, "state-changed", () -> observer.onStateChanged(request, previousState, newState));
+            }
+        });
+    }
+
+    /**
+     * Stops the executor of event bus mode, letting running observer calls finish.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Helper method to run a notification once the current transaction commits, or now outside a transaction.
+     * Nothing is delivered for a transaction that rolls back.
+     */
+    private static void afterCommit(Runnable notification) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notification.run();
+                }
+            });
+        } else {
+            notification.run();
+        }
+    }
+
+    private void dispatch(ServiceRequestObserver observer, String event, Runnable call) {
+        if (executor == null) {
+            call.run();
+            return;
+        }
+
+        if (!inFlight.tryAcquire()) {
+            saturated.increment();
+            inFlight.acquireUninterruptibly();
+        }
+
+        queues.computeIfAbsent(observer, key -> new ObserverQueue()).submit(() -> {
+            try {
+                runObserved(observer, event, call);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void runObserved(ServiceRequestObserver observer, String event, Runnable call) {
+        String observerName = ClassUtils.getUserClass(observer).getSimpleName();
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            log.warn("Observer {} failed on {} event", observerName, event, e);
+        } finally {
+            Timer.builder(OBSERVER_METRIC)
+                    .description("Time spent in each service request observer")
+                    .tag("observer", observerName)
+                    .tag("event", event)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * One observer's pending calls, run in order and never two at a time.
+     * At most one task per queue is on the executor; it drains the queue and then gives up its turn.
+     */
+    private final class ObserverQueue implements Runnable {
+
+        private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        void submit(Runnable call) {
+            pending.add(call);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down: deliver on the caller's thread instead of losing the events
+                    run();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            Runnable call;
+            while ((call = pending.poll()) != null) {
+                call.run();
+            }
+            scheduled.set(false);
+
+            // A call may have been added after the queue looked empty but before the turn was given up
+            if (!pending.isEmpty()) {
+                schedule();
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.observer;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
+
+/**
+ * Observer for service request state transitions.
+ */
+public interface ServiceStateChangeObserver extends ServiceRequestObserver {
+    /**
+     * Called after a service request has moved to a new state.
+     * @param request The service request
+     * @param previousState The state before the transition, or null for a newly created request
+     * @param newState The state after the transition, or null if the request was deleted
+     */
+    void onStateChanged(ServiceRequest request, ServiceRequestStateType previousState, ServiceRequestStateType newState);
+}
@@ -1,19 +1,35 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.observer;
 
 import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Observer that updates technician statistics when a service is completed.
  * Implements the Observer design pattern.
+ * This is the only place the statistics are recorded; the state transition itself leaves the
+ * technician untouched. They are added with a single UPDATE in a transaction of their own, since
+ * completion is only announced after the completing transaction has committed.
  */
+@Component
 public class TechnicianStatsUpdater implements ServiceCompletionObserver {
 
+    private final UserRepository userRepository;
+
+    @Autowired
+    public TechnicianStatsUpdater(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
     @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void onServiceCompleted(ServiceRequest request) {
         if (request.getTechnician() != null && request.getEstimate() != null) {
             // Update technician statistics
-            request.getTechnician().incrementCompletedJobCount();
-            request.getTechnician().addEarnings(request.getEstimate().getCost());
+            userRepository.recordCompletedJob(request.getTechnician().getId(), request.getEstimate().getCost());
         }
     }
 }
\ No newline at end of file
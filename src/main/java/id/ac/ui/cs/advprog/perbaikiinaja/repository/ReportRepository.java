@@ -4,6 +4,8 @@ import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -11,4 +13,12 @@ import java.util.UUID;
  */
 @Repository
 public interface ReportRepository extends CrudRepository<Report, UUID> {
-}
\ No newline at end of file
+
+    /**
+     * Finds all reports completed in the given interval, using the completion time index.
+     * @param start Inclusive lower bound of the completion time
+     * @param end Exclusive upper bound of the completion time
+     * @return A list of reports
+     */
+    List<Report> findByCompletionDateTimeGreaterThanEqualAndCompletionDateTimeLessThan(LocalDateTime start, LocalDateTime end);
+}
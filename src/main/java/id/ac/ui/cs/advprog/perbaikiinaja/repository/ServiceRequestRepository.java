@@ -1,12 +1,28 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.ServiceRequestSummaryDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.TechnicianInboxDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository interface for ServiceRequest entities.
@@ -14,6 +30,43 @@ import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
 @Repository
 public interface ServiceRequestRepository extends CrudRepository<ServiceRequest, UUID> {
 
+    /**
+     * Selects reported service requests together with every association the report views read,
+     * so each listing is served by a single query.
+     */
+    String REPORTED_WITH_DETAILS = "SELECT sr FROM ServiceRequest sr JOIN FETCH sr.report r "
+            + "LEFT JOIN FETCH sr.customer LEFT JOIN FETCH sr.technician LEFT JOIN FETCH sr.item "
+            + "LEFT JOIN FETCH sr.estimate LEFT JOIN FETCH sr.paymentMethod LEFT JOIN FETCH sr.coupon";
+
+    /**
+     * Keyset condition and ordering for paging reported requests newest first.
+     */
+    String BEFORE_REPORT_CURSOR = "(r.completionDateTime < :cursorTime "
+            + "OR (r.completionDateTime = :cursorTime AND r.id < :cursorId))";
+    String NEWEST_REPORT_FIRST = " ORDER BY r.completionDateTime DESC, r.id DESC";
+
+    /**
+     * Selects the admin summary of service requests with one join per association, instead of
+     * loading each association of each request.
+     */
+    String SUMMARY_SELECT = "SELECT new id.ac.ui.cs.advprog.perbaikiinaja.dtos.ServiceRequestSummaryDto("
+            + "sr.id, sr.stateType, sr.requestDate, sr.serviceDate, sr.problemDescription, "
+            + "c.id, c.fullName, t.id, t.fullName, i.name, e.cost, e.completionDate, pm.name, cp.code, "
+            + "CASE WHEN sr.report IS NOT NULL THEN true ELSE false END) "
+            + "FROM ServiceRequest sr LEFT JOIN sr.customer c LEFT JOIN sr.technician t LEFT JOIN sr.item i "
+            + "LEFT JOIN sr.estimate e LEFT JOIN sr.paymentMethod pm LEFT JOIN sr.coupon cp";
+
+    /**
+     * Request date filter and ordering for paging service requests newest first.
+     */
+    String REQUESTED_BETWEEN = "sr.requestDate >= :startDate AND sr.requestDate <= :endDate";
+    String NEWEST_REQUEST_FIRST = " ORDER BY sr.requestDate DESC, sr.id DESC";
+
+    /**
+     * Number of rows the driver fetches per round trip when streaming reports.
+     */
+    int EXPORT_FETCH_SIZE = 500;
+
     /**
      * Finds all service requests assigned to a technician.
      * @param technicianId The ID of the technician
@@ -21,10 +74,149 @@ public interface ServiceRequestRepository extends CrudRepository<ServiceRequest,
      */
     List<ServiceRequest> findByTechnicianId(UUID technicianId);
 
+    /**
+     * Finds the service requests assigned to a technician that are in the given state.
+     * @param technicianId The ID of the technician
+     * @param stateType The state of the requests
+     * @return A list of service requests
+     */
+    List<ServiceRequest> findByTechnicianIdAndStateType(UUID technicianId, ServiceRequestStateType stateType);
+
+    /**
+     * Finds one page of a technician's inbox: the requests in the given state, newest first.
+     * @param technicianId The ID of the technician
+     * @param stateType The state of the requests
+     * @param pageable The page to fetch
+     * @return A page of inbox entries
+     */
+    @Query(value = "SELECT new id.ac.ui.cs.advprog.perbaikiinaja.dtos.TechnicianInboxDto("
+            + "sr.id, sr.stateType, sr.requestDate, sr.serviceDate, sr.problemDescription, "
+            + "c.fullName, c.phoneNumber, i.name, e.cost, e.completionDate) "
+            + "FROM ServiceRequest sr LEFT JOIN sr.customer c LEFT JOIN sr.item i LEFT JOIN sr.estimate e "
+            + "WHERE sr.technician.id = :technicianId AND sr.stateType = :stateType" + NEWEST_REQUEST_FIRST,
+            countQuery = "SELECT COUNT(sr) FROM ServiceRequest sr "
+                    + "WHERE sr.technician.id = :technicianId AND sr.stateType = :stateType")
+    Page<TechnicianInboxDto> findInboxByTechnicianIdAndStateType(@Param("technicianId") UUID technicianId,
+            @Param("stateType") ServiceRequestStateType stateType, Pageable pageable);
+
     /**
      * Finds all service requests from a customer.
      * @param customerId The ID of the customer
      * @return A list of service requests
      */
     List<ServiceRequest> findByCustomerId(UUID customerId);
-}
\ No newline at end of file
+
+    /**
+     * Finds the service request a report belongs to, using the unique report_id column.
+     * @param reportId The ID of the report
+     * @return The service request with its report and details, or empty if there is none
+     */
+    @Query(REPORTED_WITH_DETAILS + " WHERE r.id = :reportId")
+    Optional<ServiceRequest> findByReportId(@Param("reportId") UUID reportId);
+
+    /**
+     * Finds all service requests of a technician that have a report.
+     * @param technicianId The ID of the technician
+     * @return A list of service requests with their reports and details
+     */
+    @Query(REPORTED_WITH_DETAILS + " WHERE sr.technician.id = :technicianId" + NEWEST_REPORT_FIRST)
+    List<ServiceRequest> findWithReportByTechnicianId(@Param("technicianId") UUID technicianId);
+
+    /**
+     * Finds one page of reported service requests, newest report first.
+     * @param cursorTime Completion time of the last row of the previous page
+     * @param cursorId Report ID of the last row of the previous page
+     * @param limit Maximum number of rows
+     * @return A list of service requests with their reports and details
+     */
+    @Query(REPORTED_WITH_DETAILS + " WHERE " + BEFORE_REPORT_CURSOR + NEWEST_REPORT_FIRST)
+    List<ServiceRequest> findWithReportBefore(
+            @Param("cursorTime") LocalDateTime cursorTime, @Param("cursorId") UUID cursorId, Limit limit);
+
+    /**
+     * Finds one page of a technician's reported service requests, newest report first.
+     * @param technicianId The ID of the technician
+     * @param cursorTime Completion time of the last row of the previous page
+     * @param cursorId Report ID of the last row of the previous page
+     * @param limit Maximum number of rows
+     * @return A list of service requests with their reports and details
+     */
+    @Query(REPORTED_WITH_DETAILS + " WHERE sr.technician.id = :technicianId AND " + BEFORE_REPORT_CURSOR
+            + NEWEST_REPORT_FIRST)
+    List<ServiceRequest> findWithReportByTechnicianIdBefore(@Param("technicianId") UUID technicianId,
+            @Param("cursorTime") LocalDateTime cursorTime, @Param("cursorId") UUID cursorId, Limit limit);
+
+    /**
+     * Finds one page of service requests whose report was completed in the given interval, newest report first.
+     * @param start Inclusive lower bound of the completion time
+     * @param end Exclusive upper bound of the completion time
+     * @param cursorTime Completion time of the last row of the previous page
+     * @param cursorId Report ID of the last row of the previous page
+     * @param limit Maximum number of rows
+     * @return A list of service requests with their reports and details
+     */
+    @Query(REPORTED_WITH_DETAILS + " WHERE r.completionDateTime >= :start AND r.completionDateTime < :end AND "
+            + BEFORE_REPORT_CURSOR + NEWEST_REPORT_FIRST)
+    List<ServiceRequest> findWithReportByCompletionDateTimeBetweenBefore(
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+            @Param("cursorTime") LocalDateTime cursorTime, @Param("cursorId") UUID cursorId, Limit limit);
+
+    /**
+     * Streams every reported service request, newest report first, for exports.
+     * Rows are fetched from the driver in batches and loaded read-only, so the stream must be
+     * consumed and closed inside a transaction.
+     * @return A stream of service requests with their reports and details
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(REPORTED_WITH_DETAILS + NEWEST_REPORT_FIRST)
+    Stream<ServiceRequest> streamAllWithReport();
+
+    /**
+     * Finds one page of service request summaries requested in the given interval, newest first.
+     * @param startDate Inclusive lower bound of the request date
+     * @param endDate Inclusive upper bound of the request date
+     * @param pageable The page to fetch
+     * @return A page of service request summaries
+     */
+    @Query(value = SUMMARY_SELECT + " WHERE " + REQUESTED_BETWEEN + NEWEST_REQUEST_FIRST,
+            countQuery = "SELECT COUNT(sr) FROM ServiceRequest sr WHERE " + REQUESTED_BETWEEN)
+    Page<ServiceRequestSummaryDto> findSummariesByRequestDateBetween(
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
+
+    /**
+     * Finds one page of summaries of service requests in a state, requested in the given interval, newest first.
+     * @param stateType The state of the requests
+     * @param startDate Inclusive lower bound of the request date
+     * @param endDate Inclusive upper bound of the request date
+     * @param pageable The page to fetch
+     * @return A page of service request summaries
+     */
+    @Query(value = SUMMARY_SELECT + " WHERE sr.stateType = :stateType AND " + REQUESTED_BETWEEN
+            + NEWEST_REQUEST_FIRST,
+            countQuery = "SELECT COUNT(sr) FROM ServiceRequest sr WHERE sr.stateType = :stateType AND "
+                    + REQUESTED_BETWEEN)
+    Page<ServiceRequestSummaryDto> findSummariesByStateTypeAndRequestDateBetween(
+            @Param("stateType") ServiceRequestStateType stateType, @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate, Pageable pageable);
+
+    /**
+     * Counts service requests per technician, limited to the given states.
+     * @param stateTypes The states to count
+     * @return One row per technician that has at least one matching request
+     */
+    @Query("SELECT sr.technician.id AS technicianId, COUNT(sr) AS openRequests FROM ServiceRequest sr "
+            + "WHERE sr.technician IS NOT NULL AND sr.stateType IN :stateTypes GROUP BY sr.technician.id")
+    List<TechnicianLoad> countByTechnicianAndStateTypeIn(@Param("stateTypes") Collection<ServiceRequestStateType> stateTypes);
+
+    /**
+     * Projection of the number of requests assigned to a technician.
+     */
+    interface TechnicianLoad {
+        UUID getTechnicianId();
+
+        long getOpenRequests();
+    }
+}
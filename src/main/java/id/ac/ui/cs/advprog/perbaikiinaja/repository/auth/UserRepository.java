@@ -1,7 +1,10 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.repository.auth;
 
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +15,18 @@ import java.util.List;
 public interface UserRepository extends CrudRepository<User, UUID> {
     Optional<User> findByEmail(String email);
     List<User> findByRole(String role);
+
+    @Query("SELECT t.id FROM Technician t")
+    List<UUID> findAllTechnicianIds();
+
+    @Query("SELECT COUNT(t) > 0 FROM Technician t WHERE t.id = :id")
+    boolean existsTechnicianById(@Param("id") UUID id);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") UUID id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Technician t SET t.completedJobs = t.completedJobs + 1, "
+            + "t.totalEarnings = t.totalEarnings + :earnings WHERE t.id = :id")
+    int recordCompletedJob(@Param("id") UUID id, @Param("earnings") double earnings);
 }
\ No newline at end of file
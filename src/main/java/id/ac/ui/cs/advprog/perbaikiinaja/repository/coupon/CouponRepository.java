@@ -3,9 +3,12 @@ package id.ac.ui.cs.advprog.perbaikiinaja.repository.coupon;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.coupon.Coupon;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +19,16 @@ public interface CouponRepository extends JpaRepository<Coupon, String> {
     @Transactional
     @Modifying
     void deleteByCode(String code);
+
+    /**
+     * Redeems a coupon in a single conditional update, so concurrent redemptions can never exceed maxUsage.
+     * @param code The coupon code
+     * @param today The redemption date; coupons expiring before it are not redeemed
+     * @return 1 if the coupon was redeemed, 0 if it does not exist, is expired or is used up
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Coupon c SET c.usageCount = c.usageCount + 1 "
+            + "WHERE c.code = :code AND c.usageCount < c.maxUsage AND c.expiryDate >= :today")
+    int incrementUsageIfAvailable(@Param("code") String code, @Param("today") Date today);
 }
\ No newline at end of file
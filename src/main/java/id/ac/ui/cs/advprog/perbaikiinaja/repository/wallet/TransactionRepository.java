@@ -1,15 +1,24 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.TransactionDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -31,6 +40,22 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
      */
     Page<Transaction> findByWallet(Wallet wallet, Pageable pageable);
 
+    /**
+     * Find one page of a wallet's transactions, newest first, starting after a keyset cursor.
+     * Served by the (wallet_id, timestamp, id) index without counting the wallet's transactions.
+     *
+     * @param walletId The ID of the wallet
+     * @param cursorTime Timestamp of the last transaction of the previous page
+     * @param cursorId ID of the last transaction of the previous page
+     * @param limit Maximum number of transactions
+     * @return A list of transactions
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.wallet.id = :walletId "
+            + "AND (t.timestamp < :cursorTime OR (t.timestamp = :cursorTime AND t.id < :cursorId)) "
+            + "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findByWalletIdBefore(@Param("walletId") UUID walletId,
+            @Param("cursorTime") LocalDateTime cursorTime, @Param("cursorId") UUID cursorId, Limit limit);
+
     /**
      * Find transactions of a specific type for a wallet.
      *
@@ -40,6 +65,44 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
      */
     List<Transaction> findByWalletAndType(Wallet wallet, TransactionType type);
 
+    /**
+     * Find one page of a wallet's transactions of a specific type, newest first.
+     * Served by the (wallet_id, type, timestamp) index; wallets are not loaded.
+     *
+     * @param walletId The ID of the wallet
+     * @param type The type of transactions to find
+     * @param pageable Pagination information, without sorting
+     * @return A page of transactions
+     */
+    @Query(value = "SELECT new id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.TransactionDto("
+            + "t.id, t.wallet.id, t.amount, t.type, t.timestamp, t.description, rw.id) "
+            + "FROM Transaction t LEFT JOIN t.relatedWallet rw WHERE t.wallet.id = :walletId AND t.type = :type "
+            + "ORDER BY t.timestamp DESC, t.id DESC",
+            countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.wallet.id = :walletId AND t.type = :type")
+    Page<TransactionDto> findDtosByWalletIdAndType(@Param("walletId") UUID walletId,
+            @Param("type") TransactionType type, Pageable pageable);
+
+    /**
+     * Find one page of a wallet's transactions within a date range, newest first.
+     * Served by the (wallet_id, timestamp, id) index; wallets are not loaded.
+     *
+     * @param walletId The ID of the wallet
+     * @param startDate The start date (inclusive)
+     * @param endDate The end date (inclusive)
+     * @param pageable Pagination information, without sorting
+     * @return A page of transactions
+     */
+    @Query(value = "SELECT new id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.TransactionDto("
+            + "t.id, t.wallet.id, t.amount, t.type, t.timestamp, t.description, rw.id) "
+            + "FROM Transaction t LEFT JOIN t.relatedWallet rw "
+            + "WHERE t.wallet.id = :walletId AND t.timestamp BETWEEN :startDate AND :endDate "
+            + "ORDER BY t.timestamp DESC, t.id DESC",
+            countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.wallet.id = :walletId "
+                    + "AND t.timestamp BETWEEN :startDate AND :endDate")
+    Page<TransactionDto> findDtosByWalletIdAndTimestampBetween(@Param("walletId") UUID walletId,
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+            Pageable pageable);
+
     /**
      * Find transactions within a date range for a wallet.
      *
@@ -58,4 +121,44 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
      * @return A list of transactions
      */
     List<Transaction> findByWalletAndRelatedWallet(Wallet wallet, Wallet relatedWallet);
+
+    /**
+     * Find the transaction of a given type recorded for a service request's payment.
+     * Unique per service request and type.
+     *
+     * @param serviceRequestId The ID of the service request
+     * @param type PAYMENT for the customer's side, EARNING for the technician's side
+     * @return An Optional containing the transaction if the request was paid
+     */
+    Optional<Transaction> findByServiceRequestIdAndType(UUID serviceRequestId, TransactionType type);
+
+    /**
+     * Find committed ledger transactions that are not in their wallet's balance snapshot yet,
+     * and lock their rows until the transaction ends.
+     *
+     * @param limit Maximum number of transactions
+     * @return The locked pending transactions
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.ledgerPending = true ORDER BY t.id")
+    List<Transaction> findLedgerPendingForUpdate(Limit limit);
+
+    /**
+     * Mark ledger transactions as added to their wallet's balance snapshot.
+     *
+     * @param ids The IDs of the transactions
+     * @return The number of transactions marked
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.ledgerPending = false WHERE t.id IN :ids")
+    int clearLedgerPending(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Mark all ledger transactions as added to their wallet's balance snapshot, when leaving ledger mode.
+     *
+     * @return The number of transactions marked
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.ledgerPending = false WHERE t.ledgerPending = true")
+    int clearAllLedgerPending();
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.WalletDailySummary;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.WalletDailySummaryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WalletDailySummaryRepository extends JpaRepository<WalletDailySummary, WalletDailySummaryId> {
+
+    /**
+     * Totals of one transaction type.
+     */
+    interface TypeTotal {
+        TransactionType getType();
+
+        BigDecimal getTotalAmount();
+
+        Long getTransactionCount();
+    }
+
+    /**
+     * Add to an existing rollup row in a single UPDATE.
+     *
+     * @param walletId The ID of the wallet
+     * @param summaryDate The day of the row
+     * @param type The transaction type of the row
+     * @param amount The amount to add to the total
+     * @param count The number of transactions to add to the count
+     * @return 1 if the row was updated, 0 if it does not exist yet
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE WalletDailySummary s SET s.totalAmount = s.totalAmount + :amount, "
+            + "s.transactionCount = s.transactionCount + :count "
+            + "WHERE s.id.walletId = :walletId AND s.id.summaryDate = :summaryDate AND s.id.type = :type")
+    int addToSummary(@Param("walletId") UUID walletId, @Param("summaryDate") LocalDate summaryDate,
+                     @Param("type") TransactionType type, @Param("amount") BigDecimal amount,
+                     @Param("count") long count);
+
+    /**
+     * Sum a wallet's rollups per transaction type over a date range.
+     *
+     * @param walletId The ID of the wallet
+     * @param startDate The first day (inclusive)
+     * @param endDate The last day (inclusive)
+     * @return One total per transaction type that has rows in the range
+     */
+    @Query("SELECT s.id.type AS type, SUM(s.totalAmount) AS totalAmount, SUM(s.transactionCount) AS transactionCount "
+            + "FROM WalletDailySummary s WHERE s.id.walletId = :walletId "
+            + "AND s.id.summaryDate BETWEEN :startDate AND :endDate GROUP BY s.id.type")
+    List<TypeTotal> sumByType(@Param("walletId") UUID walletId, @Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate);
+}
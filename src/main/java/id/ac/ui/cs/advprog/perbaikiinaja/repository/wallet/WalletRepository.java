@@ -2,14 +2,47 @@ package id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet;
 
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface WalletRepository extends JpaRepository<Wallet, UUID> {
+
+    /**
+     * A transaction's effect on its wallet's balance: credits add, debits subtract.
+     */
+    String SIGNED_AMOUNT = "CASE WHEN t.type IN ("
+            + "id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType.DEPOSIT, "
+            + "id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType.EARNING) "
+            + "THEN t.amount ELSE -t.amount END";
+
+    /**
+     * The pending ledger transactions of wallet w, which are not in its balance snapshot yet;
+     * zero outside ledger mode.
+     */
+    String PENDING_DELTAS = "COALESCE((SELECT SUM(" + SIGNED_AMOUNT + ") FROM Transaction t "
+            + "WHERE t.wallet = w AND t.ledgerPending = true), 0)";
+
+    /**
+     * A wallet's current balance.
+     */
+    interface LedgerBalance {
+        UUID getWalletId();
+
+        BigDecimal getBalance();
+    }
     /**
      * Find a wallet by its user.
      *
@@ -33,4 +66,104 @@ public interface WalletRepository extends JpaRepository<Wallet, UUID> {
      * @return true if a wallet exists, false otherwise
      */
     boolean existsByUser(User user);
+
+    /**
+     * Add to a wallet's balance in a single UPDATE, without loading the wallet.
+     *
+     * @param id The ID of the wallet
+     * @param amount The positive amount to add
+     * @param updatedAt The new update timestamp
+     * @return 1 if the wallet was updated, 0 if it does not exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :amount, w.updatedAt = :updatedAt WHERE w.id = :id")
+    int addToBalance(@Param("id") UUID id, @Param("amount") BigDecimal amount,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Subtract from a wallet's balance in a single conditional UPDATE, without loading the wallet.
+     * The balance is only changed if it covers the amount, so it can never go negative.
+     *
+     * @param id The ID of the wallet
+     * @param amount The positive amount to subtract
+     * @param updatedAt The new update timestamp
+     * @return 1 if the wallet was updated, 0 if it does not exist or has insufficient funds
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance - :amount, w.updatedAt = :updatedAt "
+            + "WHERE w.id = :id AND w.balance >= :amount")
+    int subtractFromBalance(@Param("id") UUID id, @Param("amount") BigDecimal amount,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Find a wallet by user ID and lock its row (SELECT ... FOR UPDATE) until the transaction ends.
+     * Callers locking more than one wallet must lock them in a fixed order to avoid deadlocks.
+     *
+     * @param userId The ID of the user
+     * @return An Optional containing the locked wallet if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.user.id = :userId")
+    Optional<Wallet> findByUserIdForUpdate(@Param("userId") UUID userId);
+
+    /**
+     * Find wallets by their IDs and lock their rows until the transaction ends.
+     * Rows are locked in ascending user ID order as sorted by the database, which compares UUIDs
+     * as unsigned numbers; processServicePayment locks its two wallets in the same order.
+     *
+     * @param ids The IDs of the wallets
+     * @return The locked wallets that exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.id IN :ids ORDER BY w.user.id")
+    List<Wallet> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Find a wallet by ID and lock its row until the transaction ends.
+     *
+     * @param id The ID of the wallet
+     * @return An Optional containing the locked wallet if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.id = :id")
+    Optional<Wallet> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Compute current balances as the balance snapshot plus the pending transactions, in one statement.
+     *
+     * @param ids The IDs of the wallets
+     * @return The balances of the wallets that exist
+     */
+    @Query("SELECT w.id AS walletId, w.balance + " + PENDING_DELTAS + " AS balance "
+            + "FROM Wallet w WHERE w.id IN :ids")
+    List<LedgerBalance> findLedgerBalances(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Check if any wallet is in ledger mode.
+     *
+     * @return true if some wallet has a balance snapshot
+     */
+    boolean existsByBalanceAsOfIsNotNull();
+
+    /**
+     * Turn the current balances of wallets outside ledger mode into snapshots.
+     *
+     * @param now The snapshot time
+     * @return The number of wallets moved into ledger mode
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balanceAsOf = :now WHERE w.balanceAsOf IS NULL")
+    int startLedgers(@Param("now") LocalDateTime now);
+
+    /**
+     * Add all pending ledger transactions to the balances and leave ledger mode.
+     * The transactions stay pending until {@link TransactionRepository#clearAllLedgerPending()} is called
+     * in the same database transaction.
+     *
+     * @return The number of wallets moved out of ledger mode
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance + " + PENDING_DELTAS + ", w.balanceAsOf = NULL "
+            + "WHERE w.balanceAsOf IS NOT NULL")
+    int closeLedgers();
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package id.ac.ui.cs.advprog.perbaikiinaja.service;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.RepairEstimate;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
+import id.ac.ui.cs.advprog.perbaikiinaja.observer.ServiceRequestSubject;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.ServiceRequestRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -14,10 +15,12 @@ import java.util.UUID;
 public class EstimateServiceImpl implements EstimateService {
 
     private final ServiceRequestRepository serviceRequestRepository;
+    private final ServiceRequestSubject serviceRequestSubject;
 
     @Autowired
-    public EstimateServiceImpl(ServiceRequestRepository serviceRequestRepository) {
+    public EstimateServiceImpl(ServiceRequestRepository serviceRequestRepository, ServiceRequestSubject serviceRequestSubject) {
         this.serviceRequestRepository = serviceRequestRepository;
+        this.serviceRequestSubject = serviceRequestSubject;
     }
 
     @Override
@@ -51,10 +54,13 @@ public class EstimateServiceImpl implements EstimateService {
         }
 
         // Accept the estimate
+        ServiceRequestStateType previousState = serviceRequest.getStateType();
         serviceRequest.acceptEstimate();
 
         // Save the updated service request
-        return serviceRequestRepository.save(serviceRequest);
+        ServiceRequest saved = serviceRequestRepository.save(serviceRequest);
+        serviceRequestSubject.notifyStateChanged(serviceRequest, previousState, serviceRequest.getStateType());
+        return saved;
     }
 
     @Override
@@ -72,12 +78,14 @@ public class EstimateServiceImpl implements EstimateService {
         }
 
         // Reject the estimate (in the state pattern, this transitions to REJECTED state)
+        ServiceRequestStateType previousState = serviceRequest.getStateType();
         serviceRequest.rejectEstimate();
 
         // In a real implementation, we might not want to delete the service request
         // but keep it with a REJECTED state for record keeping
         // For now, we'll simulate deletion
         serviceRequestRepository.delete(serviceRequest);
+        serviceRequestSubject.notifyStateChanged(serviceRequest, previousState, null);
 
         return serviceRequestId;
     }
@@ -1,8 +1,12 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.service;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ReportExportFormat;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.KeysetCursor;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
@@ -18,4 +22,14 @@ public interface ReportService {
     List<Report> getReportsByDateRange(LocalDate startDate, LocalDate endDate);
 
     ServiceRequest getServiceRequestByReportId(UUID reportId);
-}
\ No newline at end of file
+
+    List<ServiceRequest> getReportedServiceRequestsByTechnician(UUID technicianId);
+
+    List<ServiceRequest> getReportedServiceRequests(KeysetCursor cursor, int limit);
+
+    List<ServiceRequest> getReportedServiceRequestsByTechnician(UUID technicianId, KeysetCursor cursor, int limit);
+
+    List<ServiceRequest> getReportedServiceRequestsByDateRange(LocalDate startDate, LocalDate endDate, KeysetCursor cursor, int limit);
+
+    void exportReports(ReportExportFormat format, OutputStream outputStream) throws IOException;
+}
@@ -1,22 +1,31 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ReportExportFormat;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
-import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
-import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.ReportRepository;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.ServiceRequestRepository;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.KeysetCursor;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.ReportResponseUtils;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.stream.Stream;
 
 @Service
 public class ReportServiceImpl implements ReportService {
@@ -24,12 +33,17 @@ public class ReportServiceImpl implements ReportService {
     private final ServiceRequestRepository serviceRequestRepository;
     private final ReportRepository reportRepository;
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public ReportServiceImpl(ServiceRequestRepository serviceRequestRepository, ReportRepository reportRepository, UserRepository userRepository) {
+    public ReportServiceImpl(ServiceRequestRepository serviceRequestRepository, ReportRepository reportRepository,
+                             UserRepository userRepository, EntityManager entityManager, ObjectMapper objectMapper) {
         this.serviceRequestRepository = serviceRequestRepository;
         this.reportRepository = reportRepository;
         this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
     }
 
     @Override
@@ -57,50 +71,81 @@ public class ReportServiceImpl implements ReportService {
 
     @Override
     public List<Report> getReportsByDateRange(LocalDate startDate, LocalDate endDate) {
-        // Get all reports first
-        List<Report> allReports = getAllReports();
-
-        // Filter by date range
-        return allReports.stream()
-                .filter(report -> {
-                    LocalDate completionDate = report.getCompletionDateTime().toLocalDate();
-                    return !completionDate.isBefore(startDate) && !completionDate.isAfter(endDate);
-                })
-                .toList();
+        return reportRepository.findByCompletionDateTimeGreaterThanEqualAndCompletionDateTimeLessThan(
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
     }
 
     /**
-     * Helper method to get all technicians from the user repository
+     * Finds the ServiceRequest a report belongs to with a single indexed lookup.
      */
-    private List<Technician> getAllTechnicians() {
-        Iterable<User> allUsers = userRepository.findAll();
+    @Override
+    public ServiceRequest getServiceRequestByReportId(UUID reportId) {
+        return serviceRequestRepository.findByReportId(reportId)
+                .orElseThrow(() -> new IllegalArgumentException("Service request not found for report ID: " + reportId));
+    }
 
-        return StreamSupport.stream(allUsers.spliterator(), false)
-                .filter(Technician.class::isInstance)
-                .map(Technician.class::cast)
-                .toList();
+    @Override
+    public List<ServiceRequest> getReportedServiceRequestsByTechnician(UUID technicianId) {
+        return serviceRequestRepository.findWithReportByTechnicianId(technicianId);
+    }
+
+    @Override
+    public List<ServiceRequest> getReportedServiceRequests(KeysetCursor cursor, int limit) {
+        return serviceRequestRepository.findWithReportBefore(cursor.getTimestamp(), cursor.getId(), Limit.of(limit));
     }
 
     /**
-     * Helper method to find ServiceRequest by report ID
-     * This is useful for methods that need to access ServiceRequest data
+     * Checks that the technician exists first, since an unknown technician would otherwise look
+     * like a technician without reports.
      */
-    public ServiceRequest getServiceRequestByReportId(UUID reportId) {
-        // Get all technicians and their service requests
-        List<Technician> allTechnicians = getAllTechnicians();
+    @Override
+    public List<ServiceRequest> getReportedServiceRequestsByTechnician(UUID technicianId, KeysetCursor cursor, int limit) {
+        if (!userRepository.existsTechnicianById(technicianId)) {
+            throw new IllegalArgumentException("Technician not found with ID: " + technicianId);
+        }
+        return serviceRequestRepository.findWithReportByTechnicianIdBefore(
+                technicianId, cursor.getTimestamp(), cursor.getId(), Limit.of(limit));
+    }
 
-        for (Technician technician : allTechnicians) {
-            List<ServiceRequest> serviceRequests = serviceRequestRepository.findByTechnicianId(technician.getId());
+    @Override
+    public List<ServiceRequest> getReportedServiceRequestsByDateRange(LocalDate startDate, LocalDate endDate,
+                                                                      KeysetCursor cursor, int limit) {
+        return serviceRequestRepository.findWithReportByCompletionDateTimeBetweenBefore(
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(),
+                cursor.getTimestamp(), cursor.getId(), Limit.of(limit));
+    }
 
-            for (ServiceRequest sr : serviceRequests) {
-                if (sr.getReport() != null && sr.getReport().getId().equals(reportId)) {
-                    return sr;
+    /**
+     * Writes every report to the output stream one row at a time, so memory use does not grow
+     * with the number of reports. The persistence context is cleared after each fetched batch.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportReports(ReportExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ReportExportFormat.CSV) {
+            writer.write(ReportResponseUtils.CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<ServiceRequest> reportedRequests = serviceRequestRepository.streamAllWithReport()) {
+            Iterator<ServiceRequest> iterator = reportedRequests.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                ServiceRequest serviceRequest = iterator.next();
+                if (format == ReportExportFormat.CSV) {
+                    writer.write(ReportResponseUtils.toCsvRow(serviceRequest));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(ReportResponseUtils.toReportMap(serviceRequest)));
+                }
+                writer.write('\n');
+
+                if (++written % ServiceRequestRepository.EXPORT_FETCH_SIZE == 0) {
+                    writer.flush();
+                    entityManager.clear();
                 }
             }
         }
-
-        throw new IllegalArgumentException("Service request not found for report ID: " + reportId);
+        writer.flush();
     }
-
-
-}
\ No newline at end of file
+}
@@ -1,15 +1,20 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.service;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import java.util.Optional;
 
 import id.ac.ui.cs.advprog.perbaikiinaja.dtos.CustomerServiceRequestDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.ServiceRequestSummaryDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.TechnicianInboxDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.RepairEstimate;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 /**
  * Service interface for managing service requests.
@@ -24,8 +29,23 @@ public interface ServiceRequestService {
      */
     List<ServiceRequest> findByTechnician(UUID technicianId);
 
+    /**
+     * Retrieves the service requests assigned to a technician that are in the given state.
+     * @param technicianId The ID of the technician
+     * @param status The state of the requests
+     * @return List of service requests
+     */
     List<ServiceRequest> findByTechnicianAndStatus(UUID technicianId, ServiceRequestStateType status);
 
+    /**
+     * Retrieves one page of a technician's inbox, newest first.
+     * @param technicianId The ID of the technician
+     * @param status The state of the requests
+     * @param pageable The page to fetch
+     * @return A page of inbox entries
+     */
+    Page<TechnicianInboxDto> findInbox(UUID technicianId, ServiceRequestStateType status, Pageable pageable);
+
     /**
      * Retrieves all service requests from a customer.
      * @param customerId The ID of the customer
@@ -33,6 +53,17 @@ public interface ServiceRequestService {
      */
     List<ServiceRequest> findByCustomer(UUID customerId);
 
+    /**
+     * Retrieves one page of service request summaries for the admin listing, newest first.
+     * @param status The state to filter by, or null for every state
+     * @param startDate The earliest request date, or null for no lower bound
+     * @param endDate The latest request date (inclusive), or null for no upper bound
+     * @param pageable The page to fetch
+     * @return A page of service request summaries
+     */
+    Page<ServiceRequestSummaryDto> findSummaries(ServiceRequestStateType status, LocalDate startDate,
+                                                 LocalDate endDate, Pageable pageable);
+
     /**
      * Retrieves a service request by its ID.
      * @param requestId The ID of the service request
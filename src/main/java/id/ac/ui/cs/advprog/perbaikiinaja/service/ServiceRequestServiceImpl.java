@@ -1,21 +1,26 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.service;
 
 import java.math.BigDecimal;
-import java.security.SecureRandom;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.time.LocalDate;
 
 import id.ac.ui.cs.advprog.perbaikiinaja.dtos.CustomerServiceRequestDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.ServiceRequestSummaryDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.TechnicianInboxDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
+import id.ac.ui.cs.advprog.perbaikiinaja.observer.ServiceRequestSubject;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.ReportRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.assignment.TechnicianAssignmentEngine;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.wallet.WalletService;
 import id.ac.ui.cs.advprog.perbaikiinaja.state.EstimatedState;
 import id.ac.ui.cs.advprog.perbaikiinaja.state.PendingState;
 import id.ac.ui.cs.advprog.perbaikiinaja.state.RejectedState;
 import id.ac.ui.cs.advprog.perbaikiinaja.utils.PriceCalculationUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import id.ac.ui.cs.advprog.perbaikiinaja.model.Item;
@@ -45,9 +50,17 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
     private final PaymentMethodService paymentMethodService;
     private final WalletService walletService;
     private final ReportRepository reportRepository;
+    private final TechnicianAssignmentEngine technicianAssignmentEngine;
+    private final ServiceRequestSubject serviceRequestSubject;
 
     private static final String NOTASSIGNEDSTR = "This technician is not assigned to this service request";
 
+    /**
+     * Bounds used for an open-ended request date filter, so the listing always runs as an index range scan.
+     */
+    static final LocalDate EARLIEST_REQUEST_DATE = LocalDate.EPOCH;
+    static final LocalDate LATEST_REQUEST_DATE = LocalDate.of(9999, 12, 31);
+
     @Autowired
     public ServiceRequestServiceImpl(
             ServiceRequestRepository serviceRequestRepository,
@@ -55,13 +68,17 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
             CouponService couponService,
             PaymentMethodService paymentMethodService,
             WalletService walletService,
-            ReportRepository reportRepository) {
+            ReportRepository reportRepository,
+            TechnicianAssignmentEngine technicianAssignmentEngine,
+            ServiceRequestSubject serviceRequestSubject) {
         this.serviceRequestRepository = serviceRequestRepository;
         this.userRepository = userRepository;
         this.couponService = couponService;
         this.paymentMethodService = paymentMethodService;
         this.walletService = walletService;
         this.reportRepository = reportRepository;
+        this.technicianAssignmentEngine = technicianAssignmentEngine;
+        this.serviceRequestSubject = serviceRequestSubject;
     }
 
     @Override
@@ -71,10 +88,12 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
 
     @Override
     public List<ServiceRequest> findByTechnicianAndStatus(UUID technicianId, ServiceRequestStateType status) {
-        List<ServiceRequest> requests = findByTechnician(technicianId);
-        return requests.stream()
-                .filter(request -> request.getStateType().equals(status))
-                .toList();
+        return serviceRequestRepository.findByTechnicianIdAndStateType(technicianId, status);
+    }
+
+    @Override
+    public Page<TechnicianInboxDto> findInbox(UUID technicianId, ServiceRequestStateType status, Pageable pageable) {
+        return serviceRequestRepository.findInboxByTechnicianIdAndStateType(technicianId, status, pageable);
     }
 
     @Override
@@ -82,6 +101,17 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
         return serviceRequestRepository.findByCustomerId(customerId);
     }
 
+    @Override
+    public Page<ServiceRequestSummaryDto> findSummaries(ServiceRequestStateType status, LocalDate startDate,
+                                                        LocalDate endDate, Pageable pageable) {
+        LocalDate from = startDate != null ? startDate : EARLIEST_REQUEST_DATE;
+        LocalDate to = endDate != null ? endDate : LATEST_REQUEST_DATE;
+        if (status == null) {
+            return serviceRequestRepository.findSummariesByRequestDateBetween(from, to, pageable);
+        }
+        return serviceRequestRepository.findSummariesByStateTypeAndRequestDateBetween(status, from, to, pageable);
+    }
+
     @Override
     public Optional<ServiceRequest> findById(UUID requestId) {
         return serviceRequestRepository.findById(requestId);
@@ -108,9 +138,9 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
             estimate.setCompletionDate(LocalDate.now().plusDays(1)); // Set to tomorrow by default
         }
 
-        
+        ServiceRequestStateType previousState = request.getStateType();
         request.provideEstimate(estimate);
-        return serviceRequestRepository.save(request);
+        return saveTransition(request, previousState);
         
     }
 
@@ -129,9 +159,10 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
         }
 
         // Accept the estimate
+        ServiceRequestStateType previousState = request.getStateType();
         request.acceptEstimate();
 
-        return serviceRequestRepository.save(request);
+        return saveTransition(request, previousState);
     }
 
     @Override
@@ -144,9 +175,10 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
         }
 
         // Reject the estimate
+        ServiceRequestStateType previousState = request.getStateType();
         request.rejectEstimate();
 
-        return serviceRequestRepository.save(request);
+        return saveTransition(request, previousState);
     }
 
     @Override
@@ -159,9 +191,10 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
         }
 
         // Start the service
+        ServiceRequestStateType previousState = request.getStateType();
         request.startService();
 
-        return serviceRequestRepository.save(request);
+        return saveTransition(request, previousState);
     }
 
     @Override
@@ -175,6 +208,7 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
         }
 
         // Complete the service
+        ServiceRequestStateType previousState = request.getStateType();
         request.completeService();
 
         // Process payment - only if there's a valid estimate amount
@@ -192,7 +226,9 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
             );
         }
 
-        return serviceRequestRepository.save(request);
+        ServiceRequest saved = saveTransition(request, previousState);
+        serviceRequestSubject.notifyServiceCompleted(saved);
+        return saved;
     }
 
     @Override
@@ -243,32 +279,41 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
         request.setProblemDescription(dto.getIssueDescription());
         request.setCustomer((Customer) user);
 
-        Technician randomTechnician = getRandomTechnician();
-        request.setTechnician(randomTechnician);
+        Technician assignedTechnician = assignTechnician();
+        request.setTechnician(assignedTechnician);
 
-        Coupon couponUsed = getCouponByCode(dto.getCouponCode());
-        request.setCoupon(couponUsed);
+        try {
+            Coupon couponUsed = getCouponByCode(dto.getCouponCode());
+            request.setCoupon(couponUsed);
 
-        PaymentMethod paymentMethod = getPaymentMethodById(dto.getPaymentMethodId());
-        request.setPaymentMethod(paymentMethod);
+            PaymentMethod paymentMethod = getPaymentMethodById(dto.getPaymentMethodId());
+            request.setPaymentMethod(paymentMethod);
 
-        return serviceRequestRepository.save(request);
+            return saveTransition(request, null);
+        } catch (RuntimeException e) {
+            // The request was never created, so the technician does not get it
+            technicianAssignmentEngine.release(assignedTechnician.getId());
+            throw e;
+        }
     }
 
-    private Technician getRandomTechnician() {
-        Iterable<User> users = userRepository.findAll();
-        List<Technician> allTechnicians = new java.util.ArrayList<>();
-        for (User u : users) {
-            if (u instanceof Technician technician) {
-                allTechnicians.add(technician);
+    /**
+     * Helper method to pick a technician through the assignment engine.
+     * Only the chosen technician is loaded; IDs that no longer exist give back their reservation
+     * and are dropped from the pool.
+     */
+    private Technician assignTechnician() {
+        while (true) {
+            UUID technicianId = technicianAssignmentEngine.assign()
+                    .orElseThrow(() -> new IllegalStateException("No technician available to assign to this service request"));
+
+            Optional<User> user = userRepository.findById(technicianId);
+            if (user.isPresent() && user.get() instanceof Technician technician) {
+                return technician;
             }
+            technicianAssignmentEngine.release(technicianId);
+            technicianAssignmentEngine.removeTechnician(technicianId);
         }
-        if (allTechnicians.isEmpty()) {
-            throw new IllegalStateException("No technician available to assign to this service request");
-        }
-        SecureRandom secureRandom = new SecureRandom();
-        int randomIdx = secureRandom.nextInt(allTechnicians.size());
-        return allTechnicians.get(randomIdx);
     }
 
     @Override
@@ -293,9 +338,10 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
         existing.setPaymentMethod(paymentMethod);
 
         // Set state to Pending after update
-        existing.setState(new PendingState());
+        ServiceRequestStateType previousState = existing.getStateType();
+        existing.setState(PendingState.INSTANCE);
 
-        return serviceRequestRepository.save(existing);
+        return saveTransition(existing, previousState);
     }
 
     @Override
@@ -304,6 +350,16 @@ public class ServiceRequestServiceImpl implements ServiceRequestService {
         checkCanDelete(existing, user);
 
         serviceRequestRepository.deleteById(requestId);
+        serviceRequestSubject.notifyStateChanged(existing, existing.getStateType(), null);
+    }
+
+    /**
+     * Helper method to save a service request and notify observers of its state change.
+     */
+    private ServiceRequest saveTransition(ServiceRequest request, ServiceRequestStateType previousState) {
+        ServiceRequest saved = serviceRequestRepository.save(request);
+        serviceRequestSubject.notifyStateChanged(request, previousState, request.getStateType());
+        return saved;
     }
 
     private void checkCanUpdate(ServiceRequest existing, User user) {
@@ -0,0 +1,62 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.assignment;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Assigns service requests to the technician with the fewest open requests.
+ * Load is read from {@link TechnicianLoadTracker}, which is kept current by state transitions.
+ * The chosen technician is reserved in the tracker right away, so the next assignment already sees the new load.
+ */
+@Component("least-loaded")
+public class LeastLoadedAssignmentStrategy implements TechnicianAssignmentStrategy {
+
+    private final TechnicianLoadTracker technicianLoadTracker;
+
+    // Members of the last pool seen, so each selection can check membership without copying the pool
+    private volatile Pool pool = new Pool(List.of(), Set.of());
+
+    @Autowired
+    public LeastLoadedAssignmentStrategy(TechnicianLoadTracker technicianLoadTracker) {
+        this.technicianLoadTracker = technicianLoadTracker;
+    }
+
+    @Override
+    public UUID select(List<UUID> technicianIds) {
+        return technicianLoadTracker.reserveLeastLoaded(membersOf(technicianIds)).orElseGet(() -> {
+            UUID technicianId = technicianIds.get(0);
+            technicianLoadTracker.reserve(technicianId);
+            return technicianId;
+        });
+    }
+
+    @Override
+    public void release(UUID technicianId) {
+        technicianLoadTracker.release(technicianId);
+    }
+
+    @Override
+    public void onPoolChanged(List<UUID> technicianIds) {
+        pool = new Pool(technicianIds, Set.copyOf(technicianIds));
+        technicianLoadTracker.synchronizePool(technicianIds);
+    }
+
+    /**
+     * Helper method to get the members of a pool snapshot, reusing the set built when the pool was published.
+     */
+    private Set<UUID> membersOf(List<UUID> technicianIds) {
+        Pool current = pool;
+        if (current.technicianIds() != technicianIds) {
+            current = new Pool(technicianIds, Set.copyOf(technicianIds));
+            pool = current;
+        }
+        return current.members();
+    }
+
+    private record Pool(List<UUID> technicianIds, Set<UUID> members) {
+    }
+}
@@ -0,0 +1,21 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.assignment;
+
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Assigns service requests to a uniformly random technician.
+ */
+@Component("random")
+public class RandomAssignmentStrategy implements TechnicianAssignmentStrategy {
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Override
+    public UUID select(List<UUID> technicianIds) {
+        return technicianIds.get(secureRandom.nextInt(technicianIds.size()));
+    }
+}
@@ -0,0 +1,22 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.assignment;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Assigns service requests to technicians in turn.
+ */
+@Component("round-robin")
+public class RoundRobinAssignmentStrategy implements TechnicianAssignmentStrategy {
+
+    private final AtomicLong counter = new AtomicLong();
+
+    @Override
+    public UUID select(List<UUID> technicianIds) {
+        int index = (int) Math.floorMod(counter.getAndIncrement(), (long) technicianIds.size());
+        return technicianIds.get(index);
+    }
+}
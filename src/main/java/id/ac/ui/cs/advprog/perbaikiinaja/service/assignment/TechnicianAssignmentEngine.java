@@ -0,0 +1,137 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.assignment;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Chooses the technician for new service requests.
+ * Keeps an in-memory pool of technician IDs, loaded once from the database
+ * and then maintained through {@link #registerTechnician(UUID)} and
+ * {@link #removeTechnician(UUID)}, so assignment never loads User entities.
+ */
+@Component
+public class TechnicianAssignmentEngine {
+
+    private final UserRepository userRepository;
+    private final TechnicianAssignmentStrategy strategy;
+    private final Object poolLock = new Object();
+
+    // Immutable snapshot, replaced on every change; null until first loaded
+    private volatile List<UUID> technicianIds;
+
+    @Autowired
+    public TechnicianAssignmentEngine(
+            UserRepository userRepository,
+            Map<String, TechnicianAssignmentStrategy> strategies,
+            @Value("${assignment.technician.strategy:least-loaded}") String strategyName) {
+        this(userRepository, resolveStrategy(strategies, strategyName));
+    }
+
+    public TechnicianAssignmentEngine(UserRepository userRepository, TechnicianAssignmentStrategy strategy) {
+        this.userRepository = userRepository;
+        this.strategy = strategy;
+    }
+
+    /**
+     * Chooses a technician using the configured strategy.
+     * @return The ID of the chosen technician, or empty if there are no technicians
+     */
+    public Optional<UUID> assign() {
+        List<UUID> pool = getTechnicianIds();
+        if (pool.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(strategy.select(pool));
+    }
+
+    /**
+     * Gives back a technician returned by {@link #assign()} whose request was never created.
+     * @param technicianId The ID of the technician
+     */
+    public void release(UUID technicianId) {
+        strategy.release(technicianId);
+    }
+
+    /**
+     * Adds a newly registered technician to the pool.
+     * @param technicianId The ID of the technician
+     */
+    public void registerTechnician(UUID technicianId) {
+        synchronized (poolLock) {
+            List<UUID> pool = getTechnicianIds();
+            if (!pool.contains(technicianId)) {
+                List<UUID> updated = new ArrayList<>(pool);
+                updated.add(technicianId);
+                publishPool(updated);
+            }
+        }
+    }
+
+    /**
+     * Removes a deleted technician from the pool.
+     * The pool is published even if the technician was not in it, so the strategy also drops
+     * anything it tracked for an ID it only learned about elsewhere.
+     * @param technicianId The ID of the technician
+     */
+    public void removeTechnician(UUID technicianId) {
+        synchronized (poolLock) {
+            List<UUID> updated = new ArrayList<>(getTechnicianIds());
+            updated.remove(technicianId);
+            publishPool(updated);
+        }
+    }
+
+    /**
+     * Reloads the pool from the database.
+     */
+    public void refresh() {
+        synchronized (poolLock) {
+            publishPool(userRepository.findAllTechnicianIds());
+        }
+    }
+
+    /**
+     * Gets the current technician pool, loading it on first use.
+     * @return An immutable snapshot of technician IDs
+     */
+    public List<UUID> getTechnicianIds() {
+        List<UUID> pool = technicianIds;
+        if (pool == null) {
+            synchronized (poolLock) {
+                if (technicianIds == null) {
+                    publishPool(userRepository.findAllTechnicianIds());
+                }
+                pool = technicianIds;
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Helper method to replace the pool snapshot and tell the strategy about it. Callers hold the pool lock.
+     */
+    private void publishPool(List<UUID> pool) {
+        List<UUID> snapshot = List.copyOf(pool);
+        technicianIds = snapshot;
+        strategy.onPoolChanged(snapshot);
+    }
+
+    private static TechnicianAssignmentStrategy resolveStrategy(
+            Map<String, TechnicianAssignmentStrategy> strategies, String strategyName) {
+        TechnicianAssignmentStrategy strategy = strategies.get(strategyName);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown technician assignment strategy: " + strategyName
+                    + ". Valid values are: " + strategies.keySet());
+        }
+        return strategy;
+    }
+}
@@ -0,0 +1,35 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.assignment;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Strategy for choosing which technician receives a new service request.
+ * Follows the Strategy design pattern.
+ */
+public interface TechnicianAssignmentStrategy {
+
+    /**
+     * Chooses one technician from the current pool.
+     * @param technicianIds Snapshot of the technician pool, never empty
+     * @return The ID of the chosen technician
+     */
+    UUID select(List<UUID> technicianIds);
+
+    /**
+     * Called whenever the technician pool changes, so stateful strategies can update their bookkeeping.
+     * @param technicianIds Snapshot of the new technician pool
+     */
+    default void onPoolChanged(List<UUID> technicianIds) {
+        // Stateless strategies have nothing to record
+    }
+
+    /**
+     * Called when a technician returned by {@link #select(List)} did not get the request after all,
+     * e.g. because creating the request failed.
+     * @param technicianId The ID of the technician
+     */
+    default void release(UUID technicianId) {
+        // Stateless strategies have nothing to undo
+    }
+}
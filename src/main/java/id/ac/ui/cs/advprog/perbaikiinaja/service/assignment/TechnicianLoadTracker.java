@@ -0,0 +1,262 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.assignment;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
+import id.ac.ui.cs.advprog.perbaikiinaja.observer.ServiceStateChangeObserver;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.ServiceRequestRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Keeps a live count of open (PENDING, ESTIMATED, ACCEPTED, IN_PROGRESS) service requests per technician.
+ * Counts are seeded from the database once and then updated on every state transition.
+ * Technicians are also kept in a concurrent set ordered by load, so the least-loaded
+ * technician can be found without scanning the whole pool.
+ * A technician chosen for a new request is counted right away through a reservation, which the
+ * request's creation event later settles; otherwise concurrent assignments would all see the same
+ * least-loaded technician until the first creation event arrived.
+ */
+@Component
+public class TechnicianLoadTracker implements ServiceStateChangeObserver {
+
+    public static final String OPEN_REQUESTS_METRIC = "technician.open.requests";
+
+    private final ServiceRequestRepository serviceRequestRepository;
+    private final Object seedLock = new Object();
+    private final Object reserveLock = new Object();
+
+    private final Map<UUID, Integer> openRequests = new ConcurrentHashMap<>();
+    // Mutated only inside openRequests' per-key compute functions, so each technician has exactly one entry
+    private final ConcurrentSkipListSet<TechnicianLoad> byLoad = new ConcurrentSkipListSet<>();
+    // Reservations already counted in openRequests whose creation event has not arrived yet
+    private final Map<UUID, Integer> reservations = new ConcurrentHashMap<>();
+    private volatile boolean seeded;
+
+    @Autowired
+    public TechnicianLoadTracker(ServiceRequestRepository serviceRequestRepository, MeterRegistry meterRegistry) {
+        this.serviceRequestRepository = serviceRequestRepository;
+        registerGauge(meterRegistry, "min", 0.0);
+        registerGauge(meterRegistry, "p95", 0.95);
+        registerGauge(meterRegistry, "max", 1.0);
+    }
+
+    @Override
+    public void onStateChanged(ServiceRequest request, ServiceRequestStateType previousState, ServiceRequestStateType newState) {
+        if (request.getTechnician() == null || request.getTechnician().getId() == null) {
+            return;
+        }
+
+        UUID technicianId = request.getTechnician().getId();
+        int delta = (isOpen(newState) ? 1 : 0) - (isOpen(previousState) ? 1 : 0);
+        if (previousState == null && delta > 0 && consumeReservation(technicianId)) {
+            // Counted when the technician was reserved for this request
+            return;
+        }
+        if (delta != 0) {
+            ensureSeeded();
+            adjust(technicianId, delta);
+        }
+    }
+
+    /**
+     * Chooses the least-loaded technician of a pool and counts the new request against it in one step,
+     * so concurrent assignments spread over the pool.
+     * Tracked technicians outside the pool, e.g. ones only known from state change events, are skipped.
+     * @param pool The technicians that may be chosen
+     * @return The ID of the reserved technician, or empty if no member of the pool is tracked
+     */
+    public Optional<UUID> reserveLeastLoaded(Set<UUID> pool) {
+        ensureSeeded();
+        synchronized (reserveLock) {
+            for (TechnicianLoad load : byLoad) {
+                if (pool.contains(load.technicianId())) {
+                    reserve(load.technicianId());
+                    return Optional.of(load.technicianId());
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Counts a new request against a technician before the request is created.
+     * The request's creation event settles the reservation instead of counting the request again.
+     * @param technicianId The ID of the technician
+     */
+    public void reserve(UUID technicianId) {
+        ensureSeeded();
+        reservations.merge(technicianId, 1, Integer::sum);
+        adjust(technicianId, 1);
+    }
+
+    /**
+     * Gives back a reservation whose request was never created.
+     * Does nothing if the creation event already settled it.
+     * @param technicianId The ID of the reserved technician
+     */
+    public void release(UUID technicianId) {
+        if (consumeReservation(technicianId)) {
+            adjust(technicianId, -1);
+        }
+    }
+
+    /**
+     * Makes the tracked technicians match the assignment pool.
+     * New technicians start with their current open request count, removed ones are dropped.
+     * @param technicianIds The current technician pool
+     */
+    public void synchronizePool(Collection<UUID> technicianIds) {
+        ensureSeeded();
+
+        Set<UUID> pool = new HashSet<>(technicianIds);
+        for (UUID technicianId : pool) {
+            adjust(technicianId, 0);
+        }
+        for (UUID technicianId : openRequests.keySet()) {
+            if (!pool.contains(technicianId)) {
+                removeTechnician(technicianId);
+            }
+        }
+    }
+
+    /**
+     * Gets the technician with the fewest open requests, ties broken by ID.
+     * @return The ID of the least-loaded technician, or empty if none are tracked
+     */
+    public Optional<UUID> findLeastLoaded() {
+        ensureSeeded();
+        Iterator<TechnicianLoad> iterator = byLoad.iterator();
+        return iterator.hasNext() ? Optional.of(iterator.next().technicianId()) : Optional.empty();
+    }
+
+    public int getOpenRequestCount(UUID technicianId) {
+        ensureSeeded();
+        return openRequests.getOrDefault(technicianId, 0);
+    }
+
+    /**
+     * Gets a snapshot of all counters.
+     * @return Open request counts keyed by technician ID, least-loaded first
+     */
+    public Map<UUID, Integer> getOpenRequestCounts() {
+        ensureSeeded();
+        Map<UUID, Integer> snapshot = new LinkedHashMap<>();
+        for (TechnicianLoad load : byLoad) {
+            snapshot.put(load.technicianId(), load.openRequests());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Helper method to change a technician's count, adding the technician if it is not tracked yet.
+     */
+    private void adjust(UUID technicianId, int delta) {
+        openRequests.compute(technicianId, (id, current) -> {
+            int updated = Math.max(0, (current == null ? 0 : current) + delta);
+            if (current != null) {
+                if (current == updated) {
+                    return current;
+                }
+                byLoad.remove(new TechnicianLoad(current, id));
+            }
+            byLoad.add(new TechnicianLoad(updated, id));
+            return updated;
+        });
+    }
+
+    /**
+     * Helper method to settle one reservation of a technician.
+     * @return true if the technician had a reservation
+     */
+    private boolean consumeReservation(UUID technicianId) {
+        boolean[] consumed = {false};
+        reservations.computeIfPresent(technicianId, (id, count) -> {
+            consumed[0] = true;
+            return count > 1 ? count - 1 : null;
+        });
+        return consumed[0];
+    }
+
+    /**
+     * Helper method to stop tracking a technician.
+     */
+    private void removeTechnician(UUID technicianId) {
+        reservations.remove(technicianId);
+        openRequests.computeIfPresent(technicianId, (id, current) -> {
+            byLoad.remove(new TechnicianLoad(current, id));
+            return null;
+        });
+    }
+
+    /**
+     * Helper method to load the open request counts from the database on first use.
+     */
+    private void ensureSeeded() {
+        if (seeded) {
+            return;
+        }
+        synchronized (seedLock) {
+            if (seeded) {
+                return;
+            }
+            List<ServiceRequestStateType> openStates = Arrays.stream(ServiceRequestStateType.values())
+                    .filter(ServiceRequestStateType::isOpen)
+                    .toList();
+            for (ServiceRequestRepository.TechnicianLoad load
+                    : serviceRequestRepository.countByTechnicianAndStateTypeIn(openStates)) {
+                adjust(load.getTechnicianId(), (int) load.getOpenRequests());
+            }
+            seeded = true;
+        }
+    }
+
+    /**
+     * Helper method to publish one statistic of the load distribution. Only aggregates are exported,
+     * so the number of series does not grow with the number of technicians.
+     */
+    private void registerGauge(MeterRegistry meterRegistry, String statistic, double percentile) {
+        Gauge.builder(OPEN_REQUESTS_METRIC, this, tracker -> tracker.loadPercentile(percentile))
+                .description("Open service requests per technician across the assignment pool")
+                .tag("statistic", statistic)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Helper method to read a percentile of the tracked loads, using the nearest-rank method.
+     */
+    private double loadPercentile(double percentile) {
+        List<TechnicianLoad> loads = List.copyOf(byLoad);
+        if (loads.isEmpty()) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * loads.size());
+        return loads.get(Math.max(0, rank - 1)).openRequests();
+    }
+
+    private static boolean isOpen(ServiceRequestStateType stateType) {
+        return stateType != null && stateType.isOpen();
+    }
+
+    private record TechnicianLoad(int openRequests, UUID technicianId) implements Comparable<TechnicianLoad> {
+        @Override
+        public int compareTo(TechnicianLoad other) {
+            int byCount = Integer.compare(openRequests, other.openRequests);
+            return byCount != 0 ? byCount : technicianId.compareTo(other.technicianId);
+        }
+    }
+}
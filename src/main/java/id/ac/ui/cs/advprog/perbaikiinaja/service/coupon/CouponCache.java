@@ -0,0 +1,109 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.coupon;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.coupon.Coupon;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of coupon lookups by code.
+ * Found coupons are kept as immutable snapshots and handed out as fresh copies, so callers can never
+ * change a cached entry. Unknown codes are remembered in a separate, shorter-lived cache, so guessing
+ * coupon codes does not reach the database and cannot push real coupons out of the cache.
+ * Both caches expire on their own, which bounds staleness when another instance changes a coupon.
+ */
+@Component
+public class CouponCache {
+
+    public static final String CACHE_NAME = "coupons";
+    public static final String UNKNOWN_CODES_CACHE_NAME = "coupons.unknown";
+
+    static final Duration TIME_TO_LIVE = Duration.ofMinutes(10);
+    static final Duration UNKNOWN_CODE_TIME_TO_LIVE = Duration.ofMinutes(1);
+
+    private final Cache<String, CouponSnapshot> coupons;
+    private final Cache<String, Boolean> unknownCodes;
+
+    @Autowired
+    public CouponCache(@Value("${coupon.cache.max-size:1000}") long maximumSize,
+                       @Value("${coupon.cache.unknown-codes.max-size:10000}") long unknownCodesMaximumSize,
+                       MeterRegistry meterRegistry) {
+        this(maximumSize, unknownCodesMaximumSize, Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, coupons, CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, unknownCodes, UNKNOWN_CODES_CACHE_NAME);
+    }
+
+    CouponCache(long maximumSize, long unknownCodesMaximumSize, Ticker ticker) {
+        this.coupons = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(TIME_TO_LIVE)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        this.unknownCodes = Caffeine.newBuilder()
+                .maximumSize(unknownCodesMaximumSize)
+                .expireAfterWrite(UNKNOWN_CODE_TIME_TO_LIVE)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Gets a coupon, loading and caching it on a miss.
+     * @param code The coupon code
+     * @param loader Loads the coupon from the database
+     * @return A copy of the cached coupon, or empty if the code is unknown
+     */
+    public Optional<Coupon> get(String code, Function<String, Optional<Coupon>> loader) {
+        if (unknownCodes.getIfPresent(code) != null) {
+            return Optional.empty();
+        }
+
+        CouponSnapshot snapshot = coupons.get(code, key -> loader.apply(key)
+                .map(CouponSnapshot::of)
+                .orElse(null));
+        if (snapshot == null) {
+            unknownCodes.put(code, Boolean.TRUE);
+            return Optional.empty();
+        }
+        return Optional.of(snapshot.toCoupon());
+    }
+
+    /**
+     * Forgets a coupon, so the next lookup reads it from the database again.
+     * Called whenever a coupon is created, changed, redeemed or deleted.
+     * @param code The coupon code
+     */
+    public void evict(String code) {
+        coupons.invalidate(code);
+        unknownCodes.invalidate(code);
+    }
+
+    public void evictAll() {
+        coupons.invalidateAll();
+        unknownCodes.invalidateAll();
+    }
+
+    private record CouponSnapshot(String code, double discountValue, int maxUsage, int usageCount,
+                                  long expiryDateMillis) {
+
+        static CouponSnapshot of(Coupon coupon) {
+            return new CouponSnapshot(coupon.getCode(), coupon.getDiscountValue(), coupon.getMaxUsage(),
+                    coupon.getUsageCount(), coupon.getExpiryDate().getTime());
+        }
+
+        Coupon toCoupon() {
+            return new Coupon(code, discountValue, maxUsage, usageCount, new Date(expiryDateMillis));
+        }
+    }
+}
@@ -14,15 +14,19 @@ import java.util.Optional;
 @Service
 public class CouponServiceImpl implements CouponService {
     private final CouponRepository couponRepository;
+    private final CouponCache couponCache;
 
-    public CouponServiceImpl(CouponRepository couponRepository) {
+    public CouponServiceImpl(CouponRepository couponRepository, CouponCache couponCache) {
         this.couponRepository = couponRepository;
+        this.couponCache = couponCache;
     }
 
     @Override
     public Coupon createCoupon(Coupon coupon) {
         CouponValidation.validateCouponData(coupon);
-        return couponRepository.save(coupon);
+        Coupon savedCoupon = couponRepository.save(coupon);
+        couponCache.evict(savedCoupon.getCode());
+        return savedCoupon;
     }
 
     @Override
@@ -30,31 +34,36 @@ public class CouponServiceImpl implements CouponService {
         return couponRepository.findAll();
     }
 
+    /**
+     * Gets a coupon through the coupon cache. The returned coupon is a detached copy.
+     */
     @Override
     public Optional<Coupon> getCouponByCode(String code) {
-        return couponRepository.findByCode(code);
+        return couponCache.get(code, couponRepository::findByCode);
     }
 
     /**
      * Tries to use coupon with the given code.
-     * If coupon is expired, throw exception.
-     * If usage exceeds maxUsage, throw exception.
-     * Otherwise, increment usage count and save it
+     * The usage count is checked and incremented by one conditional update, so concurrent
+     * redemptions never exceed maxUsage.
+     * If the update does not apply, the coupon is read to report why:
+     * not found, expired, or usage limit reached.
      */
     @Override
     public Coupon useCoupon(String code) {
-            Coupon coupon = couponRepository.findByCode(code)
+        if (couponRepository.incrementUsageIfAvailable(code, new Date()) == 1) {
+            couponCache.evict(code);
+            return couponRepository.findByCode(code)
                     .orElseThrow(() -> new NoSuchElementException("Coupon not found"));
+        }
 
-            if (coupon.getExpiryDate().before(new Date())) {
-                throw new IllegalStateException("Coupon is expired");
-            }
+        Coupon coupon = couponRepository.findByCode(code)
+                .orElseThrow(() -> new NoSuchElementException("Coupon not found"));
 
-            if (coupon.getUsageCount() >= coupon.getMaxUsage()) {
-                throw new IllegalStateException("Coupon usage limit reached");
-            }
-            coupon.incrementUsageCount();
-            return couponRepository.save(coupon);
+        if (coupon.getExpiryDate().before(new Date())) {
+            throw new IllegalStateException("Coupon is expired");
+        }
+        throw new IllegalStateException("Coupon usage limit reached");
     }
 
     @Override
@@ -66,7 +75,9 @@ public class CouponServiceImpl implements CouponService {
             existingCoupon.setDiscountValue(updatedCouponDetails.getDiscountValue());
             existingCoupon.setMaxUsage(updatedCouponDetails.getMaxUsage());
             existingCoupon.setExpiryDate(updatedCouponDetails.getExpiryDate());
-            return Optional.of(couponRepository.save(existingCoupon));
+            Coupon savedCoupon = couponRepository.save(existingCoupon);
+            couponCache.evict(code);
+            return Optional.of(savedCoupon);
         }
         return Optional.empty();
     }
@@ -75,6 +86,7 @@ public class CouponServiceImpl implements CouponService {
     public Optional<Coupon> deleteCoupon(String code) {
         Optional<Coupon> couponToDeleteOptional = couponRepository.findByCode(code);
         couponToDeleteOptional.ifPresent(coupon -> couponRepository.deleteByCode(code));
+        couponCache.evict(code);
         return couponToDeleteOptional;
     }
 }
\ No newline at end of file
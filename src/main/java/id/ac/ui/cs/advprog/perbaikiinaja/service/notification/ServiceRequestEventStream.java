@@ -0,0 +1,153 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.notification;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
+import id.ac.ui.cs.advprog.perbaikiinaja.observer.ServiceStateChangeObserver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pushes service request status changes to the customer and technician of each request as
+ * server-sent events, so clients can wait for updates instead of polling the listings.
+ * Each user may hold a few open streams (e.g. one per browser tab); opening another closes the oldest.
+ * Streams that fail to receive an event are dropped, and a periodic heartbeat finds dead connections
+ * that never receive anything. Each event is built once and the same chunks are written to every stream,
+ * since building an SseEventBuilder again appends its text a second time.
+ */
+@Component
+public class ServiceRequestEventStream implements ServiceStateChangeObserver {
+
+    public static final String STATUS_EVENT = "status";
+
+    private final Supplier<SseEmitter> emitterFactory;
+    private final int maxStreamsPerUser;
+    private final Map<UUID, Deque<SseEmitter>> streams = new ConcurrentHashMap<>();
+    private final AtomicLong eventIds = new AtomicLong();
+
+    @Autowired
+    public ServiceRequestEventStream(@Value("${service-request.stream.timeout-ms:1800000}") long timeoutMillis,
+                                     @Value("${service-request.stream.max-per-user:5}") int maxStreamsPerUser) {
+        this(() -> new SseEmitter(timeoutMillis), maxStreamsPerUser);
+    }
+
+    ServiceRequestEventStream(Supplier<SseEmitter> emitterFactory, int maxStreamsPerUser) {
+        this.emitterFactory = emitterFactory;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+    }
+
+    /**
+     * Opens a stream of status changes of the user's service requests.
+     * @param userId The ID of the customer or technician
+     * @return The emitter to return from the controller
+     */
+    public SseEmitter subscribe(UUID userId) {
+        SseEmitter emitter = emitterFactory.get();
+        // Added inside compute, so a concurrent removal of the user's last stream cannot drop it
+        Deque<SseEmitter> userStreams = streams.compute(userId, (id, current) -> {
+            Deque<SseEmitter> updated = current != null ? current : new ConcurrentLinkedDeque<>();
+            updated.addLast(emitter);
+            return updated;
+        });
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        while (userStreams.size() > maxStreamsPerUser) {
+            SseEmitter oldest = userStreams.pollFirst();
+            if (oldest != null) {
+                oldest.complete();
+            }
+        }
+        return emitter;
+    }
+
+    @Override
+    public void onStateChanged(ServiceRequest request, ServiceRequestStateType previousState, ServiceRequestStateType newState) {
+        Set<UUID> recipients = new LinkedHashSet<>();
+        addRecipient(recipients, request.getCustomer());
+        addRecipient(recipients, request.getTechnician());
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("serviceRequestId", request.getId());
+        event.put("previousStatus", previousState);
+        event.put("status", newState);
+        event.put("changedAt", LocalDateTime.now());
+        Set<DataWithMediaType> chunks = SseEmitter.event()
+                .id(Long.toString(eventIds.incrementAndGet()))
+                .name(STATUS_EVENT)
+                .data(event)
+                .build();
+
+        for (UUID userId : recipients) {
+            send(userId, chunks);
+        }
+    }
+
+    /**
+     * Sends a comment to every open stream, so proxies keep idle connections open and
+     * streams of clients that went away are found and dropped.
+     */
+    @Scheduled(fixedDelayString = "${service-request.stream.heartbeat-ms:15000}")
+    public void sendHeartbeat() {
+        Set<DataWithMediaType> chunks = SseEmitter.event().comment("heartbeat").build();
+        for (UUID userId : streams.keySet()) {
+            send(userId, chunks);
+        }
+    }
+
+    public int getOpenStreamCount(UUID userId) {
+        Deque<SseEmitter> userStreams = streams.get(userId);
+        return userStreams == null ? 0 : userStreams.size();
+    }
+
+    private void send(UUID userId, Set<DataWithMediaType> event) {
+        Deque<SseEmitter> userStreams = streams.get(userId);
+        if (userStreams == null) {
+            return;
+        }
+
+        for (SseEmitter emitter : userStreams) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream already completed; the container ends the request
+                remove(userId, emitter);
+            }
+        }
+    }
+
+    private void remove(UUID userId, SseEmitter emitter) {
+        streams.computeIfPresent(userId, (id, userStreams) -> {
+            userStreams.remove(emitter);
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+    }
+
+    private static void addRecipient(Set<UUID> recipients, User user) {
+        if (user != null && user.getId() != null) {
+            recipients.add(user.getId());
+        }
+    }
+}
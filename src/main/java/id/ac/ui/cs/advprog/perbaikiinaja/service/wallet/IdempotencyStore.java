@@ -0,0 +1,130 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the results of money-moving requests by idempotency key, so a retried request
+ * returns the first result instead of moving the money again.
+ * Only successful results are kept; if the first attempt throws or its transaction rolls back,
+ * the key is forgotten and the next attempt runs normally. A retry that arrives while the first
+ * attempt is still running waits for it, but only up to the wait timeout, after which it is rejected
+ * with {@link InProgressException} so the client can retry later. Keys expire after {@link #TIME_TO_LIVE}.
+ */
+@Component
+public class IdempotencyStore {
+
+    static final Duration TIME_TO_LIVE = Duration.ofHours(24);
+
+    private final Cache<String, Entry> entries;
+    private final Duration waitTimeout;
+
+    @Autowired
+    public IdempotencyStore(@Value("${wallet.idempotency.max-size:100000}") long maximumSize,
+                            @Value("${wallet.idempotency.wait-timeout-ms:10000}") long waitTimeoutMillis) {
+        this(maximumSize, Duration.ofMillis(waitTimeoutMillis), Ticker.systemTicker());
+    }
+
+    IdempotencyStore(long maximumSize, Duration waitTimeout, Ticker ticker) {
+        this.waitTimeout = waitTimeout;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(TIME_TO_LIVE)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Runs an action once per key.
+     * When called inside a database transaction, the result is only kept once the transaction commits.
+     *
+     * @param key The idempotency key, scoped by the caller to the operation and account
+     * @param fingerprint The request the key was first used with, e.g. its amount
+     * @param action The operation to run
+     * @return The result of the first successful run for this key
+     * @throws IllegalStateException if the key was already used for a different request
+     * @throws InProgressException if an earlier request with this key is still running after the wait timeout
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Object fingerprint, Supplier<T> action) {
+        while (true) {
+            Entry created = new Entry(fingerprint, new CompletableFuture<>());
+            Entry existing = entries.asMap().putIfAbsent(key, created);
+            if (existing == null) {
+                return run(key, created, action);
+            }
+
+            if (!Objects.equals(existing.fingerprint(), fingerprint)) {
+                throw new IllegalStateException("Idempotency key was already used for a different request");
+            }
+
+            try {
+                return (T) existing.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                // The first attempt failed and released the key, so try again
+            } catch (TimeoutException e) {
+                throw new InProgressException();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InProgressException();
+            }
+        }
+    }
+
+    private <T> T run(String key, Entry entry, Supplier<T> action) {
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException | Error e) {
+            release(key, entry, e);
+            throw e;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        entry.result().complete(result);
+                    } else {
+                        release(key, entry, new IllegalStateException("Transaction rolled back"));
+                    }
+                }
+            });
+        } else {
+            entry.result().complete(result);
+        }
+        return result;
+    }
+
+    private void release(String key, Entry entry, Throwable cause) {
+        entries.asMap().remove(key, entry);
+        entry.result().completeExceptionally(cause);
+    }
+
+    private record Entry(Object fingerprint, CompletableFuture<Object> result) {
+    }
+
+    /**
+     * Thrown when a request is retried while the first request with its key has not finished yet.
+     */
+    public static class InProgressException extends IllegalStateException {
+        public InProgressException() {
+            super("A request with this idempotency key is still being processed");
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.TransactionDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.KeysetCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -40,23 +42,36 @@ public interface TransactionService {
     Page<Transaction> getTransactionsByWallet(UUID walletId, Pageable pageable);
 
     /**
-     * Get transactions of a specific type for a wallet.
+     * Get one page of transactions for a wallet, newest first, without counting the total.
      *
      * @param walletId The ID of the wallet
-     * @param type The type of transactions to get
+     * @param cursor The position after which the page starts
+     * @param limit The maximum number of transactions
      * @return A list of transactions
      */
-    List<Transaction> getTransactionsByWalletAndType(UUID walletId, TransactionType type);
+    List<Transaction> getTransactionsByWalletBefore(UUID walletId, KeysetCursor cursor, int limit);
+
+    /**
+     * Get one page of transactions of a specific type for a wallet, newest first.
+     *
+     * @param walletId The ID of the wallet
+     * @param type The type of transactions to get
+     * @param pageable Pagination information
+     * @return A page of transactions
+     */
+    Page<TransactionDto> getTransactionsByWalletAndType(UUID walletId, TransactionType type, Pageable pageable);
 
     /**
-     * Get transactions for a wallet within a date range.
+     * Get one page of transactions for a wallet within a date range, newest first.
      *
      * @param walletId The ID of the wallet
      * @param startDate The start date (inclusive)
      * @param endDate The end date (inclusive)
-     * @return A list of transactions
+     * @param pageable Pagination information
+     * @return A page of transactions
      */
-    List<Transaction> getTransactionsByWalletAndDateRange(UUID walletId, LocalDateTime startDate, LocalDateTime endDate);
+    Page<TransactionDto> getTransactionsByWalletAndDateRange(UUID walletId, LocalDateTime startDate,
+                                                             LocalDateTime endDate, Pageable pageable);
 
     /**
      * Get transactions between two wallets.
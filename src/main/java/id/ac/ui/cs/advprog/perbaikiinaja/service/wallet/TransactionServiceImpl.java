@@ -1,11 +1,14 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.TransactionDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.TransactionRepository;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,13 +28,19 @@ public class TransactionServiceImpl implements TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final WalletRepository walletRepository;
+    private final WalletSummaryService walletSummaryService;
+    private final WalletLedger walletLedger;
 
     @Autowired
     public TransactionServiceImpl(
             TransactionRepository transactionRepository,
-            WalletRepository walletRepository) {
+            WalletRepository walletRepository,
+            WalletSummaryService walletSummaryService,
+            WalletLedger walletLedger) {
         this.transactionRepository = transactionRepository;
         this.walletRepository = walletRepository;
+        this.walletSummaryService = walletSummaryService;
+        this.walletLedger = walletLedger;
     }
 
     @Override
@@ -52,15 +61,20 @@ public class TransactionServiceImpl implements TransactionService {
     }
 
     @Override
-    public List<Transaction> getTransactionsByWalletAndType(UUID walletId, TransactionType type) {
-        Wallet wallet = getWalletOrThrow(walletId);
-        return transactionRepository.findByWalletAndType(wallet, type);
+    public List<Transaction> getTransactionsByWalletBefore(UUID walletId, KeysetCursor cursor, int limit) {
+        return transactionRepository.findByWalletIdBefore(
+                walletId, cursor.getTimestamp(), cursor.getId(), Limit.of(limit));
     }
 
     @Override
-    public List<Transaction> getTransactionsByWalletAndDateRange(UUID walletId, LocalDateTime startDate, LocalDateTime endDate) {
-        Wallet wallet = getWalletOrThrow(walletId);
-        return transactionRepository.findByWalletAndTimestampBetween(wallet, startDate, endDate);
+    public Page<TransactionDto> getTransactionsByWalletAndType(UUID walletId, TransactionType type, Pageable pageable) {
+        return transactionRepository.findDtosByWalletIdAndType(walletId, type, pageable);
+    }
+
+    @Override
+    public Page<TransactionDto> getTransactionsByWalletAndDateRange(UUID walletId, LocalDateTime startDate,
+                                                                    LocalDateTime endDate, Pageable pageable) {
+        return transactionRepository.findDtosByWalletIdAndTimestampBetween(walletId, startDate, endDate, pageable);
     }
 
     @Override
@@ -81,8 +95,11 @@ public class TransactionServiceImpl implements TransactionService {
                 type,
                 description
         );
+        walletLedger.markPending(List.of(transaction));
 
-        return transactionRepository.save(transaction);
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        walletSummaryService.record(List.of(savedTransaction));
+        return savedTransaction;
     }
 
     @Override
@@ -98,8 +115,11 @@ public class TransactionServiceImpl implements TransactionService {
                 description,
                 relatedWallet
         );
+        walletLedger.markPending(List.of(transaction));
 
-        return transactionRepository.save(transaction);
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        walletSummaryService.record(List.of(savedTransaction));
+        return savedTransaction;
     }
 
     /**
@@ -0,0 +1,196 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.TransactionRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletRepository.LedgerBalance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Optional ledger mode for wallet balances, enabled with {@code wallet.ledger.enabled}.
+ * In ledger mode the transactions are the source of truth: credits are plain inserts that never
+ * touch the wallet row, and a wallet's balance column only holds a snapshot. Transactions are
+ * written as pending, and the current balance is the snapshot plus the pending transactions.
+ * A background job adds pending transactions to the snapshots, so balance reads only sum recent ones.
+ */
+@Component
+public class WalletLedger {
+
+    /**
+     * How many pending transactions one compaction step locks and applies at a time.
+     */
+    static final int COMPACTION_BATCH_SIZE = 1000;
+
+    private final WalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+    private final boolean enabled;
+
+    @Autowired
+    public WalletLedger(WalletRepository walletRepository,
+                        TransactionRepository transactionRepository,
+                        @Value("${wallet.ledger.enabled:false}") boolean enabled) {
+        this.walletRepository = walletRepository;
+        this.transactionRepository = transactionRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Prepare a new wallet: in ledger mode its balance starts as an empty snapshot.
+     *
+     * @param wallet The wallet about to be saved
+     */
+    public void open(Wallet wallet) {
+        if (enabled) {
+            wallet.setBalance(BigDecimal.ZERO);
+            wallet.setBalanceAsOf(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Mark new transactions as pending, so they count towards the balance until compaction
+     * adds them to the snapshot. Does nothing outside ledger mode, where the balance is updated directly.
+     *
+     * @param transactions The transactions about to be saved
+     */
+    public void markPending(Collection<Transaction> transactions) {
+        if (enabled) {
+            transactions.forEach(transaction -> transaction.setLedgerPending(true));
+        }
+    }
+
+    /**
+     * Get a wallet's current balance from its snapshot and its pending transactions.
+     *
+     * @param walletId The ID of the wallet
+     * @return The balance
+     * @throws IllegalArgumentException if the wallet does not exist
+     */
+    public BigDecimal balanceOf(UUID walletId) {
+        BigDecimal balance = balancesOf(List.of(walletId)).get(walletId);
+        if (balance == null) {
+            throw new IllegalArgumentException("Wallet not found");
+        }
+        return balance;
+    }
+
+    /**
+     * Get the current balances of several wallets with one query.
+     *
+     * @param walletIds The IDs of the wallets
+     * @return The balances of the wallets that exist, by wallet ID
+     */
+    public Map<UUID, BigDecimal> balancesOf(Collection<UUID> walletIds) {
+        return walletRepository.findLedgerBalances(walletIds).stream()
+                .collect(Collectors.toMap(LedgerBalance::getWalletId, LedgerBalance::getBalance));
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.ledger.compaction-interval-ms:60000}")
+    @Transactional
+    public void compact() {
+        if (enabled) {
+            compactPending();
+        }
+    }
+
+    /**
+     * Add every committed pending transaction to its wallet's snapshot and clear its pending flag.
+     * Only transactions that are visible and locked here are applied, so a transaction that commits
+     * later, whatever its timestamp, is left pending for the next run and never skipped.
+     * Concurrent runs cannot apply a transaction twice, since the second one waits for the row lock
+     * and then no longer sees the transaction as pending.
+     *
+     * @return The number of transactions applied
+     */
+    @Transactional
+    public int compactPending() {
+        int applied = 0;
+        List<Transaction> batch;
+        do {
+            batch = transactionRepository.findLedgerPendingForUpdate(Limit.of(COMPACTION_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            Map<UUID, BigDecimal> deltas = new HashMap<>();
+            for (Transaction transaction : batch) {
+                deltas.merge(transaction.getWallet().getId(), signedAmount(transaction), BigDecimal::add);
+            }
+
+            // Lock the wallets in the same order as payments and bulk operations, then let dirty checking write them
+            LocalDateTime now = LocalDateTime.now();
+            for (Wallet wallet : walletRepository.findAllByIdForUpdate(deltas.keySet())) {
+                wallet.setBalance(wallet.getBalance().add(deltas.get(wallet.getId())));
+                wallet.setBalanceAsOf(now);
+            }
+            transactionRepository.clearLedgerPending(batch.stream().map(Transaction::getId).toList());
+            applied += batch.size();
+        } while (batch.size() == COMPACTION_BATCH_SIZE);
+        return applied;
+    }
+
+    /**
+     * Turn the current balances of wallets outside ledger mode into snapshots.
+     * Their existing transactions are already in the balances and are not pending.
+     *
+     * @return The number of wallets moved into ledger mode
+     */
+    @Transactional
+    public int startLedgers() {
+        return walletRepository.startLedgers(LocalDateTime.now());
+    }
+
+    /**
+     * Add all pending transactions to the balances and leave ledger mode, so the balances are current again.
+     *
+     * @return The number of wallets moved out of ledger mode
+     */
+    @Transactional
+    public int closeLedgers() {
+        int closed = walletRepository.closeLedgers();
+        transactionRepository.clearAllLedgerPending();
+        return closed;
+    }
+
+    /**
+     * Bring the wallets in line with the configured mode on startup: current balances become
+     * snapshots when ledger mode is turned on, and pending transactions are added to the balances
+     * when it has been turned off. Nothing is written when ledger mode is off and was never used.
+     * Must run before requests are accepted, since transactions written meanwhile could be missed.
+     *
+     * @return The number of wallets changed
+     */
+    @Transactional
+    public int reconcile() {
+        if (enabled) {
+            return startLedgers();
+        }
+        return walletRepository.existsByBalanceAsOfIsNotNull() ? closeLedgers() : 0;
+    }
+
+    private static BigDecimal signedAmount(Transaction transaction) {
+        TransactionType type = transaction.getType();
+        return type == TransactionType.DEPOSIT || type == TransactionType.EARNING
+                ? transaction.getAmount()
+                : transaction.getAmount().negate();
+    }
+}
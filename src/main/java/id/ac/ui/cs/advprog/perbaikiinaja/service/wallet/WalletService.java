@@ -1,5 +1,7 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.BulkWalletOperationDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.BulkWalletResultDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
 
@@ -76,6 +78,7 @@ public interface WalletService {
 
     /**
      * Process a payment for a service.
+     * A service request is paid at most once: paying for it again returns the first result.
      *
      * @param customerId The ID of the customer making the payment
      * @param technicianId The ID of the technician receiving the payment
@@ -83,6 +86,7 @@ public interface WalletService {
      * @param serviceRequestId The ID of the service request being paid for
      * @return A list containing both wallets (customer first, technician second)
      * @throws IllegalArgumentException if there are insufficient funds
+     * @throws IllegalStateException if the service request was already paid with different parties or amount
      */
     List<Wallet> processServicePayment(UUID customerId, UUID technicianId, BigDecimal amount, UUID serviceRequestId);
 
@@ -94,6 +98,15 @@ public interface WalletService {
      */
     BigDecimal getBalance(UUID walletId);
 
+    /**
+     * Get the current balance of a loaded wallet.
+     * Use this instead of {@link Wallet#getBalance()}, which is only a snapshot in ledger mode.
+     *
+     * @param wallet The wallet
+     * @return The wallet's balance
+     */
+    BigDecimal getBalance(Wallet wallet);
+
     /**
      * Check if a user has a wallet.
      *
@@ -109,4 +122,23 @@ public interface WalletService {
      * @return The saved wallet
      */
     Wallet saveWallet(Wallet wallet);
-}
\ No newline at end of file
+
+    /**
+     * Deposit into many wallets at once, e.g. month-end technician payouts.
+     * Items are applied in chunks, each in its own transaction. An item that cannot be applied
+     * is reported as failed without affecting the others.
+     *
+     * @param operations The wallet IDs, amounts and descriptions
+     * @return One result per operation, in the same order
+     */
+    List<BulkWalletResultDto> bulkDeposit(List<BulkWalletOperationDto> operations);
+
+    /**
+     * Withdraw from many wallets at once. Works like {@link #bulkDeposit(List)}; items
+     * with insufficient funds are reported as failed.
+     *
+     * @param operations The wallet IDs, amounts and descriptions
+     * @return One result per operation, in the same order
+     */
+    List<BulkWalletResultDto> bulkWithdraw(List<BulkWalletOperationDto> operations);
+}
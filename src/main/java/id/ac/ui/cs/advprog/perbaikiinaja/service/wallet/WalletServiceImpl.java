@@ -1,22 +1,33 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.BulkWalletOperationDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.BulkWalletResultDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
-import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.TransactionRepository;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.auth.UserRole;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the wallet service interface.
@@ -26,17 +37,41 @@ public class WalletServiceImpl implements WalletService {
 
     private final WalletRepository walletRepository;
     private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final WalletSummaryService walletSummaryService;
+    private final IdempotencyStore idempotencyStore;
+    private final WalletLedger walletLedger;
     private static final String WALLETNOTFOUNDSTR = "Wallet not found";
+    private static final String INSUFFICIENTFUNDSSTR = "Insufficient funds";
+
+    /**
+     * Number of bulk items applied per database transaction.
+     */
+    static final int BULK_CHUNK_SIZE = 500;
+
+    /**
+     * The order wallet rows are locked in: by user ID, compared the way the database sorts UUIDs,
+     * as unsigned 128-bit numbers. {@link UUID#compareTo} compares signed halves and disagrees with
+     * the database whenever only one of the IDs has its top bit set.
+     */
+    static final Comparator<UUID> LOCK_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
 
     @Autowired
     public WalletServiceImpl(
             WalletRepository walletRepository,
             TransactionRepository transactionRepository,
-            UserRepository userRepository) {
+            PlatformTransactionManager transactionManager,
+            WalletSummaryService walletSummaryService,
+            IdempotencyStore idempotencyStore,
+            WalletLedger walletLedger) {
         this.walletRepository = walletRepository;
         this.transactionRepository = transactionRepository;
-        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.walletSummaryService = walletSummaryService;
+        this.idempotencyStore = idempotencyStore;
+        this.walletLedger = walletLedger;
     }
 
     @Override
@@ -46,6 +81,7 @@ public class WalletServiceImpl implements WalletService {
             throw new IllegalStateException("User already has a wallet");
         }
         Wallet wallet = new Wallet(user);
+        walletLedger.open(wallet);
         return walletRepository.save(wallet);
     }
 
@@ -61,6 +97,7 @@ public class WalletServiceImpl implements WalletService {
         }
 
         Wallet wallet = new Wallet(user, initialBalance);
+        walletLedger.open(wallet);
         Wallet savedWallet = walletRepository.save(wallet);
 
         if (initialBalance.compareTo(BigDecimal.ZERO) > 0) {
@@ -70,7 +107,9 @@ public class WalletServiceImpl implements WalletService {
                     TransactionType.DEPOSIT,
                     "Initial deposit"
             );
+            walletLedger.markPending(List.of(transaction));
             transactionRepository.save(transaction);
+            walletSummaryService.record(List.of(transaction));
         }
 
         return savedWallet;
@@ -91,61 +130,136 @@ public class WalletServiceImpl implements WalletService {
         return walletRepository.findByUserId(userId);
     }
 
+    /**
+     * Adds the amount with a single UPDATE and records the deposit, without loading the wallet first.
+     * In ledger mode the deposit is only recorded; the wallet row is not touched.
+     */
     @Override
     @Transactional
     public Wallet deposit(UUID walletId, BigDecimal amount, String description) {
-        Wallet wallet = walletRepository.findById(walletId)
-                .orElseThrow(() -> new IllegalArgumentException(WALLETNOTFOUNDSTR));
-
-        wallet.deposit(amount);
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
 
-        Transaction transaction = new Transaction(
-                wallet,
-                amount,
-                TransactionType.DEPOSIT,
-                description
-        );
-        transactionRepository.save(transaction);
+        if (walletLedger.isEnabled()) {
+            if (!walletRepository.existsById(walletId)) {
+                throw new IllegalArgumentException(WALLETNOTFOUNDSTR);
+            }
+        } else if (walletRepository.addToBalance(walletId, amount, LocalDateTime.now()) == 0) {
+            throw new IllegalArgumentException(WALLETNOTFOUNDSTR);
+        }
 
-        return walletRepository.save(wallet);
+        return recordTransaction(walletId, amount, TransactionType.DEPOSIT, description);
     }
 
+    /**
+     * Subtracts the amount with a single conditional UPDATE that only applies if the balance covers it,
+     * then records the withdrawal. The wallet is only read to tell a missing wallet from insufficient funds.
+     * In ledger mode the wallet row is locked while the balance is checked, so concurrent withdrawals
+     * cannot overdraw it, and the withdrawal is only recorded.
+     */
     @Override
     @Transactional
     public Wallet withdraw(UUID walletId, BigDecimal amount, String description) {
-        Wallet wallet = walletRepository.findById(walletId)
-                .orElseThrow(() -> new IllegalArgumentException(WALLETNOTFOUNDSTR));
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
 
-        wallet.withdraw(amount);
+        if (walletLedger.isEnabled()) {
+            walletRepository.findByIdForUpdate(walletId)
+                    .orElseThrow(() -> new IllegalArgumentException(WALLETNOTFOUNDSTR));
+            if (walletLedger.balanceOf(walletId).compareTo(amount) < 0) {
+                throw new IllegalArgumentException(INSUFFICIENTFUNDSSTR);
+            }
+        } else if (walletRepository.subtractFromBalance(walletId, amount, LocalDateTime.now()) == 0) {
+            if (!walletRepository.existsById(walletId)) {
+                throw new IllegalArgumentException(WALLETNOTFOUNDSTR);
+            }
+            throw new IllegalArgumentException(INSUFFICIENTFUNDSSTR);
+        }
 
+        return recordTransaction(walletId, amount, TransactionType.WITHDRAWAL, description);
+    }
+
+    private Wallet recordTransaction(UUID walletId, BigDecimal amount, TransactionType type, String description) {
         Transaction transaction = new Transaction(
-                wallet,
+                walletRepository.getReferenceById(walletId),
                 amount,
-                TransactionType.WITHDRAWAL,
+                type,
                 description
         );
+        walletLedger.markPending(List.of(transaction));
         transactionRepository.save(transaction);
+        walletSummaryService.record(List.of(transaction));
 
-        return walletRepository.save(wallet);
+        return walletRepository.findById(walletId)
+                .orElseThrow(() -> new IllegalArgumentException(WALLETNOTFOUNDSTR));
     }
 
+    /**
+     * Moves a payment from the customer's wallet to the technician's wallet.
+     * Both wallet rows are locked before either balance is read. They are always locked in
+     * {@link #LOCK_ORDER}, the order bulk operations lock wallets in, so two payments between the
+     * same wallets in opposite directions, or a payment and a bulk operation, cannot deadlock. The locked wallets are managed entities, so their new balances are written
+     * by dirty checking together with the two transactions.
+     * In ledger mode only the customer's wallet is locked and neither wallet row is written.
+     * The service request ID is the idempotency key: paying for the same request again returns
+     * the wallets of the first payment without moving any money. Within this instance retries are
+     * answered from memory; across instances and restarts the payment recorded in the database is
+     * found once the customer's wallet is locked, and a unique constraint on the service request
+     * and transaction type rejects any second payment that gets past both.
+     */
     @Override
     @Transactional
     public List<Wallet> processServicePayment(UUID customerId, UUID technicianId, BigDecimal amount, UUID serviceRequestId) {
-        User customer = userRepository.findById(customerId)
-                .orElseThrow(() -> new IllegalArgumentException("Customer not found"));
-
-        User technician = userRepository.findById(technicianId)
-                .orElseThrow(() -> new IllegalArgumentException("Technician not found"));
+        return idempotencyStore.execute("service-payment:" + serviceRequestId,
+                List.of(customerId, technicianId, amount.stripTrailingZeros()),
+                () -> pay(customerId, technicianId, amount, serviceRequestId));
+    }
 
-        Wallet customerWallet = getWalletByUser(customer)
-                .orElseThrow(() -> new IllegalArgumentException("Customer wallet not found"));
+    private List<Wallet> pay(UUID customerId, UUID technicianId, BigDecimal amount, UUID serviceRequestId) {
+        Wallet customerWallet;
+        Wallet technicianWallet;
+        if (walletLedger.isEnabled()) {
+            // Only the paying wallet is locked, to check its balance; the earning is a plain insert
+            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("Withdrawal amount must be positive");
+            }
+            customerWallet = lockCustomerWallet(customerId);
+            technicianWallet = walletRepository.findByUserId(technicianId)
+                    .orElseThrow(() -> new IllegalArgumentException("Technician wallet not found"));
+        } else {
+            if (LOCK_ORDER.compare(customerId, technicianId) <= 0) {
+                customerWallet = lockCustomerWallet(customerId);
+                technicianWallet = lockTechnicianWallet(technicianId);
+            } else {
+                technicianWallet = lockTechnicianWallet(technicianId);
+                customerWallet = lockCustomerWallet(customerId);
+            }
+        }
 
-        Wallet technicianWallet = getWalletByUser(technician)
-                .orElseThrow(() -> new IllegalArgumentException("Technician wallet not found"));
+        // With the customer's wallet locked, a concurrent payment for the same request has committed by now
+        Optional<Transaction> previousPayment =
+                transactionRepository.findByServiceRequestIdAndType(serviceRequestId, TransactionType.PAYMENT);
+        if (previousPayment.isPresent()) {
+            Transaction payment = previousPayment.get();
+            if (!Objects.equals(payment.getWallet().getId(), customerWallet.getId())
+                    || payment.getAmount().compareTo(amount) != 0) {
+                throw new IllegalStateException("Service request #" + serviceRequestId
+                        + " was already paid with different parties or amount");
+            }
+            return Arrays.asList(customerWallet, technicianWallet);
+        }
 
-        // Withdraw from customer
-        customerWallet.withdraw(amount);
+        if (walletLedger.isEnabled()) {
+            if (walletLedger.balanceOf(customerWallet.getId()).compareTo(amount) < 0) {
+                throw new IllegalArgumentException(INSUFFICIENTFUNDSSTR);
+            }
+        } else {
+            // Withdraw from customer, deposit to technician
+            customerWallet.withdraw(amount);
+            technicianWallet.deposit(amount);
+        }
 
         // Payment transaction for customer
         Transaction customerTransaction = new Transaction(
@@ -155,9 +269,7 @@ public class WalletServiceImpl implements WalletService {
                 "Payment for service #" + serviceRequestId,
                 technicianWallet
         );
-
-        // Deposit to technician
-        technicianWallet.deposit(amount);
+        customerTransaction.setServiceRequestId(serviceRequestId);
 
         // Earning transaction for technician
         Transaction technicianTransaction = new Transaction(
@@ -167,24 +279,146 @@ public class WalletServiceImpl implements WalletService {
                 "Payment received for service #" + serviceRequestId,
                 customerWallet
         );
+        technicianTransaction.setServiceRequestId(serviceRequestId);
 
-        transactionRepository.save(customerTransaction);
-        transactionRepository.save(technicianTransaction);
-
-        // Save both wallets
-        customerWallet = walletRepository.save(customerWallet);
-        technicianWallet = walletRepository.save(technicianWallet);
+        // Both inserts and both balance updates are flushed together as JDBC batches
+        List<Transaction> transactions = List.of(customerTransaction, technicianTransaction);
+        walletLedger.markPending(transactions);
+        transactionRepository.saveAll(transactions);
+        walletSummaryService.record(transactions);
 
         return Arrays.asList(customerWallet, technicianWallet);
     }
 
+    private Wallet lockCustomerWallet(UUID customerId) {
+        return walletRepository.findByUserIdForUpdate(customerId)
+                .orElseThrow(() -> new IllegalArgumentException("Customer wallet not found"));
+    }
+
+    private Wallet lockTechnicianWallet(UUID technicianId) {
+        return walletRepository.findByUserIdForUpdate(technicianId)
+                .orElseThrow(() -> new IllegalArgumentException("Technician wallet not found"));
+    }
+
+    @Override
+    public List<BulkWalletResultDto> bulkDeposit(List<BulkWalletOperationDto> operations) {
+        return applyInChunks(operations, TransactionType.DEPOSIT);
+    }
+
+    @Override
+    public List<BulkWalletResultDto> bulkWithdraw(List<BulkWalletOperationDto> operations) {
+        return applyInChunks(operations, TransactionType.WITHDRAWAL);
+    }
+
+    private List<BulkWalletResultDto> applyInChunks(List<BulkWalletOperationDto> operations, TransactionType type) {
+        List<BulkWalletResultDto> results = new ArrayList<>(operations.size());
+        for (int from = 0; from < operations.size(); from += BULK_CHUNK_SIZE) {
+            List<BulkWalletOperationDto> chunk =
+                    operations.subList(from, Math.min(from + BULK_CHUNK_SIZE, operations.size()));
+            results.addAll(applyChunk(chunk, type));
+        }
+        return results;
+    }
+
+    /**
+     * Applies one chunk in its own transaction. If the transaction fails, every item of the
+     * chunk is reported as failed, since none of them were committed.
+     */
+    private List<BulkWalletResultDto> applyChunk(List<BulkWalletOperationDto> chunk, TransactionType type) {
+        try {
+            return transactionTemplate.execute(status -> applyInTransaction(chunk, type));
+        } catch (RuntimeException e) {
+            return chunk.stream()
+                    .map(operation -> BulkWalletResultDto.failed(operation.getWalletId(), "Not applied: " + e.getMessage()))
+                    .toList();
+        }
+    }
+
+    /**
+     * Locks all wallets of the chunk with one query, changes their balances in memory and
+     * records the transactions, so the flush sends one update batch and one insert batch.
+     * In ledger mode the balances come from the ledger and only the insert batch is sent;
+     * wallets are only locked for withdrawals.
+     */
+    private List<BulkWalletResultDto> applyInTransaction(List<BulkWalletOperationDto> chunk, TransactionType type) {
+        Set<UUID> walletIds = chunk.stream()
+                .map(BulkWalletOperationDto::getWalletId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<UUID, Wallet> wallets = new HashMap<>();
+        Map<UUID, BigDecimal> ledgerBalances = new HashMap<>();
+        if (!walletIds.isEmpty()) {
+            List<Wallet> found = walletLedger.isEnabled() && type == TransactionType.DEPOSIT
+                    ? walletRepository.findAllById(walletIds)
+                    : walletRepository.findAllByIdForUpdate(walletIds);
+            found.forEach(wallet -> wallets.put(wallet.getId(), wallet));
+            if (walletLedger.isEnabled()) {
+                ledgerBalances.putAll(walletLedger.balancesOf(walletIds));
+            }
+        }
+
+        List<Transaction> transactions = new ArrayList<>();
+        List<BulkWalletResultDto> results = new ArrayList<>(chunk.size());
+        for (BulkWalletOperationDto operation : chunk) {
+            Wallet wallet = operation.getWalletId() == null ? null : wallets.get(operation.getWalletId());
+            if (wallet == null) {
+                results.add(BulkWalletResultDto.failed(operation.getWalletId(), WALLETNOTFOUNDSTR));
+                continue;
+            }
+            if (operation.getAmount() == null) {
+                results.add(BulkWalletResultDto.failed(operation.getWalletId(), "Amount is required"));
+                continue;
+            }
+
+            BigDecimal balance;
+            try {
+                if (walletLedger.isEnabled()) {
+                    // Apply the wallet's checks to a detached copy holding the ledger balance
+                    Wallet ledgerWallet = new Wallet();
+                    ledgerWallet.setBalance(ledgerBalances.get(wallet.getId()));
+                    balance = applyBulkOperation(ledgerWallet, operation.getAmount(), type);
+                    ledgerBalances.put(wallet.getId(), balance);
+                } else {
+                    balance = applyBulkOperation(wallet, operation.getAmount(), type);
+                }
+            } catch (IllegalArgumentException e) {
+                results.add(BulkWalletResultDto.failed(operation.getWalletId(), e.getMessage()));
+                continue;
+            }
+
+            String description = operation.getDescription() != null
+                    ? operation.getDescription()
+                    : (type == TransactionType.DEPOSIT ? "Bulk deposit" : "Bulk withdrawal");
+            transactions.add(new Transaction(wallet, operation.getAmount(), type, description));
+            results.add(BulkWalletResultDto.applied(wallet.getId(), balance));
+        }
+
+        walletLedger.markPending(transactions);
+        transactionRepository.saveAll(transactions);
+        walletSummaryService.record(transactions);
+        return results;
+    }
+
+    private static BigDecimal applyBulkOperation(Wallet wallet, BigDecimal amount, TransactionType type) {
+        return type == TransactionType.DEPOSIT ? wallet.deposit(amount) : wallet.withdraw(amount);
+    }
+
     @Override
     public BigDecimal getBalance(UUID walletId) {
+        if (walletLedger.isEnabled()) {
+            return walletLedger.balanceOf(walletId);
+        }
         Wallet wallet = walletRepository.findById(walletId)
                 .orElseThrow(() -> new IllegalArgumentException(WALLETNOTFOUNDSTR));
         return wallet.getBalance();
     }
 
+    @Override
+    public BigDecimal getBalance(Wallet wallet) {
+        return walletLedger.isEnabled() ? walletLedger.balanceOf(wallet.getId()) : wallet.getBalance();
+    }
+
     @Override
     public boolean hasWallet(User user) {
         return walletRepository.existsByUser(user);
@@ -0,0 +1,29 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings derived wallet data up to date on startup.
+ * Runs once all beans are created but before the web server starts, so no request can write
+ * wallet transactions while the data is being rebuilt.
+ */
+@Component
+public class WalletStartup implements SmartInitializingSingleton {
+
+    private final WalletLedger walletLedger;
+    private final WalletSummaryService walletSummaryService;
+
+    @Autowired
+    public WalletStartup(WalletLedger walletLedger, WalletSummaryService walletSummaryService) {
+        this.walletLedger = walletLedger;
+        this.walletSummaryService = walletSummaryService;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        walletLedger.reconcile();
+        walletSummaryService.rebuildIfEmpty();
+    }
+}
\ No newline at end of file
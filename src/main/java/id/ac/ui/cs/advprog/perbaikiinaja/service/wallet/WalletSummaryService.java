@@ -0,0 +1,43 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletDailySummaryRepository.TypeTotal;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service interface for the daily wallet rollups behind statement summaries.
+ */
+public interface WalletSummaryService {
+
+    /**
+     * Add newly written transactions to the daily rollups.
+     * Must be called in the database transaction that writes them, so the rollups commit or roll back
+     * together with the transactions. Concurrent writers of the same wallet need not hold its row lock.
+     *
+     * @param transactions The transactions being written
+     */
+    void record(Collection<Transaction> transactions);
+
+    /**
+     * Get a wallet's totals per transaction type over a date range.
+     *
+     * @param walletId The ID of the wallet
+     * @param startDate The first day (inclusive)
+     * @param endDate The last day (inclusive)
+     * @return One total per transaction type that occurred in the range
+     */
+    List<TypeTotal> getTotals(UUID walletId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Fill the rollups from the transactions table if they are empty, e.g. on first start after upgrading.
+     * Runs on startup before requests are accepted, since transactions written meanwhile would be counted twice.
+     * Safe to run from several instances at once; only one of them fills the rollups.
+     *
+     * @return The number of rollup rows created
+     */
+    int rebuildIfEmpty();
+}
@@ -0,0 +1,134 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.WalletDailySummary;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.WalletDailySummaryId;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletDailySummaryRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletDailySummaryRepository.TypeTotal;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Implementation of the WalletSummaryService interface.
+ */
+@Service
+public class WalletSummaryServiceImpl implements WalletSummaryService {
+
+    private static final String INSERT_SUMMARY_SQL = "INSERT INTO wallet_daily_summaries "
+            + "(wallet_id, summary_date, type, total_amount, transaction_count) VALUES (?, ?, ?, ?, ?)";
+    private static final String REBUILD_SUMMARIES_SQL = "INSERT INTO wallet_daily_summaries "
+            + "(wallet_id, summary_date, type, total_amount, transaction_count) "
+            + "SELECT t.wallet_id, CAST(t.timestamp AS DATE), t.type, SUM(t.amount), COUNT(*) FROM transactions t "
+            + "WHERE NOT EXISTS (SELECT 1 FROM wallet_daily_summaries) "
+            + "GROUP BY t.wallet_id, CAST(t.timestamp AS DATE), t.type";
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final WalletDailySummaryRepository summaryRepository;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public WalletSummaryServiceImpl(WalletDailySummaryRepository summaryRepository, EntityManager entityManager) {
+        this.summaryRepository = summaryRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Sums the transactions per wallet, day and type first, so a batch touches each rollup row once.
+     * Existing rows are incremented with an UPDATE. Missing rows are inserted, and if a concurrent
+     * transaction inserted the same row first, the UPDATE is repeated against that row.
+     */
+    @Override
+    @Transactional
+    public void record(Collection<Transaction> transactions) {
+        Map<WalletDailySummaryId, WalletDailySummary> deltas = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            WalletDailySummaryId id = new WalletDailySummaryId(
+                    transaction.getWallet().getId(), transaction.getTimestamp().toLocalDate(), transaction.getType());
+            deltas.merge(id, new WalletDailySummary(id, transaction.getAmount(), 1),
+                    (current, added) -> new WalletDailySummary(id,
+                            current.getTotalAmount().add(added.getTotalAmount()),
+                            current.getTransactionCount() + added.getTransactionCount()));
+        }
+
+        for (WalletDailySummary delta : deltas.values()) {
+            WalletDailySummaryId id = delta.getId();
+            int updated = summaryRepository.addToSummary(id.getWalletId(), id.getSummaryDate(), id.getType(),
+                    delta.getTotalAmount(), delta.getTransactionCount());
+            if (updated == 0 && !insertSummary(delta)) {
+                summaryRepository.addToSummary(id.getWalletId(), id.getSummaryDate(), id.getType(),
+                        delta.getTotalAmount(), delta.getTransactionCount());
+            }
+        }
+    }
+
+    /**
+     * Helper method to insert a missing rollup row under a savepoint. If the row already exists, only
+     * the insert is rolled back, so the money movement in the same transaction is not lost.
+     * @return true if the row was inserted, false if another transaction created it first
+     */
+    private boolean insertSummary(WalletDailySummary summary) {
+        WalletDailySummaryId id = summary.getId();
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_SUMMARY_SQL)) {
+                insert.setObject(1, id.getWalletId());
+                insert.setObject(2, id.getSummaryDate());
+                insert.setString(3, id.getType().name());
+                insert.setBigDecimal(4, summary.getTotalAmount());
+                insert.setLong(5, summary.getTransactionCount());
+                insert.executeUpdate();
+                connection.releaseSavepoint(savepoint);
+                return true;
+            } catch (SQLException e) {
+                if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    throw e;
+                }
+                connection.rollback(savepoint);
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public List<TypeTotal> getTotals(UUID walletId, LocalDate startDate, LocalDate endDate) {
+        return summaryRepository.sumByType(walletId, startDate, endDate);
+    }
+
+    /**
+     * Computes and inserts the rollups in a single INSERT ... SELECT, so the transactions never leave the
+     * database. The statement inserts nothing once any rollup row exists. If another instance starting at
+     * the same time rebuilt them first, the insert fails on the primary key and only it is rolled back.
+     */
+    @Override
+    @Transactional
+    public int rebuildIfEmpty() {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (Statement rebuild = connection.createStatement()) {
+                int inserted = rebuild.executeUpdate(REBUILD_SUMMARIES_SQL);
+                connection.releaseSavepoint(savepoint);
+                return inserted;
+            } catch (SQLException e) {
+                if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    throw e;
+                }
+                connection.rollback(savepoint);
+                return 0;
+            }
+        });
+    }
+}
@@ -10,6 +10,7 @@ import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.service.assignment.TechnicianAssignmentEngine;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.wallet.WalletService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,6 +18,8 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+
 @Service
 public class AuthenticationService {
     private final UserRepository userRepository;
@@ -27,15 +30,19 @@ public class AuthenticationService {
 
     private final WalletService walletService;
 
+    private final TechnicianAssignmentEngine technicianAssignmentEngine;
+
     public AuthenticationService(
         UserRepository userRepository,
         AuthenticationManager authenticationManager,
         PasswordEncoder passwordEncoder,
-        WalletService walletService) {
+        WalletService walletService,
+        TechnicianAssignmentEngine technicianAssignmentEngine) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.walletService = walletService;
+        this.technicianAssignmentEngine = technicianAssignmentEngine;
     }
     public User signupAdmin(RegisterAdminDto input) {
         User user = Admin.builder()
@@ -77,6 +84,8 @@ public class AuthenticationService {
 
         walletService.createWallet(user);
 
+        technicianAssignmentEngine.registerTechnician(savedUser.getId());
+
         return savedUser;
     }
 
@@ -91,4 +100,16 @@ public class AuthenticationService {
         return userRepository.findByEmail(input.getEmail())
                 .orElseThrow();
     }
+
+    /**
+     * Logs a user out of every session by revoking all tokens issued so far.
+     * Saving the new token version updates the token checks through {@link UserTokenCacheListener}.
+     */
+    public void logout(UUID userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow();
+
+        user.revokeTokens();
+        userRepository.save(user);
+    }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.services.auth;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.AuthenticatedUser;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -9,6 +12,7 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -17,12 +21,20 @@ import org.springframework.stereotype.Service;
 
 @Service
 public class JwtService {
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
     @Value("${security.jwt.secret-key}")
     private String secretKey;
 
     @Value("${security.jwt.expiration-time}")
     private long jwtExpiration;
 
+    // Built on first use from the secret key. Both are immutable, so a race only builds them twice.
+    private volatile Key signInKey;
+    private volatile JwtParser jwtParser;
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -32,8 +44,18 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Generates a token for a user. Tokens of saved users also carry the user id, role and token version,
+     * so later requests can be authenticated from the token alone.
+     */
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user && user.getId() != null) {
+            claims.put(USER_ID_CLAIM, user.getId().toString());
+            claims.put(ROLE_CLAIM, user.getRole());
+            claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -60,29 +82,66 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Checks claims that were already parsed with {@link #extractAllClaims(String)},
+     * so a request only verifies its token signature once.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return (username.equals(userDetails.getUsername())) && !isTokenExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+    /**
+     * Verifies the token signature and returns its claims.
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims extractAllClaims(String token) {
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
 
+    /**
+     * Builds the principal of a verified token from its claims.
+     * @param claims Claims returned by {@link #extractAllClaims(String)}
+     * @return The principal, or null if the token was issued without the id, role and version claims
+     */
+    public AuthenticatedUser toPrincipal(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        Integer tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        if (userId == null || role == null || tokenVersion == null || claims.getSubject() == null) {
+            return null;
+        }
+        return new AuthenticatedUser(UUID.fromString(userId), claims.getSubject(), role, tokenVersion);
+    }
+
+    private JwtParser getParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            parser = Jwts
+                    .parserBuilder()
+                    .setSigningKey(getSignInKey())
+                    .build();
+            jwtParser = parser;
+        }
+        return parser;
+    }
+
     private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Key key = signInKey;
+        if (key == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+            key = Keys.hmacShaKeyFor(keyBytes);
+            signInKey = key;
+        }
+        return key;
     }
 }
\ No newline at end of file
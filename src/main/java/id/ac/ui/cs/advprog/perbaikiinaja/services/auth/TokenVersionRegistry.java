@@ -0,0 +1,64 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.services.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Keeps the current token version of recently seen users, so a token's version claim can be checked
+ * without loading the user. A user's version is read from the database on first use and then kept up
+ * to date by {@link UserTokenCacheListener}. The number of users is bounded, and entries expire so that
+ * versions changed by another instance are read again.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    // Version of deleted users, which no token can match
+    private static final int REVOKED = -1;
+
+    private final UserRepository userRepository;
+    private final Cache<UUID, Integer> versions;
+
+    @Autowired
+    public TokenVersionRegistry(UserRepository userRepository,
+                                @Value("${security.jwt.token-versions.max-size:100000}") long maximumSize,
+                                @Value("${security.jwt.token-versions.ttl-seconds:300}") long ttlSeconds) {
+        this(userRepository, maximumSize, Duration.ofSeconds(ttlSeconds), Ticker.systemTicker());
+    }
+
+    TokenVersionRegistry(UserRepository userRepository, long maximumSize, Duration ttl, Ticker ticker) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Checks whether a token version is still the current version of its user.
+     * @param userId The ID of the user
+     * @param tokenVersion The version claim of the token
+     * @return True if the user exists and has not revoked tokens of that version
+     */
+    public boolean isCurrent(UUID userId, int tokenVersion) {
+        int current = versions.get(userId,
+                id -> userRepository.findTokenVersionById(id).orElse(REVOKED));
+        return current != REVOKED && current == tokenVersion;
+    }
+
+    public void update(UUID userId, int tokenVersion) {
+        versions.put(userId, tokenVersion);
+    }
+
+    public void revoke(UUID userId) {
+        versions.put(userId, REVOKED);
+    }
+}
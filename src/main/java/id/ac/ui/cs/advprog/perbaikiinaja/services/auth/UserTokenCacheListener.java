@@ -0,0 +1,38 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.services.auth;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Entity listener that evicts a user's verified tokens whenever the user is updated or deleted,
+ * so a changed role or account takes effect on the next request. It also keeps the
+ * {@link TokenVersionRegistry} in step with the user's token version.
+ * Hibernate creates it through Spring, which injects the beans when the context has them.
+ */
+public class UserTokenCacheListener {
+
+    private final ObjectProvider<VerifiedTokenCache> verifiedTokenCache;
+    private final ObjectProvider<TokenVersionRegistry> tokenVersionRegistry;
+
+    @Autowired
+    public UserTokenCacheListener(ObjectProvider<VerifiedTokenCache> verifiedTokenCache,
+                                  ObjectProvider<TokenVersionRegistry> tokenVersionRegistry) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+    }
+
+    @PostUpdate
+    public void onUserChanged(User user) {
+        tokenVersionRegistry.ifAvailable(registry -> registry.update(user.getId(), user.getTokenVersion()));
+        verifiedTokenCache.ifAvailable(cache -> cache.evictUser(user));
+    }
+
+    @PostRemove
+    public void onUserRemoved(User user) {
+        tokenVersionRegistry.ifAvailable(registry -> registry.revoke(user.getId()));
+        verifiedTokenCache.ifAvailable(cache -> cache.evictUser(user));
+    }
+}
@@ -0,0 +1,130 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.services.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.UserIdentity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers tokens that already passed signature and user checks, together with the user they resolved to.
+ * Entries are keyed by the SHA-256 digest of the token, so raw tokens are never kept in memory,
+ * and each entry expires when its token does.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    public static final String CACHE_NAME = "jwt.verified.tokens";
+
+    private final Cache<String, CachedPrincipal> cache;
+    private final Ticker ticker;
+
+    @Autowired
+    public VerifiedTokenCache(@Value("${security.jwt.token-cache.max-size:10000}") long maximumSize,
+                              MeterRegistry meterRegistry) {
+        this(maximumSize, Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    VerifiedTokenCache(long maximumSize, Ticker ticker) {
+        this.ticker = ticker;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpires())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Gets the user a token was verified for.
+     * @param token The raw bearer token
+     * @return The cached user, or null if the token was not verified yet or has expired
+     */
+    public UserDetails get(String token) {
+        CachedPrincipal cached = cache.getIfPresent(digest(token));
+        return cached == null ? null : cached.principal();
+    }
+
+    /**
+     * Remembers a verified token until it expires.
+     * @param token The raw bearer token
+     * @param principal The user the token was verified for
+     * @param expiresAt The expiration of the token
+     */
+    public void put(String token, UserDetails principal, Instant expiresAt) {
+        long expiresAtNanos = ticker.read() + TimeUnit.MILLISECONDS.toNanos(expiresAt.toEpochMilli() - System.currentTimeMillis());
+        cache.put(digest(token), new CachedPrincipal(principal, expiresAtNanos));
+    }
+
+    /**
+     * Drops every cached token of a user, so the next request loads the user again.
+     * Called when a user is updated or deleted.
+     * @param user The changed user
+     */
+    public void evictUser(User user) {
+        cache.asMap().values().removeIf(cached -> isSameUser(cached.principal(), user));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private static boolean isSameUser(UserDetails principal, User user) {
+        if (principal instanceof UserIdentity identity && identity.getId() != null) {
+            return identity.getId().equals(user.getId());
+        }
+        return principal.getUsername().equals(user.getUsername());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedPrincipal(UserDetails principal, long expiresAtNanos) {
+    }
+
+    /**
+     * Expires each entry at its token's exp claim. Reads and updates keep the original deadline.
+     */
+    private static class UntilTokenExpires implements Expiry<String, CachedPrincipal> {
+        @Override
+        public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+            return Math.max(0, value.expiresAtNanos() - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
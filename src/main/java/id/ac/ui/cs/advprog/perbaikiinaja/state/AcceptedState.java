@@ -11,6 +11,8 @@ import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
  */
 public class AcceptedState implements ServiceRequestState {
 
+    public static final AcceptedState INSTANCE = new AcceptedState();
+
     @Override
     public ServiceRequestState provideEstimate(ServiceRequest request, RepairEstimate estimate) {
         throw new IllegalStateException("Cannot provide estimate in accepted state: estimate has already been accepted");
@@ -33,7 +35,7 @@ public class AcceptedState implements ServiceRequestState {
             throw new IllegalStateException("Cannot start service: no technician assigned");
         }
 
-        return new InProgressState();
+        return InProgressState.INSTANCE;
     }
 
     @Override
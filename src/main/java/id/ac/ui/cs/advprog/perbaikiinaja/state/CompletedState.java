@@ -12,6 +12,8 @@ import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
  */
 public class CompletedState implements ServiceRequestState {
 
+    public static final CompletedState INSTANCE = new CompletedState();
+
     @Override
     public ServiceRequestState provideEstimate(ServiceRequest request, RepairEstimate estimate) {
         throw new IllegalStateException("Cannot provide estimate in completed state: service has already been completed");
@@ -11,6 +11,8 @@ import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
  */
 public class EstimatedState implements ServiceRequestState {
 
+    public static final EstimatedState INSTANCE = new EstimatedState();
+
     @Override
     public ServiceRequestState provideEstimate(ServiceRequest request, RepairEstimate estimate) {
         if (estimate == null || !estimate.isValid()) {
@@ -29,7 +31,7 @@ public class EstimatedState implements ServiceRequestState {
             throw new IllegalStateException("Cannot accept estimate: no estimate found");
         }
 
-        return new AcceptedState();
+        return AcceptedState.INSTANCE;
     }
 
     @Override
@@ -39,7 +41,7 @@ public class EstimatedState implements ServiceRequestState {
             throw new IllegalStateException("Cannot reject estimate: no estimate found");
         }
 
-        return new RejectedState();
+        return RejectedState.INSTANCE;
     }
 
     @Override
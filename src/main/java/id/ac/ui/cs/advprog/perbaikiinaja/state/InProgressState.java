@@ -11,6 +11,8 @@ import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
  */
 public class InProgressState implements ServiceRequestState {
 
+    public static final InProgressState INSTANCE = new InProgressState();
+
     @Override
     public ServiceRequestState provideEstimate(ServiceRequest request, RepairEstimate estimate) {
         throw new IllegalStateException("Cannot provide estimate in in-progress state: service is already in progress");
@@ -38,13 +40,8 @@ public class InProgressState implements ServiceRequestState {
             throw new IllegalStateException("Cannot complete service: no technician assigned");
         }
 
-        // Update technician statistics
-        request.getTechnician().incrementCompletedJobCount();
-        if (request.getEstimate() != null) {
-            request.getTechnician().addEarnings(request.getEstimate().getCost());
-        }
-
-        return new CompletedState();
+        // Technician statistics are recorded by TechnicianStatsUpdater once the completion commits
+        return CompletedState.INSTANCE;
     }
 
     @Override
@@ -11,6 +11,8 @@ import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
  */
 public class PendingState implements ServiceRequestState {
 
+    public static final PendingState INSTANCE = new PendingState();
+
     @Override
     public ServiceRequestState provideEstimate(ServiceRequest request, RepairEstimate estimate) {
         if (estimate == null || !estimate.isValid()) {
@@ -18,7 +20,7 @@ public class PendingState implements ServiceRequestState {
         }
 
         request.setEstimate(estimate);
-        return new EstimatedState();
+        return EstimatedState.INSTANCE;
     }
 
     @Override
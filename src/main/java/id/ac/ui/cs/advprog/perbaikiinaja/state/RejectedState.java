@@ -12,6 +12,8 @@ import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
  */
 public class RejectedState implements ServiceRequestState {
 
+    public static final RejectedState INSTANCE = new RejectedState();
+
     private static final String TERMINAL_STATE_MESSAGE = "request in rejected state cannot be changed";
 
     /**
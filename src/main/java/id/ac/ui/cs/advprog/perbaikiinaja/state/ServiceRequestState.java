@@ -9,6 +9,8 @@ import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
  * Interface representing a state in the lifecycle of a service request.
  * Implements the State design pattern for managing the different states
  * a service request can be in.
+ * States hold no data of their own, so every request shares one instance per state,
+ * see {@link #of(ServiceRequestStateType)}.
  */
 public interface ServiceRequestState {
 
@@ -67,4 +69,14 @@ public interface ServiceRequestState {
      * @return The state name
      */
     ServiceRequestStateType getStateType();
+
+    /**
+     * Gets the shared instance of a state.
+     *
+     * @param stateType The state type
+     * @return The state, without allocating
+     */
+    static ServiceRequestState of(ServiceRequestStateType stateType) {
+        return ServiceRequestStates.BY_TYPE[stateType.ordinal()];
+    }
 }
\ No newline at end of file
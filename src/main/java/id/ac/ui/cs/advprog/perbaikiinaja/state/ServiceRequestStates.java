@@ -0,0 +1,27 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.state;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
+
+/**
+ * The shared state instances, indexed by the ordinal of their state type.
+ */
+final class ServiceRequestStates {
+
+    static final ServiceRequestState[] BY_TYPE = new ServiceRequestState[ServiceRequestStateType.values().length];
+
+    static {
+        for (ServiceRequestStateType stateType : ServiceRequestStateType.values()) {
+            BY_TYPE[stateType.ordinal()] = switch (stateType) {
+                case PENDING -> PendingState.INSTANCE;
+                case ESTIMATED -> EstimatedState.INSTANCE;
+                case ACCEPTED -> AcceptedState.INSTANCE;
+                case IN_PROGRESS -> InProgressState.INSTANCE;
+                case COMPLETED -> CompletedState.INSTANCE;
+                case REJECTED -> RejectedState.INSTANCE;
+            };
+        }
+    }
+
+    private ServiceRequestStates() {
+    }
+}
\ No newline at end of file
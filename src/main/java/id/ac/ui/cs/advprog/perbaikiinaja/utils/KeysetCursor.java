@@ -0,0 +1,100 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Position in a listing ordered by (timestamp DESC, id DESC).
+ * The next page holds the rows strictly after this position, so paging stays
+ * an index range scan no matter how deep the client goes.
+ */
+public final class KeysetCursor {
+
+    // Later than any stored timestamp, so the first page starts at the newest row
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final UUID LOWEST_ID = new UUID(0L, 0L);
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime timestamp;
+    private final UUID id;
+
+    public KeysetCursor(LocalDateTime timestamp, UUID id) {
+        this.timestamp = Objects.requireNonNull(timestamp, "timestamp");
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    /**
+     * Gets the cursor for the first page.
+     * @return A cursor positioned before the newest possible row
+     */
+    public static KeysetCursor first() {
+        return new KeysetCursor(LATEST, LOWEST_ID);
+    }
+
+    /**
+     * Decodes a cursor sent by a client.
+     * @param encoded The value returned by {@link #encode()}, or null for the first page
+     * @return The decoded cursor
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static KeysetCursor decode(String encoded) {
+        if (encoded == null || encoded.isBlank()) {
+            return first();
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new KeysetCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    UUID.fromString(decoded.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Encodes this cursor as an opaque, URL-safe string.
+     * @return The encoded cursor
+     */
+    public String encode() {
+        String raw = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof KeysetCursor other)) {
+            return false;
+        }
+        return timestamp.equals(other.timestamp) && id.equals(other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(timestamp, id);
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor{" + timestamp + ", " + id + "}";
+    }
+}
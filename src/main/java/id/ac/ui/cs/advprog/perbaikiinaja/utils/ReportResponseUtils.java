@@ -0,0 +1,119 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.utils;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
+
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Builds the admin view of a report, shared by the report listing and the report export.
+ */
+public class ReportResponseUtils {
+
+    private static final String IDSTR = "id";
+    private static final String FULLNAMESTR = "fullName";
+
+    public static final String CSV_HEADER = String.join(",",
+            "reportId", "serviceRequestId", "status",
+            "customerId", "customerFullName",
+            "itemName", "itemCondition", "itemIssueDescription",
+            "technicianId", "technicianFullName",
+            "repairDetails", "resolutionSummary", "completionDate", "createdAt");
+
+    private ReportResponseUtils(){}
+
+    /**
+     * Builds the report map with its service request, customer, item and technician.
+     * @param serviceRequest A service request that has a report
+     * @return The report map
+     */
+    public static Map<String, Object> toReportMap(ServiceRequest serviceRequest) {
+        Report report = serviceRequest.getReport();
+
+        Map<String, Object> reportMap = new HashMap<>();
+        reportMap.put(IDSTR, report.getId());
+        reportMap.put("serviceRequest", buildServiceRequestMap(serviceRequest));
+        reportMap.put("technician", buildTechnicianMap(serviceRequest.getTechnician()));
+        reportMap.put("repairDetails", report.getRepairDetails());
+        reportMap.put("resolutionSummary", report.getRepairSummary());
+        reportMap.put("completionDate", report.getCompletionDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        reportMap.put("createdAt", report.getCreatedDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        return reportMap;
+    }
+
+    /**
+     * Builds one CSV row with the same fields as {@link #toReportMap(ServiceRequest)}, in {@link #CSV_HEADER} order.
+     * @param serviceRequest A service request that has a report
+     * @return The CSV row, without a line terminator
+     */
+    public static String toCsvRow(ServiceRequest serviceRequest) {
+        Report report = serviceRequest.getReport();
+        Technician technician = serviceRequest.getTechnician();
+
+        StringJoiner row = new StringJoiner(",");
+        row.add(csvValue(report.getId()));
+        row.add(csvValue(serviceRequest.getId()));
+        row.add(csvValue(serviceRequest.getStateType()));
+        row.add(csvValue(serviceRequest.getCustomer().getId()));
+        row.add(csvValue(serviceRequest.getCustomer().getFullName()));
+        row.add(csvValue(serviceRequest.getItem().getName()));
+        row.add(csvValue(serviceRequest.getItem().getCondition()));
+        row.add(csvValue(serviceRequest.getItem().getIssueDescription()));
+        row.add(csvValue(technician.getId()));
+        row.add(csvValue(technician.getFullName()));
+        row.add(csvValue(report.getRepairDetails()));
+        row.add(csvValue(report.getRepairSummary()));
+        row.add(csvValue(report.getCompletionDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)));
+        row.add(csvValue(report.getCreatedDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)));
+        return row.toString();
+    }
+
+    /**
+     * Quotes a CSV value when it contains a separator, quote or line break.
+     * @param value The value, may be null
+     * @return The escaped value
+     */
+    public static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private static Map<String, Object> buildServiceRequestMap(ServiceRequest serviceRequest) {
+        Map<String, Object> serviceRequestMap = new HashMap<>();
+        serviceRequestMap.put(IDSTR, serviceRequest.getId());
+        serviceRequestMap.put("status", serviceRequest.getStateType());
+
+        // Customer info
+        Map<String, Object> customerMap = new HashMap<>();
+        customerMap.put(IDSTR, serviceRequest.getCustomer().getId());
+        customerMap.put(FULLNAMESTR, serviceRequest.getCustomer().getFullName());
+        serviceRequestMap.put("customer", customerMap);
+
+        // Item info
+        Map<String, Object> itemMap = new HashMap<>();
+        itemMap.put("name", serviceRequest.getItem().getName());
+        itemMap.put("condition", serviceRequest.getItem().getCondition());
+        itemMap.put("issueDescription", serviceRequest.getItem().getIssueDescription());
+        serviceRequestMap.put("item", itemMap);
+
+        return serviceRequestMap;
+    }
+
+    private static Map<String, Object> buildTechnicianMap(Technician technician) {
+        Map<String, Object> technicianMap = new HashMap<>();
+        technicianMap.put(IDSTR, technician.getId());
+        technicianMap.put(FULLNAMESTR, technician.getFullName());
+        return technicianMap;
+    }
+}
@@ -0,0 +1,94 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.config;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.AuthenticatedUser;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CurrentUserArgumentResolverTest {
+
+    private UserRepository userRepository;
+    private CurrentUserArgumentResolver resolver;
+    private MethodParameter userParameter;
+    private MethodParameter customerParameter;
+    private MethodParameter plainParameter;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        userRepository = mock(UserRepository.class);
+        resolver = new CurrentUserArgumentResolver(userRepository);
+
+        Method handler = Handlers.class.getDeclaredMethod("handle", User.class, Customer.class, User.class);
+        userParameter = new MethodParameter(handler, 0);
+        customerParameter = new MethodParameter(handler, 1);
+        plainParameter = new MethodParameter(handler, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void supportsParameter_onlyAnnotatedUserParameters() {
+        assertTrue(resolver.supportsParameter(userParameter));
+        assertTrue(resolver.supportsParameter(customerParameter));
+        assertFalse(resolver.supportsParameter(plainParameter));
+    }
+
+    @Test
+    void resolveArgument_entityPrincipal_isReturnedWithoutQuery() {
+        Customer customer = new Customer();
+        authenticate(customer);
+
+        assertSame(customer, resolver.resolveArgument(userParameter, null, null, null));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void resolveArgument_tokenPrincipal_loadsEntity() {
+        UUID userId = UUID.randomUUID();
+        Customer customer = new Customer();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(customer));
+        authenticate(new AuthenticatedUser(userId, "customer@mail.com", "CUSTOMER", 0));
+
+        assertSame(customer, resolver.resolveArgument(userParameter, null, null, null));
+    }
+
+    @Test
+    void resolveArgument_wrongEntityType_returnsNull() {
+        authenticate(new Technician());
+
+        assertNull(resolver.resolveArgument(customerParameter, null, null, null));
+    }
+
+    @Test
+    void resolveArgument_unauthenticated_returnsNull() {
+        assertNull(resolver.resolveArgument(userParameter, null, null, null));
+    }
+
+    private void authenticate(Object principal) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, java.util.List.of()));
+    }
+
+    @SuppressWarnings("unused")
+    private static class Handlers {
+        void handle(@CurrentUser User user, @CurrentUser Customer customer, User plain) {
+        }
+    }
+}
@@ -1,6 +1,13 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.config;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.AuthenticatedUser;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
 import id.ac.ui.cs.advprog.perbaikiinaja.services.auth.JwtService;
+import id.ac.ui.cs.advprog.perbaikiinaja.services.auth.TokenVersionRegistry;
+import id.ac.ui.cs.advprog.perbaikiinaja.services.auth.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,6 +21,10 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,6 +34,8 @@ class JwtAuthenticationFilterTest {
     private JwtService jwtService;
     private UserDetailsService userDetailsService;
     private HandlerExceptionResolver handlerExceptionResolver;
+    private VerifiedTokenCache verifiedTokenCache;
+    private TokenVersionRegistry tokenVersionRegistry;
     private JwtAuthenticationFilter filter;
     private HttpServletRequest request;
     private HttpServletResponse response;
@@ -33,7 +46,10 @@ class JwtAuthenticationFilterTest {
         jwtService = mock(JwtService.class);
         userDetailsService = mock(UserDetailsService.class);
         handlerExceptionResolver = mock(HandlerExceptionResolver.class);
-        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, handlerExceptionResolver);
+        verifiedTokenCache = mock(VerifiedTokenCache.class);
+        tokenVersionRegistry = mock(TokenVersionRegistry.class);
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, handlerExceptionResolver,
+                verifiedTokenCache, tokenVersionRegistry);
         request = mock(HttpServletRequest.class);
         response = mock(HttpServletResponse.class);
         filterChain = mock(FilterChain.class);
@@ -57,23 +73,126 @@ class JwtAuthenticationFilterTest {
     @Test
     void doFilterInternal_validToken_setsAuthentication() throws Exception {
         when(request.getHeader("Authorization")).thenReturn("Bearer validtoken");
-        when(jwtService.extractUsername("validtoken")).thenReturn("user@example.com");
+        Claims claims = mockClaims("user@example.com");
+        when(jwtService.extractAllClaims("validtoken")).thenReturn(claims);
         UserDetails userDetails = mock(UserDetails.class);
         when(userDetailsService.loadUserByUsername("user@example.com")).thenReturn(userDetails);
-        when(jwtService.isTokenValid("validtoken", userDetails)).thenReturn(true);
+        when(jwtService.isTokenValid(claims, userDetails)).thenReturn(true);
 
         filter.doFilterInternal(request, response, filterChain);
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         assertNotNull(auth);
         assertEquals(userDetails, auth.getPrincipal());
+        verify(jwtService, times(1)).extractAllClaims("validtoken");
+        verify(jwtService, never()).isTokenValid(anyString(), any());
+        verify(verifiedTokenCache).put("validtoken", userDetails, claims.getExpiration().toInstant());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_tokenWithIdentityClaims_doesNotLoadUser() throws Exception {
+        when(request.getHeader("Authorization")).thenReturn("Bearer validtoken");
+        Claims claims = mockClaims("user@example.com");
+        when(jwtService.extractAllClaims("validtoken")).thenReturn(claims);
+        AuthenticatedUser principal = new AuthenticatedUser(UUID.randomUUID(), "user@example.com", "CUSTOMER", 0);
+        when(jwtService.toPrincipal(claims)).thenReturn(principal);
+        when(tokenVersionRegistry.isCurrent(principal.getId(), 0)).thenReturn(true);
+        when(jwtService.isTokenValid(claims, principal)).thenReturn(true);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(auth);
+        assertEquals(principal, auth.getPrincipal());
+        assertTrue(auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_CUSTOMER")));
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_revokedTokenVersion_doesNotSetAuthentication() throws Exception {
+        when(request.getHeader("Authorization")).thenReturn("Bearer oldtoken");
+        Claims claims = mockClaims("user@example.com");
+        when(jwtService.extractAllClaims("oldtoken")).thenReturn(claims);
+        AuthenticatedUser principal = new AuthenticatedUser(UUID.randomUUID(), "user@example.com", "CUSTOMER", 0);
+        when(jwtService.toPrincipal(claims)).thenReturn(principal);
+        when(tokenVersionRegistry.isCurrent(principal.getId(), 0)).thenReturn(false);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(verifiedTokenCache, never()).put(anyString(), any(), any());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_cachedToken_skipsParsingAndUserLoad() throws Exception {
+        when(request.getHeader("Authorization")).thenReturn("Bearer validtoken");
+        UserDetails userDetails = mock(UserDetails.class);
+        when(verifiedTokenCache.get("validtoken")).thenReturn(userDetails);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(auth);
+        assertEquals(userDetails, auth.getPrincipal());
+        verify(jwtService, never()).extractAllClaims(anyString());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_cachedTokenOfBumpedVersion_doesNotSetAuthentication() throws Exception {
+        UserRepository userRepository = mock(UserRepository.class);
+        AuthenticatedUser principal = new AuthenticatedUser(UUID.randomUUID(), "user@example.com", "CUSTOMER", 0);
+        when(userRepository.findTokenVersionById(principal.getId())).thenReturn(Optional.of(0));
+        VerifiedTokenCache realCache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+        TokenVersionRegistry realRegistry = new TokenVersionRegistry(userRepository, 100, 300);
+        JwtAuthenticationFilter cachingFilter = new JwtAuthenticationFilter(jwtService, userDetailsService,
+                handlerExceptionResolver, realCache, realRegistry);
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer validtoken");
+        Claims claims = mockClaims("user@example.com");
+        when(jwtService.extractAllClaims("validtoken")).thenReturn(claims);
+        when(jwtService.toPrincipal(claims)).thenReturn(principal);
+        when(jwtService.isTokenValid(claims, principal)).thenReturn(true);
+
+        cachingFilter.doFilterInternal(request, response, filterChain);
+        assertEquals(principal, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        assertEquals(principal, realCache.get("validtoken"));
+
+        // Revoked elsewhere: the registry learns the new version, but the cached token is not evicted
+        realRegistry.update(principal.getId(), 1);
+        SecurityContextHolder.clearContext();
+
+        cachingFilter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtService, times(1)).extractAllClaims("validtoken");
+        verify(filterChain, times(2)).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_cachedLegacyTokenOfRevokedUser_doesNotSetAuthentication() throws Exception {
+        when(request.getHeader("Authorization")).thenReturn("Bearer legacytoken");
+        Customer user = mock(Customer.class);
+        when(user.getId()).thenReturn(UUID.randomUUID());
+        when(verifiedTokenCache.get("legacytoken")).thenReturn(user);
+        when(tokenVersionRegistry.isCurrent(user.getId(), JwtAuthenticationFilter.LEGACY_TOKEN_VERSION))
+                .thenReturn(false);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
     }
 
     @Test
     void doFilterInternal_validToken_alreadyAuthenticated_doesNotSetAgain() throws Exception {
         when(request.getHeader("Authorization")).thenReturn("Bearer validtoken");
-        when(jwtService.extractUsername("validtoken")).thenReturn("user@example.com");
+        Claims claims = mockClaims("user@example.com");
+        when(jwtService.extractAllClaims("validtoken")).thenReturn(claims);
         Authentication existingAuth = mock(Authentication.class);
         SecurityContextHolder.getContext().setAuthentication(existingAuth);
 
@@ -86,21 +205,24 @@ class JwtAuthenticationFilterTest {
     @Test
     void doFilterInternal_validToken_invalidJwt_doesNotSetAuthentication() throws Exception {
         when(request.getHeader("Authorization")).thenReturn("Bearer invalidtoken");
-        when(jwtService.extractUsername("invalidtoken")).thenReturn("user@example.com");
+        Claims claims = mockClaims("user@example.com");
+        when(jwtService.extractAllClaims("invalidtoken")).thenReturn(claims);
         UserDetails userDetails = mock(UserDetails.class);
         when(userDetailsService.loadUserByUsername("user@example.com")).thenReturn(userDetails);
-        when(jwtService.isTokenValid("invalidtoken", userDetails)).thenReturn(false);
+        when(jwtService.isTokenValid(claims, userDetails)).thenReturn(false);
 
         filter.doFilterInternal(request, response, filterChain);
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(verifiedTokenCache, never()).put(anyString(), any(), any());
         verify(filterChain).doFilter(request, response);
     }
 
     @Test
-    void doFilterInternal_extractUsernameReturnsNull_doesNotSetAuthentication() throws Exception {
+    void doFilterInternal_subjectIsNull_doesNotSetAuthentication() throws Exception {
         when(request.getHeader("Authorization")).thenReturn("Bearer sometoken");
-        when(jwtService.extractUsername("sometoken")).thenReturn(null);
+        Claims claims = mockClaims(null);
+        when(jwtService.extractAllClaims("sometoken")).thenReturn(claims);
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -111,10 +233,17 @@ class JwtAuthenticationFilterTest {
     @Test
     void doFilterInternal_exception_callsHandler() throws Exception {
         when(request.getHeader("Authorization")).thenReturn("Bearer token");
-        when(jwtService.extractUsername("token")).thenThrow(new RuntimeException("JWT error"));
+        when(jwtService.extractAllClaims("token")).thenThrow(new RuntimeException("JWT error"));
 
         filter.doFilterInternal(request, response, filterChain);
 
         verify(handlerExceptionResolver).resolveException(eq(request), eq(response), isNull(), any(Exception.class));
     }
+
+    private Claims mockClaims(String subject) {
+        Claims claims = mock(Claims.class);
+        when(claims.getSubject()).thenReturn(subject);
+        when(claims.getExpiration()).thenReturn(Date.from(Instant.now().plusSeconds(3600)));
+        return claims;
+    }
 }
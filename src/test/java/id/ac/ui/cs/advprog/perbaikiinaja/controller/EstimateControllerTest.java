@@ -221,7 +221,7 @@ class EstimateControllerTest {
 
         // Mock wallet check
         Wallet customerWallet = mock(Wallet.class);
-        when(customerWallet.getBalance()).thenReturn(new BigDecimal("200.00"));
+        when(walletService.getBalance(customerWallet)).thenReturn(new BigDecimal("200.00"));
         when(walletService.getWalletByUserId(customerId)).thenReturn(Optional.of(customerWallet));
 
         Map<String, Object> requestBody = new HashMap<>();
@@ -256,7 +256,7 @@ class EstimateControllerTest {
 
         // Mock wallet with insufficient funds
         Wallet customerWallet = mock(Wallet.class);
-        when(customerWallet.getBalance()).thenReturn(new BigDecimal("50.00")); // Less than estimate cost
+        when(walletService.getBalance(customerWallet)).thenReturn(new BigDecimal("50.00")); // Less than estimate cost
         when(walletService.getWalletByUserId(customerId)).thenReturn(Optional.of(customerWallet));
 
         Map<String, Object> requestBody = new HashMap<>();
@@ -413,7 +413,7 @@ class EstimateControllerTest {
 
         // Mock wallet with sufficient funds
         Wallet customerWallet = mock(Wallet.class);
-        when(customerWallet.getBalance()).thenReturn(new BigDecimal("200.00"));
+        when(walletService.getBalance(customerWallet)).thenReturn(new BigDecimal("200.00"));
         when(walletService.getWalletByUserId(customerId)).thenReturn(Optional.of(customerWallet));
 
         Map<String, Object> requestBody = new HashMap<>();
@@ -1,5 +1,6 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.controller;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ReportExportFormat;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.Item;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
@@ -9,6 +10,7 @@ import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.ReportService;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.ServiceRequestService;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,9 +18,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -51,7 +57,7 @@ class ReportControllerTest {
     private ServiceRequest serviceRequest;
     private Report report;
     private Item item;
-    private List<Report> reports;
+    private List<ServiceRequest> reportedRequests;
 
     @BeforeEach
     void setUp() {
@@ -100,8 +106,8 @@ class ReportControllerTest {
         lenient().when(serviceRequest.getStateType()).thenReturn(ServiceRequestStateType.COMPLETED);
         lenient().when(serviceRequest.getReport()).thenReturn(report);
 
-        // Create list of reports
-        reports = Arrays.asList(report);
+        // Create list of reported service requests
+        reportedRequests = Arrays.asList(serviceRequest);
     }
 
     @Test
@@ -279,11 +285,10 @@ class ReportControllerTest {
     void getReports_AllReports_Success() {
         // Arrange
         lenient().when(authentication.getPrincipal()).thenReturn(admin);
-        when(reportService.getAllReports()).thenReturn(reports);
-        when(reportService.getServiceRequestByReportId(reportId)).thenReturn(serviceRequest);
+        when(reportService.getReportedServiceRequests(KeysetCursor.first(), 21)).thenReturn(reportedRequests);
 
         // Act
-        ResponseEntity<?> response = controller.getReports(null, null, null, null);
+        ResponseEntity<?> response = controller.getReports(null, null, null, null, null, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -297,19 +302,18 @@ class ReportControllerTest {
         assertNotNull(reportsList);
         assertEquals(1, reportsList.size());
 
-        verify(reportService).getAllReports();
-        verify(reportService).getServiceRequestByReportId(reportId);
+        verify(reportService).getReportedServiceRequests(KeysetCursor.first(), 21);
+        verify(reportService, never()).getServiceRequestByReportId(any());
     }
 
     @Test
     void getReports_ByReportId_Success() {
         // Arrange
         lenient().when(authentication.getPrincipal()).thenReturn(admin);
-        when(reportService.getReportById(reportId)).thenReturn(report);
         when(reportService.getServiceRequestByReportId(reportId)).thenReturn(serviceRequest);
 
         // Act
-        ResponseEntity<?> response = controller.getReports(null, null, null, reportId);
+        ResponseEntity<?> response = controller.getReports(null, null, null, reportId, null, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -323,19 +327,18 @@ class ReportControllerTest {
         assertNotNull(reportsList);
         assertEquals(1, reportsList.size());
 
-        verify(reportService).getReportById(reportId);
         verify(reportService).getServiceRequestByReportId(reportId);
+        verify(reportService, never()).getReportById(any());
     }
 
     @Test
     void getReports_ByTechnicianId_Success() {
         // Arrange
         lenient().when(authentication.getPrincipal()).thenReturn(admin);
-        when(reportService.getReportsByTechnician(technicianId)).thenReturn(reports);
-        when(reportService.getServiceRequestByReportId(reportId)).thenReturn(serviceRequest);
+        when(reportService.getReportedServiceRequestsByTechnician(technicianId, KeysetCursor.first(), 21)).thenReturn(reportedRequests);
 
         // Act
-        ResponseEntity<?> response = controller.getReports(null, null, technicianId, null);
+        ResponseEntity<?> response = controller.getReports(null, null, technicianId, null, null, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -349,8 +352,8 @@ class ReportControllerTest {
         assertNotNull(reportsList);
         assertEquals(1, reportsList.size());
 
-        verify(reportService).getReportsByTechnician(technicianId);
-        verify(reportService).getServiceRequestByReportId(reportId);
+        verify(reportService).getReportedServiceRequestsByTechnician(technicianId, KeysetCursor.first(), 21);
+        verify(reportService, never()).getServiceRequestByReportId(any());
     }
 
     @Test
@@ -359,14 +362,15 @@ class ReportControllerTest {
         lenient().when(authentication.getPrincipal()).thenReturn(admin);
         LocalDate startDate = LocalDate.now().minusDays(7);
         LocalDate endDate = LocalDate.now();
-        when(reportService.getReportsByDateRange(startDate, endDate)).thenReturn(reports);
-        when(reportService.getServiceRequestByReportId(reportId)).thenReturn(serviceRequest);
+        when(reportService.getReportedServiceRequestsByDateRange(startDate, endDate, KeysetCursor.first(), 21)).thenReturn(reportedRequests);
 
         // Act
         ResponseEntity<?> response = controller.getReports(
                 startDate.toString(),
                 endDate.toString(),
                 null,
+                null,
+                null,
                 null);
 
         // Assert
@@ -381,8 +385,86 @@ class ReportControllerTest {
         assertNotNull(reportsList);
         assertEquals(1, reportsList.size());
 
-        verify(reportService).getReportsByDateRange(startDate, endDate);
-        verify(reportService).getServiceRequestByReportId(reportId);
+        verify(reportService).getReportedServiceRequestsByDateRange(startDate, endDate, KeysetCursor.first(), 21);
+        verify(reportService, never()).getServiceRequestByReportId(any());
+    }
+
+    @Test
+    void getReports_MoreRowsThanPageSize_ReturnsNextCursor() {
+        // Arrange
+        UUID olderReportId = UUID.randomUUID();
+        Report olderReport = mock(Report.class);
+        lenient().when(olderReport.getId()).thenReturn(olderReportId);
+        ServiceRequest olderRequest = mock(ServiceRequest.class);
+        lenient().when(olderRequest.getReport()).thenReturn(olderReport);
+        LocalDateTime completion = report.getCompletionDateTime();
+        when(reportService.getReportedServiceRequests(KeysetCursor.first(), 2))
+                .thenReturn(Arrays.asList(serviceRequest, olderRequest));
+
+        // Act
+        ResponseEntity<?> response = controller.getReports(null, null, null, null, null, 1);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
+        assertNotNull(responseBody);
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> reportsList = (List<Map<String, Object>>) responseBody.get("reports");
+        assertEquals(1, reportsList.size());
+        assertEquals(reportId, reportsList.get(0).get("id"));
+        assertEquals(new KeysetCursor(completion, reportId).encode(), responseBody.get("nextCursor"));
+    }
+
+    @Test
+    void getReports_WithCursor_ContinuesAfterCursor() {
+        // Arrange
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.now().minusDays(1), UUID.randomUUID());
+        when(reportService.getReportedServiceRequests(cursor, 21)).thenReturn(reportedRequests);
+
+        // Act
+        ResponseEntity<?> response = controller.getReports(null, null, null, null, cursor.encode(), null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
+        assertNotNull(responseBody);
+        assertNull(responseBody.get("nextCursor"));
+        verify(reportService).getReportedServiceRequests(cursor, 21);
+    }
+
+    @Test
+    void getReports_InvalidCursor_ReturnsBadRequest() {
+        // Act
+        ResponseEntity<?> response = controller.getReports(null, null, null, null, "not-a-cursor", null);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
+        assertNotNull(responseBody);
+        assertEquals(4002, responseBody.get("errorCode"));
+        verifyNoInteractions(reportService);
+    }
+
+    @Test
+    void getReports_InvalidPageSize_ReturnsBadRequest() {
+        // Act
+        ResponseEntity<?> response = controller.getReports(null, null, null, null, null, 0);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
+        assertNotNull(responseBody);
+        assertEquals(4003, responseBody.get("errorCode"));
+        verifyNoInteractions(reportService);
     }
 
     @Test
@@ -395,6 +477,8 @@ class ReportControllerTest {
                 "not-a-date",
                 LocalDate.now().toString(),
                 null,
+                null,
+                null,
                 null);
 
         // Assert
@@ -412,11 +496,11 @@ class ReportControllerTest {
     void getReports_ReportNotFound_ReturnsNotFound() {
         // Arrange
         lenient().when(authentication.getPrincipal()).thenReturn(admin);
-        when(reportService.getReportById(reportId))
+        when(reportService.getServiceRequestByReportId(reportId))
                 .thenThrow(new IllegalArgumentException("Report not found"));
 
         // Act
-        ResponseEntity<?> response = controller.getReports(null, null, null, reportId);
+        ResponseEntity<?> response = controller.getReports(null, null, null, reportId, null, null);
 
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -431,11 +515,11 @@ class ReportControllerTest {
     void getReports_TechnicianNotFound_ReturnsNotFound() {
         // Arrange
         lenient().when(authentication.getPrincipal()).thenReturn(admin);
-        when(reportService.getReportsByTechnician(technicianId))
+        when(reportService.getReportedServiceRequestsByTechnician(technicianId, KeysetCursor.first(), 21))
                 .thenThrow(new IllegalArgumentException("Technician not found"));
 
         // Act
-        ResponseEntity<?> response = controller.getReports(null, null, technicianId, null);
+        ResponseEntity<?> response = controller.getReports(null, null, technicianId, null, null, null);
 
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -450,8 +534,7 @@ class ReportControllerTest {
     void getTechnicianReports_Success() {
         // Arrange
         lenient().when(authentication.getPrincipal()).thenReturn(technician);
-        when(reportService.getReportsByTechnician(technicianId)).thenReturn(reports);
-        when(reportService.getServiceRequestByReportId(reportId)).thenReturn(serviceRequest);
+        when(reportService.getReportedServiceRequestsByTechnician(technicianId)).thenReturn(reportedRequests);
 
         // Act
         ResponseEntity<?> response = controller.getTechnicianReports(technicianId);
@@ -468,15 +551,15 @@ class ReportControllerTest {
         assertNotNull(reportsList);
         assertEquals(1, reportsList.size());
 
-        verify(reportService).getReportsByTechnician(technicianId);
-        verify(reportService).getServiceRequestByReportId(reportId);
+        verify(reportService).getReportedServiceRequestsByTechnician(technicianId);
+        verify(reportService, never()).getServiceRequestByReportId(any());
     }
 
     @Test
     void getTechnicianReports_Exception_ReturnsInternalServerError() {
         // Arrange
         lenient().when(authentication.getPrincipal()).thenReturn(technician);
-        when(reportService.getReportsByTechnician(technicianId))
+        when(reportService.getReportedServiceRequestsByTechnician(technicianId))
                 .thenThrow(new RuntimeException("Unexpected error"));
 
         // Act
@@ -490,4 +573,48 @@ class ReportControllerTest {
         assertNotNull(responseBody);
         assertEquals(5000, responseBody.get("errorCode"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportReports_Csv_StreamsFromService() throws Exception {
+        // Act
+        ResponseEntity<?> response = controller.exportReports("CSV");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.parseMediaType("text/csv"), response.getHeaders().getContentType());
+        assertEquals("attachment; filename=\"reports.csv\"",
+                response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+
+        // Nothing is read until the body is written
+        verify(reportService, never()).exportReports(any(), any());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(outputStream);
+        verify(reportService).exportReports(ReportExportFormat.CSV, outputStream);
+    }
+
+    @Test
+    void exportReports_Ndjson_SetsContentType() {
+        // Act
+        ResponseEntity<?> response = controller.exportReports("ndjson");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.parseMediaType("application/x-ndjson"), response.getHeaders().getContentType());
+        assertInstanceOf(StreamingResponseBody.class, response.getBody());
+    }
+
+    @Test
+    void exportReports_UnknownFormat_ReturnsBadRequest() {
+        // Act
+        ResponseEntity<?> response = controller.exportReports("xml");
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
+        assertNotNull(responseBody);
+        assertEquals(4004, responseBody.get("errorCode"));
+    }
+}
@@ -1,22 +1,30 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.controller;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.ServiceRequestSummaryDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.TechnicianInboxDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
-import id.ac.ui.cs.advprog.perbaikiinaja.repository.ServiceRequestRepository;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.ServiceRequestService;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.assignment.TechnicianLoadTracker;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.notification.ServiceRequestEventStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.*;
 
 import static org.mockito.Mockito.*;
@@ -32,7 +40,10 @@ class ServiceRequestControllerTest {
     private Authentication authentication;
 
     @Mock
-    private ServiceRequestRepository serviceRequestRepository;
+    private TechnicianLoadTracker technicianLoadTracker;
+
+    @Mock
+    private ServiceRequestEventStream serviceRequestEventStream;
 
     @InjectMocks
     private ServiceRequestController controller;
@@ -121,6 +132,40 @@ class ServiceRequestControllerTest {
         verify(serviceRequestService).findByTechnicianAndStatus(technicianId, status);
     }
 
+    @Test
+    void getTechnicianInbox_Success() {
+        // Arrange
+        TechnicianInboxDto entry = new TechnicianInboxDto();
+        entry.setId(serviceRequestId);
+        entry.setStatus(ServiceRequestStateType.IN_PROGRESS);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(serviceRequestService.findInbox(technicianId, ServiceRequestStateType.IN_PROGRESS, pageable))
+                .thenReturn(new PageImpl<>(List.of(entry), pageable, 1));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response =
+                controller.getTechnicianInbox(technicianId, ServiceRequestStateType.IN_PROGRESS, 0, 20);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, Object> responseBody = response.getBody();
+        assertNotNull(responseBody);
+        assertEquals(200, responseBody.get("status"));
+        assertEquals(List.of(entry), responseBody.get("serviceRequests"));
+        assertEquals(1L, responseBody.get("totalItems"));
+    }
+
+    @Test
+    void getTechnicianInbox_InvalidPage() {
+        // Act
+        ResponseEntity<Map<String, Object>> response =
+                controller.getTechnicianInbox(technicianId, ServiceRequestStateType.IN_PROGRESS, -1, 20);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(serviceRequestService);
+    }
+
     @Test
     void getTechnicianServiceRequests_WithValidStatus_Success() {
         // Arrange
@@ -329,16 +374,20 @@ class ServiceRequestControllerTest {
 
     @Test
     void getAllServiceRequests_Success() {
-        // We would need to implement the findAll method in the service
-        // For now, just test that the endpoint returns a success response
-
         // Arrange
         User admin = mock(User.class);
         lenient().when(admin.getRole()).thenReturn("ADMIN");
         lenient().when(authentication.getPrincipal()).thenReturn(admin);
 
+        ServiceRequestSummaryDto summary = new ServiceRequestSummaryDto();
+        summary.setId(serviceRequestId);
+        summary.setStatus(ServiceRequestStateType.PENDING);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(serviceRequestService.findSummaries(null, null, null, pageable))
+                .thenReturn(new PageImpl<>(List.of(summary), pageable, 1));
+
         // Act
-        ResponseEntity<?> response = controller.getAllServiceRequests();
+        ResponseEntity<?> response = controller.getAllServiceRequests(null, null, null, 0, 20);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -348,5 +397,90 @@ class ServiceRequestControllerTest {
         assertNotNull(responseBody);
         assertEquals(200, responseBody.get("status"));
         assertEquals("SUCCESS", responseBody.get("message"));
+        assertEquals(List.of(summary), responseBody.get("serviceRequests"));
+        assertEquals(0, responseBody.get("currentPage"));
+        assertEquals(1L, responseBody.get("totalItems"));
+        assertEquals(1, responseBody.get("totalPages"));
+    }
+
+    @Test
+    void getAllServiceRequests_WithFilters() {
+        // Arrange
+        LocalDate startDate = LocalDate.of(2025, 1, 1);
+        LocalDate endDate = LocalDate.of(2025, 1, 31);
+        Pageable pageable = PageRequest.of(2, 10);
+        when(serviceRequestService.findSummaries(ServiceRequestStateType.COMPLETED, startDate, endDate, pageable))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 20));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = controller.getAllServiceRequests(
+                ServiceRequestStateType.COMPLETED, startDate, endDate, 2, 10);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(20L, response.getBody().get("totalItems"));
+        assertEquals(2, response.getBody().get("currentPage"));
+    }
+
+    @Test
+    void getAllServiceRequests_InvalidPageSize() {
+        // Act
+        ResponseEntity<Map<String, Object>> response = controller.getAllServiceRequests(null, null, null, 0, 101);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(400, response.getBody().get("status"));
+        verifyNoInteractions(serviceRequestService);
+    }
+
+    @Test
+    void getAllServiceRequests_StartDateAfterEndDate() {
+        // Act
+        ResponseEntity<Map<String, Object>> response = controller.getAllServiceRequests(
+                null, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), 0, 20);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Start date must not be after end date", response.getBody().get("message"));
+        verifyNoInteractions(serviceRequestService);
+    }
+    @Test
+    void streamServiceRequestEvents_SubscribesCurrentUser() {
+        // Arrange
+        SseEmitter emitter = new SseEmitter();
+        when(serviceRequestEventStream.subscribe(customerId)).thenReturn(emitter);
+
+        // Act
+        SseEmitter result = controller.streamServiceRequestEvents(customer);
+
+        // Assert
+        assertSame(emitter, result);
+    }
+
+    @Test
+    void getTechnicianLoad_Success() {
+        // Arrange
+        UUID otherTechnicianId = UUID.randomUUID();
+        Map<UUID, Integer> counts = new LinkedHashMap<>();
+        counts.put(otherTechnicianId, 0);
+        counts.put(technicianId, 2);
+        when(technicianLoadTracker.getOpenRequestCounts()).thenReturn(counts);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = controller.getTechnicianLoad();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, Object> responseBody = response.getBody();
+        assertNotNull(responseBody);
+        assertEquals(200, responseBody.get("status"));
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> technicianLoad = (List<Map<String, Object>>) responseBody.get("technicianLoad");
+        assertEquals(2, technicianLoad.size());
+        assertEquals(otherTechnicianId, technicianLoad.get(0).get("technicianId"));
+        assertEquals(0, technicianLoad.get(0).get("openRequests"));
+        assertEquals(technicianId, technicianLoad.get(1).get("technicianId"));
+        assertEquals(2, technicianLoad.get(1).get("openRequests"));
     }
 }
\ No newline at end of file
@@ -9,7 +9,10 @@ import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.review.Review;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
 import id.ac.ui.cs.advprog.perbaikiinaja.services.auth.JwtService;
+import id.ac.ui.cs.advprog.perbaikiinaja.services.auth.TokenVersionRegistry;
+import id.ac.ui.cs.advprog.perbaikiinaja.services.auth.VerifiedTokenCache;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.review.ReviewService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -58,6 +61,15 @@ class ReviewControllerTest {
     @MockBean
     private UserDetailsService userDetailsService; // This is Spring Security's UserDetailsService
 
+    @MockBean
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @MockBean
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @MockBean
+    private UserRepository userRepository; // Used by the @CurrentUser argument resolver
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -1,11 +1,17 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.controller.wallet;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.TransactionDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.auth.UserRole;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.AuthenticatedUser;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.wallet.TransactionService;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletDailySummaryRepository.TypeTotal;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.wallet.WalletService;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.wallet.WalletSummaryService;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,9 +24,9 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -38,12 +44,13 @@ class TransactionControllerTest {
     private WalletService walletService;
 
     @Mock
-    private Authentication authentication;
+    private WalletSummaryService walletSummaryService;
 
     @InjectMocks
     private TransactionController transactionController;
 
     private User user;
+    private AuthenticatedUser principal;
     private Wallet wallet;
     private Transaction transaction1;
     private Transaction transaction2;
@@ -53,6 +60,7 @@ class TransactionControllerTest {
     @BeforeEach
     void setUp() {
         walletId = UUID.randomUUID();
+        principal = new AuthenticatedUser(UUID.randomUUID(), "user@example.com", UserRole.CUSTOMER.getValue(), 0);
         wallet = new Wallet(user);
         wallet.setId(walletId);
         wallet.setBalance(new BigDecimal("200.00"));
@@ -79,13 +87,12 @@ class TransactionControllerTest {
         List<Transaction> transactions = Arrays.asList(transaction1, transaction2);
         Page<Transaction> transactionPage = new PageImpl<>(transactions, pageable, transactions.size());
 
-        when(authentication.getPrincipal()).thenReturn(user);
-        when(walletService.getWalletByUser(user)).thenReturn(Optional.of(wallet));
+        when(walletService.getWalletByUserId(principal.getId())).thenReturn(Optional.of(wallet));
         when(transactionService.getTransactionsByWallet(wallet.getId(), pageable)).thenReturn(transactionPage);
 
         // Execute
         ResponseEntity<?> response = transactionController.getMyTransactions(
-                authentication, page, size, sortBy, direction);
+                principal, page, size, sortBy, direction, null);
 
         // Verify
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -101,20 +108,90 @@ class TransactionControllerTest {
         assertEquals(2L, responseBody.get("totalItems"));
         assertEquals(1, responseBody.get("totalPages"));
 
-        verify(authentication).getPrincipal();
-        verify(walletService).getWalletByUser(user);
+        verify(walletService).getWalletByUserId(principal.getId());
         verify(transactionService).getTransactionsByWallet(wallet.getId(), pageable);
     }
 
+    @Test
+    void testGetMyTransactionsByCursorFirstPage() {
+        when(walletService.getWalletByUserId(principal.getId())).thenReturn(Optional.of(wallet));
+        when(transactionService.getTransactionsByWalletBefore(walletId, KeysetCursor.first(), 2))
+                .thenReturn(Arrays.asList(transaction2, transaction1));
+
+        ResponseEntity<Map<String, Object>> response = transactionController.getMyTransactions(
+                principal, 0, 1, "timestamp", "DESC", "");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, Object> responseBody = response.getBody();
+        assertNotNull(responseBody);
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> transactionList = (List<Map<String, Object>>) responseBody.get("transactions");
+        assertEquals(1, transactionList.size());
+        assertEquals(transaction2.getId(), transactionList.get(0).get("id"));
+        assertEquals(new KeysetCursor(transaction2.getTimestamp(), transaction2.getId()).encode(),
+                responseBody.get("nextCursor"));
+        assertFalse(responseBody.containsKey("totalItems"));
+        verify(transactionService, never()).getTransactionsByWallet(any(), any());
+    }
+
+    @Test
+    void testGetMyTransactionsByCursorLastPage() {
+        KeysetCursor cursor = new KeysetCursor(transaction2.getTimestamp(), transaction2.getId());
+        when(walletService.getWalletByUserId(principal.getId())).thenReturn(Optional.of(wallet));
+        when(transactionService.getTransactionsByWalletBefore(walletId, cursor, 21))
+                .thenReturn(List.of(transaction1));
+
+        ResponseEntity<Map<String, Object>> response = transactionController.getMyTransactions(
+                principal, 0, 20, "timestamp", "DESC", cursor.encode());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().get("count"));
+        assertNull(response.getBody().get("nextCursor"));
+    }
+
+    @Test
+    void testGetMyTransactionsWithInvalidCursor() {
+        when(walletService.getWalletByUserId(principal.getId())).thenReturn(Optional.of(wallet));
+
+        ResponseEntity<Map<String, Object>> response = transactionController.getMyTransactions(
+                principal, 0, 20, "timestamp", "DESC", "not-a-cursor");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Invalid cursor", response.getBody().get("message"));
+    }
+
+    @Test
+    void testGetMyTransactionsWithUnknownSortField() {
+        when(walletService.getWalletByUserId(principal.getId())).thenReturn(Optional.of(wallet));
+
+        ResponseEntity<Map<String, Object>> response = transactionController.getMyTransactions(
+                principal, 0, 20, "wallet.user.password", "DESC", null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(transactionService, never()).getTransactionsByWallet(any(), any());
+    }
+
+    @Test
+    void testGetMyTransactionsWithInvalidSize() {
+        when(walletService.getWalletByUserId(principal.getId())).thenReturn(Optional.of(wallet));
+
+        ResponseEntity<Map<String, Object>> response = transactionController.getMyTransactions(
+                principal, 0, 0, "timestamp", "DESC", null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     @Test
     void testGetMyTransactionsWhenWalletNotFound() {
         // Setup
-        when(authentication.getPrincipal()).thenReturn(user);
-        when(walletService.getWalletByUser(user)).thenReturn(Optional.empty());
+        when(walletService.getWalletByUserId(principal.getId())).thenReturn(Optional.empty());
 
         // Execute
         ResponseEntity<?> response = transactionController.getMyTransactions(
-                authentication, 0, 20, "timestamp", "DESC");
+                principal, 0, 20, "timestamp", "DESC", null);
 
         // Verify
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -124,8 +201,7 @@ class TransactionControllerTest {
         assertNotNull(responseBody);
         assertEquals("Wallet not found. Create a wallet first.", responseBody.get("message"));
 
-        verify(authentication).getPrincipal();
-        verify(walletService).getWalletByUser(user);
+        verify(walletService).getWalletByUserId(principal.getId());
         verify(transactionService, never()).getTransactionsByWallet(any(), any());
     }
 
@@ -133,14 +209,15 @@ class TransactionControllerTest {
     void testGetMyTransactionsByType() {
         // Setup
         TransactionType type = TransactionType.DEPOSIT;
-        List<Transaction> transactions = Collections.singletonList(transaction1);
+        PageRequest pageable = PageRequest.of(0, 20);
+        Page<TransactionDto> transactionPage = new PageImpl<>(List.of(toDto(transaction1)), pageable, 1);
 
-        when(authentication.getPrincipal()).thenReturn(user);
-        when(walletService.getWalletByUser(user)).thenReturn(Optional.of(wallet));
-        when(transactionService.getTransactionsByWalletAndType(wallet.getId(), type)).thenReturn(transactions);
+        when(walletService.getWalletByUserId(principal.getId())).thenReturn(Optional.of(wallet));
+        when(transactionService.getTransactionsByWalletAndType(wallet.getId(), type, pageable))
+                .thenReturn(transactionPage);
 
         // Execute
-        ResponseEntity<?> response = transactionController.getMyTransactionsByType(authentication, type);
+        ResponseEntity<?> response = transactionController.getMyTransactionsByType(principal, type, 0, 20);
 
         // Verify
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -152,11 +229,26 @@ class TransactionControllerTest {
         @SuppressWarnings("unchecked")
         List<Map<String, Object>> transactionList = (List<Map<String, Object>>) responseBody.get("transactions");
         assertEquals(1, transactionList.size());
-        assertEquals(1, responseBody.get("count"));
+        assertEquals(transactionId, transactionList.get(0).get("id"));
+        assertEquals(walletId, transactionList.get(0).get("walletId"));
+        assertFalse(transactionList.get(0).containsKey("relatedWalletId"));
+        assertEquals(0, responseBody.get("currentPage"));
+        assertEquals(1L, responseBody.get("totalItems"));
+        assertEquals(1, responseBody.get("totalPages"));
 
-        verify(authentication).getPrincipal();
-        verify(walletService).getWalletByUser(user);
-        verify(transactionService).getTransactionsByWalletAndType(wallet.getId(), type);
+        verify(walletService).getWalletByUserId(principal.getId());
+        verify(transactionService).getTransactionsByWalletAndType(wallet.getId(), type, pageable);
+    }
+
+    @Test
+    void testGetMyTransactionsByTypeWithInvalidSize() {
+        when(walletService.getWalletByUserId(principal.getId())).thenReturn(Optional.of(wallet));
+
+        ResponseEntity<?> response = transactionController.getMyTransactionsByType(
+                principal, TransactionType.DEPOSIT, 0, 101);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(transactionService);
     }
 
     @Test
@@ -164,16 +256,17 @@ class TransactionControllerTest {
         // Setup
         LocalDateTime startDate = LocalDateTime.now().minusDays(2);
         LocalDateTime endDate = LocalDateTime.now();
-        List<Transaction> transactions = Arrays.asList(transaction1, transaction2);
+        PageRequest pageable = PageRequest.of(1, 2);
+        Page<TransactionDto> transactionPage = new PageImpl<>(
+                List.of(toDto(transaction2), toDto(transaction1)), pageable, 5);
 
-        when(authentication.getPrincipal()).thenReturn(user);
-        when(walletService.getWalletByUser(user)).thenReturn(Optional.of(wallet));
-        when(transactionService.getTransactionsByWalletAndDateRange(wallet.getId(), startDate, endDate))
-                .thenReturn(transactions);
+        when(walletService.getWalletByUserId(principal.getId())).thenReturn(Optional.of(wallet));
+        when(transactionService.getTransactionsByWalletAndDateRange(wallet.getId(), startDate, endDate, pageable))
+                .thenReturn(transactionPage);
 
         // Execute
         ResponseEntity<?> response = transactionController.getMyTransactionsByDateRange(
-                authentication, startDate, endDate);
+                principal, startDate, endDate, 1, 2);
 
         // Verify
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -185,11 +278,92 @@ class TransactionControllerTest {
         @SuppressWarnings("unchecked")
         List<Map<String, Object>> transactionList = (List<Map<String, Object>>) responseBody.get("transactions");
         assertEquals(2, transactionList.size());
-        assertEquals(2, responseBody.get("count"));
+        assertEquals(1, responseBody.get("currentPage"));
+        assertEquals(5L, responseBody.get("totalItems"));
+        assertEquals(3, responseBody.get("totalPages"));
+
+        verify(walletService).getWalletByUserId(principal.getId());
+        verify(transactionService).getTransactionsByWalletAndDateRange(wallet.getId(), startDate, endDate, pageable);
+    }
+
+    @Test
+    void testGetMySummary() {
+        LocalDate startDate = LocalDate.now().minusDays(30);
+        LocalDate endDate = LocalDate.now();
+        List<TypeTotal> totals = List.of(
+                typeTotal(TransactionType.DEPOSIT, "300.00", 2),
+                typeTotal(TransactionType.EARNING, "25.00", 1),
+                typeTotal(TransactionType.PAYMENT, "120.00", 3));
+
+        when(walletService.getWalletByUserId(principal.getId())).thenReturn(Optional.of(wallet));
+        when(walletSummaryService.getTotals(walletId, startDate, endDate)).thenReturn(totals);
+
+        ResponseEntity<Map<String, Object>> response = transactionController.getMySummary(principal, startDate, endDate);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, Object> responseBody = response.getBody();
+        assertNotNull(responseBody);
+        assertEquals(startDate, responseBody.get("startDate"));
+        assertEquals(endDate, responseBody.get("endDate"));
+        assertEquals(new BigDecimal("325.00"), responseBody.get("income"));
+        assertEquals(new BigDecimal("120.00"), responseBody.get("spending"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> byType = (Map<String, Map<String, Object>>) responseBody.get("totals");
+        assertEquals(TransactionType.values().length, byType.size());
+        assertEquals(new BigDecimal("300.00"), byType.get("DEPOSIT").get("amount"));
+        assertEquals(2L, byType.get("DEPOSIT").get("count"));
+        assertEquals(BigDecimal.ZERO, byType.get("WITHDRAWAL").get("amount"));
+        assertEquals(0L, byType.get("WITHDRAWAL").get("count"));
+    }
+
+    @Test
+    void testGetMySummaryWithReversedRange() {
+        LocalDate today = LocalDate.now();
+
+        when(walletService.getWalletByUserId(principal.getId())).thenReturn(Optional.of(wallet));
+
+        ResponseEntity<Map<String, Object>> response = transactionController.getMySummary(
+                principal, today, today.minusDays(1));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(walletSummaryService);
+    }
+
+    @Test
+    void testGetMySummaryWhenWalletNotFound() {
+        LocalDate today = LocalDate.now();
+
+        when(walletService.getWalletByUserId(principal.getId())).thenReturn(Optional.empty());
+
+        ResponseEntity<Map<String, Object>> response = transactionController.getMySummary(principal, today, today);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verifyNoInteractions(walletSummaryService);
+    }
+
+    private static TransactionDto toDto(Transaction transaction) {
+        return new TransactionDto(transaction.getId(), transaction.getWallet().getId(), transaction.getAmount(),
+                transaction.getType(), transaction.getTimestamp(), transaction.getDescription(), null);
+    }
 
-        verify(authentication).getPrincipal();
-        verify(walletService).getWalletByUser(user);
-        verify(transactionService).getTransactionsByWalletAndDateRange(wallet.getId(), startDate, endDate);
+    private static TypeTotal typeTotal(TransactionType type, String amount, long count) {
+        return new TypeTotal() {
+            @Override
+            public TransactionType getType() {
+                return type;
+            }
+
+            @Override
+            public BigDecimal getTotalAmount() {
+                return new BigDecimal(amount);
+            }
+
+            @Override
+            public Long getTransactionCount() {
+                return count;
+            }
+        };
     }
 
     @Test
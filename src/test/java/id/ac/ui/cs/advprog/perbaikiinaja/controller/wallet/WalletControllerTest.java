@@ -1,20 +1,24 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.controller.wallet;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.BulkWalletOperationDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.BulkWalletResultDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.auth.UserRole;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Admin;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.AuthenticatedUser;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.wallet.IdempotencyStore;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.wallet.WalletService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -30,8 +34,8 @@ class WalletControllerTest {
     @Mock
     private WalletService walletService;
 
-    @Mock
-    private Authentication authentication;
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(100, 10000);
 
     @InjectMocks
     private WalletController walletController;
@@ -39,6 +43,9 @@ class WalletControllerTest {
     private Customer customer;
     private Technician technician;
     private Admin admin;
+    private AuthenticatedUser customerPrincipal;
+    private AuthenticatedUser technicianPrincipal;
+    private AuthenticatedUser adminPrincipal;
     private Wallet wallet;
     private UUID walletId;
     private UUID userId;
@@ -66,18 +73,26 @@ class WalletControllerTest {
         admin.setEmail("admin@example.com");
         admin.setRole(UserRole.ADMIN.getValue());
 
+        // Principals as built from token claims, without the user entities
+        customerPrincipal = new AuthenticatedUser(UUID.randomUUID(), customer.getEmail(), customer.getRole(), 0);
+        technicianPrincipal = new AuthenticatedUser(UUID.randomUUID(), technician.getEmail(), technician.getRole(), 0);
+        adminPrincipal = new AuthenticatedUser(UUID.randomUUID(), admin.getEmail(), admin.getRole(), 0);
+
         // Create Wallet
         wallet = new Wallet(customer, BigDecimal.valueOf(100.0));
         wallet.setCreatedAt(LocalDateTime.now());
         wallet.setUpdatedAt(LocalDateTime.now());
+
+        // Outside ledger mode the balance is read from the wallet itself
+        lenient().when(walletService.getBalance(any(Wallet.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0, Wallet.class).getBalance());
     }
 
     @Test
     void getMyWallet_WithCustomer_Success() {
-        when(authentication.getPrincipal()).thenReturn(customer);
-        when(walletService.getWalletByUser(customer)).thenReturn(Optional.of(wallet));
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
 
-        ResponseEntity<Map<String, Object>> response = walletController.getMyWallet(authentication);
+        ResponseEntity<Map<String, Object>> response = walletController.getMyWallet(customerPrincipal);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -89,10 +104,9 @@ class WalletControllerTest {
     @Test
     void getMyWallet_WithTechnician_Success() {
         Wallet technicianWallet = new Wallet(technician, BigDecimal.valueOf(50.0));
-        when(authentication.getPrincipal()).thenReturn(technician);
-        when(walletService.getWalletByUser(technician)).thenReturn(Optional.of(technicianWallet));
+        when(walletService.getWalletByUserId(technicianPrincipal.getId())).thenReturn(Optional.of(technicianWallet));
 
-        ResponseEntity<Map<String, Object>> response = walletController.getMyWallet(authentication);
+        ResponseEntity<Map<String, Object>> response = walletController.getMyWallet(technicianPrincipal);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -101,9 +115,7 @@ class WalletControllerTest {
 
     @Test
     void getMyWallet_WithAdmin_Forbidden() {
-        when(authentication.getPrincipal()).thenReturn(admin);
-
-        ResponseEntity<Map<String, Object>> response = walletController.getMyWallet(authentication);
+        ResponseEntity<Map<String, Object>> response = walletController.getMyWallet(adminPrincipal);
 
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -112,10 +124,9 @@ class WalletControllerTest {
 
     @Test
     void getMyWallet_WalletNotFound() {
-        when(authentication.getPrincipal()).thenReturn(customer);
-        when(walletService.getWalletByUser(customer)).thenReturn(Optional.empty());
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.empty());
 
-        ResponseEntity<Map<String, Object>> response = walletController.getMyWallet(authentication);
+        ResponseEntity<Map<String, Object>> response = walletController.getMyWallet(customerPrincipal);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -124,11 +135,10 @@ class WalletControllerTest {
 
     @Test
     void createMyWallet_Success() {
-        when(authentication.getPrincipal()).thenReturn(customer);
         when(walletService.hasWallet(customer)).thenReturn(false);
         when(walletService.createWallet(customer)).thenReturn(wallet);
 
-        ResponseEntity<Map<String, Object>> response = walletController.createMyWallet(authentication);
+        ResponseEntity<Map<String, Object>> response = walletController.createMyWallet(customer);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -137,9 +147,7 @@ class WalletControllerTest {
 
     @Test
     void createMyWallet_AdminUser_Forbidden() {
-        when(authentication.getPrincipal()).thenReturn(admin);
-
-        ResponseEntity<Map<String, Object>> response = walletController.createMyWallet(authentication);
+        ResponseEntity<Map<String, Object>> response = walletController.createMyWallet(admin);
 
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -148,10 +156,9 @@ class WalletControllerTest {
 
     @Test
     void createMyWallet_AlreadyHasWallet_Conflict() {
-        when(authentication.getPrincipal()).thenReturn(customer);
         when(walletService.hasWallet(customer)).thenReturn(true);
 
-        ResponseEntity<Map<String, Object>> response = walletController.createMyWallet(authentication);
+        ResponseEntity<Map<String, Object>> response = walletController.createMyWallet(customer);
 
         assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -166,18 +173,82 @@ class WalletControllerTest {
 
         Wallet updatedWallet = new Wallet(customer, BigDecimal.valueOf(150.0));
 
-        when(authentication.getPrincipal()).thenReturn(customer);
-        when(walletService.getWalletByUser(customer)).thenReturn(Optional.of(wallet));
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
         when(walletService.deposit(wallet.getId(), BigDecimal.valueOf(50.0),"Test deposit"))
                 .thenReturn(updatedWallet);
 
-        ResponseEntity<Map<String, Object>> response = walletController.deposit(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.deposit(customerPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(updatedWallet.getBalance(), response.getBody().get("balance"));
     }
 
+    @Test
+    void deposit_ReplayWithSameIdempotencyKeyReturnsFirstResponse() {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("amount", "50.0");
+        requestBody.put("description", "Test deposit");
+
+        Wallet updatedWallet = new Wallet(customer, BigDecimal.valueOf(150.0));
+
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
+        when(walletService.deposit(wallet.getId(), BigDecimal.valueOf(50.0), "Test deposit"))
+                .thenReturn(updatedWallet);
+
+        ResponseEntity<Map<String, Object>> first = walletController.deposit(customerPrincipal, requestBody, "retry-1");
+        ResponseEntity<Map<String, Object>> replay = walletController.deposit(customerPrincipal, requestBody, "retry-1");
+
+        assertEquals(HttpStatus.OK, replay.getStatusCode());
+        assertSame(first, replay);
+        verify(walletService, times(1)).deposit(any(), any(), any());
+    }
+
+    @Test
+    void deposit_IdempotencyKeyReusedForDifferentAmount() {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("amount", "50.0");
+
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
+        when(walletService.deposit(wallet.getId(), BigDecimal.valueOf(50.0), "Deposit"))
+                .thenReturn(new Wallet(customer, BigDecimal.valueOf(150.0)));
+
+        walletController.deposit(customerPrincipal, requestBody, "retry-1");
+        requestBody.put("amount", "60.0");
+        ResponseEntity<Map<String, Object>> response = walletController.deposit(customerPrincipal, requestBody, "retry-1");
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        verify(walletService, times(1)).deposit(any(), any(), any());
+    }
+
+    @Test
+    void deposit_RetryWhileFirstRequestStillRunning() {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("amount", "50.0");
+
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
+        doThrow(new IdempotencyStore.InProgressException())
+                .when(idempotencyStore).execute(anyString(), any(), any());
+
+        ResponseEntity<Map<String, Object>> response = walletController.deposit(customerPrincipal, requestBody, "retry-1");
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        verify(walletService, never()).deposit(any(), any(), any());
+    }
+
+    @Test
+    void deposit_BlankIdempotencyKey() {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("amount", "50.0");
+
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
+
+        ResponseEntity<Map<String, Object>> response = walletController.deposit(customerPrincipal, requestBody, " ");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(walletService, never()).deposit(any(), any(), any());
+    }
+
     @Test
     void deposit_WithDefaultDescription() {
         Map<String, Object> requestBody = new HashMap<>();
@@ -185,12 +256,11 @@ class WalletControllerTest {
 
         Wallet updatedWallet = new Wallet(customer, BigDecimal.valueOf(125.0));
 
-        when(authentication.getPrincipal()).thenReturn(customer);
-        when(walletService.getWalletByUser(customer)).thenReturn(Optional.of(wallet));
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
         when(walletService.deposit(wallet.getId(), BigDecimal.valueOf(25.0),"Deposit"))
                 .thenReturn(updatedWallet);
 
-        ResponseEntity<Map<String, Object>> response = walletController.deposit(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.deposit(customerPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         verify(walletService).deposit(wallet.getId(), BigDecimal.valueOf(25.0), "Deposit");
@@ -201,9 +271,7 @@ class WalletControllerTest {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("amount", "50.0");
 
-        when(authentication.getPrincipal()).thenReturn(admin);
-
-        ResponseEntity<Map<String, Object>> response = walletController.deposit(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.deposit(adminPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -215,10 +283,9 @@ class WalletControllerTest {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("amount", "50.0");
 
-        when(authentication.getPrincipal()).thenReturn(customer);
-        when(walletService.getWalletByUser(customer)).thenReturn(Optional.empty());
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.empty());
 
-        ResponseEntity<Map<String, Object>> response = walletController.deposit(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.deposit(customerPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -230,10 +297,9 @@ class WalletControllerTest {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("amount", "invalid");
 
-        when(authentication.getPrincipal()).thenReturn(customer);
-        when(walletService.getWalletByUser(customer)).thenReturn(Optional.of(wallet));
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
 
-        ResponseEntity<Map<String, Object>> response = walletController.deposit(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.deposit(customerPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -245,12 +311,11 @@ class WalletControllerTest {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("amount", "-10.0");
 
-        when(authentication.getPrincipal()).thenReturn(customer);
-        when(walletService.getWalletByUser(customer)).thenReturn(Optional.of(wallet));
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
         when(walletService.deposit(any(), any(), any()))
                 .thenThrow(new IllegalArgumentException("Deposit amount must be positive"));
 
-        ResponseEntity<Map<String, Object>> response = walletController.deposit(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.deposit(customerPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -265,18 +330,38 @@ class WalletControllerTest {
 
         Wallet updatedWallet = new Wallet(customer, BigDecimal.valueOf(70.0));
 
-        when(authentication.getPrincipal()).thenReturn(customer);
-        when(walletService.getWalletByUser(customer)).thenReturn(Optional.of(wallet));
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
         when(walletService.withdraw(wallet.getId(), BigDecimal.valueOf(30.0),"Test withdrawal"))
                 .thenReturn(updatedWallet);
 
-        ResponseEntity<Map<String, Object>> response = walletController.withdraw(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.withdraw(customerPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(updatedWallet.getBalance(), response.getBody().get("balance"));
     }
 
+    @Test
+    void withdraw_FailedAttemptIsRetriedWithSameIdempotencyKey() {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("amount", "500.0");
+
+        Wallet updatedWallet = new Wallet(customer, new BigDecimal("500.00"));
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
+        when(walletService.withdraw(any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("Insufficient funds"))
+                .thenReturn(updatedWallet);
+
+        ResponseEntity<Map<String, Object>> failed = walletController.withdraw(customerPrincipal, requestBody, "retry-2");
+        ResponseEntity<Map<String, Object>> retry = walletController.withdraw(customerPrincipal, requestBody, "retry-2");
+
+        assertEquals(HttpStatus.BAD_REQUEST, failed.getStatusCode());
+        assertEquals("Insufficient funds", failed.getBody().get("message"));
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals(updatedWallet.getBalance(), retry.getBody().get("balance"));
+        verify(walletService, times(2)).withdraw(any(), any(), any());
+    }
+
     @Test
     void withdraw_WithDefaultDescription() {
         Map<String, Object> requestBody = new HashMap<>();
@@ -284,12 +369,11 @@ class WalletControllerTest {
 
         Wallet updatedWallet = new Wallet(customer, BigDecimal.valueOf(80.0));
 
-        when(authentication.getPrincipal()).thenReturn(customer);
-        when(walletService.getWalletByUser(customer)).thenReturn(Optional.of(wallet));
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
         when(walletService.withdraw(wallet.getId(), BigDecimal.valueOf(20.0),"Withdrawal"))
                 .thenReturn(updatedWallet);
 
-        ResponseEntity<Map<String, Object>> response = walletController.withdraw(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.withdraw(customerPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         verify(walletService).withdraw(wallet.getId(),BigDecimal.valueOf(20.0),"Withdrawal");
@@ -300,9 +384,7 @@ class WalletControllerTest {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("amount", "30.0");
 
-        when(authentication.getPrincipal()).thenReturn(admin);
-
-        ResponseEntity<Map<String, Object>> response = walletController.withdraw(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.withdraw(adminPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -314,10 +396,9 @@ class WalletControllerTest {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("amount", "30.0");
 
-        when(authentication.getPrincipal()).thenReturn(customer);
-        when(walletService.getWalletByUser(customer)).thenReturn(Optional.empty());
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.empty());
 
-        ResponseEntity<Map<String, Object>> response = walletController.withdraw(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.withdraw(customerPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -329,10 +410,9 @@ class WalletControllerTest {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("amount", "not-a-number");
 
-        when(authentication.getPrincipal()).thenReturn(customer);
-        when(walletService.getWalletByUser(customer)).thenReturn(Optional.of(wallet));
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
 
-        ResponseEntity<Map<String, Object>> response = walletController.withdraw(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.withdraw(customerPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -344,12 +424,11 @@ class WalletControllerTest {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("amount", "200.0");
 
-        when(authentication.getPrincipal()).thenReturn(customer);
-        when(walletService.getWalletByUser(customer)).thenReturn(Optional.of(wallet));
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
         when(walletService.withdraw(any(), any(), any()))
                 .thenThrow(new IllegalArgumentException("Insufficient funds"));
 
-        ResponseEntity<Map<String, Object>> response = walletController.withdraw(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.withdraw(customerPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -409,12 +488,11 @@ class WalletControllerTest {
         Wallet technicianWallet = new Wallet(technician, BigDecimal.valueOf(90.0));
         Wallet updatedWallet = new Wallet(technician, BigDecimal.valueOf(130.0));
 
-        when(authentication.getPrincipal()).thenReturn(technician);
-        when(walletService.getWalletByUser(technician)).thenReturn(Optional.of(technicianWallet));
+        when(walletService.getWalletByUserId(technicianPrincipal.getId())).thenReturn(Optional.of(technicianWallet));
         when(walletService.deposit(technicianWallet.getId(), BigDecimal.valueOf(40.0),"Deposit"))
                 .thenReturn(updatedWallet);
 
-        ResponseEntity<Map<String, Object>> response = walletController.deposit(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.deposit(technicianPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -428,12 +506,11 @@ class WalletControllerTest {
         Wallet technicianWallet = new Wallet(technician, BigDecimal.valueOf(90.0));
         Wallet updatedWallet = new Wallet(technician, BigDecimal.valueOf(75.0));
 
-        when(authentication.getPrincipal()).thenReturn(technician);
-        when(walletService.getWalletByUser(technician)).thenReturn(Optional.of(technicianWallet));
+        when(walletService.getWalletByUserId(technicianPrincipal.getId())).thenReturn(Optional.of(technicianWallet));
         when(walletService.withdraw(technicianWallet.getId(), BigDecimal.valueOf(15.0),"Withdrawal"))
                 .thenReturn(updatedWallet);
 
-        ResponseEntity<Map<String, Object>> response = walletController.withdraw(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.withdraw(technicianPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -444,10 +521,9 @@ class WalletControllerTest {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("amount", null);
 
-        when(authentication.getPrincipal()).thenReturn(customer);
-        when(walletService.getWalletByUser(customer)).thenReturn(Optional.of(wallet));
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
 
-        ResponseEntity<Map<String, Object>> response = walletController.deposit(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.deposit(customerPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -459,13 +535,69 @@ class WalletControllerTest {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("amount", null);
 
-        when(authentication.getPrincipal()).thenReturn(customer);
-        when(walletService.getWalletByUser(customer)).thenReturn(Optional.of(wallet));
+        when(walletService.getWalletByUserId(customerPrincipal.getId())).thenReturn(Optional.of(wallet));
 
-        ResponseEntity<Map<String, Object>> response = walletController.withdraw(authentication, requestBody);
+        ResponseEntity<Map<String, Object>> response = walletController.withdraw(customerPrincipal, requestBody, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("Invalid amount", response.getBody().get("message"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void bulkDeposit_ReturnsPerItemReport() {
+        UUID missingWalletId = UUID.randomUUID();
+        List<BulkWalletOperationDto> operations = List.of(
+                new BulkWalletOperationDto(walletId, BigDecimal.TEN, "Payout"),
+                new BulkWalletOperationDto(missingWalletId, BigDecimal.TEN, "Payout"));
+        List<BulkWalletResultDto> results = List.of(
+                BulkWalletResultDto.applied(walletId, BigDecimal.valueOf(110.0)),
+                BulkWalletResultDto.failed(missingWalletId, "Wallet not found"));
+
+        when(walletService.bulkDeposit(operations)).thenReturn(results);
+
+        ResponseEntity<Map<String, Object>> response = walletController.bulkDeposit(operations);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().get("total"));
+        assertEquals(1L, response.getBody().get("succeeded"));
+        assertEquals(1L, response.getBody().get("failed"));
+        assertEquals(results, response.getBody().get("results"));
+    }
+
+    @Test
+    void bulkWithdraw_ReturnsPerItemReport() {
+        List<BulkWalletOperationDto> operations = List.of(
+                new BulkWalletOperationDto(walletId, BigDecimal.TEN, null));
+        List<BulkWalletResultDto> results = List.of(BulkWalletResultDto.applied(walletId, BigDecimal.valueOf(90.0)));
+
+        when(walletService.bulkWithdraw(operations)).thenReturn(results);
+
+        ResponseEntity<Map<String, Object>> response = walletController.bulkWithdraw(operations);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1L, response.getBody().get("succeeded"));
+        assertEquals(0L, response.getBody().get("failed"));
+    }
+
+    @Test
+    void bulkDeposit_EmptyRequest_BadRequest() {
+        ResponseEntity<Map<String, Object>> response = walletController.bulkDeposit(List.of());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(walletService, never()).bulkDeposit(any());
+    }
+
+    @Test
+    void bulkWithdraw_TooManyItems_BadRequest() {
+        List<BulkWalletOperationDto> operations = Collections.nCopies(10001,
+                new BulkWalletOperationDto(walletId, BigDecimal.ONE, null));
+
+        ResponseEntity<Map<String, Object>> response = walletController.bulkWithdraw(operations);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(walletService, never()).bulkWithdraw(any());
+    }
+}
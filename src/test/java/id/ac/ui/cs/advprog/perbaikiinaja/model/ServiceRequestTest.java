@@ -111,9 +111,9 @@ class ServiceRequestTest {
         assertTrue(request.getState() instanceof CompletedState);
         assertEquals(ServiceRequestStateType.COMPLETED, request.getStateType());
 
-        // Verify technician stats were updated
-        assertEquals(initialCompletedJobCount + 1, technician.getCompletedJobCount());
-        assertEquals(initialTotalEarnings + estimate.getCost(), technician.getTotalEarnings(), 0.001);
+        // Technician stats are recorded by the completion observer, not by the state change
+        assertEquals(initialCompletedJobCount, technician.getCompletedJobCount());
+        assertEquals(initialTotalEarnings, technician.getTotalEarnings(), 0.001);
 
         // Step 5: Create report (still in COMPLETED state)
         request.createReport(report);
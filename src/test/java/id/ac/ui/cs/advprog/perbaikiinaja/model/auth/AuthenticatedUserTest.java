@@ -0,0 +1,48 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.model.auth;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.auth.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthenticatedUserTest {
+
+    private UUID userId;
+    private AuthenticatedUser user;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        user = new AuthenticatedUser(userId, "tech@example.com", UserRole.TECHNICIAN.getValue(), 2);
+    }
+
+    @Test
+    void testGetterMethods() {
+        assertEquals(userId, user.getId());
+        assertEquals("tech@example.com", user.getEmail());
+        assertEquals("tech@example.com", user.getUsername());
+        assertEquals(UserRole.TECHNICIAN.getValue(), user.getRole());
+        assertEquals(2, user.getTokenVersion());
+        assertNull(user.getPassword());
+    }
+
+    @Test
+    void testUserDetailsImplementation() {
+        assertTrue(user.isAccountNonExpired());
+        assertTrue(user.isAccountNonLocked());
+        assertTrue(user.isCredentialsNonExpired());
+        assertTrue(user.isEnabled());
+        assertEquals("ROLE_" + UserRole.TECHNICIAN.getValue(), user.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void testEquality() {
+        assertEquals(user, new AuthenticatedUser(userId, "tech@example.com", UserRole.TECHNICIAN.getValue(), 2));
+        assertEquals(user.hashCode(),
+                new AuthenticatedUser(userId, "tech@example.com", UserRole.TECHNICIAN.getValue(), 2).hashCode());
+        assertNotEquals(user, new AuthenticatedUser(userId, "tech@example.com", UserRole.TECHNICIAN.getValue(), 3));
+    }
+}
@@ -51,4 +51,13 @@ class UserTest {
         assertEquals("NEW_ROLE", user.getRole());
         assertEquals("new@example.com", user.getUsername());
     }
+
+    @Test
+    void testRevokeTokens() {
+        assertEquals(0, user.getTokenVersion());
+
+        user.revokeTokens();
+
+        assertEquals(1, user.getTokenVersion());
+    }
 }
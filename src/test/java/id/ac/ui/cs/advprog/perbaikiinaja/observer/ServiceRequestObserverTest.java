@@ -9,11 +9,13 @@ import org.mockito.Mockito;
 import java.time.LocalDate;
 import java.util.List;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.Item;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.RepairEstimate;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
 
 class ServiceRequestObserverTest {
 
@@ -98,18 +100,25 @@ class ServiceRequestObserverTest {
     @Test
     void testTechnicianStatsUpdater() {
         // Create a real TechnicianStatsUpdater
-        TechnicianStatsUpdater statsUpdater = new TechnicianStatsUpdater();
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        TechnicianStatsUpdater statsUpdater = new TechnicianStatsUpdater(userRepository);
 
-        // Record initial stats
-        int initialJobCount = technician.getCompletedJobCount();
-        double initialEarnings = technician.getTotalEarnings();
-
-        // Service completed notification should update stats
+        // Service completed notification should add one job and the estimated cost
         statsUpdater.onServiceCompleted(request);
 
         // Verify stats were updated
-        assertEquals(initialJobCount + 1, technician.getCompletedJobCount());
-        assertEquals(initialEarnings + estimate.getCost(), technician.getTotalEarnings(), 0.001);
+        Mockito.verify(userRepository).recordCompletedJob(technician.getId(), estimate.getCost());
+    }
+
+    @Test
+    void testTechnicianStatsUpdaterWithoutEstimate() {
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        TechnicianStatsUpdater statsUpdater = new TechnicianStatsUpdater(userRepository);
+        request.setEstimate(null);
+
+        statsUpdater.onServiceCompleted(request);
+
+        Mockito.verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -135,6 +144,39 @@ class ServiceRequestObserverTest {
         assertEquals(1, observerCount, "Only one valid observer should be in the list");
     }
 
+    @Test
+    void testStateChangeObserverNotification() {
+        ServiceStateChangeObserver mockStateObserver = Mockito.mock(ServiceStateChangeObserver.class);
+        subject.addObserver(mockStateObserver);
+
+        subject.notifyStateChanged(request, ServiceRequestStateType.PENDING, ServiceRequestStateType.ESTIMATED);
+
+        Mockito.verify(mockStateObserver).onStateChanged(
+                request, ServiceRequestStateType.PENDING, ServiceRequestStateType.ESTIMATED);
+        Mockito.verifyNoInteractions(mockCompletionObserver);
+    }
+
+    @Test
+    void testStateChangeObserverNotNotifiedWithoutTransition() {
+        ServiceStateChangeObserver mockStateObserver = Mockito.mock(ServiceStateChangeObserver.class);
+        subject.addObserver(mockStateObserver);
+
+        subject.notifyStateChanged(request, ServiceRequestStateType.PENDING, ServiceRequestStateType.PENDING);
+
+        Mockito.verifyNoInteractions(mockStateObserver);
+    }
+
+    @Test
+    void testRemoveStateChangeObserver() {
+        ServiceStateChangeObserver mockStateObserver = Mockito.mock(ServiceStateChangeObserver.class);
+        subject.addObserver(mockStateObserver);
+        subject.removeObserver(mockStateObserver);
+
+        subject.notifyStateChanged(request, null, ServiceRequestStateType.PENDING);
+
+        Mockito.verifyNoInteractions(mockStateObserver);
+    }
+
     // Helper method to get the observer list size using reflection
     private int getObserverListSize(ServiceRequestSubject subject) {
         try {
@@ -0,0 +1,202 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.observer;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceRequestSubjectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ServiceRequestSubject subject;
+    private ServiceRequest request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        subject = new ServiceRequestSubject(Executors.newVirtualThreadPerTaskExecutor(), 1, meterRegistry);
+        request = new ServiceRequest();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        subject.close();
+    }
+
+    @Test
+    void eventBusMode_runsObserversOffCallerThreadAndTimesThem() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        AtomicReference<Thread> observerThread = new AtomicReference<>();
+        subject.addObserver((ServiceCompletionObserver) completed -> {
+            observerThread.set(Thread.currentThread());
+            delivered.countDown();
+        });
+
+        subject.notifyServiceCompleted(request);
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), observerThread.get());
+        assertTrue(observerThread.get().isVirtual());
+        subject.close();
+        assertEquals(1, timer("completed", "success").count());
+    }
+
+    @Test
+    void eventBusMode_observerFailureIsCountedNotThrown() throws InterruptedException {
+        subject.addObserver((ServiceStateChangeObserver) (changed, previousState, newState) -> {
+            throw new IllegalStateException("Observer failed");
+        });
+
+        assertDoesNotThrow(() -> subject.notifyStateChanged(
+                request, ServiceRequestStateType.IN_PROGRESS, ServiceRequestStateType.COMPLETED));
+
+        subject.close();
+        assertEquals(1, timer("state-changed", "error").count());
+    }
+
+    @Test
+    void eventBusMode_callerWaitsForSlotWhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        List<Boolean> ranOnVirtualThread = new CopyOnWriteArrayList<>();
+        subject.addObserver((ServiceCompletionObserver) completed -> {
+            ranOnVirtualThread.add(Thread.currentThread().isVirtual());
+            started.countDown();
+            await(release);
+        });
+
+        subject.notifyServiceCompleted(request);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> second = caller.submit(() -> subject.notifyServiceCompleted(request));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.counter(ServiceRequestSubject.SATURATED_METRIC).count() < 1
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1.0, meterRegistry.counter(ServiceRequestSubject.SATURATED_METRIC).count());
+            assertFalse(second.isDone());
+
+            release.countDown();
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            caller.shutdownNow();
+        }
+
+        subject.close();
+        assertEquals(List.of(true, true), ranOnVirtualThread);
+    }
+
+    @Test
+    void eventBusMode_deliversEachObserversEventsInOrder() throws InterruptedException {
+        ServiceRequestSubject bus = new ServiceRequestSubject(Executors.newVirtualThreadPerTaskExecutor(), 8, meterRegistry);
+        List<ServiceRequestStateType> received = new CopyOnWriteArrayList<>();
+        bus.addObserver((ServiceStateChangeObserver) (changed, previousState, newState) -> {
+            Thread.yield();
+            received.add(newState);
+        });
+
+        ServiceRequestStateType[] states = ServiceRequestStateType.values();
+        List<ServiceRequestStateType> published = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ServiceRequestStateType newState = states[(i + 1) % states.length];
+            bus.notifyStateChanged(request, states[i % states.length], newState);
+            published.add(newState);
+        }
+        bus.close();
+
+        assertEquals(published, received);
+    }
+
+    @Test
+    void eventBusMode_slowObserverOnlyDelaysItself() throws InterruptedException {
+        ServiceRequestSubject bus = new ServiceRequestSubject(Executors.newVirtualThreadPerTaskExecutor(), 8, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(2);
+        bus.addObserver((ServiceCompletionObserver) completed -> await(release));
+        bus.addObserver((ServiceCompletionObserver) completed -> delivered.countDown());
+
+        bus.notifyServiceCompleted(request);
+        bus.notifyServiceCompleted(request);
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        bus.close();
+    }
+
+    @Test
+    void notificationsWaitForCommit() {
+        AtomicInteger notified = new AtomicInteger();
+        ServiceRequestSubject synchronous = new ServiceRequestSubject();
+        synchronous.addObserver((ServiceStateChangeObserver) (changed, previousState, newState) ->
+                notified.incrementAndGet());
+
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> synchronous.notifyStateChanged(
+                request, ServiceRequestStateType.PENDING, ServiceRequestStateType.ESTIMATED));
+
+        assertEquals(0, notified.get());
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, notified.get());
+    }
+
+    @Test
+    void notificationsAreDroppedOnRollback() {
+        AtomicInteger notified = new AtomicInteger();
+        ServiceRequestSubject synchronous = new ServiceRequestSubject();
+        synchronous.addObserver((ServiceStateChangeObserver) (changed, previousState, newState) ->
+                notified.incrementAndGet());
+
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> synchronous.notifyStateChanged(
+                request, ServiceRequestStateType.PENDING, ServiceRequestStateType.ESTIMATED));
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0, notified.get());
+    }
+
+    private Timer timer(String event, String outcome) {
+        Timer timer = meterRegistry.find(ServiceRequestSubject.OBSERVER_METRIC)
+                .tag("event", event)
+                .tag("outcome", outcome)
+                .timer();
+        assertNotNull(timer);
+        return timer;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -139,4 +139,37 @@ class ReportRepositoryTest {
         // Assert
         assertFalse(deletedReport.isPresent());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindByCompletionDateTimeRange() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.now().minusDays(7).withNano(0);
+        LocalDateTime end = LocalDateTime.now().withNano(0);
+
+        Report inside = new Report();
+        inside.setRepairDetails("Replaced battery");
+        inside.setRepairSummary("Battery fixed");
+        inside.setCompletionDateTime(start.plusDays(1));
+        entityManager.persist(inside);
+
+        Report atEnd = new Report();
+        atEnd.setRepairDetails("Replaced fan");
+        atEnd.setRepairSummary("Fan fixed");
+        atEnd.setCompletionDateTime(end);
+        entityManager.persist(atEnd);
+
+        Report before = new Report();
+        before.setRepairDetails("Replaced keyboard");
+        before.setRepairSummary("Keyboard fixed");
+        before.setCompletionDateTime(start.minusDays(1));
+        entityManager.persist(before);
+        entityManager.flush();
+
+        // Act
+        List<Report> reports = reportRepository.findByCompletionDateTimeGreaterThanEqualAndCompletionDateTimeLessThan(start, end);
+
+        // Assert
+        assertEquals(1, reports.size());
+        assertEquals(inside.getId(), reports.get(0).getId());
+    }
+}
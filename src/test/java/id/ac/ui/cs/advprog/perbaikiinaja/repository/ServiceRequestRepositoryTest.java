@@ -1,21 +1,33 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.repository;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.ServiceRequestSummaryDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.TechnicianInboxDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.Item;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.RepairEstimate;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -371,4 +383,243 @@ class ServiceRequestRepositoryTest {
         assertEquals(1, anotherCustomerRequests.size());
         assertTrue(anotherCustomerRequests.stream().anyMatch(r -> r.getId().equals(request3.getId())));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindByReportId() {
+        // Arrange
+        ServiceRequest reported = persistReportedRequest("Phone", LocalDateTime.now().minusDays(1));
+        persistReportedRequest("Laptop", LocalDateTime.now().minusDays(2));
+        entityManager.clear();
+
+        // Act
+        Optional<ServiceRequest> found = serviceRequestRepository.findByReportId(reported.getReport().getId());
+        Optional<ServiceRequest> missing = serviceRequestRepository.findByReportId(UUID.randomUUID());
+
+        // Assert
+        assertTrue(found.isPresent());
+        assertEquals(reported.getId(), found.get().getId());
+        assertEquals("Phone", found.get().getItem().getName());
+        assertEquals(technician.getId(), found.get().getTechnician().getId());
+        assertTrue(missing.isEmpty());
+    }
+
+    @Test
+    void testFindReportedRequestsByTechnicianAndDateRange() {
+        // Arrange
+        ServiceRequest recent = persistReportedRequest("Phone", LocalDateTime.now().minusDays(1));
+        persistReportedRequest("Laptop", LocalDateTime.now().minusDays(20));
+
+        ServiceRequest unreported = new ServiceRequest();
+        unreported.setCustomer(customer);
+        unreported.setTechnician(technician);
+        unreported.setProblemDescription("Not repaired yet");
+        entityManager.persist(unreported);
+        entityManager.flush();
+        entityManager.clear();
+
+        KeysetCursor first = KeysetCursor.first();
+
+        // Act
+        List<ServiceRequest> byTechnician = serviceRequestRepository.findWithReportByTechnicianId(technician.getId());
+        List<ServiceRequest> lastWeek = serviceRequestRepository.findWithReportByCompletionDateTimeBetweenBefore(
+                LocalDate.now().minusDays(7).atStartOfDay(), LocalDate.now().plusDays(1).atStartOfDay(),
+                first.getTimestamp(), first.getId(), Limit.of(10));
+
+        // Assert
+        assertEquals(2, byTechnician.size());
+        assertTrue(byTechnician.stream().allMatch(r -> r.getReport() != null));
+        assertEquals(1, lastWeek.size());
+        assertEquals(recent.getId(), lastWeek.get(0).getId());
+    }
+
+    @Test
+    void testFindReportedRequestsPagesWithKeyset() {
+        // Arrange: three reports, two of them completed at the same instant
+        LocalDateTime sameTime = LocalDateTime.now().minusDays(2).withNano(0);
+        persistReportedRequest("Phone", LocalDateTime.now().minusDays(1).withNano(0));
+        persistReportedRequest("Laptop", sameTime);
+        persistReportedRequest("Tablet", sameTime);
+        entityManager.clear();
+
+        // Act
+        KeysetCursor first = KeysetCursor.first();
+        List<ServiceRequest> page1 = serviceRequestRepository.findWithReportBefore(
+                first.getTimestamp(), first.getId(), Limit.of(2));
+        Report last = page1.get(page1.size() - 1).getReport();
+        List<ServiceRequest> page2 = serviceRequestRepository.findWithReportBefore(
+                last.getCompletionDateTime(), last.getId(), Limit.of(2));
+
+        // Assert
+        assertEquals(2, page1.size());
+        assertEquals("Phone", page1.get(0).getItem().getName());
+        assertEquals(1, page2.size());
+
+        List<UUID> seen = new ArrayList<>();
+        page1.forEach(r -> seen.add(r.getId()));
+        page2.forEach(r -> seen.add(r.getId()));
+        assertEquals(3, seen.stream().distinct().count());
+    }
+
+    @Test
+    void testStreamAllWithReport() {
+        // Arrange
+        persistReportedRequest("Phone", LocalDateTime.now().minusDays(2));
+        persistReportedRequest("Laptop", LocalDateTime.now().minusDays(1));
+        ServiceRequest unreported = new ServiceRequest();
+        unreported.setCustomer(customer);
+        unreported.setProblemDescription("Not reported yet");
+        entityManager.persist(unreported);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<String> itemNames;
+        try (Stream<ServiceRequest> stream = serviceRequestRepository.streamAllWithReport()) {
+            itemNames = stream.map(r -> r.getItem().getName()).toList();
+        }
+
+        // Assert: newest report first, requests without a report are skipped
+        assertEquals(List.of("Laptop", "Phone"), itemNames);
+    }
+
+    // Helper method to persist a service request with a report
+    private ServiceRequest persistReportedRequest(String itemName, LocalDateTime completionDateTime) {
+        Item item = new Item();
+        item.setName(itemName);
+        item.setCondition("Broken");
+        item.setIssueDescription("Does not work");
+        entityManager.persist(item);
+
+        Report report = new Report();
+        report.setRepairDetails("Replaced parts");
+        report.setRepairSummary("Fixed");
+        report.setCompletionDateTime(completionDateTime);
+        entityManager.persist(report);
+
+        ServiceRequest request = new ServiceRequest();
+        request.setCustomer(customer);
+        request.setTechnician(technician);
+        request.setItem(item);
+        request.setProblemDescription("Needs repair");
+        request.setReport(report);
+        entityManager.persist(request);
+        entityManager.flush();
+        return request;
+    }
+
+    @Test
+    void testFindSummariesByRequestDateBetween() {
+        // Arrange
+        ServiceRequest older = persistRequest("Old phone", LocalDate.of(2025, 1, 5));
+        ServiceRequest newer = persistRequest("New phone", LocalDate.of(2025, 1, 20));
+        persistRequest("Outside range", LocalDate.of(2025, 3, 1));
+
+        RepairEstimate estimate = new RepairEstimate();
+        estimate.setCost(150.0);
+        estimate.setCompletionDate(LocalDate.of(2025, 1, 25));
+        entityManager.persist(estimate);
+        newer.provideEstimate(estimate);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        Page<ServiceRequestSummaryDto> page = serviceRequestRepository.findSummariesByRequestDateBetween(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(2, page.getTotalElements());
+        List<ServiceRequestSummaryDto> summaries = page.getContent();
+        assertEquals(List.of(newer.getId(), older.getId()),
+                summaries.stream().map(ServiceRequestSummaryDto::getId).toList());
+
+        ServiceRequestSummaryDto summary = summaries.get(0);
+        assertEquals(ServiceRequestStateType.ESTIMATED, summary.getStatus());
+        assertEquals(customer.getId(), summary.getCustomerId());
+        assertEquals("John Doe", summary.getCustomerName());
+        assertEquals(technician.getId(), summary.getTechnicianId());
+        assertEquals("Tech Smith", summary.getTechnicianName());
+        assertEquals("New phone", summary.getItemName());
+        assertEquals(150.0, summary.getEstimatedCost());
+        assertFalse(summary.getReported());
+        assertNull(summaries.get(1).getEstimatedCost());
+    }
+
+    @Test
+    void testFindSummariesByStateTypeAndRequestDateBetween() {
+        // Arrange
+        ServiceRequest pending = persistRequest("Pending phone", LocalDate.of(2025, 1, 5));
+        ServiceRequest rejected = persistRequest("Rejected phone", LocalDate.of(2025, 1, 6));
+        rejected.setStateType(ServiceRequestStateType.REJECTED);
+        entityManager.flush();
+
+        // Act
+        Page<ServiceRequestSummaryDto> page = serviceRequestRepository.findSummariesByStateTypeAndRequestDateBetween(
+                ServiceRequestStateType.PENDING, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31),
+                PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(1, page.getTotalElements());
+        assertEquals(pending.getId(), page.getContent().get(0).getId());
+    }
+
+    @Test
+    void testFindByTechnicianIdAndStateType() {
+        // Arrange
+        ServiceRequest inProgress = persistRequest("Tablet", LocalDate.of(2025, 1, 5));
+        inProgress.setStateType(ServiceRequestStateType.IN_PROGRESS);
+        ServiceRequest completed = persistRequest("Camera", LocalDate.of(2025, 1, 6));
+        completed.setStateType(ServiceRequestStateType.COMPLETED);
+        entityManager.flush();
+
+        // Act
+        List<ServiceRequest> requests = serviceRequestRepository.findByTechnicianIdAndStateType(
+                technician.getId(), ServiceRequestStateType.IN_PROGRESS);
+
+        // Assert
+        assertEquals(1, requests.size());
+        assertEquals(inProgress.getId(), requests.get(0).getId());
+    }
+
+    @Test
+    void testFindInboxByTechnicianIdAndStateType() {
+        // Arrange
+        ServiceRequest older = persistRequest("Tablet", LocalDate.of(2025, 1, 5));
+        older.setStateType(ServiceRequestStateType.IN_PROGRESS);
+        ServiceRequest newer = persistRequest("Camera", LocalDate.of(2025, 1, 9));
+        newer.setStateType(ServiceRequestStateType.IN_PROGRESS);
+        persistRequest("Speaker", LocalDate.of(2025, 1, 7)).setStateType(ServiceRequestStateType.COMPLETED);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        Page<TechnicianInboxDto> first = serviceRequestRepository.findInboxByTechnicianIdAndStateType(
+                technician.getId(), ServiceRequestStateType.IN_PROGRESS, PageRequest.of(0, 1));
+        Page<TechnicianInboxDto> second = serviceRequestRepository.findInboxByTechnicianIdAndStateType(
+                technician.getId(), ServiceRequestStateType.IN_PROGRESS, PageRequest.of(1, 1));
+
+        // Assert
+        assertEquals(2, first.getTotalElements());
+        assertEquals(newer.getId(), first.getContent().get(0).getId());
+        assertEquals("Camera", first.getContent().get(0).getItemName());
+        assertEquals("John Doe", first.getContent().get(0).getCustomerName());
+        assertEquals("1234567890", first.getContent().get(0).getCustomerPhoneNumber());
+        assertEquals(older.getId(), second.getContent().get(0).getId());
+    }
+
+    private ServiceRequest persistRequest(String itemName, LocalDate requestDate) {
+        Item item = new Item();
+        item.setName(itemName);
+        item.setCondition("Broken");
+        item.setIssueDescription("Does not turn on");
+        entityManager.persist(item);
+
+        ServiceRequest serviceRequest = new ServiceRequest();
+        serviceRequest.setCustomer(customer);
+        serviceRequest.setTechnician(technician);
+        serviceRequest.setItem(item);
+        serviceRequest.setProblemDescription(itemName + " is broken");
+        ReflectionTestUtils.setField(serviceRequest, "requestDate", requestDate);
+        entityManager.persist(serviceRequest);
+        return serviceRequest;
+    }
+}
@@ -3,6 +3,7 @@ package id.ac.ui.cs.advprog.perbaikiinaja.repository.auth;
 import id.ac.ui.cs.advprog.perbaikiinaja.config.TestRepositorySecurityConfig;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Admin;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.auth.UserRole;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +17,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.context.annotation.Import;
 
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -59,6 +61,42 @@ class UserRepositoryTest {
         assertEquals("Test Admin", found.get().getFullName());
     }
 
+    @Test
+    void testRecordCompletedJob() {
+        Technician technician = new Technician();
+        technician.setFullName("Test Technician");
+        technician.setEmail("technician@example.com");
+        technician.setPassword("password123");
+        technician.setPhoneNumber("0987654321");
+        technician.setRole(UserRole.TECHNICIAN.getValue());
+        technician.setCompletedJobs(2);
+        technician.setTotalEarnings(150.0);
+        Technician saved = userRepository.save(technician);
+
+        int updated = userRepository.recordCompletedJob(saved.getId(), 50.0);
+
+        Technician found = (Technician) userRepository.findById(saved.getId()).orElseThrow();
+        assertEquals(1, updated);
+        assertEquals(3, found.getCompletedJobCount());
+        assertEquals(200.0, found.getTotalEarnings(), 0.001);
+    }
+
+    @Test
+    void testExistsTechnicianById() {
+        Technician technician = new Technician();
+        technician.setFullName("Test Technician");
+        technician.setEmail("technician@example.com");
+        technician.setPassword("password123");
+        technician.setPhoneNumber("0987654321");
+        technician.setRole(UserRole.TECHNICIAN.getValue());
+        Technician savedTechnician = userRepository.save(technician);
+        User savedAdmin = userRepository.save(admin);
+
+        assertTrue(userRepository.existsTechnicianById(savedTechnician.getId()));
+        assertFalse(userRepository.existsTechnicianById(savedAdmin.getId()));
+        assertFalse(userRepository.existsTechnicianById(UUID.randomUUID()));
+    }
+
     @Test
     void testDelete() {
         User saved = userRepository.save(admin);
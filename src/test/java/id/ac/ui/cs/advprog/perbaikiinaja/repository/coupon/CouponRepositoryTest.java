@@ -8,10 +8,17 @@ import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -109,4 +116,74 @@ class CouponRepositoryTest {
         Optional<Coupon> stillExistingCoupon = couponRepository.findByCode(coupon2.getCode());
         assertTrue(stillExistingCoupon.isPresent());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testIncrementUsageIfAvailable() {
+        couponRepository.save(coupon1);
+
+        int updated = couponRepository.incrementUsageIfAvailable(coupon1.getCode(), new Date());
+
+        assertEquals(1, updated);
+        assertEquals(1, couponRepository.findByCode(coupon1.getCode()).get().getUsageCount());
+    }
+
+    @Test
+    void testIncrementUsageIfAvailableWhenLimitReached() {
+        Coupon exhausted = new Coupon("Exhausted", 0.15, 1, 1, new Date(System.currentTimeMillis() + 86400000));
+        couponRepository.save(exhausted);
+
+        int updated = couponRepository.incrementUsageIfAvailable("Exhausted", new Date());
+
+        assertEquals(0, updated);
+        assertEquals(1, couponRepository.findByCode("Exhausted").get().getUsageCount());
+    }
+
+    @Test
+    void testIncrementUsageIfAvailableWhenExpired() {
+        Coupon expired = new Coupon("Expired", 0.15, 10, 0, new Date(System.currentTimeMillis() - 172800000));
+        couponRepository.save(expired);
+
+        int updated = couponRepository.incrementUsageIfAvailable("Expired", new Date());
+
+        assertEquals(0, updated);
+        assertEquals(0, couponRepository.findByCode("Expired").get().getUsageCount());
+    }
+
+    @Test
+    void testIncrementUsageIfAvailableWithNonExistentCode() {
+        assertEquals(0, couponRepository.incrementUsageIfAvailable("NONEXISTING_CODE", new Date()));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testIncrementUsageIfAvailableUnderConcurrentRedemption() throws Exception {
+        int maxUsage = 10;
+        int threads = 64;
+        couponRepository.save(new Coupon("Contended", 0.15, maxUsage, 0,
+                new Date(System.currentTimeMillis() + 86400000)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return couponRepository.incrementUsageIfAvailable("Contended", new Date());
+                }));
+            }
+            start.countDown();
+
+            int redeemed = 0;
+            for (Future<Integer> result : results) {
+                redeemed += result.get();
+            }
+
+            assertEquals(maxUsage, redeemed);
+            assertEquals(maxUsage, couponRepository.findByCode("Contended").get().getUsageCount());
+        } finally {
+            executor.shutdownNow();
+            couponRepository.deleteAll();
+        }
+    }
+}
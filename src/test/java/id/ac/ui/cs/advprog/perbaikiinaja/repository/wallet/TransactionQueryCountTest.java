@@ -0,0 +1,116 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.TransactionDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.auth.UserRole;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks with Hibernate statistics that listing transactions costs a fixed number of statements,
+ * however many transactions, wallets and users are involved.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TransactionQueryCountTest {
+
+    private static final int TRANSACTIONS = 100;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Wallet wallet;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        wallet = walletRepository.save(new Wallet(saveCustomer(0)));
+
+        List<Transaction> transactions = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            // Every payment points at a different wallet, so eager loading would cost one query each
+            Wallet payee = walletRepository.save(new Wallet(saveCustomer(i + 1)));
+            Transaction transaction = new Transaction(wallet, BigDecimal.ONE, TransactionType.PAYMENT, "Payment", payee);
+            transaction.setTimestamp(start.plusSeconds(i));
+            transactions.add(transaction);
+        }
+        transactionRepository.saveAll(transactions);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testListingTransactionsDoesNotLoadWalletsOrUsers() {
+        KeysetCursor first = KeysetCursor.first();
+        List<Transaction> transactions = transactionRepository.findByWalletIdBefore(
+                wallet.getId(), first.getTimestamp(), first.getId(), Limit.of(TRANSACTIONS));
+
+        assertEquals(TRANSACTIONS, transactions.size());
+        for (Transaction transaction : transactions) {
+            // Reading the ids, as the transaction responses do, must not initialize the wallets
+            assertEquals(wallet.getId(), transaction.getWallet().getId());
+            assertNotNull(transaction.getRelatedWallet().getId());
+            assertFalse(Hibernate.isInitialized(transaction.getRelatedWallet()));
+        }
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(TRANSACTIONS, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testListingTransactionProjectionsLoadsNoEntities() {
+        Page<TransactionDto> page = transactionRepository.findDtosByWalletIdAndType(
+                wallet.getId(), TransactionType.PAYMENT, PageRequest.of(0, TRANSACTIONS + 1));
+
+        assertEquals(TRANSACTIONS, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(transaction -> transaction.getRelatedWalletId() != null));
+
+        // The page is not full, so no count query is needed
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private Customer saveCustomer(int index) {
+        Customer customer = new Customer();
+        customer.setEmail("customer" + index + "@example.com");
+        customer.setFullName("Customer " + index);
+        customer.setPhoneNumber("08" + String.format("%010d", index));
+        customer.setRole(UserRole.CUSTOMER.getValue());
+        customer.setPassword("password");
+        return userRepository.save(customer);
+    }
+}
@@ -2,17 +2,21 @@ package id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.TransactionDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.auth.UserRole;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,6 +26,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @ExtendWith(SpringExtension.class)
 @DataJpaTest
@@ -147,6 +152,58 @@ class TransactionRepositoryTest {
         assertFalse(recentTransactions.contains(transaction1)); // This was 2 days ago
     }
 
+    @Test
+    void testFindDtosByWalletIdAndType() {
+        Page<TransactionDto> payments = transactionRepository.findDtosByWalletIdAndType(
+                wallet1.getId(), TransactionType.PAYMENT, PageRequest.of(0, 10));
+
+        assertEquals(1, payments.getTotalElements());
+        TransactionDto payment = payments.getContent().get(0);
+        assertEquals(transaction3.getId(), payment.getId());
+        assertEquals(wallet1.getId(), payment.getWalletId());
+        assertEquals(wallet2.getId(), payment.getRelatedWalletId());
+        assertEquals(0, new BigDecimal("75.00").compareTo(payment.getAmount()));
+
+        Page<TransactionDto> deposits = transactionRepository.findDtosByWalletIdAndType(
+                wallet1.getId(), TransactionType.DEPOSIT, PageRequest.of(0, 10));
+        assertEquals(1, deposits.getTotalElements());
+        assertNull(deposits.getContent().get(0).getRelatedWalletId());
+
+        Page<TransactionDto> earnings = transactionRepository.findDtosByWalletIdAndType(
+                wallet1.getId(), TransactionType.EARNING, PageRequest.of(0, 10));
+        assertTrue(earnings.isEmpty());
+    }
+
+    @Test
+    void testFindDtosByWalletIdAndTimestampBetweenPagesNewestFirst() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(3);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1);
+
+        Page<TransactionDto> firstPage = transactionRepository.findDtosByWalletIdAndTimestampBetween(
+                wallet1.getId(), startDate, endDate, PageRequest.of(0, 2));
+        assertEquals(3, firstPage.getTotalElements());
+        assertEquals(2, firstPage.getTotalPages());
+        assertEquals(transaction3.getId(), firstPage.getContent().get(0).getId());
+        assertEquals(transaction2.getId(), firstPage.getContent().get(1).getId());
+
+        Page<TransactionDto> secondPage = transactionRepository.findDtosByWalletIdAndTimestampBetween(
+                wallet1.getId(), startDate, endDate, PageRequest.of(1, 2));
+        assertEquals(1, secondPage.getContent().size());
+        assertEquals(transaction1.getId(), secondPage.getContent().get(0).getId());
+    }
+
+    @Test
+    void testFindDtosByWalletIdAndTimestampBetweenExcludesOutOfRange() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(1).withHour(0).withMinute(0).withSecond(0);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1);
+
+        Page<TransactionDto> recent = transactionRepository.findDtosByWalletIdAndTimestampBetween(
+                wallet1.getId(), startDate, endDate, PageRequest.of(0, 10));
+
+        assertEquals(2, recent.getTotalElements());
+        assertTrue(recent.getContent().stream().noneMatch(t -> t.getId().equals(transaction1.getId())));
+    }
+
     @Test
     void testFindByWalletAndRelatedWallet() {
         List<Transaction> transferTransactions = transactionRepository.findByWalletAndRelatedWallet(wallet1, wallet2);
@@ -155,6 +212,35 @@ class TransactionRepositoryTest {
         assertEquals(transaction3.getId(), transferTransactions.get(0).getId());
     }
 
+    @Test
+    void testFindByServiceRequestIdAndType() {
+        UUID serviceRequestId = UUID.randomUUID();
+        Transaction payment = new Transaction(wallet1, new BigDecimal("40.00"), TransactionType.PAYMENT,
+                "Payment for service #" + serviceRequestId, wallet2);
+        payment.setServiceRequestId(serviceRequestId);
+        transactionRepository.save(payment);
+
+        assertEquals(payment.getId(), transactionRepository
+                .findByServiceRequestIdAndType(serviceRequestId, TransactionType.PAYMENT).orElseThrow().getId());
+        assertTrue(transactionRepository
+                .findByServiceRequestIdAndType(serviceRequestId, TransactionType.EARNING).isEmpty());
+    }
+
+    @Test
+    void testSecondPaymentForSameServiceRequestIsRejected() {
+        UUID serviceRequestId = UUID.randomUUID();
+        Transaction payment = new Transaction(wallet1, new BigDecimal("40.00"), TransactionType.PAYMENT,
+                "Payment for service #" + serviceRequestId, wallet2);
+        payment.setServiceRequestId(serviceRequestId);
+        transactionRepository.saveAndFlush(payment);
+
+        Transaction duplicate = new Transaction(wallet1, new BigDecimal("40.00"), TransactionType.PAYMENT,
+                "Payment for service #" + serviceRequestId, wallet2);
+        duplicate.setServiceRequestId(serviceRequestId);
+
+        assertThrows(DataIntegrityViolationException.class, () -> transactionRepository.saveAndFlush(duplicate));
+    }
+
     @Test
     void testSaveTransaction() {
         Transaction newTransaction = new Transaction(wallet2, new BigDecimal("200.00"),
@@ -170,4 +256,44 @@ class TransactionRepositoryTest {
         // Verify it can be retrieved
         assertTrue(transactionRepository.findById(savedTransaction.getId()).isPresent());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindByWalletIdBeforePagesNewestFirst() {
+        KeysetCursor first = KeysetCursor.first();
+
+        List<Transaction> firstPage = transactionRepository.findByWalletIdBefore(
+                wallet1.getId(), first.getTimestamp(), first.getId(), Limit.of(2));
+
+        assertEquals(2, firstPage.size());
+        assertEquals(transaction3.getId(), firstPage.get(0).getId());
+        assertEquals(transaction2.getId(), firstPage.get(1).getId());
+
+        Transaction last = firstPage.get(1);
+        List<Transaction> secondPage = transactionRepository.findByWalletIdBefore(
+                wallet1.getId(), last.getTimestamp(), last.getId(), Limit.of(2));
+
+        assertEquals(1, secondPage.size());
+        assertEquals(transaction1.getId(), secondPage.get(0).getId());
+    }
+
+    @Test
+    void testFindByWalletIdBeforeBreaksTimestampTiesById() {
+        LocalDateTime sameTime = LocalDateTime.now().minusHours(1);
+        for (int i = 0; i < 3; i++) {
+            Transaction transaction = new Transaction(wallet2, BigDecimal.TEN, TransactionType.DEPOSIT, "Tie " + i);
+            transaction.setTimestamp(sameTime);
+            transactionRepository.save(transaction);
+        }
+        KeysetCursor first = KeysetCursor.first();
+
+        List<Transaction> firstPage = transactionRepository.findByWalletIdBefore(
+                wallet2.getId(), first.getTimestamp(), first.getId(), Limit.of(2));
+        Transaction last = firstPage.get(1);
+        List<Transaction> secondPage = transactionRepository.findByWalletIdBefore(
+                wallet2.getId(), last.getTimestamp(), last.getId(), Limit.of(2));
+
+        assertEquals(2, firstPage.size());
+        assertEquals(1, secondPage.size());
+        assertTrue(firstPage.stream().noneMatch(t -> t.getId().equals(secondPage.get(0).getId())));
+    }
+}
@@ -0,0 +1,99 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.auth.UserRole;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.WalletDailySummary;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.WalletDailySummaryId;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletDailySummaryRepository.TypeTotal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+class WalletDailySummaryRepositoryTest {
+
+    @Autowired
+    private WalletDailySummaryRepository summaryRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Wallet wallet;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer();
+        customer.setEmail("summary@example.com");
+        customer.setFullName("Summary Customer");
+        customer.setPhoneNumber("1234567890");
+        customer.setRole(UserRole.CUSTOMER.getValue());
+        customer.setPassword("password");
+        customer = userRepository.save(customer);
+
+        wallet = walletRepository.save(new Wallet(customer));
+        today = LocalDate.now();
+    }
+
+    @Test
+    void testAddToSummaryUpdatesExistingRow() {
+        WalletDailySummaryId id = new WalletDailySummaryId(wallet.getId(), today, TransactionType.DEPOSIT);
+        summaryRepository.saveAndFlush(new WalletDailySummary(id, new BigDecimal("10.00"), 1));
+
+        int updated = summaryRepository.addToSummary(wallet.getId(), today, TransactionType.DEPOSIT,
+                new BigDecimal("5.50"), 2);
+
+        assertEquals(1, updated);
+        WalletDailySummary summary = summaryRepository.findById(id).orElseThrow();
+        assertEquals(0, new BigDecimal("15.50").compareTo(summary.getTotalAmount()));
+        assertEquals(3, summary.getTransactionCount());
+    }
+
+    @Test
+    void testAddToSummaryWithoutRow() {
+        int updated = summaryRepository.addToSummary(wallet.getId(), today, TransactionType.DEPOSIT,
+                new BigDecimal("5.00"), 1);
+
+        assertEquals(0, updated);
+        assertEquals(0, summaryRepository.count());
+    }
+
+    @Test
+    void testSumByTypeIncludesBothEndsOfRange() {
+        save(today.minusDays(3), TransactionType.DEPOSIT, "100.00", 1);
+        save(today.minusDays(2), TransactionType.DEPOSIT, "40.00", 2);
+        save(today, TransactionType.DEPOSIT, "60.00", 1);
+        save(today, TransactionType.PAYMENT, "25.00", 1);
+        save(today.plusDays(1), TransactionType.PAYMENT, "999.00", 1);
+
+        Map<TransactionType, TypeTotal> totals = summaryRepository
+                .sumByType(wallet.getId(), today.minusDays(2), today).stream()
+                .collect(Collectors.toMap(TypeTotal::getType, Function.identity()));
+
+        assertEquals(2, totals.size());
+        assertEquals(0, new BigDecimal("100.00").compareTo(totals.get(TransactionType.DEPOSIT).getTotalAmount()));
+        assertEquals(3L, totals.get(TransactionType.DEPOSIT).getTransactionCount());
+        assertEquals(0, new BigDecimal("25.00").compareTo(totals.get(TransactionType.PAYMENT).getTotalAmount()));
+        assertEquals(1L, totals.get(TransactionType.PAYMENT).getTransactionCount());
+    }
+
+    private void save(LocalDate date, TransactionType type, String amount, long count) {
+        WalletDailySummaryId id = new WalletDailySummaryId(wallet.getId(), date, type);
+        summaryRepository.save(new WalletDailySummary(id, new BigDecimal(amount), count));
+    }
+}
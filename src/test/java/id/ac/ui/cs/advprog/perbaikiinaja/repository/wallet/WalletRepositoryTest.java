@@ -15,6 +15,9 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -144,4 +147,84 @@ class WalletRepositoryTest {
         boolean exists = walletRepository.existsByUser(userWithoutWallet);
         assertFalse(exists);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAddToBalance() {
+        Wallet wallet = walletRepository.save(new Wallet(mockCustomer, new BigDecimal("100.00")));
+
+        int updated = walletRepository.addToBalance(wallet.getId(), new BigDecimal("25.50"), LocalDateTime.now());
+
+        assertEquals(1, updated);
+        assertEquals(0, new BigDecimal("125.50").compareTo(walletRepository.findById(wallet.getId()).get().getBalance()));
+    }
+
+    @Test
+    void testAddToBalanceWalletNotFound() {
+        assertEquals(0, walletRepository.addToBalance(UUID.randomUUID(), BigDecimal.TEN, LocalDateTime.now()));
+    }
+
+    @Test
+    void testSubtractFromBalance() {
+        Wallet wallet = walletRepository.save(new Wallet(mockCustomer, new BigDecimal("100.00")));
+
+        int updated = walletRepository.subtractFromBalance(wallet.getId(), new BigDecimal("100.00"), LocalDateTime.now());
+
+        assertEquals(1, updated);
+        assertEquals(0, BigDecimal.ZERO.compareTo(walletRepository.findById(wallet.getId()).get().getBalance()));
+    }
+
+    @Test
+    void testSubtractFromBalanceInsufficientFunds() {
+        Wallet wallet = walletRepository.save(new Wallet(mockCustomer, new BigDecimal("20.00")));
+
+        int updated = walletRepository.subtractFromBalance(wallet.getId(), new BigDecimal("20.01"), LocalDateTime.now());
+
+        assertEquals(0, updated);
+        assertEquals(0, new BigDecimal("20.00").compareTo(walletRepository.findById(wallet.getId()).get().getBalance()));
+    }
+
+    @Test
+    void testFindAllByIdForUpdate() {
+        Wallet wallet = walletRepository.save(new Wallet(mockCustomer, new BigDecimal("100.00")));
+
+        List<Wallet> found = walletRepository.findAllByIdForUpdate(List.of(wallet.getId(), UUID.randomUUID()));
+
+        assertEquals(1, found.size());
+        assertEquals(wallet.getId(), found.get(0).getId());
+    }
+
+    @Test
+    void testFindAllByIdForUpdateOrdersUserIdsUnsigned() {
+        // Keep adding users until some IDs have the top bit set and some do not
+        List<UUID> walletIds = new ArrayList<>();
+        boolean signed = false;
+        boolean unsigned = false;
+        for (int i = 0; !(signed && unsigned) || i < 4; i++) {
+            Customer customer = new Customer();
+            customer.setEmail("lock" + i + "@example.com");
+            customer.setFullName("Lock " + i);
+            customer.setPassword("password");
+            customer.setPhoneNumber("08" + i);
+            customer.setRole(UserRole.CUSTOMER.getValue());
+            customer = userRepository.save(customer);
+            signed |= customer.getId().getMostSignificantBits() < 0;
+            unsigned |= customer.getId().getMostSignificantBits() >= 0;
+            walletIds.add(walletRepository.save(new Wallet(customer)).getId());
+        }
+
+        List<UUID> userIds = walletRepository.findAllByIdForUpdate(walletIds).stream()
+                .map(wallet -> wallet.getUser().getId())
+                .toList();
+
+        assertEquals(walletIds.size(), userIds.size());
+        for (int i = 1; i < userIds.size(); i++) {
+            UUID previous = userIds.get(i - 1);
+            UUID current = userIds.get(i);
+            int order = Long.compareUnsigned(previous.getMostSignificantBits(), current.getMostSignificantBits());
+            if (order == 0) {
+                order = Long.compareUnsigned(previous.getLeastSignificantBits(), current.getLeastSignificantBits());
+            }
+            assertTrue(order < 0, "Wallets must be locked in unsigned user ID order");
+        }
+    }
+}
@@ -4,6 +4,7 @@ import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.RepairEstimate;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
+import id.ac.ui.cs.advprog.perbaikiinaja.observer.ServiceRequestSubject;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.ServiceRequestRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,6 +25,9 @@ class EstimateServiceTest {
     @Mock
     private ServiceRequestRepository serviceRequestRepository;
 
+    @Mock
+    private ServiceRequestSubject serviceRequestSubject;
+
     @InjectMocks
     private EstimateServiceImpl estimateService;
 
@@ -89,6 +93,7 @@ class EstimateServiceTest {
     void rejectEstimate_WithValidParams_ShouldRejectAndDeleteServiceRequest() {
         // Arrange
         when(serviceRequestRepository.findById(serviceRequestId)).thenReturn(Optional.of(serviceRequest));
+        when(serviceRequest.getStateType()).thenReturn(ServiceRequestStateType.ESTIMATED);
         doNothing().when(serviceRequestRepository).delete(serviceRequest);
 
         // Act
@@ -98,6 +103,7 @@ class EstimateServiceTest {
         assertEquals(serviceRequestId, result);
         verify(serviceRequest).rejectEstimate();
         verify(serviceRequestRepository).delete(serviceRequest);
+        verify(serviceRequestSubject).notifyStateChanged(serviceRequest, ServiceRequestStateType.ESTIMATED, null);
     }
 
     @Test
@@ -1,25 +1,40 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ReportExportFormat;
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.Item;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.Report;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
-import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.ReportRepository;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.ServiceRequestRepository;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.KeysetCursor;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.ReportResponseUtils;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,6 +51,12 @@ class ReportServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private ReportServiceImpl reportService;
 
@@ -80,9 +101,6 @@ class ReportServiceTest {
 
         serviceRequestWithoutReport = mock(ServiceRequest.class);
         lenient().when(serviceRequestWithoutReport.getReport()).thenReturn(null);
-
-        // Mock userRepository to return the technician as a User
-        lenient().when(userRepository.findAll()).thenReturn(Arrays.asList((User) technician));
     }
 
     @Test
@@ -144,43 +162,44 @@ class ReportServiceTest {
     }
 
     @Test
-    void getReportsByDateRange_ShouldFilterByDateRange() {
+    void getReportsByDateRange_ShouldQueryCompletionTimeRange() {
         // Arrange
-        when(reportRepository.findAll()).thenReturn(Arrays.asList(report1, report2));
-
         LocalDate startDate = baseDateTime.minusDays(7).toLocalDate();
         LocalDate endDate = baseDateTime.toLocalDate();
+        when(reportRepository.findByCompletionDateTimeGreaterThanEqualAndCompletionDateTimeLessThan(
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay()))
+                .thenReturn(Collections.singletonList(report1));
 
         // Act
         List<Report> reports = reportService.getReportsByDateRange(startDate, endDate);
 
         // Assert
         assertEquals(1, reports.size());
-        assertTrue(reports.contains(report1)); // Only report1 falls within the date range
-        verify(reportRepository).findAll();
+        assertTrue(reports.contains(report1));
+        verify(reportRepository, never()).findAll();
     }
 
     @Test
     void getReportsByDateRange_WithEmptyDateRange_ShouldReturnEmptyList() {
         // Arrange
-        when(reportRepository.findAll()).thenReturn(Arrays.asList(report1, report2));
-
         LocalDate futureStartDate = baseDateTime.plusDays(1).toLocalDate();
         LocalDate futureEndDate = baseDateTime.plusDays(7).toLocalDate();
+        when(reportRepository.findByCompletionDateTimeGreaterThanEqualAndCompletionDateTimeLessThan(
+                futureStartDate.atStartOfDay(), futureEndDate.plusDays(1).atStartOfDay()))
+                .thenReturn(Collections.emptyList());
 
         // Act
         List<Report> reports = reportService.getReportsByDateRange(futureStartDate, futureEndDate);
 
         // Assert
         assertTrue(reports.isEmpty());
-        verify(reportRepository).findAll();
+        verify(reportRepository, never()).findAll();
     }
 
     @Test
     void getServiceRequestByReportId_WithValidId_ShouldReturnServiceRequest() {
         // Arrange
-        when(serviceRequestRepository.findByTechnicianId(technicianId))
-                .thenReturn(Arrays.asList(serviceRequest1, serviceRequest2));
+        when(serviceRequestRepository.findByReportId(reportId)).thenReturn(Optional.of(serviceRequest1));
 
         // Act
         ServiceRequest result = reportService.getServiceRequestByReportId(reportId);
@@ -188,23 +207,97 @@ class ReportServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(serviceRequest1, result);
-        verify(userRepository).findAll();
-        verify(serviceRequestRepository).findByTechnicianId(technicianId);
+        verify(serviceRequestRepository).findByReportId(reportId);
+        verify(serviceRequestRepository, never()).findByTechnicianId(any());
     }
 
     @Test
     void getServiceRequestByReportId_WithInvalidId_ShouldThrowException() {
         // Arrange
         UUID invalidReportId = UUID.randomUUID();
-        when(serviceRequestRepository.findByTechnicianId(technicianId))
-                .thenReturn(Arrays.asList(serviceRequest1, serviceRequest2));
+        when(serviceRequestRepository.findByReportId(invalidReportId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> {
             reportService.getServiceRequestByReportId(invalidReportId);
         });
-        verify(userRepository).findAll();
-        verify(serviceRequestRepository).findByTechnicianId(technicianId);
+        verify(serviceRequestRepository).findByReportId(invalidReportId);
+    }
+
+    @Test
+    void getReportedServiceRequests_ShouldQueryPageAfterCursor() {
+        // Arrange
+        KeysetCursor cursor = new KeysetCursor(baseDateTime, UUID.randomUUID());
+        when(serviceRequestRepository.findWithReportBefore(baseDateTime, cursor.getId(), Limit.of(10)))
+                .thenReturn(Arrays.asList(serviceRequest1, serviceRequest2));
+
+        // Act
+        List<ServiceRequest> result = reportService.getReportedServiceRequests(cursor, 10);
+
+        // Assert
+        assertEquals(Arrays.asList(serviceRequest1, serviceRequest2), result);
+        verifyNoMoreInteractions(serviceRequestRepository);
+    }
+
+    @Test
+    void getReportedServiceRequestsByTechnician_ShouldUseSingleQuery() {
+        // Arrange
+        when(serviceRequestRepository.findWithReportByTechnicianId(technicianId))
+                .thenReturn(Arrays.asList(serviceRequest1, serviceRequest2));
+
+        // Act
+        List<ServiceRequest> result = reportService.getReportedServiceRequestsByTechnician(technicianId);
+
+        // Assert
+        assertEquals(2, result.size());
+        verify(serviceRequestRepository).findWithReportByTechnicianId(technicianId);
+        verifyNoMoreInteractions(serviceRequestRepository);
+    }
+
+    @Test
+    void getReportedServiceRequestsByTechnician_WithCursor_ShouldQueryPageAfterCursor() {
+        // Arrange
+        KeysetCursor cursor = KeysetCursor.first();
+        when(userRepository.existsTechnicianById(technicianId)).thenReturn(true);
+        when(serviceRequestRepository.findWithReportByTechnicianIdBefore(
+                technicianId, cursor.getTimestamp(), cursor.getId(), Limit.of(5)))
+                .thenReturn(Collections.singletonList(serviceRequest1));
+
+        // Act
+        List<ServiceRequest> result = reportService.getReportedServiceRequestsByTechnician(technicianId, cursor, 5);
+
+        // Assert
+        assertEquals(Collections.singletonList(serviceRequest1), result);
+    }
+
+    @Test
+    void getReportedServiceRequestsByTechnician_WithUnknownTechnician_ShouldThrowException() {
+        // Arrange
+        KeysetCursor cursor = KeysetCursor.first();
+        when(userRepository.existsTechnicianById(technicianId)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> reportService.getReportedServiceRequestsByTechnician(technicianId, cursor, 5));
+        verify(serviceRequestRepository, never()).findWithReportByTechnicianIdBefore(any(), any(), any(), any());
+    }
+
+    @Test
+    void getReportedServiceRequestsByDateRange_ShouldQueryWholeDays() {
+        // Arrange
+        LocalDate startDate = baseDateTime.minusDays(7).toLocalDate();
+        LocalDate endDate = baseDateTime.toLocalDate();
+        KeysetCursor cursor = KeysetCursor.first();
+        when(serviceRequestRepository.findWithReportByCompletionDateTimeBetweenBefore(
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(),
+                cursor.getTimestamp(), cursor.getId(), Limit.of(20)))
+                .thenReturn(Collections.singletonList(serviceRequest1));
+
+        // Act
+        List<ServiceRequest> result = reportService.getReportedServiceRequestsByDateRange(startDate, endDate, cursor, 20);
+
+        // Assert
+        assertEquals(Collections.singletonList(serviceRequest1), result);
     }
 
     @Test
@@ -235,4 +328,90 @@ class ReportServiceTest {
         assertTrue(reports.isEmpty());
         verify(reportRepository).findAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportReports_Ndjson_WritesOneJsonObjectPerLine() throws Exception {
+        // Arrange
+        ServiceRequest first = mockExportRow("Replaced screen");
+        ServiceRequest second = mockExportRow("Replaced battery");
+        when(serviceRequestRepository.streamAllWithReport()).thenReturn(Stream.of(first, second));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // Act
+        reportService.exportReports(ReportExportFormat.NDJSON, outputStream);
+
+        // Assert
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode firstRow = objectMapper.readTree(lines[0]);
+        assertEquals(first.getReport().getId().toString(), firstRow.get("id").asText());
+        assertEquals("Replaced screen", firstRow.get("repairDetails").asText());
+        assertEquals("Jane Customer", firstRow.get("serviceRequest").get("customer").get("fullName").asText());
+        assertEquals(technicianId.toString(), firstRow.get("technician").get("id").asText());
+        assertEquals("Replaced battery", objectMapper.readTree(lines[1]).get("repairDetails").asText());
+    }
+
+    @Test
+    void exportReports_Csv_WritesHeaderAndEscapedRows() throws Exception {
+        // Arrange
+        ServiceRequest row = mockExportRow("Replaced screen, cleaned \"port\"");
+        when(serviceRequestRepository.streamAllWithReport()).thenReturn(Stream.of(row));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // Act
+        reportService.exportReports(ReportExportFormat.CSV, outputStream);
+
+        // Assert
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(ReportResponseUtils.CSV_HEADER, lines[0]);
+        assertTrue(lines[1].startsWith(row.getReport().getId() + "," + row.getId() + ",COMPLETED,"));
+        assertTrue(lines[1].contains("\"Replaced screen, cleaned \"\"port\"\"\""));
+    }
+
+    @Test
+    void exportReports_ClearsPersistenceContextAfterEachBatch() throws Exception {
+        // Arrange
+        ServiceRequest row = mockExportRow("Replaced screen");
+        int rows = ServiceRequestRepository.EXPORT_FETCH_SIZE * 2 + 1;
+        when(serviceRequestRepository.streamAllWithReport())
+                .thenReturn(IntStream.range(0, rows).mapToObj(i -> row));
+
+        // Act
+        reportService.exportReports(ReportExportFormat.CSV, new ByteArrayOutputStream());
+
+        // Assert
+        verify(entityManager, times(2)).clear();
+    }
+
+    private ServiceRequest mockExportRow(String repairDetails) {
+        Technician rowTechnician = mock(Technician.class);
+        when(rowTechnician.getId()).thenReturn(technicianId);
+        when(rowTechnician.getFullName()).thenReturn("John Tech");
+
+        Customer customer = mock(Customer.class);
+        when(customer.getId()).thenReturn(UUID.randomUUID());
+        when(customer.getFullName()).thenReturn("Jane Customer");
+
+        Item item = mock(Item.class);
+        when(item.getName()).thenReturn("Smartphone");
+        when(item.getCondition()).thenReturn("Cracked screen");
+        when(item.getIssueDescription()).thenReturn("Screen unresponsive");
+
+        Report report = mock(Report.class);
+        when(report.getId()).thenReturn(UUID.randomUUID());
+        when(report.getRepairDetails()).thenReturn(repairDetails);
+        when(report.getRepairSummary()).thenReturn("Fixed");
+        when(report.getCompletionDateTime()).thenReturn(baseDateTime);
+        when(report.getCreatedDateTime()).thenReturn(baseDateTime);
+
+        ServiceRequest row = mock(ServiceRequest.class);
+        when(row.getId()).thenReturn(UUID.randomUUID());
+        when(row.getStateType()).thenReturn(ServiceRequestStateType.COMPLETED);
+        when(row.getCustomer()).thenReturn(customer);
+        when(row.getItem()).thenReturn(item);
+        when(row.getTechnician()).thenReturn(rowTechnician);
+        when(row.getReport()).thenReturn(report);
+        return row;
+    }
+}
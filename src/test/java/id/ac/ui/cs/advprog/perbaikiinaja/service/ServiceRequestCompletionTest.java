@@ -0,0 +1,129 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.config.ObserverConfiguration;
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.Item;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.RepairEstimate;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
+import id.ac.ui.cs.advprog.perbaikiinaja.observer.TechnicianStatsUpdater;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.ServiceRequestRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.assignment.TechnicianAssignmentEngine;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.coupon.CouponService;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.payment.PaymentMethodService;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.wallet.WalletService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Completes a service request end to end, with the technician stats observer registered,
+ * and checks that the technician's statistics are recorded exactly once.
+ * The completion runs in one transaction, like a request with open-in-view, so any change made
+ * to the managed technician would be flushed alongside the observer's update.
+ */
+@DataJpaTest
+@Import({ServiceRequestServiceImpl.class, ObserverConfiguration.class, TechnicianStatsUpdater.class,
+        ServiceRequestCompletionTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ServiceRequestCompletionTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockBean
+    private CouponService couponService;
+
+    @MockBean
+    private PaymentMethodService paymentMethodService;
+
+    @MockBean
+    private WalletService walletService;
+
+    @MockBean
+    private TechnicianAssignmentEngine technicianAssignmentEngine;
+
+    @Autowired
+    private ServiceRequestService serviceRequestService;
+
+    @Autowired
+    private ServiceRequestRepository serviceRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testCompleteServiceRecordsTechnicianStatsOnce() {
+        Customer customer = new Customer();
+        customer.setFullName("John Doe");
+        customer.setEmail("completion.customer@example.com");
+        customer.setPassword("password123");
+        customer.setPhoneNumber("1234567890");
+        customer.setRole("CUSTOMER");
+        customer = userRepository.save(customer);
+
+        Technician technician = new Technician();
+        technician.setFullName("Tech Smith");
+        technician.setEmail("completion.technician@example.com");
+        technician.setPassword("password123");
+        technician.setPhoneNumber("0987654321");
+        technician.setRole("TECHNICIAN");
+        technician.setCompletedJobs(0);
+        technician.setTotalEarnings(0.0);
+        technician = userRepository.save(technician);
+
+        RepairEstimate estimate = new RepairEstimate();
+        estimate.setCost(150.0);
+        estimate.setCompletionDate(LocalDate.now().plusDays(3));
+
+        Item item = new Item();
+        item.setName("Laptop");
+        item.setCondition("Not powering on");
+        item.setIssueDescription("No response when power button is pressed");
+
+        ServiceRequest request = new ServiceRequest();
+        request.setCustomer(customer);
+        request.setTechnician(technician);
+        request.setItem(item);
+        request.setProblemDescription("Laptop won't turn on");
+        request.setServiceDate(LocalDate.now().plusDays(2));
+        request.setEstimate(estimate);
+        request.setStateType(ServiceRequestStateType.IN_PROGRESS);
+        UUID requestId = serviceRequestRepository.save(request).getId();
+        UUID technicianId = technician.getId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                serviceRequestService.completeService(requestId, technicianId));
+
+        Technician updated = (Technician) userRepository.findById(technicianId).orElseThrow();
+        assertEquals(1, updated.getCompletedJobCount());
+        assertEquals(150.0, updated.getTotalEarnings(), 0.001);
+        assertEquals(ServiceRequestStateType.COMPLETED,
+                serviceRequestRepository.findById(requestId).orElseThrow().getStateType());
+    }
+}
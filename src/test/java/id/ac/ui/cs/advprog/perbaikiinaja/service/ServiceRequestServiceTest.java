@@ -7,9 +7,14 @@ import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.User;
+import id.ac.ui.cs.advprog.perbaikiinaja.observer.ServiceCompletionObserver;
+import id.ac.ui.cs.advprog.perbaikiinaja.observer.ServiceRequestSubject;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.ReportRepository;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.ServiceRequestRepository;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.assignment.RandomAssignmentStrategy;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.assignment.TechnicianAssignmentEngine;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.assignment.TechnicianAssignmentStrategy;
 import id.ac.ui.cs.advprog.perbaikiinaja.state.AcceptedState;
 import id.ac.ui.cs.advprog.perbaikiinaja.state.PendingState;
 import id.ac.ui.cs.advprog.perbaikiinaja.state.RejectedState;
@@ -18,11 +23,17 @@ import id.ac.ui.cs.advprog.perbaikiinaja.model.coupon.Coupon;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.payment.PaymentMethodService;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.payment.PaymentMethod;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -30,9 +41,14 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.sql.Date;
 
 import id.ac.ui.cs.advprog.perbaikiinaja.dtos.CustomerServiceRequestDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.ServiceRequestSummaryDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.TechnicianInboxDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.wallet.WalletService;
 import static org.junit.jupiter.api.Assertions.*;
@@ -49,6 +65,9 @@ class ServiceRequestServiceTest {
 
     @Mock
     private ReportRepository reportRepository;
+
+    @Mock
+    private ServiceRequestSubject serviceRequestSubject;
     private ServiceRequestService serviceRequestService;
     private CouponService couponService;
     private PaymentMethodService paymentMethodService;
@@ -70,7 +89,8 @@ class ServiceRequestServiceTest {
         userRepository = mock(UserRepository.class);
         couponService = mock(CouponService.class);
         paymentMethodService = mock(PaymentMethodService.class);
-        serviceRequestService = new ServiceRequestServiceImpl(serviceRequestRepository, userRepository, couponService, paymentMethodService, walletService, reportRepository);
+        TechnicianAssignmentEngine technicianAssignmentEngine = new TechnicianAssignmentEngine(userRepository, new RandomAssignmentStrategy());
+        serviceRequestService = new ServiceRequestServiceImpl(serviceRequestRepository, userRepository, couponService, paymentMethodService, walletService, reportRepository, technicianAssignmentEngine, serviceRequestSubject);
 
         customerId = UUID.randomUUID();
         technicianId = UUID.randomUUID();
@@ -126,10 +146,10 @@ class ServiceRequestServiceTest {
         Technician tech1 = mock(Technician.class);
         when(tech1.getId()).thenReturn(UUID.randomUUID());
 
-        // Prepare Iterable<User> with one technician
+        // Prepare technician pool with one technician
         ArrayList<User> users = new ArrayList<>();
         users.add(tech1);
-        when(userRepository.findAll()).thenReturn(users);
+        stubTechnicianPool(users);
 
         when(serviceRequestRepository.save(any(ServiceRequest.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -144,6 +164,7 @@ class ServiceRequestServiceTest {
         assertEquals(paymentMethod, created.getPaymentMethod());
         verify(paymentMethodService).findById(paymentMethodId);
         verify(serviceRequestRepository, times(1)).save(any(ServiceRequest.class));
+        verify(serviceRequestSubject).notifyStateChanged(created, null, ServiceRequestStateType.PENDING);
     }
 
     @Test
@@ -160,11 +181,11 @@ class ServiceRequestServiceTest {
         when(tech1.getId()).thenReturn(UUID.randomUUID());
         when(tech2.getId()).thenReturn(UUID.randomUUID());
 
-        // Prepare Iterable<User> with two technicians
+        // Prepare technician pool with two technicians
         ArrayList<User> users = new ArrayList<>();
         users.add(tech1);
         users.add(tech2);
-        when(userRepository.findAll()).thenReturn(users);
+        stubTechnicianPool(users);
 
         when(serviceRequestRepository.save(any(ServiceRequest.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -185,9 +206,9 @@ class ServiceRequestServiceTest {
         dto.setServiceDate(LocalDate.now());
         dto.setPaymentMethodId(paymentMethodId);
 
-        // Prepare Iterable<User> with no technicians
+        // Prepare technician pool with no technicians
         ArrayList<User> users = new ArrayList<>();
-        when(userRepository.findAll()).thenReturn(users);
+        stubTechnicianPool(users);
 
         assertThrows(IllegalStateException.class, () -> serviceRequestService.createFromDto(dto, customer));
     }
@@ -204,10 +225,10 @@ class ServiceRequestServiceTest {
         Technician tech1 = mock(Technician.class);
         when(tech1.getId()).thenReturn(UUID.randomUUID());
 
-        // Prepare Iterable<User> with one technician
+        // Prepare technician pool with one technician
         ArrayList<User> users = new ArrayList<>();
         users.add(tech1);
-        when(userRepository.findAll()).thenReturn(users);
+        stubTechnicianPool(users);
 
         assertThrows(IllegalArgumentException.class, () -> serviceRequestService.createFromDto(dto, customer));
     }
@@ -226,10 +247,10 @@ class ServiceRequestServiceTest {
         Technician tech1 = mock(Technician.class);
         when(tech1.getId()).thenReturn(UUID.randomUUID());
 
-        // Prepare Iterable<User> with one technician
+        // Prepare technician pool with one technician
         ArrayList<User> users = new ArrayList<>();
         users.add(tech1);
-        when(userRepository.findAll()).thenReturn(users);
+        stubTechnicianPool(users);
 
         // Simulate payment method not found
         when(paymentMethodService.findById(invalidPaymentMethodId)).thenReturn(Optional.empty());
@@ -237,6 +258,59 @@ class ServiceRequestServiceTest {
         assertThrows(IllegalArgumentException.class, () -> serviceRequestService.createFromDto(dto, customer));
     }
 
+    @Test
+    void testCreateFromDto_Failure_ReleasesAssignedTechnician() {
+        TechnicianAssignmentStrategy strategy = mock(TechnicianAssignmentStrategy.class);
+        when(strategy.select(any())).thenReturn(technicianId);
+        when(userRepository.findAllTechnicianIds()).thenReturn(List.of(technicianId));
+        ServiceRequestService service = new ServiceRequestServiceImpl(serviceRequestRepository, userRepository,
+                couponService, paymentMethodService, walletService, reportRepository,
+                new TechnicianAssignmentEngine(userRepository, strategy), serviceRequestSubject);
+
+        CustomerServiceRequestDto dto = new CustomerServiceRequestDto();
+        dto.setName("Laptop");
+        dto.setCondition("Broken");
+        dto.setIssueDescription("Screen cracked");
+        dto.setServiceDate(LocalDate.now());
+        dto.setPaymentMethodId(null);
+
+        assertThrows(IllegalArgumentException.class, () -> service.createFromDto(dto, customer));
+        verify(strategy).release(technicianId);
+        verify(serviceRequestRepository, never()).save(any(ServiceRequest.class));
+    }
+
+    @Test
+    void testCreateFromDto_MissingTechnician_ReleasesReservationAndLeavesPool() {
+        UUID missingTechnicianId = UUID.randomUUID();
+        Technician tech1 = mock(Technician.class);
+        UUID tech1Id = UUID.randomUUID();
+        when(tech1.getId()).thenReturn(tech1Id);
+
+        TechnicianAssignmentStrategy strategy = mock(TechnicianAssignmentStrategy.class);
+        when(strategy.select(any())).thenReturn(missingTechnicianId).thenReturn(tech1Id);
+        when(userRepository.findAllTechnicianIds()).thenReturn(List.of(missingTechnicianId, tech1Id));
+        when(userRepository.findById(missingTechnicianId)).thenReturn(Optional.empty());
+        when(userRepository.findById(tech1Id)).thenReturn(Optional.of(tech1));
+        when(serviceRequestRepository.save(any(ServiceRequest.class))).thenAnswer(i -> i.getArgument(0));
+        TechnicianAssignmentEngine engine = new TechnicianAssignmentEngine(userRepository, strategy);
+        ServiceRequestService service = new ServiceRequestServiceImpl(serviceRequestRepository, userRepository,
+                couponService, paymentMethodService, walletService, reportRepository, engine, serviceRequestSubject);
+
+        CustomerServiceRequestDto dto = new CustomerServiceRequestDto();
+        dto.setName("Laptop");
+        dto.setCondition("Broken");
+        dto.setIssueDescription("Screen cracked");
+        dto.setServiceDate(LocalDate.now());
+        dto.setPaymentMethodId(paymentMethodId);
+
+        ServiceRequest created = service.createFromDto(dto, customer);
+
+        assertEquals(tech1, created.getTechnician());
+        verify(strategy).release(missingTechnicianId);
+        verify(strategy, never()).release(tech1Id);
+        assertEquals(List.of(tech1Id), engine.getTechnicianIds());
+    }
+
     @Test
     void testUpdateFromDto_PendingState() {
         UUID reqId = UUID.randomUUID();
@@ -299,6 +373,7 @@ class ServiceRequestServiceTest {
         serviceRequestService.delete(reqId, customer);
 
         verify(serviceRequestRepository, times(1)).deleteById(reqId);
+        verify(serviceRequestSubject).notifyStateChanged(existing, ServiceRequestStateType.PENDING, null);
     }
 
     @Test
@@ -390,6 +465,38 @@ class ServiceRequestServiceTest {
         verify(serviceRequestRepository).findByTechnicianId(technicianId);
     }
 
+    @Test
+    void testFindByTechnicianAndStatus_QueriesByState() {
+        // Arrange
+        List<ServiceRequest> expectedRequests = List.of(new ServiceRequest());
+        when(serviceRequestRepository.findByTechnicianIdAndStateType(technicianId, ServiceRequestStateType.IN_PROGRESS))
+                .thenReturn(expectedRequests);
+
+        // Act
+        List<ServiceRequest> actualRequests =
+                serviceRequestService.findByTechnicianAndStatus(technicianId, ServiceRequestStateType.IN_PROGRESS);
+
+        // Assert
+        assertEquals(expectedRequests, actualRequests);
+        verify(serviceRequestRepository, never()).findByTechnicianId(any());
+    }
+
+    @Test
+    void testFindInbox() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 5);
+        Page<TechnicianInboxDto> expected = new PageImpl<>(List.of(new TechnicianInboxDto()));
+        when(serviceRequestRepository.findInboxByTechnicianIdAndStateType(
+                technicianId, ServiceRequestStateType.ACCEPTED, pageable)).thenReturn(expected);
+
+        // Act
+        Page<TechnicianInboxDto> actual =
+                serviceRequestService.findInbox(technicianId, ServiceRequestStateType.ACCEPTED, pageable);
+
+        // Assert
+        assertSame(expected, actual);
+    }
+
     @Test
     void testFindByCustomer() {
         // Arrange
@@ -407,6 +514,41 @@ class ServiceRequestServiceTest {
         verify(serviceRequestRepository).findByCustomerId(customerId);
     }
 
+    @Test
+    void testFindSummaries_WithoutFilters() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 20);
+        Page<ServiceRequestSummaryDto> expected = new PageImpl<>(List.of(new ServiceRequestSummaryDto()));
+        when(serviceRequestRepository.findSummariesByRequestDateBetween(
+                ServiceRequestServiceImpl.EARLIEST_REQUEST_DATE, ServiceRequestServiceImpl.LATEST_REQUEST_DATE, pageable))
+                .thenReturn(expected);
+
+        // Act
+        Page<ServiceRequestSummaryDto> actual = serviceRequestService.findSummaries(null, null, null, pageable);
+
+        // Assert
+        assertSame(expected, actual);
+    }
+
+    @Test
+    void testFindSummaries_ByStatusAndDates() {
+        // Arrange
+        Pageable pageable = PageRequest.of(1, 10);
+        LocalDate startDate = LocalDate.of(2025, 1, 1);
+        LocalDate endDate = LocalDate.of(2025, 1, 31);
+        Page<ServiceRequestSummaryDto> expected = new PageImpl<>(List.of());
+        when(serviceRequestRepository.findSummariesByStateTypeAndRequestDateBetween(
+                ServiceRequestStateType.PENDING, startDate, endDate, pageable)).thenReturn(expected);
+
+        // Act
+        Page<ServiceRequestSummaryDto> actual = serviceRequestService.findSummaries(
+                ServiceRequestStateType.PENDING, startDate, endDate, pageable);
+
+        // Assert
+        assertSame(expected, actual);
+        verify(serviceRequestRepository, never()).findSummariesByRequestDateBetween(any(), any(), any());
+    }
+
     @Test
     void testFindById() {
         // Act
@@ -435,6 +577,44 @@ class ServiceRequestServiceTest {
         verify(serviceRequestRepository).findById(requestId);
         verify(userRepository).findById(technicianId);
         verify(serviceRequestRepository).save(updatedRequest);
+        verify(serviceRequestSubject).notifyServiceCompleted(updatedRequest);
+    }
+
+    @Test
+    void testCompleteService_DoesNotWaitForCompletionObservers() throws InterruptedException {
+        ServiceRequestSubject eventBus = new ServiceRequestSubject(
+                Executors.newVirtualThreadPerTaskExecutor(), 16, new SimpleMeterRegistry());
+        CountDownLatch observerStarted = new CountDownLatch(1);
+        CountDownLatch releaseObserver = new CountDownLatch(1);
+        eventBus.addObserver((ServiceCompletionObserver) completed -> {
+            observerStarted.countDown();
+            try {
+                releaseObserver.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ServiceRequestService service = new ServiceRequestServiceImpl(serviceRequestRepository, userRepository,
+                couponService, paymentMethodService, walletService, reportRepository,
+                new TechnicianAssignmentEngine(userRepository, new RandomAssignmentStrategy()), eventBus);
+
+        RepairEstimate estimate = new RepairEstimate();
+        estimate.setCost(100.0);
+        estimate.setCompletionDate(LocalDate.now().plusDays(3));
+        serviceRequest.provideEstimate(estimate);
+        serviceRequest.acceptEstimate();
+        serviceRequest.startService();
+
+        try {
+            ServiceRequest completed = assertTimeoutPreemptively(Duration.ofSeconds(2),
+                    () -> service.completeService(requestId, technicianId));
+
+            assertEquals(ServiceRequestStateType.COMPLETED, completed.getStateType());
+            assertTrue(observerStarted.await(5, TimeUnit.SECONDS));
+        } finally {
+            releaseObserver.countDown();
+            eventBus.close();
+        }
     }
 
     @Test
@@ -490,6 +670,8 @@ class ServiceRequestServiceTest {
         assertEquals(ServiceRequestStateType.IN_PROGRESS, updatedRequest.getStateType());
         verify(serviceRequestRepository).findById(requestId);
         verify(serviceRequestRepository).save(updatedRequest);
+        verify(serviceRequestSubject).notifyStateChanged(
+                serviceRequest, ServiceRequestStateType.ACCEPTED, ServiceRequestStateType.IN_PROGRESS);
     }
 
     @Test
@@ -614,10 +796,10 @@ class ServiceRequestServiceTest {
         Technician tech1 = mock(Technician.class);
         when(tech1.getId()).thenReturn(UUID.randomUUID());
 
-        // Prepare Iterable<User> with one technician
+        // Prepare technician pool with one technician
         ArrayList<User> users = new ArrayList<>();
         users.add(tech1);
-        when(userRepository.findAll()).thenReturn(users);
+        stubTechnicianPool(users);
 
         // Create a valid coupon
         Coupon validCoupon = new Coupon();
@@ -658,10 +840,10 @@ class ServiceRequestServiceTest {
         Technician tech1 = mock(Technician.class);
         when(tech1.getId()).thenReturn(UUID.randomUUID());
 
-        // Prepare Iterable<User> with one technician
+        // Prepare technician pool with one technician
         ArrayList<User> users = new ArrayList<>();
         users.add(tech1);
-        when(userRepository.findAll()).thenReturn(users);
+        stubTechnicianPool(users);
 
         // No coupon found for the code
         when(couponService.getCouponByCode("INVALID")).thenReturn(Optional.empty());
@@ -690,10 +872,10 @@ class ServiceRequestServiceTest {
         Technician tech1 = mock(Technician.class);
         when(tech1.getId()).thenReturn(UUID.randomUUID());
 
-        // Prepare Iterable<User> with one technician
+        // Prepare technician pool with one technician
         ArrayList<User> users = new ArrayList<>();
         users.add(tech1);
-        when(userRepository.findAll()).thenReturn(users);
+        stubTechnicianPool(users);
 
         // Empty coupon code returns null - implementation treats empty strings as null
         when(serviceRequestRepository.save(any(ServiceRequest.class))).thenAnswer(i -> i.getArgument(0));
@@ -722,10 +904,10 @@ class ServiceRequestServiceTest {
         Technician tech1 = mock(Technician.class);
         when(tech1.getId()).thenReturn(UUID.randomUUID());
 
-        // Prepare Iterable<User> with one technician
+        // Prepare technician pool with one technician
         ArrayList<User> users = new ArrayList<>();
         users.add(tech1);
-        when(userRepository.findAll()).thenReturn(users);
+        stubTechnicianPool(users);
 
         when(serviceRequestRepository.save(any(ServiceRequest.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -934,4 +1116,15 @@ class ServiceRequestServiceTest {
 
         assertThrows(IllegalArgumentException.class, () -> serviceRequestService.updateFromDto(reqId, dto, customer));
     }
-}
\ No newline at end of file
+
+    // Helper method to back the assignment engine's technician pool with the given users
+    private void stubTechnicianPool(List<User> users) {
+        List<UUID> technicianIds = new ArrayList<>();
+        for (User user : users) {
+            UUID id = user.getId();
+            technicianIds.add(id);
+            when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        }
+        when(userRepository.findAllTechnicianIds()).thenReturn(technicianIds);
+    }
+}
@@ -0,0 +1,136 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.assignment;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TechnicianAssignmentEngineTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UUID technicianId1;
+    private UUID technicianId2;
+    private TechnicianAssignmentEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        technicianId1 = UUID.randomUUID();
+        technicianId2 = UUID.randomUUID();
+        engine = new TechnicianAssignmentEngine(userRepository, new RoundRobinAssignmentStrategy());
+    }
+
+    @Test
+    void assign_loadsPoolOnceAndNeverLoadsUsers() {
+        when(userRepository.findAllTechnicianIds()).thenReturn(List.of(technicianId1, technicianId2));
+
+        assertEquals(Optional.of(technicianId1), engine.assign());
+        assertEquals(Optional.of(technicianId2), engine.assign());
+        assertEquals(Optional.of(technicianId1), engine.assign());
+
+        verify(userRepository, times(1)).findAllTechnicianIds();
+        verify(userRepository, never()).findAll();
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void assign_emptyPool_returnsEmpty() {
+        when(userRepository.findAllTechnicianIds()).thenReturn(new ArrayList<>());
+
+        assertTrue(engine.assign().isEmpty());
+    }
+
+    @Test
+    void registerTechnician_addsToPool() {
+        when(userRepository.findAllTechnicianIds()).thenReturn(List.of(technicianId1));
+
+        engine.registerTechnician(technicianId2);
+        engine.registerTechnician(technicianId2);
+
+        assertEquals(List.of(technicianId1, technicianId2), engine.getTechnicianIds());
+    }
+
+    @Test
+    void removeTechnician_removesFromPool() {
+        when(userRepository.findAllTechnicianIds()).thenReturn(List.of(technicianId1, technicianId2));
+
+        engine.removeTechnician(technicianId1);
+
+        assertEquals(List.of(technicianId2), engine.getTechnicianIds());
+        assertEquals(Optional.of(technicianId2), engine.assign());
+    }
+
+    @Test
+    void refresh_reloadsPoolFromRepository() {
+        when(userRepository.findAllTechnicianIds())
+                .thenReturn(List.of(technicianId1))
+                .thenReturn(List.of(technicianId1, technicianId2));
+
+        assertEquals(1, engine.getTechnicianIds().size());
+        engine.refresh();
+
+        assertEquals(2, engine.getTechnicianIds().size());
+    }
+
+    @Test
+    void poolChanges_areSentToStrategy() {
+        TechnicianAssignmentStrategy strategy = mock(TechnicianAssignmentStrategy.class);
+        when(userRepository.findAllTechnicianIds()).thenReturn(List.of(technicianId1));
+        TechnicianAssignmentEngine engineWithMock = new TechnicianAssignmentEngine(userRepository, strategy);
+
+        engineWithMock.getTechnicianIds();
+        engineWithMock.registerTechnician(technicianId2);
+        engineWithMock.removeTechnician(technicianId1);
+
+        verify(strategy).onPoolChanged(List.of(technicianId1));
+        verify(strategy).onPoolChanged(List.of(technicianId1, technicianId2));
+        verify(strategy).onPoolChanged(List.of(technicianId2));
+    }
+
+    @Test
+    void removeTechnician_notInPool_stillTellsStrategy() {
+        TechnicianAssignmentStrategy strategy = mock(TechnicianAssignmentStrategy.class);
+        when(userRepository.findAllTechnicianIds()).thenReturn(List.of(technicianId1));
+        TechnicianAssignmentEngine engineWithMock = new TechnicianAssignmentEngine(userRepository, strategy);
+
+        engineWithMock.removeTechnician(technicianId2);
+
+        assertEquals(List.of(technicianId1), engineWithMock.getTechnicianIds());
+        verify(strategy, times(2)).onPoolChanged(List.of(technicianId1));
+    }
+
+    @Test
+    void constructor_selectsStrategyByName() {
+        TechnicianAssignmentStrategy roundRobin = new RoundRobinAssignmentStrategy();
+        Map<String, TechnicianAssignmentStrategy> strategies = Map.of(
+                "random", new RandomAssignmentStrategy(),
+                "round-robin", roundRobin);
+        when(userRepository.findAllTechnicianIds()).thenReturn(List.of(technicianId1, technicianId2));
+
+        TechnicianAssignmentEngine namedEngine = new TechnicianAssignmentEngine(userRepository, strategies, "round-robin");
+
+        assertEquals(Optional.of(technicianId1), namedEngine.assign());
+        assertEquals(Optional.of(technicianId2), namedEngine.assign());
+    }
+
+    @Test
+    void constructor_unknownStrategy_throws() {
+        Map<String, TechnicianAssignmentStrategy> strategies = Map.of("random", new RandomAssignmentStrategy());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new TechnicianAssignmentEngine(userRepository, strategies, "fastest"));
+    }
+}
@@ -0,0 +1,97 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.assignment;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.ServiceRequestRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TechnicianAssignmentStrategyTest {
+
+    private UUID technicianId1;
+    private UUID technicianId2;
+    private UUID technicianId3;
+    private List<UUID> pool;
+
+    @BeforeEach
+    void setUp() {
+        technicianId1 = UUID.randomUUID();
+        technicianId2 = UUID.randomUUID();
+        technicianId3 = UUID.randomUUID();
+        pool = List.of(technicianId1, technicianId2, technicianId3);
+    }
+
+    @Test
+    void randomStrategy_picksFromPool() {
+        RandomAssignmentStrategy strategy = new RandomAssignmentStrategy();
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(pool.contains(strategy.select(pool)));
+        }
+    }
+
+    @Test
+    void roundRobinStrategy_cyclesThroughPool() {
+        RoundRobinAssignmentStrategy strategy = new RoundRobinAssignmentStrategy();
+
+        assertEquals(technicianId1, strategy.select(pool));
+        assertEquals(technicianId2, strategy.select(pool));
+        assertEquals(technicianId3, strategy.select(pool));
+        assertEquals(technicianId1, strategy.select(pool));
+    }
+
+    @Test
+    void leastLoadedStrategy_picksLeastLoadedTrackedTechnician() {
+        TechnicianLoadTracker tracker = mock(TechnicianLoadTracker.class);
+        when(tracker.reserveLeastLoaded(Set.copyOf(pool))).thenReturn(Optional.of(technicianId2));
+        LeastLoadedAssignmentStrategy strategy = new LeastLoadedAssignmentStrategy(tracker);
+
+        strategy.onPoolChanged(pool);
+
+        assertEquals(technicianId2, strategy.select(pool));
+        verify(tracker).synchronizePool(pool);
+    }
+
+    @Test
+    void leastLoadedStrategy_nothingTracked_fallsBackToPool() {
+        TechnicianLoadTracker tracker = mock(TechnicianLoadTracker.class);
+        when(tracker.reserveLeastLoaded(Set.copyOf(pool))).thenReturn(Optional.empty());
+        LeastLoadedAssignmentStrategy strategy = new LeastLoadedAssignmentStrategy(tracker);
+
+        assertEquals(technicianId1, strategy.select(pool));
+        verify(tracker).reserve(technicianId1);
+    }
+
+    @Test
+    void leastLoadedStrategy_choosesOnlyFromTheGivenPool() {
+        TechnicianLoadTracker tracker = new TechnicianLoadTracker(
+                mock(ServiceRequestRepository.class), new SimpleMeterRegistry());
+        LeastLoadedAssignmentStrategy strategy = new LeastLoadedAssignmentStrategy(tracker);
+        strategy.onPoolChanged(pool);
+        pool.forEach(tracker::reserve);
+        // Tracked with the lowest load, but not part of the pool
+        UUID ghostTechnicianId = UUID.randomUUID();
+        tracker.reserve(ghostTechnicianId);
+        tracker.release(ghostTechnicianId);
+
+        assertTrue(pool.contains(strategy.select(pool)));
+        assertEquals(0, tracker.getOpenRequestCount(ghostTechnicianId));
+    }
+
+    @Test
+    void leastLoadedStrategy_releaseGivesBackReservation() {
+        TechnicianLoadTracker tracker = mock(TechnicianLoadTracker.class);
+        LeastLoadedAssignmentStrategy strategy = new LeastLoadedAssignmentStrategy(tracker);
+
+        strategy.release(technicianId2);
+
+        verify(tracker).release(technicianId2);
+    }
+}
@@ -0,0 +1,276 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.assignment;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.ServiceRequestRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TechnicianLoadTrackerTest {
+
+    @Mock
+    private ServiceRequestRepository serviceRequestRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TechnicianLoadTracker tracker;
+    private UUID busyTechnicianId;
+    private UUID quietTechnicianId;
+    private UUID newTechnicianId;
+
+    @BeforeEach
+    void setUp() {
+        busyTechnicianId = UUID.randomUUID();
+        quietTechnicianId = UUID.randomUUID();
+        newTechnicianId = UUID.randomUUID();
+
+        List<ServiceRequestRepository.TechnicianLoad> seed = new ArrayList<>();
+        seed.add(load(busyTechnicianId, 3));
+        seed.add(load(quietTechnicianId, 1));
+        lenient().when(serviceRequestRepository.countByTechnicianAndStateTypeIn(anyCollection())).thenReturn(seed);
+
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new TechnicianLoadTracker(serviceRequestRepository, meterRegistry);
+    }
+
+    @Test
+    void countsAreSeededFromDatabaseOnce() {
+        assertEquals(3, tracker.getOpenRequestCount(busyTechnicianId));
+        assertEquals(1, tracker.getOpenRequestCount(quietTechnicianId));
+        assertEquals(0, tracker.getOpenRequestCount(newTechnicianId));
+
+        verify(serviceRequestRepository, times(1)).countByTechnicianAndStateTypeIn(
+                List.of(ServiceRequestStateType.PENDING, ServiceRequestStateType.ESTIMATED,
+                        ServiceRequestStateType.ACCEPTED, ServiceRequestStateType.IN_PROGRESS));
+    }
+
+    @Test
+    void findLeastLoaded_prefersUntouchedPoolMember() {
+        tracker.synchronizePool(List.of(busyTechnicianId, quietTechnicianId, newTechnicianId));
+
+        assertEquals(Optional.of(newTechnicianId), tracker.findLeastLoaded());
+    }
+
+    @Test
+    void onStateChanged_newRequestIncrementsCount() {
+        tracker.synchronizePool(List.of(busyTechnicianId, quietTechnicianId, newTechnicianId));
+
+        tracker.onStateChanged(requestFor(newTechnicianId), null, ServiceRequestStateType.PENDING);
+        tracker.onStateChanged(requestFor(newTechnicianId), null, ServiceRequestStateType.PENDING);
+
+        assertEquals(2, tracker.getOpenRequestCount(newTechnicianId));
+        assertEquals(Optional.of(quietTechnicianId), tracker.findLeastLoaded());
+    }
+
+    @Test
+    void onStateChanged_openToOpenKeepsCount() {
+        tracker.onStateChanged(requestFor(quietTechnicianId),
+                ServiceRequestStateType.ACCEPTED, ServiceRequestStateType.IN_PROGRESS);
+
+        assertEquals(1, tracker.getOpenRequestCount(quietTechnicianId));
+    }
+
+    @Test
+    void onStateChanged_closingRequestsDecrementsCount() {
+        tracker.synchronizePool(List.of(busyTechnicianId, quietTechnicianId));
+
+        tracker.onStateChanged(requestFor(busyTechnicianId),
+                ServiceRequestStateType.IN_PROGRESS, ServiceRequestStateType.COMPLETED);
+        tracker.onStateChanged(requestFor(busyTechnicianId),
+                ServiceRequestStateType.ESTIMATED, ServiceRequestStateType.REJECTED);
+        tracker.onStateChanged(requestFor(busyTechnicianId), ServiceRequestStateType.PENDING, null);
+
+        assertEquals(0, tracker.getOpenRequestCount(busyTechnicianId));
+        assertEquals(Optional.of(busyTechnicianId), tracker.findLeastLoaded());
+    }
+
+    @Test
+    void onStateChanged_countNeverGoesNegative() {
+        tracker.onStateChanged(requestFor(quietTechnicianId), ServiceRequestStateType.PENDING, null);
+        tracker.onStateChanged(requestFor(quietTechnicianId), ServiceRequestStateType.PENDING, null);
+
+        assertEquals(0, tracker.getOpenRequestCount(quietTechnicianId));
+    }
+
+    @Test
+    void onStateChanged_requestWithoutTechnicianIsIgnored() {
+        tracker.onStateChanged(new ServiceRequest(), null, ServiceRequestStateType.PENDING);
+
+        verifyNoInteractions(serviceRequestRepository);
+    }
+
+    @Test
+    void synchronizePool_dropsTechniciansOutsidePool() {
+        tracker.synchronizePool(List.of(busyTechnicianId));
+
+        Map<UUID, Integer> counts = tracker.getOpenRequestCounts();
+        assertEquals(Map.of(busyTechnicianId, 3), counts);
+        assertEquals(Optional.of(busyTechnicianId), tracker.findLeastLoaded());
+    }
+
+    @Test
+    void getOpenRequestCounts_isOrderedByLoad() {
+        tracker.synchronizePool(List.of(busyTechnicianId, quietTechnicianId, newTechnicianId));
+
+        List<UUID> order = new ArrayList<>(tracker.getOpenRequestCounts().keySet());
+
+        assertEquals(List.of(newTechnicianId, quietTechnicianId, busyTechnicianId), order);
+    }
+
+    @Test
+    void reserveLeastLoaded_countsRequestBeforeItIsCreated() {
+        tracker.synchronizePool(List.of(busyTechnicianId, quietTechnicianId, newTechnicianId));
+
+        assertEquals(Optional.of(newTechnicianId),
+                tracker.reserveLeastLoaded(Set.of(busyTechnicianId, quietTechnicianId, newTechnicianId)));
+
+        assertEquals(1, tracker.getOpenRequestCount(newTechnicianId));
+    }
+
+    @Test
+    void reserveLeastLoaded_creationEventSettlesReservation() {
+        tracker.synchronizePool(List.of(busyTechnicianId, quietTechnicianId, newTechnicianId));
+        tracker.reserveLeastLoaded(Set.of(busyTechnicianId, quietTechnicianId, newTechnicianId));
+
+        tracker.onStateChanged(requestFor(newTechnicianId), null, ServiceRequestStateType.PENDING);
+        assertEquals(1, tracker.getOpenRequestCount(newTechnicianId));
+
+        tracker.onStateChanged(requestFor(newTechnicianId), null, ServiceRequestStateType.PENDING);
+        assertEquals(2, tracker.getOpenRequestCount(newTechnicianId));
+    }
+
+    @Test
+    void reserveLeastLoaded_skipsTechniciansOutsideThePool() {
+        tracker.synchronizePool(List.of(busyTechnicianId, quietTechnicianId));
+        UUID ghostTechnicianId = UUID.randomUUID();
+        // Known only from a state change event, e.g. a technician deleted since
+        tracker.onStateChanged(requestFor(ghostTechnicianId), ServiceRequestStateType.PENDING, ServiceRequestStateType.COMPLETED);
+
+        assertEquals(Optional.of(quietTechnicianId),
+                tracker.reserveLeastLoaded(Set.of(busyTechnicianId, quietTechnicianId)));
+
+        assertEquals(0, tracker.getOpenRequestCount(ghostTechnicianId));
+        assertEquals(2, tracker.getOpenRequestCount(quietTechnicianId));
+    }
+
+    @Test
+    void release_givesBackUnsettledReservation() {
+        tracker.synchronizePool(List.of(busyTechnicianId, quietTechnicianId, newTechnicianId));
+        tracker.reserveLeastLoaded(Set.of(busyTechnicianId, quietTechnicianId, newTechnicianId));
+
+        tracker.release(newTechnicianId);
+        assertEquals(0, tracker.getOpenRequestCount(newTechnicianId));
+
+        // Nothing left to give back, and the next creation is counted normally
+        tracker.release(newTechnicianId);
+        tracker.onStateChanged(requestFor(newTechnicianId), null, ServiceRequestStateType.PENDING);
+        assertEquals(1, tracker.getOpenRequestCount(newTechnicianId));
+    }
+
+    @Test
+    void release_afterCreationEventKeepsCount() {
+        tracker.synchronizePool(List.of(busyTechnicianId, quietTechnicianId, newTechnicianId));
+        tracker.reserveLeastLoaded(Set.of(busyTechnicianId, quietTechnicianId, newTechnicianId));
+        tracker.onStateChanged(requestFor(newTechnicianId), null, ServiceRequestStateType.PENDING);
+
+        tracker.release(newTechnicianId);
+
+        assertEquals(1, tracker.getOpenRequestCount(newTechnicianId));
+    }
+
+    @Test
+    void reserveLeastLoaded_concurrentReservationsSpreadLoad() throws Exception {
+        UUID otherTechnicianId = UUID.randomUUID();
+        List<UUID> pool = List.of(busyTechnicianId, quietTechnicianId, newTechnicianId, otherTechnicianId);
+        tracker.synchronizePool(pool);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<UUID>>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return tracker.reserveLeastLoaded(Set.copyOf(pool));
+                }));
+            }
+            start.countDown();
+            for (Future<Optional<UUID>> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS).isPresent());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 3 + 1 + 0 + 0 open requests plus 8 reservations end up evenly spread
+        assertEquals(Map.of(busyTechnicianId, 3, quietTechnicianId, 3, newTechnicianId, 3, otherTechnicianId, 3),
+                tracker.getOpenRequestCounts());
+    }
+
+    @Test
+    void synchronizePool_dropsReservationsOfRemovedTechnicians() {
+        tracker.synchronizePool(List.of(busyTechnicianId, quietTechnicianId, newTechnicianId));
+        tracker.reserveLeastLoaded(Set.of(busyTechnicianId, quietTechnicianId, newTechnicianId));
+        tracker.synchronizePool(List.of(busyTechnicianId, quietTechnicianId));
+        tracker.synchronizePool(List.of(busyTechnicianId, quietTechnicianId, newTechnicianId));
+
+        tracker.onStateChanged(requestFor(newTechnicianId), null, ServiceRequestStateType.PENDING);
+
+        assertEquals(1, tracker.getOpenRequestCount(newTechnicianId));
+    }
+
+    @Test
+    void loadDistributionIsPublishedAsAggregateGauges() {
+        tracker.synchronizePool(List.of(busyTechnicianId, quietTechnicianId, newTechnicianId));
+        tracker.onStateChanged(requestFor(quietTechnicianId), null, ServiceRequestStateType.PENDING);
+
+        assertEquals(0.0, gauge("min"));
+        assertEquals(3.0, gauge("p95"));
+        assertEquals(3.0, gauge("max"));
+        assertNull(meterRegistry.find(TechnicianLoadTracker.OPEN_REQUESTS_METRIC).tagKeys("technician").gauge());
+    }
+
+    private double gauge(String statistic) {
+        return meterRegistry.get(TechnicianLoadTracker.OPEN_REQUESTS_METRIC)
+                .tag("statistic", statistic)
+                .gauge()
+                .value();
+    }
+
+    private ServiceRequest requestFor(UUID technicianId) {
+        Technician technician = mock(Technician.class);
+        when(technician.getId()).thenReturn(technicianId);
+        ServiceRequest request = new ServiceRequest();
+        request.setTechnician(technician);
+        return request;
+    }
+
+    private ServiceRequestRepository.TechnicianLoad load(UUID technicianId, long openRequests) {
+        ServiceRequestRepository.TechnicianLoad load = mock(ServiceRequestRepository.TechnicianLoad.class);
+        lenient().when(load.getTechnicianId()).thenReturn(technicianId);
+        lenient().when(load.getOpenRequests()).thenReturn(openRequests);
+        return load;
+    }
+}
@@ -0,0 +1,121 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.coupon;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.model.coupon.Coupon;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponCacheTest {
+
+    private AtomicLong nanos;
+    private CouponCache cache;
+    private Coupon coupon;
+    private AtomicInteger loads;
+    private Function<String, Optional<Coupon>> loader;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong();
+        cache = new CouponCache(100, 100, nanos::get);
+        coupon = new Coupon("Coupon1", 0.15, 10, 2, new Date(System.currentTimeMillis() + 86400000));
+
+        loads = new AtomicInteger();
+        loader = code -> {
+            loads.incrementAndGet();
+            return "Coupon1".equals(code) ? Optional.of(coupon) : Optional.empty();
+        };
+    }
+
+    @Test
+    void get_loadsOnceAndReturnsCopies() {
+        Coupon first = cache.get("Coupon1", loader).orElseThrow();
+        Coupon second = cache.get("Coupon1", loader).orElseThrow();
+
+        assertEquals(1, loads.get());
+        assertNotSame(coupon, first);
+        assertNotSame(first, second);
+        assertEquals("Coupon1", second.getCode());
+        assertEquals(0.15, second.getDiscountValue());
+        assertEquals(10, second.getMaxUsage());
+        assertEquals(2, second.getUsageCount());
+        assertEquals(coupon.getExpiryDate(), second.getExpiryDate());
+    }
+
+    @Test
+    void get_changingReturnedCouponDoesNotChangeCache() {
+        cache.get("Coupon1", loader).orElseThrow().setDiscountValue(0.9);
+
+        assertEquals(0.15, cache.get("Coupon1", loader).orElseThrow().getDiscountValue());
+    }
+
+    @Test
+    void get_unknownCodeIsRemembered() {
+        assertTrue(cache.get("Unknown", loader).isEmpty());
+        assertTrue(cache.get("Unknown", loader).isEmpty());
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_unknownCodeExpiresSoonerThanCoupons() {
+        cache.get("Coupon1", loader);
+        cache.get("Unknown", loader);
+
+        nanos.addAndGet(CouponCache.UNKNOWN_CODE_TIME_TO_LIVE.toNanos() + 1);
+        cache.get("Coupon1", loader);
+        cache.get("Unknown", loader);
+        assertEquals(3, loads.get());
+
+        nanos.addAndGet(CouponCache.TIME_TO_LIVE.toNanos());
+        cache.get("Coupon1", loader);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void evict_forgetsCouponAndUnknownCode() {
+        cache.get("Coupon1", loader);
+        cache.get("Unknown", loader);
+
+        cache.evict("Coupon1");
+        cache.evict("Unknown");
+        cache.get("Coupon1", loader);
+        cache.get("Unknown", loader);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void evictAll_forgetsEverything() {
+        cache.get("Coupon1", loader);
+        cache.get("Unknown", loader);
+
+        cache.evictAll();
+        cache.get("Coupon1", loader);
+        cache.get("Unknown", loader);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void constructor_registersCacheMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CouponCache monitored = new CouponCache(100, 100, registry);
+
+        monitored.get("Unknown", loader);
+        monitored.get("Unknown", loader);
+
+        assertNotNull(registry.find("cache.gets").tag("cache", CouponCache.CACHE_NAME).meter());
+        assertEquals(1.0, registry.get("cache.gets")
+                .tag("cache", CouponCache.UNKNOWN_CODES_CACHE_NAME)
+                .tag("result", "hit")
+                .functionCounter().count());
+    }
+}
@@ -1,5 +1,6 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.service.coupon;
 
+import com.github.benmanes.caffeine.cache.Ticker;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.coupon.Coupon;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.coupon.CouponBuilder;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.coupon.CouponRepository;
@@ -7,7 +8,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -23,7 +23,6 @@ class CouponServiceTest {
     @Mock
     private CouponRepository couponRepository;
 
-    @InjectMocks
     private CouponServiceImpl couponService ;
 
     private Coupon coupon1;
@@ -32,6 +31,8 @@ class CouponServiceTest {
 
     @BeforeEach
     void setUp() {
+        couponService = new CouponServiceImpl(couponRepository, new CouponCache(100, 100, Ticker.systemTicker()));
+
         Date future1 = new Date(System.currentTimeMillis() + 86400000);
         Date future2 = new Date(System.currentTimeMillis() + 172800000);
 
@@ -118,6 +119,59 @@ class CouponServiceTest {
         verify(couponRepository, times(1)).findByCode(nonExistingCode);
     }
 
+    @Test
+    void testFindByCodeIsCached() {
+        when(couponRepository.findByCode(coupon1.getCode())).thenReturn(Optional.of(coupon1));
+
+        couponService.getCouponByCode(coupon1.getCode());
+        Optional<Coupon> retrievedCoupon = couponService.getCouponByCode(coupon1.getCode());
+
+        assertTrue(retrievedCoupon.isPresent());
+        assertEquals(coupon1.getDiscountValue(), retrievedCoupon.get().getDiscountValue());
+        assertNotSame(coupon1, retrievedCoupon.get());
+        verify(couponRepository, times(1)).findByCode(coupon1.getCode());
+    }
+
+    @Test
+    void testFindNonExistingCodeIsCached() {
+        String nonExistingCode = UUID.randomUUID().toString();
+        when(couponRepository.findByCode(nonExistingCode)).thenReturn(Optional.empty());
+
+        couponService.getCouponByCode(nonExistingCode);
+        Optional<Coupon> retrievedCoupon = couponService.getCouponByCode(nonExistingCode);
+
+        assertTrue(retrievedCoupon.isEmpty());
+        verify(couponRepository, times(1)).findByCode(nonExistingCode);
+    }
+
+    @Test
+    void testUpdateCouponEvictsCachedCoupon() {
+        Coupon updatedDetails = new Coupon("ignored", 0.5, 50, 0, futureDate);
+        when(couponRepository.findByCode(coupon1.getCode())).thenReturn(Optional.of(coupon1));
+        when(couponRepository.save(any(Coupon.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        couponService.getCouponByCode(coupon1.getCode());
+        couponService.updateCoupon(coupon1.getCode(), updatedDetails);
+        Optional<Coupon> retrievedCoupon = couponService.getCouponByCode(coupon1.getCode());
+
+        assertTrue(retrievedCoupon.isPresent());
+        assertEquals(0.5, retrievedCoupon.get().getDiscountValue());
+        verify(couponRepository, times(3)).findByCode(coupon1.getCode());
+    }
+
+    @Test
+    void testDeleteCouponEvictsCachedCoupon() {
+        when(couponRepository.findByCode(coupon1.getCode()))
+                .thenReturn(Optional.of(coupon1))
+                .thenReturn(Optional.of(coupon1))
+                .thenReturn(Optional.empty());
+
+        couponService.getCouponByCode(coupon1.getCode());
+        couponService.deleteCoupon(coupon1.getCode());
+
+        assertTrue(couponService.getCouponByCode(coupon1.getCode()).isEmpty());
+    }
+
     @Test
     void testUpdateExistingCoupon() {
         Coupon updatedDetails = new CouponBuilder()
@@ -216,14 +270,15 @@ class CouponServiceTest {
 
     @Test
     void testUseCouponSuccess() {
-        Coupon coupon = new Coupon("Use-Coupon", 0.5, 2, 0,new Date(System.currentTimeMillis() + 86400000));
+        Coupon coupon = new Coupon("Use-Coupon", 0.5, 2, 1,new Date(System.currentTimeMillis() + 86400000));
 
+        when(couponRepository.incrementUsageIfAvailable(eq("Use-Coupon"), any(Date.class))).thenReturn(1);
         when(couponRepository.findByCode("Use-Coupon")).thenReturn(Optional.of(coupon));
-        when(couponRepository.save(any(Coupon.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         Coupon updated = couponService.useCoupon("Use-Coupon");
 
         assertEquals(1, updated.getUsageCount());
+        verify(couponRepository, never()).save(any(Coupon.class));
     }
 
     @Test
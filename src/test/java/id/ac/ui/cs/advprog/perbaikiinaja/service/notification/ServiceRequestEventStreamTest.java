@@ -0,0 +1,165 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.notification;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.ServiceRequest;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ServiceRequestEventStreamTest {
+
+    private ServiceRequestEventStream eventStream;
+    private List<RecordingEmitter> emitters;
+    private UUID customerId;
+    private UUID technicianId;
+    private ServiceRequest request;
+
+    @BeforeEach
+    void setUp() {
+        emitters = new ArrayList<>();
+        eventStream = new ServiceRequestEventStream(() -> {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            return emitter;
+        }, 2);
+
+        customerId = UUID.randomUUID();
+        technicianId = UUID.randomUUID();
+        Customer customer = mock(Customer.class);
+        when(customer.getId()).thenReturn(customerId);
+        Technician technician = mock(Technician.class);
+        when(technician.getId()).thenReturn(technicianId);
+
+        request = new ServiceRequest();
+        request.setCustomer(customer);
+        request.setTechnician(technician);
+    }
+
+    @Test
+    void onStateChanged_sendsEventToCustomerAndTechnician() {
+        RecordingEmitter customerStream = (RecordingEmitter) eventStream.subscribe(customerId);
+        RecordingEmitter technicianStream = (RecordingEmitter) eventStream.subscribe(technicianId);
+        RecordingEmitter otherStream = (RecordingEmitter) eventStream.subscribe(UUID.randomUUID());
+
+        eventStream.onStateChanged(request, ServiceRequestStateType.PENDING, ServiceRequestStateType.ESTIMATED);
+
+        assertEquals(1, customerStream.events.size());
+        assertEquals(1, technicianStream.events.size());
+        assertTrue(otherStream.events.isEmpty());
+
+        Map<?, ?> event = customerStream.data(0);
+        assertEquals(ServiceRequestStateType.PENDING, event.get("previousStatus"));
+        assertEquals(ServiceRequestStateType.ESTIMATED, event.get("status"));
+    }
+
+    @Test
+    void onStateChanged_sendsSameEventToEveryStreamOfUser() {
+        RecordingEmitter firstTab = (RecordingEmitter) eventStream.subscribe(customerId);
+        RecordingEmitter secondTab = (RecordingEmitter) eventStream.subscribe(customerId);
+        RecordingEmitter technicianStream = (RecordingEmitter) eventStream.subscribe(technicianId);
+
+        eventStream.onStateChanged(request, ServiceRequestStateType.PENDING, ServiceRequestStateType.ESTIMATED);
+
+        assertEquals(1, firstTab.events.size());
+        assertEquals(firstTab.text(0), secondTab.text(0));
+        assertEquals(firstTab.text(0), technicianStream.text(0));
+    }
+
+    @Test
+    void sendHeartbeat_sendsSameCommentToEveryStream() {
+        RecordingEmitter firstTab = (RecordingEmitter) eventStream.subscribe(customerId);
+        RecordingEmitter secondTab = (RecordingEmitter) eventStream.subscribe(customerId);
+
+        eventStream.sendHeartbeat();
+
+        assertEquals(":heartbeat\n\n", firstTab.text(0));
+        assertEquals(firstTab.text(0), secondTab.text(0));
+    }
+
+    @Test
+    void onStateChanged_withoutStreamsDoesNothing() {
+        assertDoesNotThrow(() -> eventStream.onStateChanged(
+                request, ServiceRequestStateType.ACCEPTED, ServiceRequestStateType.IN_PROGRESS));
+        assertTrue(emitters.isEmpty());
+    }
+
+    @Test
+    void subscribe_closesOldestStreamOverLimit() {
+        RecordingEmitter first = (RecordingEmitter) eventStream.subscribe(customerId);
+        eventStream.subscribe(customerId);
+        eventStream.subscribe(customerId);
+
+        assertEquals(2, eventStream.getOpenStreamCount(customerId));
+
+        eventStream.onStateChanged(request, ServiceRequestStateType.PENDING, ServiceRequestStateType.ESTIMATED);
+
+        assertTrue(first.events.isEmpty());
+        assertEquals(1, emitters.get(1).events.size());
+        assertEquals(1, emitters.get(2).events.size());
+    }
+
+    @Test
+    void failedStreamIsDropped() {
+        RecordingEmitter broken = (RecordingEmitter) eventStream.subscribe(customerId);
+        RecordingEmitter healthy = (RecordingEmitter) eventStream.subscribe(customerId);
+        broken.failing = true;
+
+        eventStream.onStateChanged(request, ServiceRequestStateType.PENDING, ServiceRequestStateType.ESTIMATED);
+
+        assertEquals(1, eventStream.getOpenStreamCount(customerId));
+        assertEquals(1, healthy.events.size());
+    }
+
+    @Test
+    void sendHeartbeat_dropsStreamsOfDisconnectedClients() {
+        RecordingEmitter broken = (RecordingEmitter) eventStream.subscribe(customerId);
+        broken.failing = true;
+
+        eventStream.sendHeartbeat();
+
+        assertEquals(0, eventStream.getOpenStreamCount(customerId));
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Set<DataWithMediaType>> events = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            events.add(items);
+        }
+
+        String text(int index) {
+            return events.get(index).stream()
+                    .map(DataWithMediaType::getData)
+                    .map(data -> data instanceof String ? (String) data : "<data>")
+                    .collect(Collectors.joining());
+        }
+
+        Map<?, ?> data(int index) {
+            return events.get(index).stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(Map.class::isInstance)
+                    .map(Map.class::cast)
+                    .findFirst()
+                    .orElseThrow();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private AtomicLong nanos;
+    private IdempotencyStore store;
+    private AtomicInteger runs;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong();
+        store = new IdempotencyStore(100, Duration.ofSeconds(10), nanos::get);
+        runs = new AtomicInteger();
+    }
+
+    @Test
+    void execute_runsOncePerKey() {
+        String first = store.execute("key", "fingerprint", () -> "result-" + runs.incrementAndGet());
+        String replay = store.execute("key", "fingerprint", () -> "result-" + runs.incrementAndGet());
+
+        assertEquals("result-1", first);
+        assertEquals("result-1", replay);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void execute_differentKeysRunSeparately() {
+        store.execute("key-1", "fingerprint", runs::incrementAndGet);
+        store.execute("key-2", "fingerprint", runs::incrementAndGet);
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void execute_rejectsKeyReusedForDifferentRequest() {
+        store.execute("key", "fingerprint", runs::incrementAndGet);
+
+        assertThrows(IllegalStateException.class,
+                () -> store.execute("key", "other fingerprint", runs::incrementAndGet));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void execute_failureReleasesKey() {
+        assertThrows(IllegalArgumentException.class, () -> store.execute("key", "fingerprint", () -> {
+            runs.incrementAndGet();
+            throw new IllegalArgumentException("Insufficient funds");
+        }));
+
+        assertEquals(2, (int) store.execute("key", "fingerprint", runs::incrementAndGet));
+    }
+
+    @Test
+    void execute_keyExpires() {
+        store.execute("key", "fingerprint", runs::incrementAndGet);
+
+        nanos.addAndGet(IdempotencyStore.TIME_TO_LIVE.plusSeconds(1).toNanos());
+
+        assertEquals(2, (int) store.execute("key", "fingerprint", runs::incrementAndGet));
+    }
+
+    @Test
+    void execute_resultIsKeptOnlyAfterCommit() {
+        List<TransactionSynchronization> synchronizations = inTransaction(
+                () -> store.execute("key", "fingerprint", runs::incrementAndGet));
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertEquals(1, (int) store.execute("key", "fingerprint", runs::incrementAndGet));
+    }
+
+    @Test
+    void execute_rollbackReleasesKey() {
+        List<TransactionSynchronization> synchronizations = inTransaction(
+                () -> store.execute("key", "fingerprint", runs::incrementAndGet));
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(2, (int) store.execute("key", "fingerprint", runs::incrementAndGet));
+    }
+
+    @Test
+    void execute_concurrentRetriesRunOnce() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return store.execute("key", "fingerprint", () -> {
+                        sleep();
+                        return runs.incrementAndGet();
+                    });
+                }));
+            }
+            start.countDown();
+
+            for (Future<Integer> result : results) {
+                assertEquals(1, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_retryStopsWaitingForSlowFirstAttempt() throws Exception {
+        IdempotencyStore impatientStore = new IdempotencyStore(100, Duration.ofMillis(50), nanos::get);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        try {
+            Future<Integer> first = executor.submit(() -> impatientStore.execute("key", "fingerprint", () -> {
+                started.countDown();
+                await(finish);
+                return runs.incrementAndGet();
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            assertThrows(IdempotencyStore.InProgressException.class,
+                    () -> impatientStore.execute("key", "fingerprint", runs::incrementAndGet));
+
+            finish.countDown();
+            assertEquals(1, first.get(10, TimeUnit.SECONDS));
+            assertEquals(1, (int) impatientStore.execute("key", "fingerprint", runs::incrementAndGet));
+            assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
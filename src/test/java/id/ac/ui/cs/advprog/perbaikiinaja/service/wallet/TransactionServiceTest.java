@@ -1,11 +1,13 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.TransactionDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.TransactionRepository;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.utils.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,6 +15,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -38,6 +41,12 @@ class TransactionServiceTest {
     @Mock
     private WalletRepository walletRepository;
 
+    @Mock
+    private WalletSummaryService walletSummaryService;
+
+    @Mock
+    private WalletLedger walletLedger;
+
     @InjectMocks
     private TransactionServiceImpl transactionService;
 
@@ -135,20 +144,33 @@ class TransactionServiceTest {
         verify(transactionRepository).findByWallet(wallet, pageable);
     }
 
+    @Test
+    void testGetTransactionsByWalletBefore() {
+        KeysetCursor cursor = KeysetCursor.first();
+        when(transactionRepository.findByWalletIdBefore(walletId, cursor.getTimestamp(), cursor.getId(), Limit.of(21)))
+                .thenReturn(List.of(transaction));
+
+        List<Transaction> result = transactionService.getTransactionsByWalletBefore(walletId, cursor, 21);
+
+        assertEquals(List.of(transaction), result);
+        verify(walletRepository, never()).findById(any());
+    }
+
     @Test
     void testGetTransactionsByWalletAndType() {
         // Setup
-        List<Transaction> expectedTransactions = Arrays.asList(transaction);
-        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
-        when(transactionRepository.findByWalletAndType(wallet, TransactionType.DEPOSIT)).thenReturn(expectedTransactions);
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<TransactionDto> expectedPage = new PageImpl<>(List.of(toDto(transaction)), pageable, 1);
+        when(transactionRepository.findDtosByWalletIdAndType(walletId, TransactionType.DEPOSIT, pageable))
+                .thenReturn(expectedPage);
 
         // Execute
-        List<Transaction> result = transactionService.getTransactionsByWalletAndType(walletId, TransactionType.DEPOSIT);
+        Page<TransactionDto> result = transactionService.getTransactionsByWalletAndType(
+                walletId, TransactionType.DEPOSIT, pageable);
 
         // Verify
-        assertEquals(expectedTransactions, result);
-        verify(walletRepository).findById(walletId);
-        verify(transactionRepository).findByWalletAndType(wallet, TransactionType.DEPOSIT);
+        assertEquals(expectedPage, result);
+        verify(walletRepository, never()).findById(any());
     }
 
     @Test
@@ -156,19 +178,19 @@ class TransactionServiceTest {
         // Setup
         LocalDateTime startDate = LocalDateTime.now().minusDays(7);
         LocalDateTime endDate = LocalDateTime.now();
-        List<Transaction> expectedTransactions = Arrays.asList(transaction);
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<TransactionDto> expectedPage = new PageImpl<>(List.of(toDto(transaction)), pageable, 1);
 
-        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
-        when(transactionRepository.findByWalletAndTimestampBetween(wallet, startDate, endDate))
-                .thenReturn(expectedTransactions);
+        when(transactionRepository.findDtosByWalletIdAndTimestampBetween(walletId, startDate, endDate, pageable))
+                .thenReturn(expectedPage);
 
         // Execute
-        List<Transaction> result = transactionService.getTransactionsByWalletAndDateRange(walletId, startDate, endDate);
+        Page<TransactionDto> result = transactionService.getTransactionsByWalletAndDateRange(
+                walletId, startDate, endDate, pageable);
 
         // Verify
-        assertEquals(expectedTransactions, result);
-        verify(walletRepository).findById(walletId);
-        verify(transactionRepository).findByWalletAndTimestampBetween(wallet, startDate, endDate);
+        assertEquals(expectedPage, result);
+        verify(walletRepository, never()).findById(any());
     }
 
     @Test
@@ -210,6 +232,8 @@ class TransactionServiceTest {
 
         // Execute
         Transaction result = transactionService.createTransaction(walletId, amount, TransactionType.DEPOSIT, description);
+        verify(walletSummaryService).record(List.of(result));
+        verify(walletLedger).markPending(List.of(result));
 
         // Verify
         assertNotNull(result);
@@ -293,4 +317,9 @@ class TransactionServiceTest {
 
         verify(transactionRepository, never()).save(any());
     }
-}
\ No newline at end of file
+
+    private static TransactionDto toDto(Transaction transaction) {
+        return new TransactionDto(transaction.getId(), transaction.getWallet().getId(), transaction.getAmount(),
+                transaction.getType(), transaction.getTimestamp(), transaction.getDescription(), null);
+    }
+}
@@ -0,0 +1,172 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.auth.UserRole;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.TransactionRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "wallet.ledger.enabled=true")
+@Import({WalletServiceImpl.class, WalletSummaryServiceImpl.class, IdempotencyStore.class, WalletLedger.class})
+class WalletLedgerTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletLedger walletLedger;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Customer customer;
+    private Customer technician;
+    private Wallet customerWallet;
+    private Wallet technicianWallet;
+
+    @BeforeEach
+    void setUp() {
+        customer = userRepository.save(createUser("customer@example.com", "081234567890"));
+        technician = userRepository.save(createUser("technician@example.com", "081234567891"));
+
+        customerWallet = walletService.createWallet(customer, new BigDecimal("100.00"));
+        technicianWallet = walletService.createWallet(technician);
+    }
+
+    @Test
+    void testNewWalletsStartWithEmptySnapshot() {
+        Wallet wallet = walletRepository.findById(customerWallet.getId()).orElseThrow();
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(wallet.getBalance()));
+        assertNotNull(wallet.getBalanceAsOf());
+        assertEquals(0, new BigDecimal("100.00").compareTo(walletLedger.balanceOf(customerWallet.getId())));
+    }
+
+    @Test
+    void testBalancesAreDerivedFromTransactions() {
+        walletService.deposit(customerWallet.getId(), new BigDecimal("50.00"), "Top up");
+        walletService.withdraw(customerWallet.getId(), new BigDecimal("30.00"), "Cash out");
+        walletService.processServicePayment(customer.getId(), technician.getId(),
+                new BigDecimal("70.00"), UUID.randomUUID());
+
+        assertEquals(0, new BigDecimal("50.00").compareTo(walletService.getBalance(customerWallet.getId())));
+        assertEquals(0, new BigDecimal("70.00").compareTo(walletService.getBalance(technicianWallet.getId())));
+        assertEquals(0, BigDecimal.ZERO.compareTo(
+                walletRepository.findById(customerWallet.getId()).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void testWithdrawChecksDerivedBalance() {
+        UUID walletId = customerWallet.getId();
+        BigDecimal amount = new BigDecimal("100.01");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> walletService.withdraw(walletId, amount, "Too much"));
+
+        assertEquals("Insufficient funds", exception.getMessage());
+    }
+
+    @Test
+    void testCompactPendingMovesSnapshotWithoutChangingBalance() {
+        walletService.deposit(customerWallet.getId(), new BigDecimal("25.00"), "Top up");
+
+        assertEquals(2, walletLedger.compactPending());
+
+        Wallet wallet = walletRepository.findById(customerWallet.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("125.00").compareTo(wallet.getBalance()));
+        assertEquals(0, new BigDecimal("125.00").compareTo(walletLedger.balanceOf(customerWallet.getId())));
+        assertTrue(transactionRepository.findAll().stream().noneMatch(Transaction::isLedgerPending));
+        assertEquals(0, walletLedger.compactPending());
+    }
+
+    @Test
+    void testCompactPendingAppliesTransactionsOlderThanSnapshot() {
+        walletLedger.compactPending();
+        LocalDateTime snapshotTime = walletRepository.findById(customerWallet.getId()).orElseThrow().getBalanceAsOf();
+
+        // A transaction stamped before the last compaction but committed after it
+        Transaction late = new Transaction(walletRepository.getReferenceById(customerWallet.getId()),
+                new BigDecimal("40.00"), TransactionType.DEPOSIT, "Late commit");
+        late.setTimestamp(snapshotTime.minusHours(1));
+        walletLedger.markPending(List.of(late));
+        transactionRepository.saveAndFlush(late);
+
+        assertEquals(0, new BigDecimal("140.00").compareTo(walletLedger.balanceOf(customerWallet.getId())));
+        assertEquals(1, walletLedger.compactPending());
+
+        Wallet wallet = walletRepository.findById(customerWallet.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("140.00").compareTo(wallet.getBalance()));
+        assertEquals(0, new BigDecimal("140.00").compareTo(walletLedger.balanceOf(customerWallet.getId())));
+    }
+
+    @Test
+    void testCloseAndStartLedgersKeepBalances() {
+        walletService.deposit(customerWallet.getId(), new BigDecimal("25.00"), "Top up");
+
+        assertEquals(2, walletLedger.closeLedgers());
+
+        Wallet closed = walletRepository.findById(customerWallet.getId()).orElseThrow();
+        assertNull(closed.getBalanceAsOf());
+        assertEquals(0, new BigDecimal("125.00").compareTo(closed.getBalance()));
+        assertTrue(transactionRepository.findAll().stream().noneMatch(Transaction::isLedgerPending));
+
+        assertEquals(2, walletLedger.startLedgers());
+
+        assertNotNull(walletRepository.findById(customerWallet.getId()).orElseThrow().getBalanceAsOf());
+        assertEquals(0, new BigDecimal("125.00").compareTo(walletLedger.balanceOf(customerWallet.getId())));
+        assertEquals(0, BigDecimal.ZERO.compareTo(walletLedger.balanceOf(technicianWallet.getId())));
+    }
+
+    @Test
+    void testReconcileWhenDisabledOnlyClosesLedgersInUse() {
+        walletService.deposit(customerWallet.getId(), new BigDecimal("25.00"), "Top up");
+        WalletLedger disabled = new WalletLedger(walletRepository, transactionRepository, false);
+
+        assertEquals(2, disabled.reconcile());
+        assertEquals(0, new BigDecimal("125.00").compareTo(
+                walletRepository.findById(customerWallet.getId()).orElseThrow().getBalance()));
+
+        assertFalse(walletRepository.existsByBalanceAsOfIsNotNull());
+        assertEquals(0, disabled.reconcile());
+    }
+
+    @Test
+    void testReconcileWhenEnabledStartsLedgers() {
+        walletLedger.closeLedgers();
+
+        assertEquals(2, walletLedger.reconcile());
+        assertTrue(walletRepository.existsByBalanceAsOfIsNotNull());
+        assertEquals(0, new BigDecimal("100.00").compareTo(walletLedger.balanceOf(customerWallet.getId())));
+    }
+
+    private static Customer createUser(String email, String phoneNumber) {
+        Customer user = new Customer();
+        user.setEmail(email);
+        user.setFullName("Ledger User");
+        user.setPassword("password");
+        user.setPhoneNumber(phoneNumber);
+        user.setRole(UserRole.CUSTOMER.getValue());
+        return user;
+    }
+}
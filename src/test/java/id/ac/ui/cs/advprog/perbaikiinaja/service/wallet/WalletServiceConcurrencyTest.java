@@ -0,0 +1,232 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.auth.UserRole;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.WalletDailySummary;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.TransactionRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletDailySummaryRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs many payments in parallel between a few wallets and checks that no money is created or lost,
+ * and that the daily rollups count every transaction exactly once, also when rebuilt by several instances.
+ * Each payment commits in its own transaction, so the wallet row locks are really contended.
+ */
+@DataJpaTest
+@Import({WalletServiceImpl.class, WalletSummaryServiceImpl.class, IdempotencyStore.class, WalletLedger.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WalletServiceConcurrencyTest {
+
+    private static final int WALLETS = 4;
+    private static final int THREADS = 8;
+    private static final int PAYMENTS = 2000;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("500.00");
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WalletDailySummaryRepository summaryRepository;
+
+    @Autowired
+    private WalletSummaryService walletSummaryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<UUID> userIds;
+
+    @BeforeEach
+    void setUp() {
+        userIds = new ArrayList<>();
+        for (int i = 0; i < WALLETS; i++) {
+            Customer customer = new Customer();
+            customer.setEmail("payer" + i + "@example.com");
+            customer.setFullName("Payer " + i);
+            customer.setPassword("password");
+            customer.setPhoneNumber("08123456789" + i);
+            customer.setRole(UserRole.CUSTOMER.getValue());
+            customer = userRepository.save(customer);
+
+            walletRepository.save(new Wallet(customer, INITIAL_BALANCE));
+            userIds.add(customer.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        summaryRepository.deleteAll();
+        transactionRepository.deleteAll();
+        walletRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testConcurrentPaymentsConserveMoney() throws Exception {
+        Random random = new Random(42);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < PAYMENTS; i++) {
+                int payer = random.nextInt(WALLETS);
+                int payee = (payer + 1 + random.nextInt(WALLETS - 1)) % WALLETS;
+                BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(50));
+                UUID customerId = userIds.get(payer);
+                UUID technicianId = userIds.get(payee);
+
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        walletService.processServicePayment(customerId, technicianId, amount, UUID.randomUUID());
+                        return true;
+                    } catch (IllegalArgumentException insufficientFunds) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(60, TimeUnit.SECONDS)) {
+                    succeeded++;
+                }
+            }
+
+            BigDecimal total = BigDecimal.ZERO;
+            for (Wallet wallet : walletRepository.findAll()) {
+                assertTrue(wallet.getBalance().signum() >= 0);
+                total = total.add(wallet.getBalance());
+            }
+
+            assertTrue(succeeded > 0);
+            assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(WALLETS)).compareTo(total));
+            assertEquals(2L * succeeded, transactionRepository.count());
+            assertEquals(2L * succeeded, summaryRepository.findAll().stream()
+                    .mapToLong(WalletDailySummary::getTransactionCount).sum());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConcurrentFirstTransactionsOfDayShareOneRollupRow() throws Exception {
+        Wallet wallet = walletRepository.findByUserId(userIds.get(0)).orElseThrow();
+        LocalDateTime timestamp = LocalDateTime.of(2025, 5, 1, 10, 0);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    Transaction deposit = new Transaction(wallet, BigDecimal.TEN, TransactionType.DEPOSIT, "Deposit");
+                    deposit.setTimestamp(timestamp);
+                    transactionTemplate.executeWithoutResult(status -> walletSummaryService.record(List.of(deposit)));
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+
+            List<WalletDailySummary> summaries = summaryRepository.findAll();
+            assertEquals(1, summaries.size());
+            assertEquals(THREADS, summaries.get(0).getTransactionCount());
+            assertEquals(0, BigDecimal.TEN.multiply(BigDecimal.valueOf(THREADS))
+                    .compareTo(summaries.get(0).getTotalAmount()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConcurrentRebuildsFillRollupsOnce() throws Exception {
+        Wallet wallet = walletRepository.findByUserId(userIds.get(0)).orElseThrow();
+        LocalDateTime timestamp = LocalDateTime.of(2025, 5, 1, 10, 0);
+        for (int i = 0; i < 3; i++) {
+            Transaction deposit = new Transaction(wallet, BigDecimal.TEN, TransactionType.DEPOSIT, "Deposit");
+            deposit.setTimestamp(timestamp.plusHours(i));
+            transactionRepository.save(deposit);
+        }
+        Transaction withdrawal = new Transaction(wallet, BigDecimal.ONE, TransactionType.WITHDRAWAL, "Withdrawal");
+        withdrawal.setTimestamp(timestamp.plusDays(1));
+        transactionRepository.save(withdrawal);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return walletSummaryService.rebuildIfEmpty();
+                }));
+            }
+            start.countDown();
+
+            int inserted = 0;
+            for (Future<Integer> result : results) {
+                inserted += result.get(60, TimeUnit.SECONDS);
+            }
+
+            List<WalletDailySummary> summaries = summaryRepository.findAll();
+            assertEquals(2, inserted);
+            assertEquals(2, summaries.size());
+            WalletDailySummary deposits = summaries.stream()
+                    .filter(summary -> summary.getId().getType() == TransactionType.DEPOSIT)
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(LocalDate.of(2025, 5, 1), deposits.getId().getSummaryDate());
+            assertEquals(3, deposits.getTransactionCount());
+            assertEquals(0, new BigDecimal("30.00").compareTo(deposits.getTotalAmount()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,23 +1,29 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.BulkWalletOperationDto;
+import id.ac.ui.cs.advprog.perbaikiinaja.dtos.wallet.BulkWalletResultDto;
 import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Admin;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
-import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.TransactionRepository;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -36,7 +42,16 @@ class WalletServiceTest {
     private TransactionRepository transactionRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private WalletSummaryService walletSummaryService;
+
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(100, 10000);
+
+    @Mock
+    private WalletLedger walletLedger;
 
     @InjectMocks
     private WalletServiceImpl walletService;
@@ -196,9 +211,11 @@ class WalletServiceTest {
         // Setup
         BigDecimal amount = new BigDecimal("50.00");
         String description = "Test deposit";
+        wallet.deposit(amount);
 
+        when(walletRepository.addToBalance(eq(walletId), eq(amount), any(LocalDateTime.class))).thenReturn(1);
+        when(walletRepository.getReferenceById(walletId)).thenReturn(wallet);
         when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
-        when(walletRepository.save(any(Wallet.class))).thenReturn(wallet);
 
         // Capture transaction to verify its properties
         ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
@@ -208,11 +225,11 @@ class WalletServiceTest {
 
         // Verify
         assertEquals(amount, result.getBalance());
-        verify(walletRepository).findById(walletId);
-        verify(walletRepository).save(wallet);
+        verify(walletRepository, never()).save(any(Wallet.class));
         verify(transactionRepository).save(transactionCaptor.capture());
 
         Transaction capturedTransaction = transactionCaptor.getValue();
+        verify(walletSummaryService).record(List.of(capturedTransaction));
         assertEquals(wallet, capturedTransaction.getWallet());
         assertEquals(amount, capturedTransaction.getAmount());
         assertEquals(TransactionType.DEPOSIT, capturedTransaction.getType());
@@ -222,7 +239,7 @@ class WalletServiceTest {
     @Test
     void testDepositWalletNotFound() {
         // Setup
-        when(walletRepository.findById(walletId)).thenReturn(Optional.empty());
+        when(walletRepository.addToBalance(eq(walletId), eq(BigDecimal.TEN), any(LocalDateTime.class))).thenReturn(0);
 
         // Execute & Verify
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -234,17 +251,45 @@ class WalletServiceTest {
         verify(transactionRepository, never()).save(any(Transaction.class));
     }
 
+    @Test
+    void testDepositNonPositiveAmount() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            walletService.deposit(walletId, BigDecimal.ZERO, "Test");
+        });
+        assertEquals("Deposit amount must be positive", exception.getMessage());
+
+        verify(walletRepository, never()).addToBalance(any(), any(), any());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void testDepositInLedgerModeOnlyRecordsTransaction() {
+        BigDecimal amount = new BigDecimal("50.00");
+
+        when(walletLedger.isEnabled()).thenReturn(true);
+        when(walletRepository.existsById(walletId)).thenReturn(true);
+        when(walletRepository.getReferenceById(walletId)).thenReturn(wallet);
+        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
+
+        walletService.deposit(walletId, amount, "Ledger deposit");
+
+        verify(walletRepository, never()).addToBalance(any(), any(), any());
+        verify(transactionRepository).save(any(Transaction.class));
+        assertEquals(BigDecimal.ZERO, wallet.getBalance());
+    }
+
     @Test
     void testWithdraw() {
         // Setup
-        BigDecimal initialBalance = new BigDecimal("100.00");
         BigDecimal withdrawAmount = new BigDecimal("30.00");
         String description = "Test withdrawal";
 
-        wallet.deposit(initialBalance);
+        wallet.deposit(new BigDecimal("70.00"));
 
+        when(walletRepository.subtractFromBalance(eq(walletId), eq(withdrawAmount), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(walletRepository.getReferenceById(walletId)).thenReturn(wallet);
         when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
-        when(walletRepository.save(any(Wallet.class))).thenReturn(wallet);
 
         // Capture transaction
         ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
@@ -254,8 +299,7 @@ class WalletServiceTest {
 
         // Verify
         assertEquals(new BigDecimal("70.00"), result.getBalance());
-        verify(walletRepository).findById(walletId);
-        verify(walletRepository).save(wallet);
+        verify(walletRepository, never()).save(any(Wallet.class));
         verify(transactionRepository).save(transactionCaptor.capture());
 
         Transaction capturedTransaction = transactionCaptor.getValue();
@@ -268,12 +312,11 @@ class WalletServiceTest {
     @Test
     void testWithdrawInsufficientFunds() {
         // Setup
-        BigDecimal initialBalance = new BigDecimal("20.00");
         BigDecimal withdrawAmount = new BigDecimal("50.00");
 
-        wallet.deposit(initialBalance);
-
-        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(walletRepository.subtractFromBalance(eq(walletId), eq(withdrawAmount), any(LocalDateTime.class)))
+                .thenReturn(0);
+        when(walletRepository.existsById(walletId)).thenReturn(true);
 
         // Execute & Verify
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -285,6 +328,20 @@ class WalletServiceTest {
         verify(transactionRepository, never()).save(any(Transaction.class));
     }
 
+    @Test
+    void testWithdrawWalletNotFound() {
+        when(walletRepository.subtractFromBalance(eq(walletId), eq(BigDecimal.TEN), any(LocalDateTime.class)))
+                .thenReturn(0);
+        when(walletRepository.existsById(walletId)).thenReturn(false);
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            walletService.withdraw(walletId, BigDecimal.TEN, "Test");
+        });
+        assertEquals("Wallet not found", exception.getMessage());
+
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
     @Test
     void testProcessServicePayment() {
         // Setup
@@ -296,15 +353,12 @@ class WalletServiceTest {
 
         Wallet technicianWallet = new Wallet(technician);
 
-        when(userRepository.findById(customerId)).thenReturn(Optional.of(customer));
-        when(userRepository.findById(technicianId)).thenReturn(Optional.of(technician));
-        when(walletRepository.findByUser(customer)).thenReturn(Optional.of(customerWallet));
-        when(walletRepository.findByUser(technician)).thenReturn(Optional.of(technicianWallet));
-        when(walletRepository.save(customerWallet)).thenReturn(customerWallet);
-        when(walletRepository.save(technicianWallet)).thenReturn(technicianWallet);
+        when(walletRepository.findByUserIdForUpdate(customerId)).thenReturn(Optional.of(customerWallet));
+        when(walletRepository.findByUserIdForUpdate(technicianId)).thenReturn(Optional.of(technicianWallet));
 
         // Capture transactions
-        ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transaction>> transactionCaptor = ArgumentCaptor.forClass(List.class);
 
         // Execute
         List<Wallet> result = walletService.processServicePayment(customerId, technicianId, amount, serviceRequestId);
@@ -317,9 +371,12 @@ class WalletServiceTest {
         assertEquals(new BigDecimal("25.00"), customerWallet.getBalance());
         assertEquals(amount, technicianWallet.getBalance());
 
-        verify(transactionRepository, times(2)).save(transactionCaptor.capture());
+        verify(transactionRepository).saveAll(transactionCaptor.capture());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(walletRepository, never()).save(any(Wallet.class));
+        verify(walletSummaryService).record(transactionCaptor.getValue());
 
-        List<Transaction> capturedTransactions = transactionCaptor.getAllValues();
+        List<Transaction> capturedTransactions = transactionCaptor.getValue();
         assertEquals(2, capturedTransactions.size());
 
         // First transaction (customer payment)
@@ -328,6 +385,7 @@ class WalletServiceTest {
         assertEquals(amount, customerTransaction.getAmount());
         assertEquals(TransactionType.PAYMENT, customerTransaction.getType());
         assertEquals(technicianWallet, customerTransaction.getRelatedWallet());
+        assertEquals(serviceRequestId, customerTransaction.getServiceRequestId());
 
         // Second transaction (technician earning)
         Transaction technicianTransaction = capturedTransactions.get(1);
@@ -335,6 +393,317 @@ class WalletServiceTest {
         assertEquals(amount, technicianTransaction.getAmount());
         assertEquals(TransactionType.EARNING, technicianTransaction.getType());
         assertEquals(customerWallet, technicianTransaction.getRelatedWallet());
+        assertEquals(serviceRequestId, technicianTransaction.getServiceRequestId());
+    }
+
+    @Test
+    void testProcessServicePaymentTwiceForSameRequestPaysOnce() {
+        BigDecimal amount = new BigDecimal("75.00");
+        UUID serviceRequestId = UUID.randomUUID();
+
+        Wallet customerWallet = new Wallet(customer);
+        customerWallet.deposit(new BigDecimal("100.00"));
+        Wallet technicianWallet = new Wallet(technician);
+
+        when(walletRepository.findByUserIdForUpdate(customerId)).thenReturn(Optional.of(customerWallet));
+        when(walletRepository.findByUserIdForUpdate(technicianId)).thenReturn(Optional.of(technicianWallet));
+
+        List<Wallet> first = walletService.processServicePayment(customerId, technicianId, amount, serviceRequestId);
+        List<Wallet> replay = walletService.processServicePayment(customerId, technicianId, amount, serviceRequestId);
+
+        assertSame(first, replay);
+        assertEquals(new BigDecimal("25.00"), customerWallet.getBalance());
+        assertEquals(amount, technicianWallet.getBalance());
+        verify(walletRepository, times(1)).findByUserIdForUpdate(customerId);
+        verify(transactionRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    void testProcessServicePaymentReplayWithAmountOfDifferentScalePaysOnce() {
+        UUID serviceRequestId = UUID.randomUUID();
+
+        Wallet customerWallet = new Wallet(customer);
+        customerWallet.deposit(new BigDecimal("100.00"));
+
+        when(walletRepository.findByUserIdForUpdate(customerId)).thenReturn(Optional.of(customerWallet));
+        when(walletRepository.findByUserIdForUpdate(technicianId)).thenReturn(Optional.of(new Wallet(technician)));
+
+        List<Wallet> first = walletService.processServicePayment(
+                customerId, technicianId, new BigDecimal("75.00"), serviceRequestId);
+        List<Wallet> replay = walletService.processServicePayment(
+                customerId, technicianId, new BigDecimal("75"), serviceRequestId);
+
+        assertSame(first, replay);
+        assertEquals(new BigDecimal("25.00"), customerWallet.getBalance());
+        verify(transactionRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    void testProcessServicePaymentForSameRequestWithDifferentAmount() {
+        UUID serviceRequestId = UUID.randomUUID();
+
+        Wallet customerWallet = new Wallet(customer);
+        customerWallet.deposit(new BigDecimal("100.00"));
+
+        when(walletRepository.findByUserIdForUpdate(customerId)).thenReturn(Optional.of(customerWallet));
+        when(walletRepository.findByUserIdForUpdate(technicianId)).thenReturn(Optional.of(new Wallet(technician)));
+
+        walletService.processServicePayment(customerId, technicianId, new BigDecimal("75.00"), serviceRequestId);
+
+        BigDecimal otherAmount = new BigDecimal("10.00");
+        assertThrows(IllegalStateException.class, () ->
+                walletService.processServicePayment(customerId, technicianId, otherAmount, serviceRequestId));
+        assertEquals(new BigDecimal("25.00"), customerWallet.getBalance());
+    }
+
+    @Test
+    void testProcessServicePaymentAlreadyRecordedInDatabasePaysOnce() {
+        BigDecimal amount = new BigDecimal("75.00");
+        UUID serviceRequestId = UUID.randomUUID();
+
+        Wallet customerWallet = new Wallet(customer);
+        customerWallet.setId(UUID.randomUUID());
+        customerWallet.deposit(new BigDecimal("25.00"));
+        Wallet technicianWallet = new Wallet(technician);
+        Transaction payment = new Transaction(customerWallet, new BigDecimal("75.0"), TransactionType.PAYMENT,
+                "Payment for service #" + serviceRequestId, technicianWallet);
+
+        when(walletRepository.findByUserIdForUpdate(customerId)).thenReturn(Optional.of(customerWallet));
+        when(walletRepository.findByUserIdForUpdate(technicianId)).thenReturn(Optional.of(technicianWallet));
+        when(transactionRepository.findByServiceRequestIdAndType(serviceRequestId, TransactionType.PAYMENT))
+                .thenReturn(Optional.of(payment));
+
+        List<Wallet> result = walletService.processServicePayment(customerId, technicianId, amount, serviceRequestId);
+
+        assertEquals(List.of(customerWallet, technicianWallet), result);
+        assertEquals(new BigDecimal("25.00"), customerWallet.getBalance());
+        assertEquals(BigDecimal.ZERO, technicianWallet.getBalance());
+        verify(transactionRepository, never()).saveAll(any());
+        verify(walletSummaryService, never()).record(any());
+    }
+
+    @Test
+    void testProcessServicePaymentAlreadyRecordedInDatabaseWithDifferentAmount() {
+        UUID serviceRequestId = UUID.randomUUID();
+
+        Wallet customerWallet = new Wallet(customer);
+        customerWallet.setId(UUID.randomUUID());
+        customerWallet.deposit(new BigDecimal("100.00"));
+        Wallet technicianWallet = new Wallet(technician);
+        Transaction payment = new Transaction(customerWallet, new BigDecimal("10.00"), TransactionType.PAYMENT,
+                "Payment for service #" + serviceRequestId, technicianWallet);
+
+        when(walletRepository.findByUserIdForUpdate(customerId)).thenReturn(Optional.of(customerWallet));
+        when(walletRepository.findByUserIdForUpdate(technicianId)).thenReturn(Optional.of(technicianWallet));
+        when(transactionRepository.findByServiceRequestIdAndType(serviceRequestId, TransactionType.PAYMENT))
+                .thenReturn(Optional.of(payment));
+
+        BigDecimal amount = new BigDecimal("75.00");
+        assertThrows(IllegalStateException.class, () ->
+                walletService.processServicePayment(customerId, technicianId, amount, serviceRequestId));
+        assertEquals(new BigDecimal("100.00"), customerWallet.getBalance());
+        verify(transactionRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testWithdrawInLedgerModeWithInsufficientFunds() {
+        BigDecimal amount = new BigDecimal("30.00");
+
+        when(walletLedger.isEnabled()).thenReturn(true);
+        when(walletRepository.findByIdForUpdate(walletId)).thenReturn(Optional.of(wallet));
+        when(walletLedger.balanceOf(walletId)).thenReturn(new BigDecimal("29.99"));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> walletService.withdraw(walletId, amount, "Ledger withdrawal"));
+
+        assertEquals("Insufficient funds", exception.getMessage());
+        verify(walletRepository, never()).subtractFromBalance(any(), any(), any());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void testProcessServicePaymentInLedgerModeLocksOnlyCustomerWallet() {
+        BigDecimal amount = new BigDecimal("75.00");
+        Wallet customerWallet = new Wallet(customer);
+        customerWallet.setId(UUID.randomUUID());
+        Wallet technicianWallet = new Wallet(technician);
+
+        when(walletLedger.isEnabled()).thenReturn(true);
+        when(walletRepository.findByUserIdForUpdate(customerId)).thenReturn(Optional.of(customerWallet));
+        when(walletRepository.findByUserId(technicianId)).thenReturn(Optional.of(technicianWallet));
+        when(walletLedger.balanceOf(customerWallet.getId())).thenReturn(new BigDecimal("100.00"));
+
+        walletService.processServicePayment(customerId, technicianId, amount, UUID.randomUUID());
+
+        verify(walletRepository, never()).findByUserIdForUpdate(technicianId);
+        verify(transactionRepository).saveAll(any());
+        assertEquals(BigDecimal.ZERO, customerWallet.getBalance());
+        assertEquals(BigDecimal.ZERO, technicianWallet.getBalance());
+    }
+
+    @Test
+    void testGetBalanceInLedgerMode() {
+        when(walletLedger.isEnabled()).thenReturn(true);
+        when(walletLedger.balanceOf(walletId)).thenReturn(new BigDecimal("12.50"));
+
+        assertEquals(new BigDecimal("12.50"), walletService.getBalance(wallet));
+        verify(walletRepository, never()).findById(any());
+    }
+
+    @Test
+    void testProcessServicePaymentLocksWalletsInUserIdOrder() {
+        UUID lowerId = new UUID(0, 1);
+        UUID higherId = new UUID(0, 2);
+        Wallet customerWallet = new Wallet(customer, new BigDecimal("100.00"));
+        Wallet technicianWallet = new Wallet(technician);
+
+        when(walletRepository.findByUserIdForUpdate(higherId)).thenReturn(Optional.of(customerWallet));
+        when(walletRepository.findByUserIdForUpdate(lowerId)).thenReturn(Optional.of(technicianWallet));
+
+        walletService.processServicePayment(higherId, lowerId, new BigDecimal("10.00"), UUID.randomUUID());
+
+        InOrder inOrder = inOrder(walletRepository);
+        inOrder.verify(walletRepository).findByUserIdForUpdate(lowerId);
+        inOrder.verify(walletRepository).findByUserIdForUpdate(higherId);
+    }
+
+    @Test
+    void testProcessServicePaymentLocksWalletsInUnsignedUserIdOrder() {
+        // UUID.compareTo would put the second ID first, since its top bit makes it negative as a long
+        UUID lowerId = UUID.fromString("10000000-0000-0000-0000-000000000000");
+        UUID higherId = UUID.fromString("f0000000-0000-0000-0000-000000000000");
+        Wallet customerWallet = new Wallet(customer, new BigDecimal("100.00"));
+        Wallet technicianWallet = new Wallet(technician);
+
+        when(walletRepository.findByUserIdForUpdate(higherId)).thenReturn(Optional.of(customerWallet));
+        when(walletRepository.findByUserIdForUpdate(lowerId)).thenReturn(Optional.of(technicianWallet));
+
+        walletService.processServicePayment(higherId, lowerId, new BigDecimal("10.00"), UUID.randomUUID());
+
+        InOrder inOrder = inOrder(walletRepository);
+        inOrder.verify(walletRepository).findByUserIdForUpdate(lowerId);
+        inOrder.verify(walletRepository).findByUserIdForUpdate(higherId);
+    }
+
+    @Test
+    void testLockOrderComparesUserIdsUnsigned() {
+        UUID low = UUID.fromString("10000000-0000-0000-0000-000000000000");
+        UUID high = UUID.fromString("f0000000-0000-0000-0000-000000000000");
+        UUID highLeastBits = UUID.fromString("10000000-0000-0000-f000-000000000000");
+
+        assertTrue(WalletServiceImpl.LOCK_ORDER.compare(low, high) < 0);
+        assertTrue(WalletServiceImpl.LOCK_ORDER.compare(high, low) > 0);
+        assertTrue(WalletServiceImpl.LOCK_ORDER.compare(low, highLeastBits) < 0);
+        assertEquals(0, WalletServiceImpl.LOCK_ORDER.compare(low, UUID.fromString(low.toString())));
+    }
+
+    @Test
+    void testProcessServicePaymentCustomerWalletNotFound() {
+        UUID lowerCustomerId = new UUID(0, 1);
+        UUID higherTechnicianId = new UUID(0, 2);
+        when(walletRepository.findByUserIdForUpdate(lowerCustomerId)).thenReturn(Optional.empty());
+        BigDecimal amount = new BigDecimal("10.00");
+        UUID serviceRequestId = UUID.randomUUID();
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () ->
+                walletService.processServicePayment(lowerCustomerId, higherTechnicianId, amount, serviceRequestId));
+
+        assertEquals("Customer wallet not found", exception.getMessage());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(walletRepository, never()).save(any(Wallet.class));
+    }
+
+    @Test
+    void testProcessServicePaymentInsufficientFunds() {
+        Wallet customerWallet = new Wallet(customer, new BigDecimal("5.00"));
+        Wallet technicianWallet = new Wallet(technician);
+        when(walletRepository.findByUserIdForUpdate(customerId)).thenReturn(Optional.of(customerWallet));
+        when(walletRepository.findByUserIdForUpdate(technicianId)).thenReturn(Optional.of(technicianWallet));
+        BigDecimal amount = new BigDecimal("10.00");
+        UUID serviceRequestId = UUID.randomUUID();
+
+        assertThrows(IllegalArgumentException.class, () ->
+                walletService.processServicePayment(customerId, technicianId, amount, serviceRequestId));
+
+        assertEquals(new BigDecimal("5.00"), customerWallet.getBalance());
+        assertEquals(BigDecimal.ZERO, technicianWallet.getBalance());
+        verify(walletRepository, never()).save(any(Wallet.class));
+    }
+
+    @Test
+    void testBulkDeposit() {
+        UUID missingWalletId = UUID.randomUUID();
+        Wallet technicianWallet = new Wallet(technician, new BigDecimal("10.00"));
+        technicianWallet.setId(UUID.randomUUID());
+        when(walletRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(wallet, technicianWallet));
+
+        List<BulkWalletResultDto> results = walletService.bulkDeposit(List.of(
+                new BulkWalletOperationDto(walletId, new BigDecimal("50.00"), "Payout"),
+                new BulkWalletOperationDto(missingWalletId, new BigDecimal("50.00"), "Payout"),
+                new BulkWalletOperationDto(technicianWallet.getId(), new BigDecimal("-1.00"), null),
+                new BulkWalletOperationDto(technicianWallet.getId(), new BigDecimal("5.00"), null)));
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(new BigDecimal("50.00"), results.get(0).getBalance());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("Wallet not found", results.get(1).getMessage());
+        assertFalse(results.get(2).isSuccess());
+        assertEquals("Deposit amount must be positive", results.get(2).getMessage());
+        assertTrue(results.get(3).isSuccess());
+        assertEquals(new BigDecimal("15.00"), technicianWallet.getBalance());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transaction>> transactionCaptor = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).saveAll(transactionCaptor.capture());
+        List<Transaction> transactions = transactionCaptor.getValue();
+        assertEquals(2, transactions.size());
+        assertEquals(TransactionType.DEPOSIT, transactions.get(0).getType());
+        assertEquals("Payout", transactions.get(0).getDescription());
+        assertEquals("Bulk deposit", transactions.get(1).getDescription());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testBulkWithdrawInsufficientFunds() {
+        wallet.deposit(new BigDecimal("20.00"));
+        when(walletRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(wallet));
+
+        List<BulkWalletResultDto> results = walletService.bulkWithdraw(List.of(
+                new BulkWalletOperationDto(walletId, new BigDecimal("15.00"), null),
+                new BulkWalletOperationDto(walletId, new BigDecimal("15.00"), null)));
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("Insufficient funds", results.get(1).getMessage());
+        assertEquals(new BigDecimal("5.00"), wallet.getBalance());
+    }
+
+    @Test
+    void testBulkDepositAppliesChunksInSeparateTransactions() {
+        when(walletRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(wallet));
+        List<BulkWalletOperationDto> operations = Collections.nCopies(
+                WalletServiceImpl.BULK_CHUNK_SIZE + 1, new BulkWalletOperationDto(walletId, BigDecimal.ONE, null));
+
+        List<BulkWalletResultDto> results = walletService.bulkDeposit(operations);
+
+        assertEquals(WalletServiceImpl.BULK_CHUNK_SIZE + 1, results.size());
+        assertTrue(results.stream().allMatch(BulkWalletResultDto::isSuccess));
+        verify(walletRepository, times(2)).findAllByIdForUpdate(anyCollection());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void testBulkDepositReportsRolledBackChunk() {
+        when(walletRepository.findAllByIdForUpdate(anyCollection())).thenThrow(new IllegalStateException("lock timeout"));
+
+        List<BulkWalletResultDto> results = walletService.bulkDeposit(List.of(
+                new BulkWalletOperationDto(walletId, BigDecimal.TEN, null)));
+
+        assertFalse(results.get(0).isSuccess());
+        assertEquals("Not applied: lock timeout", results.get(0).getMessage());
+        verify(transactionManager).rollback(any());
+        verify(transactionRepository, never()).saveAll(any());
     }
 
     @Test
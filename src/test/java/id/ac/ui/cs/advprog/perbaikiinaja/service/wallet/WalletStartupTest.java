@@ -0,0 +1,30 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class WalletStartupTest {
+
+    @Mock
+    private WalletLedger walletLedger;
+
+    @Mock
+    private WalletSummaryService walletSummaryService;
+
+    @InjectMocks
+    private WalletStartup walletStartup;
+
+    @Test
+    void testAfterSingletonsInstantiatedReconcilesLedgerAndRebuildsSummaries() {
+        walletStartup.afterSingletonsInstantiated();
+
+        verify(walletLedger).reconcile();
+        verify(walletSummaryService).rebuildIfEmpty();
+    }
+}
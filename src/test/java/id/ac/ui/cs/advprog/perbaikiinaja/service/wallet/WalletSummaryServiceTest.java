@@ -0,0 +1,193 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.service.wallet;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.TransactionType;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Transaction;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.wallet.WalletDailySummaryRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WalletSummaryServiceTest {
+
+    @Mock
+    private WalletDailySummaryRepository summaryRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement insert;
+
+    @Mock
+    private Statement rebuild;
+
+    @Mock
+    private Savepoint savepoint;
+
+    @InjectMocks
+    private WalletSummaryServiceImpl walletSummaryService;
+
+    private Wallet wallet;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        wallet = new Wallet();
+        wallet.setId(UUID.randomUUID());
+        now = LocalDateTime.of(2025, 5, 1, 10, 0);
+    }
+
+    @Test
+    void testRecordMergesTransactionsOfSameDayAndType() {
+        Transaction first = transaction(TransactionType.DEPOSIT, "10.00", now);
+        Transaction second = transaction(TransactionType.DEPOSIT, "15.00", now.plusHours(2));
+
+        when(summaryRepository.addToSummary(wallet.getId(), now.toLocalDate(), TransactionType.DEPOSIT,
+                new BigDecimal("25.00"), 2L)).thenReturn(1);
+
+        walletSummaryService.record(List.of(first, second));
+
+        verify(summaryRepository).addToSummary(wallet.getId(), now.toLocalDate(), TransactionType.DEPOSIT,
+                new BigDecimal("25.00"), 2L);
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void testRecordCreatesMissingRows() throws Exception {
+        Transaction deposit = transaction(TransactionType.DEPOSIT, "10.00", now);
+        Transaction payment = transaction(TransactionType.PAYMENT, "4.00", now.plusDays(1));
+
+        when(summaryRepository.addToSummary(any(), any(), any(), any(), anyLong())).thenReturn(0);
+        stubInsert();
+
+        walletSummaryService.record(List.of(deposit, payment));
+
+        verify(insert, times(2)).executeUpdate();
+        verify(insert).setObject(1, wallet.getId());
+        verify(insert).setObject(2, now.toLocalDate().plusDays(1));
+        verify(insert).setString(3, TransactionType.PAYMENT.name());
+        verify(insert).setBigDecimal(4, new BigDecimal("4.00"));
+        verify(insert, times(2)).setLong(5, 1L);
+        verify(connection, times(2)).releaseSavepoint(savepoint);
+        verify(summaryRepository, times(2)).addToSummary(any(), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void testRecordUpdatesRowInsertedConcurrently() throws Exception {
+        Transaction deposit = transaction(TransactionType.DEPOSIT, "10.00", now);
+
+        when(summaryRepository.addToSummary(wallet.getId(), now.toLocalDate(), TransactionType.DEPOSIT,
+                new BigDecimal("10.00"), 1L)).thenReturn(0, 1);
+        stubInsert();
+        when(insert.executeUpdate()).thenThrow(new SQLException("duplicate key", "23505"));
+
+        walletSummaryService.record(List.of(deposit));
+
+        verify(connection).rollback(savepoint);
+        verify(connection, never()).releaseSavepoint(savepoint);
+        verify(summaryRepository, times(2)).addToSummary(wallet.getId(), now.toLocalDate(), TransactionType.DEPOSIT,
+                new BigDecimal("10.00"), 1L);
+    }
+
+    @Test
+    void testRecordRethrowsOtherInsertFailures() throws Exception {
+        Transaction deposit = transaction(TransactionType.DEPOSIT, "10.00", now);
+
+        when(summaryRepository.addToSummary(any(), any(), any(), any(), anyLong())).thenReturn(0);
+        stubInsert();
+        when(insert.executeUpdate()).thenThrow(new SQLException("connection lost", "08006"));
+
+        assertThrows(SQLException.class, () -> walletSummaryService.record(List.of(deposit)));
+
+        verify(connection, never()).rollback(savepoint);
+        verify(summaryRepository, times(1)).addToSummary(any(), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void testRebuildIfEmptyInsertsRollupsInOneStatement() throws Exception {
+        stubRebuild();
+        when(rebuild.executeUpdate(anyString())).thenReturn(4);
+
+        assertEquals(4, walletSummaryService.rebuildIfEmpty());
+
+        verify(rebuild).executeUpdate(argThat(sql -> sql.startsWith("INSERT INTO wallet_daily_summaries")
+                && sql.contains("NOT EXISTS") && sql.contains("GROUP BY")));
+        verify(connection).releaseSavepoint(savepoint);
+        verifyNoInteractions(summaryRepository);
+    }
+
+    @Test
+    void testRebuildIfEmptyBacksOffWhenRebuiltConcurrently() throws Exception {
+        stubRebuild();
+        when(rebuild.executeUpdate(anyString())).thenThrow(new SQLException("duplicate key", "23505"));
+
+        assertEquals(0, walletSummaryService.rebuildIfEmpty());
+
+        verify(connection).rollback(savepoint);
+        verify(connection, never()).releaseSavepoint(savepoint);
+    }
+
+    @Test
+    void testRebuildIfEmptyRethrowsOtherFailures() throws Exception {
+        stubRebuild();
+        when(rebuild.executeUpdate(anyString())).thenThrow(new SQLException("connection lost", "08006"));
+
+        assertThrows(SQLException.class, () -> walletSummaryService.rebuildIfEmpty());
+
+        verify(connection, never()).rollback(savepoint);
+    }
+
+    /**
+     * Runs the insert work the service hands to Hibernate against the mocked connection.
+     * A real session would wrap a SQLException; the mock lets it through unchanged.
+     */
+    private void stubInsert() throws SQLException {
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.doReturningWork(any())).thenAnswer(invocation ->
+                invocation.<ReturningWork<Boolean>>getArgument(0).execute(connection));
+        when(connection.setSavepoint()).thenReturn(savepoint);
+        when(connection.prepareStatement(anyString())).thenReturn(insert);
+    }
+
+    private void stubRebuild() throws SQLException {
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.doReturningWork(any())).thenAnswer(invocation ->
+                invocation.<ReturningWork<Integer>>getArgument(0).execute(connection));
+        when(connection.setSavepoint()).thenReturn(savepoint);
+        when(connection.createStatement()).thenReturn(rebuild);
+    }
+
+    private Transaction transaction(TransactionType type, String amount, LocalDateTime timestamp) {
+        Transaction transaction = new Transaction(wallet, new BigDecimal(amount), type, "Test");
+        transaction.setTimestamp(timestamp);
+        return transaction;
+    }
+}
@@ -4,6 +4,7 @@ import id.ac.ui.cs.advprog.perbaikiinaja.dtos.auth.*;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.*;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.wallet.Wallet;
 import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import id.ac.ui.cs.advprog.perbaikiinaja.service.assignment.TechnicianAssignmentEngine;
 import id.ac.ui.cs.advprog.perbaikiinaja.service.wallet.WalletService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,7 +15,9 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,6 +36,9 @@ class AuthenticationServiceTest {
 
     @Mock
     private AuthenticationManager authenticationManager;
+
+    @Mock
+    private TechnicianAssignmentEngine technicianAssignmentEngine;
     private AuthenticationService authenticationService;
 
     @BeforeEach
@@ -41,7 +47,8 @@ class AuthenticationServiceTest {
                 userRepository,
                 authenticationManager,
                 passwordEncoder,
-                walletService);
+                walletService,
+                technicianAssignmentEngine);
     }
 
     @Test
@@ -100,6 +107,7 @@ class AuthenticationServiceTest {
         assertEquals("tech@mail.com", result.getEmail());
         verify(userRepository).save(any(Technician.class));
         verify(walletService).createWallet(any(Technician.class));
+        verify(technicianAssignmentEngine).registerTechnician(saved.getId());
     }
 
     @Test
@@ -125,4 +133,25 @@ class AuthenticationServiceTest {
 
         assertThrows(Exception.class, () -> authenticationService.authenticate(dto));
     }
+
+    @Test
+    void logout_revokesTokensAndSavesUser() {
+        UUID userId = UUID.randomUUID();
+        User user = new Customer();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        authenticationService.logout(userId);
+
+        assertEquals(1, user.getTokenVersion());
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    void logout_userNotFound_throws() {
+        UUID userId = UUID.randomUUID();
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+        assertThrows(NoSuchElementException.class, () -> authenticationService.logout(userId));
+        verify(userRepository, never()).save(any());
+    }
 }
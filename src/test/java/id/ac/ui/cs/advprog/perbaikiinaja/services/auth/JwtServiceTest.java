@@ -1,5 +1,7 @@
 package id.ac.ui.cs.advprog.perbaikiinaja.services.auth;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.AuthenticatedUser;
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
 import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,8 +12,10 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 class JwtServiceTest {
 
@@ -111,4 +115,62 @@ class JwtServiceTest {
     void getSignInKey_returnsKey() {
         assertNotNull(ReflectionTestUtils.invokeMethod(jwtService, "getSignInKey"));
     }
+
+    @Test
+    void getSignInKey_isBuiltOnce() {
+        Object first = ReflectionTestUtils.invokeMethod(jwtService, "getSignInKey");
+        Object second = ReflectionTestUtils.invokeMethod(jwtService, "getSignInKey");
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void isTokenValid_withParsedClaims() {
+        UserDetails userDetails = new User("user@mail.com", "password", Collections.emptyList());
+        UserDetails otherUser = new User("other@mail.com", "password", Collections.emptyList());
+        String token = jwtService.generateToken(userDetails);
+
+        Claims claims = jwtService.extractAllClaims(token);
+
+        assertEquals("user@mail.com", claims.getSubject());
+        assertTrue(jwtService.isTokenValid(claims, userDetails));
+        assertFalse(jwtService.isTokenValid(claims, otherUser));
+    }
+
+    @Test
+    void extractAllClaims_rejectsTamperedToken() {
+        UserDetails userDetails = new User("user@mail.com", "password", Collections.emptyList());
+        String token = jwtService.generateToken(userDetails);
+        String tampered = token.substring(0, token.lastIndexOf('.') + 1) + "invalidsignature";
+
+        assertThrows(io.jsonwebtoken.JwtException.class, () -> jwtService.extractAllClaims(tampered));
+    }
+
+    @Test
+    void generateToken_forSavedUser_carriesIdentityClaims() {
+        UUID userId = UUID.randomUUID();
+        Customer customer = mock(Customer.class);
+        when(customer.getId()).thenReturn(userId);
+        when(customer.getUsername()).thenReturn("customer@mail.com");
+        when(customer.getRole()).thenReturn("CUSTOMER");
+        when(customer.getTokenVersion()).thenReturn(3);
+
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(customer));
+        AuthenticatedUser principal = jwtService.toPrincipal(claims);
+
+        assertNotNull(principal);
+        assertEquals(userId, principal.getId());
+        assertEquals("customer@mail.com", principal.getUsername());
+        assertEquals("CUSTOMER", principal.getRole());
+        assertEquals(3, principal.getTokenVersion());
+        assertTrue(jwtService.isTokenValid(claims, principal));
+    }
+
+    @Test
+    void toPrincipal_withoutIdentityClaims_returnsNull() {
+        UserDetails userDetails = new User("user@mail.com", "password", Collections.emptyList());
+        String token = jwtService.generateToken(userDetails);
+
+        assertNull(jwtService.toPrincipal(jwtService.extractAllClaims(token)));
+    }
 }
@@ -0,0 +1,76 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.services.auth;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.repository.auth.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenVersionRegistryTest {
+
+    private UserRepository userRepository;
+    private TokenVersionRegistry registry;
+    private UUID userId;
+    private AtomicLong nanos;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        nanos = new AtomicLong();
+        registry = new TokenVersionRegistry(userRepository, 100, Duration.ofMinutes(5), nanos::get);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void isCurrent_loadsVersionOnce() {
+        when(userRepository.findTokenVersionById(userId)).thenReturn(Optional.of(1));
+
+        assertTrue(registry.isCurrent(userId, 1));
+        assertFalse(registry.isCurrent(userId, 0));
+
+        verify(userRepository, times(1)).findTokenVersionById(userId);
+    }
+
+    @Test
+    void isCurrent_unknownUser_returnsFalse() {
+        when(userRepository.findTokenVersionById(userId)).thenReturn(Optional.empty());
+
+        assertFalse(registry.isCurrent(userId, 0));
+    }
+
+    @Test
+    void update_replacesVersionWithoutQuery() {
+        registry.update(userId, 2);
+
+        assertFalse(registry.isCurrent(userId, 1));
+        assertTrue(registry.isCurrent(userId, 2));
+        verify(userRepository, never()).findTokenVersionById(any());
+    }
+
+    @Test
+    void revoke_rejectsEveryVersion() {
+        registry.update(userId, 0);
+        registry.revoke(userId);
+
+        assertFalse(registry.isCurrent(userId, 0));
+        assertFalse(registry.isCurrent(userId, -1));
+    }
+
+    @Test
+    void isCurrent_reloadsVersionAfterTtl() {
+        when(userRepository.findTokenVersionById(userId)).thenReturn(Optional.of(1), Optional.of(2));
+
+        assertTrue(registry.isCurrent(userId, 1));
+        nanos.addAndGet(Duration.ofMinutes(5).plusSeconds(1).toNanos());
+
+        assertFalse(registry.isCurrent(userId, 1));
+        assertTrue(registry.isCurrent(userId, 2));
+        verify(userRepository, times(2)).findTokenVersionById(userId);
+    }
+}
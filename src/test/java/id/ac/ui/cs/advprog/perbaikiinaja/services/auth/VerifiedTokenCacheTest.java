@@ -0,0 +1,106 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.services.auth;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    private AtomicLong nanos;
+    private VerifiedTokenCache cache;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong();
+        cache = new VerifiedTokenCache(100, nanos::get);
+
+        customer = mock(Customer.class);
+        when(customer.getId()).thenReturn(UUID.randomUUID());
+        when(customer.getUsername()).thenReturn("customer@mail.com");
+    }
+
+    @Test
+    void get_returnsCachedPrincipal() {
+        cache.put("token", customer, Instant.now().plusSeconds(3600));
+
+        assertSame(customer, cache.get("token"));
+        assertNull(cache.get("other-token"));
+    }
+
+    @Test
+    void get_afterTokenExpires_returnsNull() {
+        cache.put("token", customer, Instant.now().plusSeconds(60));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        assertSame(customer, cache.get("token"));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void put_alreadyExpiredToken_isNotReturned() {
+        cache.put("token", customer, Instant.now().minusSeconds(1));
+
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void evictUser_removesEveryTokenOfThatUser() {
+        Customer other = mock(Customer.class);
+        when(other.getId()).thenReturn(UUID.randomUUID());
+        cache.put("first", customer, Instant.now().plusSeconds(3600));
+        cache.put("second", customer, Instant.now().plusSeconds(3600));
+        cache.put("third", other, Instant.now().plusSeconds(3600));
+
+        cache.evictUser(customer);
+
+        assertNull(cache.get("first"));
+        assertNull(cache.get("second"));
+        assertSame(other, cache.get("third"));
+    }
+
+    @Test
+    void size_isBounded() {
+        VerifiedTokenCache small = new VerifiedTokenCache(2, nanos::get);
+        for (int i = 0; i < 10; i++) {
+            small.put("token-" + i, customer, Instant.now().plusSeconds(3600));
+        }
+
+        assertTrue(small.size() <= 2);
+    }
+
+    @Test
+    void constructor_registersCacheMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new VerifiedTokenCache(100, registry);
+
+        assertNotNull(registry.find("cache.gets").tag("cache", VerifiedTokenCache.CACHE_NAME).meter());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void userListener_evictsTokensOfChangedUser() {
+        ObjectProvider<VerifiedTokenCache> provider = mock(ObjectProvider.class);
+        doAnswer(invocation -> {
+            ((java.util.function.Consumer<VerifiedTokenCache>) invocation.getArgument(0)).accept(cache);
+            return null;
+        }).when(provider).ifAvailable(any());
+        cache.put("token", customer, Instant.now().plusSeconds(3600));
+
+        new UserTokenCacheListener(provider, mock(ObjectProvider.class)).onUserChanged(customer);
+
+        assertNull(cache.get("token"));
+    }
+}
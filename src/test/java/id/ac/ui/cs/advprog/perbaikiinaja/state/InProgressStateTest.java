@@ -58,7 +58,7 @@ class InProgressStateTest {
     }
 
     @Test
-    void completeService_UpdatesTechnicianStats() {
+    void completeService_LeavesTechnicianStatsUnchanged() {
         // Arrange
         int initialCompletedJobs = technician.getCompletedJobCount();
         double initialEarnings = technician.getTotalEarnings();
@@ -67,8 +67,8 @@ class InProgressStateTest {
         inProgressState.completeService(request);
 
         // Assert
-        assertEquals(initialCompletedJobs + 1, technician.getCompletedJobCount());
-        assertEquals(initialEarnings + 100.0, technician.getTotalEarnings());
+        assertEquals(initialCompletedJobs, technician.getCompletedJobCount());
+        assertEquals(initialEarnings, technician.getTotalEarnings());
     }
 
     @Test
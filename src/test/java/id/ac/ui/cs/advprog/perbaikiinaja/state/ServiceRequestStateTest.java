@@ -2,6 +2,7 @@ package id.ac.ui.cs.advprog.perbaikiinaja.state;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ServiceRequestStateType;
 import id.ac.ui.cs.advprog.perbaikiinaja.model.auth.Technician;
 import org.junit.jupiter.api.Test;
 
@@ -164,4 +165,42 @@ class ServiceRequestStateTest {
 
         assertTrue(exception.getMessage().contains("completed state cannot be changed"));
     }
+
+    @Test
+    void of_ReturnsSharedInstanceForEveryStateType() {
+        for (ServiceRequestStateType stateType : ServiceRequestStateType.values()) {
+            ServiceRequestState state = ServiceRequestState.of(stateType);
+
+            assertEquals(stateType, state.getStateType());
+            assertSame(state, ServiceRequestState.of(stateType));
+        }
+    }
+
+    @Test
+    void transitions_ReturnSharedInstances() {
+        ServiceRequest request = new ServiceRequest();
+        RepairEstimate estimate = new RepairEstimate();
+        estimate.setCost(100.0);
+        estimate.setCompletionDate(LocalDate.now().plusDays(3));
+        request.setTechnician(new Technician());
+
+        request.provideEstimate(estimate);
+        assertSame(EstimatedState.INSTANCE, request.getState());
+        request.acceptEstimate();
+        assertSame(AcceptedState.INSTANCE, request.getState());
+        request.startService();
+        assertSame(InProgressState.INSTANCE, request.getState());
+        request.completeService();
+        assertSame(CompletedState.INSTANCE, request.getState());
+        assertEquals(ServiceRequestStateType.COMPLETED, request.getStateType());
+    }
+
+    @Test
+    void setStateType_SwitchesToSharedInstance() {
+        ServiceRequest request = new ServiceRequest();
+
+        request.setStateType(ServiceRequestStateType.REJECTED);
+
+        assertSame(RejectedState.INSTANCE, request.getState());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodeThenDecode_returnsSameCursor() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 5, 1, 10, 30, 15, 123000000), UUID.randomUUID());
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertEquals(cursor.getTimestamp(), decoded.getTimestamp());
+        assertEquals(cursor.getId(), decoded.getId());
+    }
+
+    @Test
+    void encode_isUrlSafe() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.now(), UUID.randomUUID());
+
+        assertTrue(cursor.encode().matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void decode_nullOrBlank_returnsFirstPage() {
+        assertEquals(KeysetCursor.first(), KeysetCursor.decode(null));
+        assertEquals(KeysetCursor.first(), KeysetCursor.decode(" "));
+    }
+
+    @Test
+    void first_isAfterAnyRealTimestamp() {
+        assertTrue(KeysetCursor.first().getTimestamp().isAfter(LocalDateTime.now().plusYears(1000)));
+    }
+
+    @Test
+    void decode_invalidValue_throws() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("%%%"));
+    }
+}
@@ -0,0 +1,37 @@
+package id.ac.ui.cs.advprog.perbaikiinaja.utils;
+
+import id.ac.ui.cs.advprog.perbaikiinaja.enums.ReportExportFormat;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportResponseUtilsTest {
+
+    @Test
+    void csvValue_PlainText_IsUnchanged() {
+        assertEquals("Smartphone", ReportResponseUtils.csvValue("Smartphone"));
+    }
+
+    @Test
+    void csvValue_Null_IsEmpty() {
+        assertEquals("", ReportResponseUtils.csvValue(null));
+    }
+
+    @Test
+    void csvValue_WithSeparatorOrLineBreak_IsQuoted() {
+        assertEquals("\"screen, battery\"", ReportResponseUtils.csvValue("screen, battery"));
+        assertEquals("\"line one\nline two\"", ReportResponseUtils.csvValue("line one\nline two"));
+    }
+
+    @Test
+    void csvValue_WithQuotes_DoublesThem() {
+        assertEquals("\"the \"\"port\"\"\"", ReportResponseUtils.csvValue("the \"port\""));
+    }
+
+    @Test
+    void exportFormat_FromValue_IgnoresCase() {
+        assertEquals(ReportExportFormat.CSV, ReportExportFormat.fromValue("csv"));
+        assertEquals(ReportExportFormat.NDJSON, ReportExportFormat.fromValue("NDJSON"));
+        assertThrows(IllegalArgumentException.class, () -> ReportExportFormat.fromValue("xml"));
+    }
+}